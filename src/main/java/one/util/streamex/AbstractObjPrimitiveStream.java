@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Base class for the streams of pairs of an object key and a primitive value.
+ * The pairs are kept in the mutable boxes created by the source stream, so
+ * the keys and the values are never boxed separately.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <K> the type of the keys
+ * @param <B> the type of the pair boxes
+ * @param <S> the type of the stream extending {@code AbstractObjPrimitiveStream}
+ */
+abstract class AbstractObjPrimitiveStream<K, B extends Box<K>, S extends AbstractObjPrimitiveStream<K, B, S>>
+        implements AutoCloseable {
+    final StreamEx<B> stream;
+
+    AbstractObjPrimitiveStream(StreamEx<B> stream) {
+        this.stream = stream;
+    }
+
+    abstract S supply(StreamEx<B> stream);
+
+    /**
+     * Returns a stream consisting of the pairs of this stream which keys match
+     * the given predicate.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param keyPredicate a non-interfering, stateless predicate to apply to
+     *        the key of each pair to determine if it should be included
+     * @return the new stream
+     */
+    public S filterKeys(Predicate<? super K> keyPredicate) {
+        return supply(stream.filter(box -> keyPredicate.test(box.a)));
+    }
+
+    /**
+     * Returns a stream consisting of the keys of this stream pairs.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @return the new stream
+     */
+    public StreamEx<K> keys() {
+        return stream.map(box -> box.a);
+    }
+
+    /**
+     * Returns an equivalent stream that is parallel.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @return a parallel stream
+     */
+    @SuppressWarnings("unchecked")
+    public S parallel() {
+        stream.parallel();
+        return (S) this;
+    }
+
+    /**
+     * Returns an equivalent stream that is sequential.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @return a sequential stream
+     */
+    @SuppressWarnings("unchecked")
+    public S sequential() {
+        stream.sequential();
+        return (S) this;
+    }
+
+    /**
+     * Returns whether this stream, if a terminal operation were to be
+     * executed, would execute in parallel.
+     *
+     * @return {@code true} if this stream would execute in parallel if
+     *         executed
+     */
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+
+    /**
+     * Closes this stream, causing all close handlers of the source stream to be
+     * called.
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * Collects the pairs into a map failing on the duplicate keys.
+     */
+    <V> Map<K, V> toMap(Function<B, V> valueBoxer) {
+        return toMap((box1, box2) -> {
+            throw new IllegalStateException("Duplicate entry for key '" + box1.a + "' (attempt to merge values '"
+                + valueBoxer.apply(box1) + "' and '" + valueBoxer.apply(box2) + "')");
+        }, valueBoxer);
+    }
+
+    /**
+     * Collects the pairs into a map. The first box of every key serves as the
+     * accumulator: the merger folds the value of the second box into the first
+     * one, so the values are boxed only once per key at the end.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Map<K, V> toMap(BiConsumer<B, B> merger, Function<B, V> valueBoxer) {
+        BiConsumer<Map<K, B>, B> accumulator = (map, box) -> {
+            B old = map.putIfAbsent(box.a, box);
+            if (old != null)
+                merger.accept(old, box);
+        };
+        Map<K, Object> map = (Map<K, Object>) (Map<K, ?>) stream.collect(HashMap::new, accumulator, (map1,
+                map2) -> map2.values().forEach(box -> accumulator.accept(map1, box)));
+        map.replaceAll((k, box) -> valueBoxer.apply((B) box));
+        return (Map<K, V>) (Map<K, ?>) map;
+    }
+}
@@ -16,8 +16,11 @@
 package one.util.streamex;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +31,7 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.Spliterators.AbstractSpliterator;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -61,7 +65,7 @@ import static one.util.streamex.StreamExInternals.*;
  */
 public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> extends
         BaseStreamEx<T, Stream<T>, Spliterator<T>, S> implements Stream<T>, Iterable<T> {
-    private static final class TDOfRef<T> extends AbstractSpliterator<T> implements Consumer<T> {
+    static final class TDOfRef<T> extends AbstractSpliterator<T> implements Consumer<T> {
         private final Predicate<? super T> predicate;
         private final boolean drop;
         private final boolean inclusive;
@@ -147,16 +151,6 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         return StreamSupport.stream(spliterator, context.parallel);
     }
 
-    final S callWhile(Predicate<? super T> predicate, int methodId) {
-        try {
-            return supply((Stream<T>) JDK9_METHODS[IDX_STREAM][methodId].invokeExact(stream(), predicate));
-        } catch (Error | RuntimeException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw new InternalError(e);
-        }
-    }
-
     final <K, V, M extends Map<K, V>> M toMapThrowing(Function<? super T, ? extends K> keyMapper,
             Function<? super T, ? extends V> valMapper, M map) {
         forEach(t -> addToMap(map, keyMapper.apply(t), Objects.requireNonNull(valMapper.apply(t))));
@@ -171,6 +165,16 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         }
     }
 
+    // Creates a map for toMap-like operations presized for the stream
+    // source if it's known that the stream elements are not filtered
+    <K, V> Map<K, V> createMap() {
+        if (isParallel())
+            return new ConcurrentHashMap<>();
+        if (spliterator != null && spliterator.hasCharacteristics(Spliterator.SIZED))
+            return new HashMap<>(hashCapacity(spliterator.getExactSizeIfKnown()));
+        return new HashMap<>();
+    }
+
     <R, A> R rawCollect(Collector<? super T, A, R> collector) {
         if (context.fjp != null)
             return context.terminate(collector, stream()::collect);
@@ -334,11 +338,15 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
 
     @Override
     public S limit(long maxSize) {
+        if (slice(maxSize, false))
+            return supply(spliterator());
         return supply(stream().limit(maxSize));
     }
 
     @Override
     public S skip(long n) {
+        if (slice(n, true))
+            return supply(spliterator());
         return supply(stream().skip(n));
     }
 
@@ -707,6 +715,49 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
         return sorted(comparator.reversed());
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in reverse
+     * encounter order.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>. If this stream is created from an array, an
+     * {@link ArrayList} or by {@link StreamEx#ofReversed(List)} and no
+     * operations except {@code skip} and {@code limit} were applied to it, the
+     * source is traversed in the opposite direction without copying.
+     * Otherwise the whole content of this stream is buffered when the terminal
+     * operation starts.
+     *
+     * @return the new stream
+     * @see StreamEx#ofReversed(List)
+     * @since 0.6.1
+     */
+    @SuppressWarnings("unchecked")
+    public S reversed() {
+        if (spliterator instanceof RangeBasedSpliterator.ReverseRef)
+            return supply(((RangeBasedSpliterator.ReverseRef<T>) spliterator()).reverse());
+        if (spliterator instanceof RangeBasedSpliterator.ForwardRef)
+            return supply(((RangeBasedSpliterator.ForwardRef<T>) spliterator()).reverse());
+        Spliterator<T> source = spliterator();
+        boolean parallel = isParallel();
+        Supplier<Spliterator<T>> reversed = () -> new RangeBasedSpliterator.ReverseRef<>(
+                Arrays.asList((T[]) StreamSupport.stream(source, parallel).toArray()));
+        return supply(StreamSupport.stream(reversed, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED,
+            parallel));
+    }
+
+    // Returns the remaining elements of the stream created from an array, a
+    // list or by ofReversed as the list view backed by the source or null if
+    // the stream has another source
+    @SuppressWarnings("unchecked")
+    private List<T> indexedSource() {
+        if (spliterator instanceof RangeBasedSpliterator.ReverseRef)
+            return ((RangeBasedSpliterator.ReverseRef<T>) spliterator()).asList();
+        if (spliterator instanceof RangeBasedSpliterator.ForwardRef)
+            return ((RangeBasedSpliterator.ForwardRef<T>) spliterator()).asList();
+        return null;
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to the natural order of the keys extracted by provided
@@ -1138,6 +1189,14 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      */
     @SuppressWarnings("unchecked")
     public List<T> toList() {
+        if (spliterator != null && !isParallel()) {
+            long size = spliterator.getExactSizeIfKnown();
+            if (size >= 0 && size < Integer.MAX_VALUE) {
+                List<T> list = new ArrayList<>((int) size);
+                spliterator().forEachRemaining(list::add);
+                return list;
+            }
+        }
         return new ArrayList<>((Collection<T>) new ArrayCollection(toArray(Object[]::new)));
     }
 
@@ -1177,6 +1236,14 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @see Collectors#toSet()
      */
     public Set<T> toSet() {
+        // presize only for distinct sources: otherwise the number of
+        // elements may greatly exceed the resulting set size
+        if (spliterator != null && !isParallel()
+            && spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT)) {
+            Set<T> set = new HashSet<>(hashCapacity(spliterator.getExactSizeIfKnown()));
+            spliterator().forEachRemaining(set::add);
+            return set;
+        }
         return rawCollect(Collectors.toSet());
     }
 
@@ -1322,8 +1389,11 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * As this method must process elements strictly right to left, it cannot
      * start processing till all the previous stream stages complete. Also it
      * requires intermediate memory to store the whole content of the stream as
-     * the stream natural order is left to right. If your accumulator function
-     * is associative and you can provide a combiner function, consider using
+     * the stream natural order is left to right. No intermediate memory is
+     * necessary if this stream is created directly from an array, an
+     * {@link ArrayList} or by {@link StreamEx#ofReversed(List)}, as the source
+     * is read backwards then. If your accumulator function is associative and
+     * you can provide a combiner function, consider using
      * {@link #reduce(Object, BiFunction, BinaryOperator)} method.
      * 
      * <p>
@@ -1343,12 +1413,14 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @since 0.2.2
      */
     public <U> U foldRight(U seed, BiFunction<? super T, U, U> accumulator) {
-        return toListAndThen(list -> {
+        Function<List<T>, U> finisher = list -> {
             U result = seed;
             for (int i = list.size() - 1; i >= 0; i--)
                 result = accumulator.apply(list.get(i), result);
             return result;
-        });
+        };
+        List<T> source = indexedSource();
+        return source == null ? toListAndThen(finisher) : finisher.apply(source);
     }
 
     /**
@@ -1362,8 +1434,11 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * As this method must process elements strictly right to left, it cannot
      * start processing till all the previous stream stages complete. Also it
      * requires intermediate memory to store the whole content of the stream as
-     * the stream natural order is left to right. If your accumulator function
-     * is associative, consider using {@link #reduce(BinaryOperator)} method.
+     * the stream natural order is left to right. No intermediate memory is
+     * necessary if this stream is created directly from an array, an
+     * {@link ArrayList} or by {@link StreamEx#ofReversed(List)}, as the source
+     * is read backwards then. If your accumulator function is associative,
+     * consider using {@link #reduce(BinaryOperator)} method.
      * 
      * <p>
      * For parallel stream it's not guaranteed that accumulator will always be
@@ -1380,7 +1455,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @since 0.4.0
      */
     public Optional<T> foldRight(BinaryOperator<T> accumulator) {
-        return this.<Optional<T>> toListAndThen(list -> {
+        Function<List<T>, Optional<T>> finisher = list -> {
             if (list.isEmpty())
                 return Optional.empty();
             int i = list.size() - 1;
@@ -1388,7 +1463,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
             for (; i >= 0; i--)
                 result = accumulator.apply(list.get(i), result);
             return Optional.of(result);
-        });
+        };
+        List<T> source = indexedSource();
+        return source == null ? toListAndThen(finisher) : finisher.apply(source);
     }
 
     /**
@@ -1508,7 +1585,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      */
     @SuppressWarnings("unchecked")
     public <U> List<U> scanRight(U seed, BiFunction<? super T, U, U> accumulator) {
-        return toListAndThen(list -> {
+        Function<List<T>, List<U>> finisher = list -> {
             // Reusing the list for different object type as it will save memory
             List<U> result = (List<U>) list;
             result.add(seed);
@@ -1516,7 +1593,13 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
                 result.set(i, accumulator.apply((T) result.get(i), result.get(i + 1)));
             }
             return result;
-        });
+        };
+        List<T> source = indexedSource();
+        if (source == null)
+            return toListAndThen(finisher);
+        List<T> list = new ArrayList<>(source.size() + 1);
+        list.addAll(source);
+        return finisher.apply(list);
     }
 
     /**
@@ -1551,12 +1634,14 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @since 0.4.0
      */
     public List<T> scanRight(BinaryOperator<T> accumulator) {
-        return toListAndThen(list -> {
+        Function<List<T>, List<T>> finisher = list -> {
             for (int i = list.size() - 2; i >= 0; i--) {
                 list.set(i, accumulator.apply(list.get(i), list.get(i + 1)));
             }
             return list;
-        });
+        };
+        List<T> source = indexedSource();
+        return source == null ? toListAndThen(finisher) : finisher.apply(new ArrayList<>(source));
     }
 
     /**
@@ -1582,6 +1667,12 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * Also it behaves much better with infinite streams processed in parallel.
      * 
      * <p>
+     * If the stream is parallel and its source is {@code SUBSIZED}, the source
+     * is split and the prefixes which are skipped entirely are discarded
+     * without traversal, so the resulting stream keeps its size and splits
+     * well.
+     * 
+     * <p>
      * For sequential streams this method behaves exactly like
      * {@link #skip(long)}.
      *
@@ -1592,7 +1683,15 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * @since 0.3.2
      */
     public S skipOrdered(long n) {
-        return supply((isParallel() ? StreamSupport.stream(spliterator(), false) : stream()).skip(n).spliterator());
+        if (slice(n, true))
+            return supply(spliterator());
+        if (isParallel()) {
+            Spliterator<T> source = spliterator();
+            if (SkipSpliterator.applicable(source, n))
+                return supply(new SkipSpliterator.OfRef<>(source, n));
+            return supply(StreamSupport.stream(source, false).skip(n).spliterator());
+        }
+        return supply(stream().skip(n).spliterator());
     }
 
     /**
@@ -1608,7 +1707,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * 
      * <p>
      * While this operation is quite cheap for sequential stream, it can be
-     * quite expensive on parallel pipelines.
+     * quite expensive on parallel pipelines. For parallel streams with ordered
+     * {@code SUBSIZED} source the chunks of the source are processed
+     * concurrently and buffered.
      * 
      * @param predicate a non-interfering, stateless predicate to apply to
      *        elements.
@@ -1619,10 +1720,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      */
     public S takeWhile(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_TAKE_WHILE);
-        }
-        return supply(new AbstractStreamEx.TDOfRef<>(spliterator(), false, false, predicate));
+        return callWhile(predicate, false, false);
     }
 
     /**
@@ -1636,7 +1734,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * 
      * <p>
      * While this operation is quite cheap for sequential stream, it can be
-     * quite expensive on parallel pipelines.
+     * quite expensive on parallel pipelines. For parallel streams with ordered
+     * {@code SUBSIZED} source the chunks of the source are processed
+     * concurrently and buffered.
      * 
      * @param predicate a non-interfering, stateless predicate to apply to
      *        elements.
@@ -1646,7 +1746,7 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      */
     public S takeWhileInclusive(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        return supply(new AbstractStreamEx.TDOfRef<>(spliterator(), false, true, predicate));
+        return callWhile(predicate, false, true);
     }
 
     /**
@@ -1663,7 +1763,9 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      * 
      * <p>
      * While this operation is quite cheap for sequential stream, it can be
-     * quite expensive on parallel pipelines.
+     * quite expensive on parallel pipelines. For parallel streams with ordered
+     * {@code SUBSIZED} source the chunks of the source are processed
+     * concurrently and buffered.
      * 
      * @param predicate a non-interfering, stateless predicate to apply to
      *        elements.
@@ -1672,10 +1774,26 @@ public abstract class AbstractStreamEx<T, S extends AbstractStreamEx<T, S>> exte
      */
     public S dropWhile(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_DROP_WHILE);
+        return callWhile(predicate, true, false);
+    }
+
+    private S callWhile(Predicate<? super T> predicate, boolean drop, boolean inclusive) {
+        if (isParallel()) {
+            Spliterator<T> source = spliterator();
+            if (WhileSpliterator.applicable(source))
+                return supply(new WhileSpliterator<>(source, drop, inclusive, predicate));
+            if (inclusive)
+                return supply(new TDOfRef<>(source, false, true, predicate));
+            return VersionSpecific.callWhile(supply(source), predicate, drop);
         }
-        return supply(new AbstractStreamEx.TDOfRef<>(spliterator(), true, false, predicate));
+        if (inclusive)
+            return supply(new TDOfRef<>(spliterator(), false, true, predicate));
+        return VersionSpecific.callWhile(this, predicate, drop);
+    }
+
+    @Override
+    public S instrument(StreamListener listener) {
+        return supply(new InstrumentedSpliterator.ISOfRef<>(spliterator(), Objects.requireNonNull(listener)));
     }
 
     // Necessary to generate proper JavaDoc
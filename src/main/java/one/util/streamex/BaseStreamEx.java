@@ -20,6 +20,8 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.BaseStream;
 
+import static one.util.streamex.StreamExInternals.*;
+
 /**
  * @author Tagir Valeev
  */
@@ -43,6 +45,23 @@ import java.util.stream.BaseStream;
 
     abstract S createStream();
 
+    /**
+     * Skips or limits the elements of the source in place if the stream is not
+     * started yet and its source supports this.
+     * 
+     * @return true if the source was sliced, false if the operation must be
+     *         performed by the stream
+     */
+    final boolean slice(long n, boolean skip) {
+        if (n < 0 || !(spliterator instanceof SliceableSpliterator))
+            return false;
+        if (skip)
+            ((SliceableSpliterator) spliterator).skip(n);
+        else
+            ((SliceableSpliterator) spliterator).limit(n);
+        return true;
+    }
+
     final S stream() {
         if (stream != null)
             return stream;
@@ -141,6 +160,35 @@ import java.util.stream.BaseStream;
         context.close();
     }
 
+    /**
+     * Returns an equivalent stream which reports the execution statistics of
+     * this stream source to the supplied {@link StreamListener}.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     *
+     * <p>
+     * The listener observes the elements at the point where this method is
+     * called: how the stream was split for parallel processing, how many
+     * elements passed this point in every part of the split tree and how much
+     * wall-clock and CPU time the traversal of every part took. Calling this
+     * method several times with different listeners allows to collect the
+     * per-stage element counts, for example,
+     * {@code StreamEx.of(input).instrument(sourceListener).filter(...).instrument(filterListener)}.
+     * The timings reported by the listener include the time spent in the
+     * downstream operations.
+     *
+     * <p>
+     * Streams which are not instrumented have no additional overhead.
+     *
+     * @param listener a thread-safe listener to report the statistics to
+     * @return the new stream
+     * @throws NullPointerException if listener is null
+     * @since 0.6.1
+     */
+    public abstract B instrument(StreamListener listener);
+
     /**
      * Applies the supplied function to this stream and returns the result of
      * the function.
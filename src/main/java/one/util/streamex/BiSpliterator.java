@@ -0,0 +1,321 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator of entries which can also pass the key and the value to the
+ * consumer separately. The {@link EntryStream} operations which are applied
+ * before the stream is actually created are fused into the chain of such
+ * spliterators, so the intermediate {@code Entry} objects are created only if
+ * somebody actually needs them.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+/* package */abstract class BiSpliterator<K, V> implements Spliterator<Entry<K, V>> {
+    abstract boolean tryAdvanceKeyValue(BiConsumer<? super K, ? super V> action);
+
+    void forKeyValueRemaining(BiConsumer<? super K, ? super V> action) {
+        while (tryAdvanceKeyValue(action)) {
+            // empty
+        }
+    }
+
+    @Override
+    public abstract BiSpliterator<K, V> trySplit();
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+        return tryAdvanceKeyValue((k, v) -> action.accept(new SimpleImmutableEntry<>(k, v)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+        forKeyValueRemaining((k, v) -> action.accept(new SimpleImmutableEntry<>(k, v)));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> BiSpliterator<K, V> of(Spliterator<? extends Entry<K, V>> source) {
+        if (source instanceof BiSpliterator)
+            return (BiSpliterator<K, V>) source;
+        return new Entries<>(source);
+    }
+
+    /**
+     * Adapts the ordinary spliterator of entries. The entries are passed
+     * through as is.
+     */
+    static final class Entries<K, V> extends BiSpliterator<K, V> {
+        private final Spliterator<? extends Entry<K, V>> source;
+
+        Entries(Spliterator<? extends Entry<K, V>> source) {
+            this.source = source;
+        }
+
+        @Override
+        boolean tryAdvanceKeyValue(BiConsumer<? super K, ? super V> action) {
+            return source.tryAdvance(e -> action.accept(e.getKey(), e.getValue()));
+        }
+
+        @Override
+        void forKeyValueRemaining(BiConsumer<? super K, ? super V> action) {
+            source.forEachRemaining(e -> action.accept(e.getKey(), e.getValue()));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public BiSpliterator<K, V> trySplit() {
+            Spliterator<? extends Entry<K, V>> prefix = source.trySplit();
+            return prefix == null ? null : new Entries<>(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Comparator<? super Entry<K, V>> getComparator() {
+            return (Comparator<? super Entry<K, V>>) source.getComparator();
+        }
+    }
+
+    /**
+     * Passes through the entries (or keys and values) which match the
+     * predicate.
+     */
+    static final class Filter<K, V> extends BiSpliterator<K, V> implements BiConsumer<K, V>, Consumer<Entry<K, V>> {
+        private final BiSpliterator<K, V> source;
+        private final BiPredicate<? super K, ? super V> predicate;
+        private K key;
+        private V value;
+        private Entry<K, V> entry;
+
+        Filter(BiSpliterator<K, V> source, BiPredicate<? super K, ? super V> predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void accept(K k, V v) {
+            key = k;
+            value = v;
+        }
+
+        @Override
+        public void accept(Entry<K, V> e) {
+            entry = e;
+        }
+
+        @Override
+        boolean tryAdvanceKeyValue(BiConsumer<? super K, ? super V> action) {
+            while (source.tryAdvanceKeyValue(this)) {
+                K k = key;
+                V v = value;
+                key = null;
+                value = null;
+                if (predicate.test(k, v)) {
+                    action.accept(k, v);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void forKeyValueRemaining(BiConsumer<? super K, ? super V> action) {
+            source.forKeyValueRemaining((k, v) -> {
+                if (predicate.test(k, v))
+                    action.accept(k, v);
+            });
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            while (source.tryAdvance(this)) {
+                Entry<K, V> e = entry;
+                entry = null;
+                if (predicate.test(e.getKey(), e.getValue())) {
+                    action.accept(e);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            source.forEachRemaining(e -> {
+                if (predicate.test(e.getKey(), e.getValue()))
+                    action.accept(e);
+            });
+        }
+
+        @Override
+        public BiSpliterator<K, V> trySplit() {
+            BiSpliterator<K, V> prefix = source.trySplit();
+            return prefix == null ? null : new Filter<>(prefix, predicate);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(SIZED | SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super Entry<K, V>> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    /**
+     * Computes new keys and values from the source keys and values.
+     */
+    static final class Mapping<K, V, KK, VV> extends BiSpliterator<KK, VV> implements BiConsumer<K, V> {
+        private final BiSpliterator<K, V> source;
+        private final BiFunction<? super K, ? super V, ? extends KK> keyMapper;
+        private final BiFunction<? super K, ? super V, ? extends VV> valueMapper;
+        private KK key;
+        private VV value;
+
+        Mapping(BiSpliterator<K, V> source, BiFunction<? super K, ? super V, ? extends KK> keyMapper,
+                BiFunction<? super K, ? super V, ? extends VV> valueMapper) {
+            this.source = source;
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        public void accept(K k, V v) {
+            key = keyMapper.apply(k, v);
+            value = valueMapper.apply(k, v);
+        }
+
+        @Override
+        boolean tryAdvanceKeyValue(BiConsumer<? super KK, ? super VV> action) {
+            if (!source.tryAdvanceKeyValue(this))
+                return false;
+            KK k = key;
+            VV v = value;
+            key = null;
+            value = null;
+            action.accept(k, v);
+            return true;
+        }
+
+        @Override
+        void forKeyValueRemaining(BiConsumer<? super KK, ? super VV> action) {
+            source.forKeyValueRemaining((k, v) -> action.accept(keyMapper.apply(k, v), valueMapper.apply(k, v)));
+        }
+
+        @Override
+        public BiSpliterator<KK, VV> trySplit() {
+            BiSpliterator<K, V> prefix = source.trySplit();
+            return prefix == null ? null : new Mapping<>(prefix, keyMapper, valueMapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT)) | NONNULL;
+        }
+    }
+
+    /**
+     * Maps keys and values to the single object.
+     */
+    static final class ToObj<K, V, R> implements Spliterator<R>, BiConsumer<K, V> {
+        private final BiSpliterator<K, V> source;
+        private final BiFunction<? super K, ? super V, ? extends R> mapper;
+        private R cur;
+
+        ToObj(BiSpliterator<K, V> source, BiFunction<? super K, ? super V, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void accept(K k, V v) {
+            cur = mapper.apply(k, v);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            if (!source.tryAdvanceKeyValue(this))
+                return false;
+            R r = cur;
+            cur = null;
+            action.accept(r);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            source.forKeyValueRemaining((k, v) -> action.accept(mapper.apply(k, v)));
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            BiSpliterator<K, V> prefix = source.trySplit();
+            return prefix == null ? null : new ToObj<>(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * A spliterator over the indices of set bits in the {@link BitSet}. Unlike
+ * {@link BitSet#stream()}, which is backed by an iterator, it works on the
+ * snapshot of the bit set words, so it knows the exact number of set bits in
+ * every part, splits the set bits into equal halves and skips the leading
+ * bits counting whole words at once.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class BitSetSpliterator implements Spliterator.OfInt, SliceableSpliterator {
+    private final long[] words;
+    // index of the first bit to traverse
+    private long from;
+    // exact number of set bits starting from the from index
+    private long size;
+
+    BitSetSpliterator(BitSet bitSet) {
+        this(bitSet.toLongArray(), 0, -1);
+    }
+
+    private BitSetSpliterator(long[] words, long from, long size) {
+        this.words = words;
+        this.from = from;
+        if (size < 0) {
+            size = 0;
+            for (long word : words) {
+                size += Long.bitCount(word);
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the index of the bit following the n-th (zero-based) set bit
+     * starting from the from index. There must be more than n set bits
+     * remaining.
+     */
+    private long after(long n) {
+        int wi = (int) (from >>> 6);
+        long w = words[wi] & (-1L << from);
+        int count;
+        while ((count = Long.bitCount(w)) <= n) {
+            n -= count;
+            w = words[++wi];
+        }
+        for (; n > 0; n--) {
+            w &= w - 1;
+        }
+        return ((long) wi << 6) + Long.numberOfTrailingZeros(w) + 1;
+    }
+
+    @Override
+    public void skip(long n) {
+        if (n >= size) {
+            size = 0;
+        } else if (n > 0) {
+            from = after(n - 1);
+            size -= n;
+        }
+    }
+
+    @Override
+    public void limit(long n) {
+        if (n < size)
+            size = n;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (size == 0)
+            return false;
+        int wi = (int) (from >>> 6);
+        long w = words[wi] & (-1L << from);
+        while (w == 0) {
+            w = words[++wi];
+        }
+        int bit = (wi << 6) + Long.numberOfTrailingZeros(w);
+        from = bit + 1L;
+        size--;
+        action.accept(bit);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        long s = size;
+        if (s == 0)
+            return;
+        size = 0;
+        int wi = (int) (from >>> 6);
+        long w = words[wi] & (-1L << from);
+        while (true) {
+            while (w != 0) {
+                action.accept((wi << 6) + Long.numberOfTrailingZeros(w));
+                if (--s == 0)
+                    return;
+                w &= w - 1;
+            }
+            w = words[++wi];
+        }
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        long s = size;
+        if (s < 2)
+            return null;
+        long half = s >>> 1;
+        BitSetSpliterator prefix = new BitSetSpliterator(words, from, half);
+        from = after(half - 1);
+        size = s - half;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
+    }
+}
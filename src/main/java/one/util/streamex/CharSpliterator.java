@@ -17,30 +17,57 @@ package one.util.streamex;
 
 import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
+ * Splits the input sequence around the single character or the literal string
+ * delimiter. The input is split in parallel at the delimiter occurrence
+ * nearest to the midpoint. For string delimiters this is possible only if the
+ * delimiter cannot overlap with itself (no proper prefix of the delimiter is
+ * also its suffix): in this case every occurrence found from an arbitrary
+ * point is also found by the left-to-right matching.
+ * 
+ * <p>
+ * The tokens are either materialized as strings or emitted as {@link View}
+ * objects which refer to the source sequence without copying.
+ * 
  * @author Tagir Valeev
+ * @param <T> type of the tokens
  */
-/* package */class CharSpliterator implements Spliterator<String> {
+/* package */class CharSpliterator<T extends CharSequence> implements Spliterator<T> {
     private final CharSequence source;
+    private final boolean views;
     private final char delimiter;
+    // null if the delimiter is single character
+    private final String delimiterString;
+    private final int delimiterLength;
+    private final boolean splittable;
     private int pos;
     private final int fence;
     private int nEmpty;
-    private String next;
+    private T next;
     private final boolean trimEmpty;
 
-    CharSpliterator(CharSequence source, char delimiter, boolean trimEmpty) {
+    private CharSpliterator(CharSequence source, char delimiter, String delimiterString, boolean trimEmpty,
+            boolean views) {
         this.source = source;
+        this.views = views;
         this.delimiter = delimiter;
+        this.delimiterString = delimiterString;
+        this.delimiterLength = delimiterString == null ? 1 : delimiterString.length();
+        this.splittable = delimiterString == null || isBorderFree(delimiterString);
         this.fence = source.length();
         this.trimEmpty = trimEmpty;
     }
 
     // Create prefix spliterator and update suffix fields
-    private CharSpliterator(CharSpliterator suffix, int fence, boolean trimEmpty, int suffixNEmpty, int suffixPos) {
+    private CharSpliterator(CharSpliterator<T> suffix, int fence, boolean trimEmpty, int suffixNEmpty, int suffixPos) {
         this.source = suffix.source;
+        this.views = suffix.views;
         this.delimiter = suffix.delimiter;
+        this.delimiterString = suffix.delimiterString;
+        this.delimiterLength = suffix.delimiterLength;
+        this.splittable = suffix.splittable;
         this.fence = fence;
         this.trimEmpty = trimEmpty;
         
@@ -52,13 +79,120 @@ import java.util.function.Consumer;
         suffix.next = null;
     }
 
+    static CharSpliterator<String> of(CharSequence source, char delimiter, boolean trimEmpty) {
+        return new CharSpliterator<>(source, delimiter, null, trimEmpty, false);
+    }
+
+    static CharSpliterator<String> of(CharSequence source, String delimiter, boolean trimEmpty) {
+        return new CharSpliterator<>(source, delimiter.charAt(0), delimiter.length() == 1 ? null : delimiter,
+                trimEmpty, false);
+    }
+
+    static CharSpliterator<CharSequence> views(CharSequence source, char delimiter, boolean trimEmpty) {
+        return new CharSpliterator<>(source, delimiter, null, trimEmpty, true);
+    }
+
+    /**
+     * Returns the literal string matched by given pattern, if it can be
+     * determined easily.
+     * 
+     * @param pattern pattern to check
+     * @return the non-empty string the pattern matches literally or null if
+     *         the pattern is not recognized as literal
+     */
+    static String literal(Pattern pattern) {
+        if (pattern.flags() == Pattern.LITERAL)
+            return checkLiteral(pattern.pattern());
+        return pattern.flags() == 0 ? literal(pattern.pattern()) : null;
+    }
+
+    /**
+     * Returns the literal string matched by given regular expression, if it
+     * consists only of non-special characters, escaped non-alphanumeric
+     * characters and quoted ({@code \Q...\E}) parts.
+     * 
+     * @param regex regular expression to check
+     * @return the non-empty string the regex matches literally or null if
+     *         the regex is not recognized as literal
+     */
+    static String literal(String regex) {
+        StringBuilder sb = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char ch = regex.charAt(i);
+            if (ch == '\\') {
+                if (++i == regex.length())
+                    return null;
+                ch = regex.charAt(i);
+                if (ch == 'Q') {
+                    int end = regex.indexOf("\\E", i + 1);
+                    if (end == -1)
+                        end = regex.length();
+                    sb.append(regex, i + 1, end);
+                    i = end + 1;
+                    continue;
+                }
+                if (ch >= '0' && ch <= '9' || ch >= 'A' && ch <= 'Z' || ch >= 'a' && ch <= 'z')
+                    return null;
+            } else if (".$|()[{^?*+".indexOf(ch) != -1) {
+                return null;
+            }
+            sb.append(ch);
+        }
+        return checkLiteral(sb.toString());
+    }
+
+    // Regex matches whole code points, while the literal search may match
+    // the part of surrogate pair
+    private static String checkLiteral(String str) {
+        if (str.isEmpty())
+            return null;
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isSurrogate(str.charAt(i)))
+                return null;
+        }
+        return str;
+    }
+
+    static boolean isBorderFree(String str) {
+        int length = str.length();
+        for (int i = 1; i < length; i++) {
+            if (str.regionMatches(i, str, 0, length - i))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean isDelimiterAt(int pos) {
+        if (delimiterString == null)
+            return source.charAt(pos) == delimiter;
+        if (pos + delimiterLength > fence)
+            return false;
+        if (source instanceof String)
+            return ((String) source).startsWith(delimiterString, pos);
+        for (int i = 0; i < delimiterLength; i++) {
+            if (source.charAt(pos + i) != delimiterString.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
     private int next(int pos) {
-        if (pos == fence)
-            return pos;
+        if (pos >= fence)
+            return fence;
         if (source instanceof String) {
-            int nextPos = ((String) source).indexOf(delimiter, pos);
+            int nextPos = delimiterString == null ? ((String) source).indexOf(delimiter, pos) : ((String) source)
+                    .indexOf(delimiterString, pos);
             return nextPos == -1 ? fence : nextPos;
         }
+        if (delimiterString != null) {
+            int last = fence - delimiterLength;
+            while (pos <= last) {
+                if (source.charAt(pos) == delimiter && isDelimiterAt(pos))
+                    return pos;
+                pos++;
+            }
+            return fence;
+        }
         while (pos < fence) {
             if (source.charAt(pos) == delimiter)
                 return pos;
@@ -67,11 +201,23 @@ import java.util.function.Consumer;
         return fence;
     }
 
+    @SuppressWarnings("unchecked")
+    private T token(int from, int to) {
+        if (views)
+            return (T) (from == to ? View.EMPTY : new View(source, from, to));
+        return (T) source.subSequence(from, to).toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T empty() {
+        return (T) (views ? View.EMPTY : "");
+    }
+
     @Override
-    public boolean tryAdvance(Consumer<? super String> action) {
+    public boolean tryAdvance(Consumer<? super T> action) {
         if (nEmpty > 0) {
             nEmpty--;
-            action.accept("");
+            action.accept(empty());
             return true;
         }
         if (next != null) {
@@ -86,38 +232,44 @@ import java.util.function.Consumer;
         if (trimEmpty) {
             while (nextPos == pos && nextPos != fence) {
                 nEmpty++;
-                nextPos = next(++pos);
+                nextPos = next(pos += delimiterLength);
             }
         }
-        String str = source.subSequence(pos, nextPos).toString();
-        pos = nextPos + 1;
-        if (trimEmpty && nextPos == fence && str.isEmpty()) {
+        if (trimEmpty && nextPos == fence && nextPos == pos) {
+            pos = nextPos + delimiterLength;
             nEmpty = 0; // discard empty strings at the end
             return false;
         }
+        T str = token(pos, nextPos);
+        pos = nextPos + delimiterLength;
         if (nEmpty > 0) {
             next = str;
             nEmpty--;
-            action.accept("");
+            action.accept(empty());
         } else
             action.accept(str);
         return true;
     }
 
     @Override
-    public Spliterator<String> trySplit() {
+    public Spliterator<T> trySplit() {
+        if (!splittable)
+            return null;
         int mid = (pos + fence) >>> 1;
-        int nextPos = next(mid);
+        // the delimiter occurrence may cover the midpoint
+        int nextPos = next(Math.max(pos, mid - delimiterLength + 1));
+        if (nextPos < mid)
+            mid = nextPos;
         if (nextPos == fence)
             return null;
         if (trimEmpty && nextPos == mid) {
-            while (nextPos < fence && source.charAt(nextPos) == delimiter)
-                nextPos++;
+            while (nextPos < fence && isDelimiterAt(nextPos))
+                nextPos += delimiterLength;
             return nextPos == fence ? 
-                    new CharSpliterator(this, mid, true, 0, nextPos + 1) : 
-                        new CharSpliterator(this, mid, false, nextPos - mid - 1, nextPos);
+                    new CharSpliterator<>(this, mid, true, 0, nextPos + 1) : 
+                        new CharSpliterator<>(this, mid, false, (nextPos - mid) / delimiterLength - 1, nextPos);
         }
-        return new CharSpliterator(this, nextPos, false, 0, nextPos + 1);
+        return new CharSpliterator<>(this, nextPos, false, 0, nextPos + delimiterLength);
     }
 
     @Override
@@ -129,4 +281,72 @@ import java.util.function.Consumer;
     public int characteristics() {
         return NONNULL | ORDERED;
     }
+
+    /**
+     * Read-only view of the source sequence part. Its {@code hashCode()} is
+     * the same as of the corresponding {@code String}, and views are equal if
+     * their contents are equal.
+     */
+    static final class View implements CharSequence {
+        static final View EMPTY = new View("", 0, 0);
+
+        private final CharSequence source;
+        private final int from, to;
+
+        View(CharSequence source, int from, int to) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int length() {
+            return to - from;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= to - from)
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            return source.charAt(from + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > to - from)
+                throw new IndexOutOfBoundsException("start=" + start + ", end=" + end + ", length=" + (to - from));
+            return new View(source, from + start, from + end);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + source.charAt(i);
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof View))
+                return false;
+            View other = (View) obj;
+            int length = to - from;
+            if (other.to - other.from != length)
+                return false;
+            for (int i = 0; i < length; i++) {
+                if (source.charAt(from + i) != other.source.charAt(other.from + i))
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(from, to).toString();
+        }
+    }
 }
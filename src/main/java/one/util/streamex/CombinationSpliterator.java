@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the k-element combinations of numbers from 0 to n-1 in
+ * lexicographic order. Splitting is performed by the rank of the middle
+ * combination, so both halves are exactly sized.
+ * 
+ * @author Tagir Valeev
+ */
+/* package */final class CombinationSpliterator implements Spliterator<int[]> {
+    private final int n;
+    private int[] value;
+    private long pos;
+    private final long fence;
+
+    CombinationSpliterator(int n, int k) {
+        if (n < 0)
+            throw new IllegalArgumentException("n must be non-negative: " + n);
+        if (k < 0)
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        this.n = n;
+        this.value = new int[k];
+        for (int i = 0; i < k; i++)
+            this.value[i] = i;
+        try {
+            this.fence = binomial(n, k);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Number of combinations C(" + n + ", " + k
+                + ") does not fit into long: not supported");
+        }
+    }
+
+    private CombinationSpliterator(int n, int[] value, long pos, long fence) {
+        this.n = n;
+        this.value = value;
+        this.pos = pos;
+        this.fence = fence;
+    }
+
+    static long binomial(int n, int k) {
+        if (k > n)
+            return 0;
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            // result * (n - i) is divisible by i + 1, so dividing first by
+            // the common part prevents the intermediate overflow
+            long d = i + 1, g = result;
+            while (d != 0) {
+                long t = g % d;
+                g = d;
+                d = t;
+            }
+            result = StrictMath.multiplyExact(result / g, (n - i) / ((i + 1) / g));
+        }
+        return result;
+    }
+
+    static int[] unrank(int n, int k, long rank) {
+        int[] value = new int[k];
+        int c = 0;
+        for (int i = 0; i < k; i++) {
+            long count;
+            while (rank >= (count = binomial(n - 1 - c, k - 1 - i))) {
+                rank -= count;
+                c++;
+            }
+            value[i] = c++;
+        }
+        return value;
+    }
+
+    private void step() {
+        int[] value = this.value;
+        int k = value.length, i = k - 1;
+        while (value[i] == n - k + i)
+            i--;
+        value[i]++;
+        for (i++; i < k; i++)
+            value[i] = value[i - 1] + 1;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (pos >= fence)
+            return false;
+        action.accept(value.clone());
+        if (++pos < fence)
+            step();
+        return true;
+    }
+
+    /**
+     * Passes the remaining combinations to the action reusing the single
+     * array. The action must not modify the array or keep the reference to it.
+     * 
+     * @param action action to perform
+     */
+    void forEachShared(Consumer<? super int[]> action) {
+        while (pos < fence) {
+            action.accept(value);
+            if (++pos < fence)
+                step();
+        }
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        long size = fence - pos;
+        if (size <= 1)
+            return null;
+        long mid = pos + size / 2;
+        CombinationSpliterator prefix = new CombinationSpliterator(n, value, pos, mid);
+        value = unrank(n, value.length, mid);
+        pos = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+    }
+}
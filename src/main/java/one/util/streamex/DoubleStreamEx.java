@@ -61,7 +61,7 @@ import static one.util.streamex.StreamExInternals.*;
  */
 public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterator.OfDouble, DoubleStreamEx> implements
         DoubleStream {
-    private static final class TDOfDouble extends AbstractDoubleSpliterator implements DoubleConsumer {
+    static final class TDOfDouble extends AbstractDoubleSpliterator implements DoubleConsumer {
         private final DoublePredicate predicate;
         private final boolean drop;
         private final boolean inclusive;
@@ -153,17 +153,6 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
         return new DoubleStreamEx(spliterator, context);
     }
 
-    final DoubleStreamEx callWhile(DoublePredicate predicate, int methodId) {
-        try {
-            return new DoubleStreamEx((DoubleStream) JDK9_METHODS[IDX_DOUBLE_STREAM][methodId].invokeExact(stream(),
-                predicate), context);
-        } catch (Error | RuntimeException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw new InternalError(e);
-        }
-    }
-
     @Override
     public DoubleStreamEx unordered() {
         return (DoubleStreamEx) super.unordered();
@@ -455,6 +444,33 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
         }).sorted().mapToDouble(l -> Double.longBitsToDouble(l ^ ((-(l >>> 63)) | Long.MIN_VALUE))), context);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in reverse
+     * encounter order.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>. If this stream is created from an array or by
+     * {@link #ofReversed(double[])} and no operations except {@code skip} and
+     * {@code limit} were applied to it, the source array is traversed in the
+     * opposite direction without copying. Otherwise the whole content of this
+     * stream is buffered when the terminal operation starts.
+     *
+     * @return the new stream
+     * @since 0.6.1
+     */
+    public DoubleStreamEx reversed() {
+        if (spliterator instanceof RangeBasedSpliterator.ReverseDouble)
+            return delegate(((RangeBasedSpliterator.ReverseDouble) spliterator()).reverse());
+        if (spliterator instanceof RangeBasedSpliterator.ForwardDouble)
+            return delegate(((RangeBasedSpliterator.ForwardDouble) spliterator()).reverse());
+        Spliterator.OfDouble source = spliterator();
+        boolean parallel = isParallel();
+        return new DoubleStreamEx(StreamSupport.doubleStream(() -> new RangeBasedSpliterator.ReverseDouble(StreamSupport
+                .doubleStream(source, parallel).toArray()), Spliterator.ORDERED | Spliterator.SIZED
+            | Spliterator.SUBSIZED, parallel), context);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to the natural order of the keys extracted by provided
@@ -624,11 +640,15 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
 
     @Override
     public DoubleStreamEx limit(long maxSize) {
+        if (slice(maxSize, false))
+            return new DoubleStreamEx(spliterator(), context);
         return new DoubleStreamEx(stream().limit(maxSize), context);
     }
 
     @Override
     public DoubleStreamEx skip(long n) {
+        if (slice(n, true))
+            return new DoubleStreamEx(spliterator(), context);
         return new DoubleStreamEx(stream().skip(n), context);
     }
 
@@ -665,9 +685,15 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @since 0.3.2
      */
     public DoubleStreamEx skipOrdered(long n) {
-        Spliterator.OfDouble spliterator = (isParallel() ? StreamSupport.doubleStream(spliterator(), false) : stream())
-                .skip(n).spliterator();
-        return delegate(spliterator);
+        if (slice(n, true))
+            return new DoubleStreamEx(spliterator(), context);
+        if (isParallel()) {
+            Spliterator.OfDouble source = spliterator();
+            if (SkipSpliterator.applicable(source, n))
+                return delegate(new SkipSpliterator.OfDouble(source, n));
+            return delegate(StreamSupport.doubleStream(source, false).skip(n).spliterator());
+        }
+        return delegate(stream().skip(n).spliterator());
     }
 
     @Override
@@ -1429,6 +1455,36 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
         return new DoubleStreamEx(DoubleStream.concat(other, stream()), context.combine(other));
     }
 
+    /**
+     * Creates a new {@code DoubleStreamEx} which elements are the results of
+     * applying the mapper function to the corresponding pairs of elements of
+     * this stream and the supplied other stream. The elements are not boxed.
+     * The resulting stream is ordered if both of the input streams are
+     * ordered, and parallel if either of the input streams is parallel. When
+     * the resulting stream is closed, the close handlers for both input
+     * streams are invoked.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     * 
+     * <p>
+     * The resulting stream finishes when either of the input streams finish:
+     * the rest of the longer stream is discarded. It's unspecified whether the
+     * rest elements of the longer stream are actually consumed.
+     * 
+     * @param other the stream to zip this stream with
+     * @param mapper a non-interfering, stateless function to apply to the
+     *        corresponding pairs of this stream and other stream elements
+     * @return the new stream
+     * @see StreamEx#zipWith(Stream, java.util.function.BiFunction)
+     * @since 0.6.1
+     */
+    public DoubleStreamEx zipWith(DoubleStream other, DoubleBinaryOperator mapper) {
+        return new DoubleStreamEx(new PrimitiveZipSpliterator.OfDouble(spliterator(), other.spliterator(), mapper),
+                context.combine(other));
+    }
+
     /**
      * Returns a stream consisting of the results of applying the given function
      * to the every adjacent pair of elements of this stream.
@@ -1513,10 +1569,7 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      */
     public DoubleStreamEx takeWhile(DoublePredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_TAKE_WHILE);
-        }
-        return delegate(new DoubleStreamEx.TDOfDouble(spliterator(), false, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, false);
     }
 
     /**
@@ -1566,10 +1619,12 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      */
     public DoubleStreamEx dropWhile(DoublePredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_DROP_WHILE);
-        }
-        return delegate(new DoubleStreamEx.TDOfDouble(spliterator(), true, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, true);
+    }
+
+    @Override
+    public DoubleStreamEx instrument(StreamListener listener) {
+        return delegate(new InstrumentedSpliterator.ISOfDouble(spliterator(), Objects.requireNonNull(listener)));
     }
 
     // Necessary to generate proper JavaDoc
@@ -1606,7 +1661,22 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @return the new stream
      */
     public static DoubleStreamEx of(double... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.ForwardDouble(0, elements.length, elements));
+    }
+
+    /**
+     * Returns a sequential ordered {@code DoubleStreamEx} whose elements are the
+     * elements of the supplied array in reverse order. No copy of the array is
+     * made.
+     *
+     * @param array the array to stream from the end, assumed to be unmodified
+     *        during use
+     * @return the new stream
+     * @see #reversed()
+     * @since 0.6.1
+     */
+    public static DoubleStreamEx ofReversed(double[] array) {
+        return of(new RangeBasedSpliterator.ReverseDouble(array));
     }
 
     /**
@@ -1625,7 +1695,8 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
      * @see Arrays#stream(double[], int, int)
      */
     public static DoubleStreamEx of(double[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.ForwardDouble(startInclusive, endExclusive, array));
     }
 
     /**
@@ -1986,6 +2057,40 @@ public class DoubleStreamEx extends BaseStreamEx<Double, DoubleStream, Spliterat
                 second));
     }
 
+    /**
+     * Returns a lazily concatenated {@code DoubleStreamEx} whose elements are
+     * all the elements of the supplied streams in the order of the collection
+     * iteration.
+     * 
+     * <p>
+     * The streams are combined pairwise into the balanced tree, so the
+     * resulting stream is split between the sources in halves and its depth
+     * grows logarithmically with the number of the sources. The resulting
+     * stream is parallel if any of the input streams is parallel. When the
+     * resulting stream is closed, the close handlers of all the input streams
+     * are invoked.
+     * 
+     * @param streams the streams to concatenate
+     * @return the new stream
+     * @see StreamEx#concat(Collection)
+     * @since 0.6.1
+     */
+    public static DoubleStreamEx concat(Collection<? extends DoubleStream> streams) {
+        DoubleStream[] array = streams.toArray(new DoubleStream[0]);
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (DoubleStream stream : array) {
+            context = context.combine(stream);
+        }
+        return new DoubleStreamEx(concat(array, 0, array.length), context);
+    }
+
+    private static DoubleStream concat(DoubleStream[] streams, int from, int to) {
+        if (to - from < 2)
+            return from == to ? DoubleStream.empty() : streams[from];
+        int mid = (from + to) >>> 1;
+        return DoubleStream.concat(concat(streams, from, mid), concat(streams, mid, to));
+    }
+
     /**
      * A helper interface to build a new stream by emitting elements and
      * creating new emitters in a chain.
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -29,7 +30,6 @@ import java.util.Spliterator;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.BiConsumer;
@@ -44,7 +44,6 @@ import java.util.stream.Collector;
 import java.util.stream.Collector.Characteristics;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static one.util.streamex.StreamExInternals.*;
 
@@ -86,8 +85,26 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
         return entry -> action.accept(entry.getKey(), entry.getValue());
     }
 
-    <M extends Map<K, V>> Consumer<? super Entry<K, V>> toMapConsumer(M map) {
-        return entry -> addToMap(map, entry.getKey(), Objects.requireNonNull(entry.getValue()));
+    <M extends Map<K, V>> BiConsumer<K, V> toMapConsumer(M map) {
+        return (key, value) -> addToMap(map, key, Objects.requireNonNull(value));
+    }
+
+    // Operations which are applied before the stream is created are fused
+    // into the BiSpliterator chain, so no intermediate entries are created
+    private <KK, VV> EntryStream<KK, VV> fuseMap(BiFunction<? super K, ? super V, ? extends KK> keyMapper,
+            BiFunction<? super K, ? super V, ? extends VV> valueMapper) {
+        if (spliterator != null)
+            return new EntryStream<>(new BiSpliterator.Mapping<>(BiSpliterator.of(spliterator()), keyMapper,
+                    valueMapper), context);
+        return new EntryStream<>(stream().map(
+            e -> new SimpleImmutableEntry<KK, VV>(keyMapper.apply(e.getKey(), e.getValue()), valueMapper.apply(e
+                    .getKey(), e.getValue()))), context);
+    }
+
+    private EntryStream<K, V> fuseFilter(BiPredicate<? super K, ? super V> predicate) {
+        if (spliterator != null)
+            return new EntryStream<>(new BiSpliterator.Filter<>(BiSpliterator.of(spliterator()), predicate), context);
+        return filter(e -> predicate.test(e.getKey(), e.getValue()));
     }
 
     BiPredicate<? super Entry<K, V>, ? super Entry<K, V>> equalKeys() {
@@ -381,7 +398,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<K, V> prepend(K key, V value) {
-        return supply(new PrependSpliterator<>(spliterator(), new SimpleImmutableEntry<>(key, value)));
+        return supply(PrependSpliterator.prepend(spliterator(), new SimpleImmutableEntry<>(key, value)));
     }
 
     /**
@@ -484,8 +501,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public <KK> EntryStream<KK, V> mapKeys(Function<? super K, ? extends KK> keyMapper) {
-        return new EntryStream<>(stream().map(
-            e -> new SimpleImmutableEntry<>(keyMapper.apply(e.getKey()), e.getValue())), context);
+        return fuseMap((k, v) -> keyMapper.apply(k), (k, v) -> v);
     }
 
     /**
@@ -502,8 +518,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public <VV> EntryStream<K, VV> mapValues(Function<? super V, ? extends VV> valueMapper) {
-        return new EntryStream<>(stream().map(
-            e -> new SimpleImmutableEntry<>(e.getKey(), valueMapper.apply(e.getValue()))), context);
+        return fuseMap((k, v) -> k, (k, v) -> valueMapper.apply(v));
     }
 
     /**
@@ -520,6 +535,8 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public <R> StreamEx<R> mapKeyValue(BiFunction<? super K, ? super V, ? extends R> mapper) {
+        if (spliterator != null)
+            return new StreamEx<>(new BiSpliterator.ToObj<>(BiSpliterator.of(spliterator()), mapper), context);
         return this.<R> map(toFunction(mapper));
     }
 
@@ -538,8 +555,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @since 0.3.0
      */
     public <KK> EntryStream<KK, V> mapToKey(BiFunction<? super K, ? super V, ? extends KK> keyMapper) {
-        return new EntryStream<>(stream().map(
-            e -> new SimpleImmutableEntry<>(keyMapper.apply(e.getKey(), e.getValue()), e.getValue())), context);
+        return fuseMap(keyMapper, (k, v) -> v);
     }
 
     /**
@@ -557,8 +573,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @since 0.3.0
      */
     public <VV> EntryStream<K, VV> mapToValue(BiFunction<? super K, ? super V, ? extends VV> valueMapper) {
-        return new EntryStream<>(stream().map(
-            e -> new SimpleImmutableEntry<>(e.getKey(), valueMapper.apply(e.getKey(), e.getValue()))), context);
+        return fuseMap((k, v) -> k, valueMapper);
     }
 
     /**
@@ -572,7 +587,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<V, K> invert() {
-        return new EntryStream<>(stream().map(e -> new SimpleImmutableEntry<>(e.getValue(), e.getKey())), context);
+        return fuseMap((k, v) -> v, (k, v) -> k);
     }
 
     /**
@@ -588,7 +603,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<K, V> filterKeys(Predicate<? super K> keyPredicate) {
-        return filter(e -> keyPredicate.test(e.getKey()));
+        return fuseFilter((k, v) -> keyPredicate.test(k));
     }
 
     /**
@@ -604,7 +619,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<K, V> filterValues(Predicate<? super V> valuePredicate) {
-        return filter(e -> valuePredicate.test(e.getValue()));
+        return fuseFilter((k, v) -> valuePredicate.test(v));
     }
 
     /**
@@ -622,7 +637,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @since 0.3.0
      */
     public EntryStream<K, V> filterKeyValue(BiPredicate<? super K, ? super V> predicate) {
-        return filter(e -> predicate.test(e.getKey(), e.getValue()));
+        return fuseFilter(predicate);
     }
 
     /**
@@ -686,7 +701,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<K, V> nonNullKeys() {
-        return filter(e -> e.getKey() != null);
+        return fuseFilter((k, v) -> k != null);
     }
 
     /**
@@ -700,7 +715,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public EntryStream<K, V> nonNullValues() {
-        return filter(e -> e.getValue() != null);
+        return fuseFilter((k, v) -> v != null);
     }
 
     /**
@@ -717,7 +732,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      */
     @SuppressWarnings({ "unchecked" })
     public <KK> EntryStream<KK, V> selectKeys(Class<KK> clazz) {
-        return (EntryStream<KK, V>) filter(e -> clazz.isInstance(e.getKey()));
+        return (EntryStream<KK, V>) fuseFilter((k, v) -> clazz.isInstance(k));
     }
 
     /**
@@ -734,7 +749,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      */
     @SuppressWarnings({ "unchecked" })
     public <VV> EntryStream<K, VV> selectValues(Class<VV> clazz) {
-        return (EntryStream<K, VV>) filter(e -> clazz.isInstance(e.getValue()));
+        return (EntryStream<K, VV>) fuseFilter((k, v) -> clazz.isInstance(v));
     }
 
     /**
@@ -819,7 +834,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public StreamEx<K> keys() {
-        return map(Entry::getKey);
+        return mapKeyValue((k, v) -> k);
     }
 
     /**
@@ -832,7 +847,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return the new stream
      */
     public StreamEx<V> values() {
-        return map(Entry::getValue);
+        return mapKeyValue((k, v) -> v);
     }
 
     /**
@@ -943,6 +958,120 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
         }, spliterator()), context).mapToEntry(pb -> pb.a, pb -> finisher.apply(pb.b));
     }
 
+    /**
+     * Returns an {@code EntryStream} which contains an entry for every pair of
+     * the entries of this stream and the supplied stream having equal keys.
+     * The key of the resulting entry is the common key and the value is the
+     * result of the merger function applied to the values of this and the
+     * other stream entries.
+     * 
+     * <p>
+     * The entries of the other stream are collected into the hash table (in
+     * parallel if the other stream is parallel) when the resulting stream
+     * terminal operation starts. Then this stream entries are looked up in the
+     * table, so the order of this stream is preserved and this stream can be
+     * processed in parallel. Both streams may contain duplicate keys.
+     * 
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation for this stream and a terminal operation for the other stream.
+     * The close handlers of the other stream are invoked when the resulting
+     * stream is closed.
+     *
+     * @param <V2> the type of the other stream values
+     * @param <R> the type of the resulting stream values
+     * @param other the stream to join with
+     * @param merger a non-interfering, stateless function to compute the
+     *        resulting value from the values of the joined entries
+     * @return the new stream
+     * @see #leftJoin(EntryStream, BiFunction)
+     * @see #mergeJoin(EntryStream, Comparator, BiFunction)
+     * @since 0.6.1
+     */
+    public <V2, R> EntryStream<K, R> innerJoin(EntryStream<K, V2> other,
+            BiFunction<? super V, ? super V2, ? extends R> merger) {
+        return hashJoin(other, merger, false);
+    }
+
+    /**
+     * Returns an {@code EntryStream} which contains an entry for every pair of
+     * the entries of this stream and the supplied stream having equal keys.
+     * Every entry of this stream which has no matching entry in the other
+     * stream is also present in the resulting stream: its value is computed
+     * passing {@code null} as the other value to the merger function.
+     * 
+     * <p>
+     * The entries of the other stream are collected into the hash table when
+     * the resulting stream terminal operation starts. Then this stream entries
+     * are looked up in the table, so the order of this stream is preserved and
+     * this stream can be processed in parallel. Both streams may contain
+     * duplicate keys.
+     * 
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation for this stream and a terminal operation for the other stream.
+     * The close handlers of the other stream are invoked when the resulting
+     * stream is closed.
+     *
+     * @param <V2> the type of the other stream values
+     * @param <R> the type of the resulting stream values
+     * @param other the stream to join with
+     * @param merger a non-interfering, stateless function to compute the
+     *        resulting value from the values of the joined entries
+     * @return the new stream
+     * @see #innerJoin(EntryStream, BiFunction)
+     * @since 0.6.1
+     */
+    public <V2, R> EntryStream<K, R> leftJoin(EntryStream<K, V2> other,
+            BiFunction<? super V, ? super V2, ? extends R> merger) {
+        return hashJoin(other, merger, true);
+    }
+
+    private <V2, R> EntryStream<K, R> hashJoin(EntryStream<K, V2> other,
+            BiFunction<? super V, ? super V2, ? extends R> merger, boolean left) {
+        Objects.requireNonNull(merger);
+        return new EntryStream<>(new JoinSpliterator.Hash<>(BiSpliterator.of(spliterator()), other, merger, left),
+                context.combine(other));
+    }
+
+    /**
+     * Returns an {@code EntryStream} which contains an entry for every pair of
+     * the entries of this stream and the supplied stream having equal keys.
+     * Both streams must be sorted by key according to the supplied comparator.
+     * The key of the resulting entry is the key of this stream entry and the
+     * value is the result of the merger function applied to the values of the
+     * joined entries.
+     * 
+     * <p>
+     * Both streams are traversed simultaneously, so only the entries of the
+     * other stream having the current key are buffered. If any of the streams
+     * is not sorted, the result is unspecified.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * operation. The close handlers of the other stream are invoked when the
+     * resulting stream is closed.
+     *
+     * @param <V2> the type of the other stream values
+     * @param <R> the type of the resulting stream values
+     * @param other the stream to join with, sorted by key
+     * @param comparator a non-interfering, stateless comparator both streams
+     *        are sorted by
+     * @param merger a non-interfering, stateless function to compute the
+     *        resulting value from the values of the joined entries
+     * @return the new stream
+     * @see #innerJoin(EntryStream, BiFunction)
+     * @see StreamEx#mergeSorted(Comparator, Stream...)
+     * @since 0.6.1
+     */
+    public <V2, R> EntryStream<K, R> mergeJoin(EntryStream<K, V2> other, Comparator<? super K> comparator,
+            BiFunction<? super V, ? super V2, ? extends R> merger) {
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(merger);
+        return new EntryStream<>(new JoinSpliterator.Merge<>(BiSpliterator.of(spliterator()), BiSpliterator.of(other
+                .spliterator()), comparator, merger), context.combine(other));
+    }
+
     /**
      * Returns a {@link Map} containing the elements of this stream. There are
      * no guarantees on the type or serializability of the {@code Map} returned;
@@ -966,8 +1095,8 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @see Collectors#toConcurrentMap(Function, Function)
      */
     public Map<K, V> toMap() {
-        Map<K, V> map = isParallel() ? new ConcurrentHashMap<>() : new HashMap<>();
-        forEach(toMapConsumer(map));
+        Map<K, V> map = createMap();
+        forKeyValue(toMapConsumer(map));
         return map;
     }
 
@@ -1059,7 +1188,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
             return collect(mapSupplier, (m, t) -> addToMap(m, t.getKey(), Objects.requireNonNull(t.getValue())), (m1,
                     m2) -> m2.forEach((k, v) -> addToMap(m1, k, v)));
         }
-        forEach(toMapConsumer(map));
+        forKeyValue(toMapConsumer(map));
         return map;
     }
 
@@ -1117,7 +1246,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      */
     public SortedMap<K, V> toSortedMap() {
         SortedMap<K, V> map = isParallel() ? new ConcurrentSkipListMap<>() : new TreeMap<>();
-        forEach(toMapConsumer(map));
+        forKeyValue(toMapConsumer(map));
         return map;
     }
 
@@ -1276,7 +1405,10 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @see #forEach(java.util.function.Consumer)
      */
     public void forKeyValue(BiConsumer<? super K, ? super V> action) {
-        forEach(toConsumer(action));
+        if (spliterator != null && !isParallel())
+            BiSpliterator.of(spliterator()).forKeyValueRemaining(action);
+        else
+            forEach(toConsumer(action));
     }
 
     /**
@@ -1322,7 +1454,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @since 0.3.4
      */
     public static <K, V> EntryStream<K, V> of(Spliterator<? extends Entry<K, V>> spliterator) {
-        return of(StreamSupport.stream(spliterator, false));
+        return new EntryStream<>(spliterator, StreamContext.SEQUENTIAL);
     }
 
     /**
@@ -1358,7 +1490,7 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @return a new {@code EntryStream}
      */
     public static <K, V> EntryStream<K, V> of(Map<K, V> map) {
-        return of(map.entrySet().stream());
+        return of(map.entrySet().spliterator());
     }
 
     /**
@@ -1734,16 +1866,6 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
         return ofPairs(Arrays.asList(array));
     }
 
-    static <T> Stream<Entry<Integer, T>> flatTraverse(Stream<Entry<Integer, T>> src,
-            BiFunction<Integer, T, Stream<T>> streamProvider) {
-        return src.flatMap(entry -> {
-            Integer depth = entry.getKey();
-            Stream<T> result = streamProvider.apply(depth, entry.getValue());
-            return result == null ? Stream.of(entry) : Stream.concat(Stream.of(entry), flatTraverse(result
-                    .map(t -> new ObjIntBox<>(t, depth + 1)), streamProvider));
-        });
-    }
-
     /**
      * Return a new {@link EntryStream} containing all the nodes of tree-like
      * data structure in entry values along with the corresponding tree depths
@@ -1754,6 +1876,11 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * used for the root node only, 1 is for root immediate children, 2 is for
      * their children and so on.
      * 
+     * <p>
+     * The tree is traversed lazily without recursion, so deep trees are
+     * supported. The parallel stream distributes the subtrees between the
+     * worker threads.
+     * 
      * @param <T> the type of tree nodes
      * @param root root node of the tree
      * @param mapper a non-interfering, stateless function to apply to each tree
@@ -1763,12 +1890,38 @@ public class EntryStream<K, V> extends AbstractStreamEx<Entry<K, V>, EntryStream
      * @since 0.5.2
      * @see StreamEx#ofTree(Object, Function)
      * @see #ofTree(Object, Class, BiFunction)
+     * @see #ofTreeBreadthFirst(Object, BiFunction)
      */
     public static <T> EntryStream<Integer, T> ofTree(T root, BiFunction<Integer, T, Stream<T>> mapper) {
-        Stream<T> rootStream = mapper.apply(0, root);
-        Stream<Entry<Integer, T>> base = Stream.of(new ObjIntBox<>(root, 0));
-        return rootStream == null ? of(base) : of(flatTraverse(rootStream.map(t -> new ObjIntBox<>(t, 1)), mapper))
-                .prepend(base);
+        TreeSpliterator<T, Entry<Integer, T>> spliterator = new TreeSpliterator.Depth<>(root, mapper,
+                Integer.MAX_VALUE, false);
+        return of(spliterator).onClose(spliterator::close);
+    }
+
+    /**
+     * Return a new {@link EntryStream} containing all the nodes of tree-like
+     * data structure in entry values along with the corresponding tree depths
+     * in entry keys, in breadth-first order: the root node, then its
+     * immediate children, then their children and so on.
+     * 
+     * <p>
+     * Unlike the depth-first traversal, this stream is not split for parallel
+     * processing.
+     * 
+     * @param <T> the type of tree nodes
+     * @param root root node of the tree
+     * @param mapper a non-interfering, stateless function to apply to each tree
+     *        node and its depth which returns null for leaf nodes or stream of
+     *        direct children for non-leaf nodes.
+     * @return the new sequential ordered {@code EntryStream}
+     * @since 0.6.1
+     * @see StreamEx#ofTreeBreadthFirst(Object, Function)
+     * @see #ofTree(Object, BiFunction)
+     */
+    public static <T> EntryStream<Integer, T> ofTreeBreadthFirst(T root, BiFunction<Integer, T, Stream<T>> mapper) {
+        TreeSpliterator<T, Entry<Integer, T>> spliterator = new TreeSpliterator.Depth<>(root, mapper,
+                Integer.MAX_VALUE, true);
+        return of(spliterator).onClose(spliterator::close);
     }
 
     /**
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Cartesian product spliterator over the random access lists. Every element is
+ * addressed by its index, which is the mixed-radix number with digits being
+ * the indices in the source lists. Thus it can be split exactly in halves and
+ * the leading elements can be skipped in constant time.
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class IndexedCrossSpliterator<T, A> extends
+        CloneableSpliterator<A, IndexedCrossSpliterator<T, A>> implements SliceableSpliterator {
+    final List<T>[] lists;
+    final int[] sizes;
+    long pos, fence;
+    // indices in the source lists which correspond to pos, null if not
+    // computed yet
+    int[] digits;
+
+    @SuppressWarnings("unchecked")
+    IndexedCrossSpliterator(Collection<? extends Collection<T>> source, long size) {
+        this.lists = source.toArray(new List[0]);
+        this.sizes = new int[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            sizes[i] = lists[i].size();
+        }
+        this.fence = size;
+    }
+
+    /**
+     * Returns the number of the cartesian product elements if it can be
+     * enumerated by index, or -1 otherwise.
+     *
+     * @param source collections to check
+     * @return number of the elements or -1 if source collections are not
+     *         random access lists or the number does not fit into long
+     */
+    static long indexedSize(Collection<? extends Collection<?>> source) {
+        long size = 1;
+        for (Collection<?> c : source) {
+            if (!(c instanceof List) || !(c instanceof RandomAccess))
+                return -1;
+            try {
+                size = StrictMath.multiplyExact(size, c.size());
+            } catch (ArithmeticException e) {
+                return -1;
+            }
+        }
+        return size;
+    }
+
+    abstract void reset();
+
+    // Returns the leftmost changed digit
+    int increment() {
+        int[] d = digits;
+        int i = d.length - 1;
+        while (i > 0 && ++d[i] == sizes[i]) {
+            d[i--] = 0;
+        }
+        if (i == 0)
+            d[0]++;
+        return i;
+    }
+
+    void initDigits() {
+        int[] d = new int[sizes.length];
+        long idx = pos;
+        for (int i = d.length - 1; i >= 0; i--) {
+            d[i] = (int) (idx % sizes[i]);
+            idx /= sizes[i];
+        }
+        digits = d;
+    }
+
+    @Override
+    public void skip(long n) {
+        pos = n >= fence - pos ? fence : pos + n;
+        digits = null;
+        reset();
+    }
+
+    @Override
+    public void limit(long n) {
+        if (n < fence - pos)
+            fence = pos + n;
+    }
+
+    @Override
+    public IndexedCrossSpliterator<T, A> trySplit() {
+        long size = fence - pos;
+        if (size < 2)
+            return null;
+        long mid = pos + size / 2;
+        IndexedCrossSpliterator<T, A> prefix = doClone();
+        prefix.fence = mid;
+        pos = mid;
+        digits = null;
+        reset();
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+
+    static final class ToList<T> extends IndexedCrossSpliterator<T, List<T>> {
+        ToList(Collection<? extends Collection<T>> source, long size) {
+            super(source, size);
+        }
+
+        @Override
+        void reset() {
+            // nothing to reset
+        }
+
+        private List<T> current() {
+            int[] d = digits;
+            List<T> result = new ArrayList<>(d.length);
+            for (int i = 0; i < d.length; i++) {
+                result.add(lists[i].get(d[i]));
+            }
+            return result;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (pos >= fence)
+                return false;
+            if (digits == null)
+                initDigits();
+            List<T> result = current();
+            pos++;
+            increment();
+            action.accept(result);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super List<T>> action) {
+            if (pos >= fence)
+                return;
+            if (digits == null)
+                initDigits();
+            long p = pos, f = fence;
+            pos = f;
+            for (; p < f; p++) {
+                action.accept(current());
+                increment();
+            }
+        }
+    }
+
+    static final class Reducing<T, A> extends IndexedCrossSpliterator<T, A> {
+        private final A identity;
+        private final BiFunction<A, ? super T, A> accumulator;
+        // elements[i] is the reduction of the first i digits
+        private A[] elements;
+        // number of valid reduced elements (except identity)
+        private int valid;
+
+        Reducing(Collection<? extends Collection<T>> source, long size, A identity,
+                BiFunction<A, ? super T, A> accumulator) {
+            super(source, size);
+            this.identity = identity;
+            this.accumulator = accumulator;
+            reset();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        void reset() {
+            elements = (A[]) new Object[lists.length + 1];
+            elements[0] = identity;
+            valid = 0;
+        }
+
+        private A current() {
+            int[] d = digits;
+            A[] e = elements;
+            for (int i = valid; i < d.length; i++) {
+                e[i + 1] = accumulator.apply(e[i], lists[i].get(d[i]));
+            }
+            valid = d.length;
+            return e[d.length];
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (pos >= fence)
+                return false;
+            if (digits == null)
+                initDigits();
+            A result = current();
+            pos++;
+            valid = Math.min(valid, increment());
+            action.accept(result);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super A> action) {
+            if (pos >= fence)
+                return;
+            if (digits == null)
+                initDigits();
+            long p = pos, f = fence;
+            pos = f;
+            for (; p < f; p++) {
+                action.accept(current());
+                valid = Math.min(valid, increment());
+            }
+        }
+    }
+}
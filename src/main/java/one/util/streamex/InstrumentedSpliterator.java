@@ -0,0 +1,244 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * A spliterator which passes all the elements and splits to the source and
+ * reports the statistics to the {@link StreamListener}.
+ * 
+ * @author Tagir Valeev
+ */
+/* package */abstract class InstrumentedSpliterator<T, S extends Spliterator<T>, IS extends InstrumentedSpliterator<T, S, IS>>
+        extends CloneableSpliterator<T, IS> {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    // State shared by all the spliterators of the split tree
+    static final class Tree {
+        final StreamListener listener;
+        final AtomicInteger pending = new AtomicInteger(1);
+        final AtomicLong elements = new AtomicLong();
+        final AtomicLong start = new AtomicLong(NOT_STARTED);
+
+        Tree(StreamListener listener) {
+            this.listener = listener;
+        }
+
+        void start(long nanos) {
+            if (start.get() == NOT_STARTED)
+                start.compareAndSet(NOT_STARTED, nanos);
+        }
+    }
+
+    final Tree tree;
+    S source;
+    long count;
+    int depth;
+    boolean started, finished;
+    private long startNanos, startCpu;
+
+    InstrumentedSpliterator(S source, StreamListener listener) {
+        this.source = source;
+        this.tree = new Tree(listener);
+    }
+
+    static long cpuTime() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    final void start() {
+        if (!started) {
+            started = true;
+            startNanos = System.nanoTime();
+            startCpu = cpuTime();
+            tree.start(startNanos);
+        }
+    }
+
+    final void finish() {
+        if (finished)
+            return;
+        finished = true;
+        long end = System.nanoTime();
+        long cpu = startCpu < 0 ? -1 : cpuTime() - startCpu;
+        tree.listener.onTraversal(depth, count, end - startNanos, cpu);
+        long total = tree.elements.addAndGet(count);
+        if (tree.pending.decrementAndGet() == 0)
+            tree.listener.onComplete(total, end - tree.start.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public IS trySplit() {
+        S prefix = (S) source.trySplit();
+        if (prefix == null)
+            return null;
+        tree.start(System.nanoTime());
+        tree.pending.incrementAndGet();
+        tree.listener.onSplit(depth, prefix.estimateSize(), source.estimateSize());
+        IS clone = doClone();
+        clone.source = prefix;
+        clone.depth = ++depth;
+        clone.count = 0;
+        clone.started = clone.finished = false;
+        return clone;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return source.getExactSizeIfKnown();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics();
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+    static final class ISOfRef<T> extends InstrumentedSpliterator<T, Spliterator<T>, ISOfRef<T>> {
+        ISOfRef(Spliterator<T> source, StreamListener listener) {
+            super(source, listener);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            start();
+            if (source.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            start();
+            source.forEachRemaining(t -> {
+                count++;
+                action.accept(t);
+            });
+            finish();
+        }
+    }
+
+    static final class ISOfInt extends InstrumentedSpliterator<Integer, Spliterator.OfInt, ISOfInt> implements
+            Spliterator.OfInt {
+        ISOfInt(Spliterator.OfInt source, StreamListener listener) {
+            super(source, listener);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            start();
+            if (source.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            start();
+            source.forEachRemaining((int t) -> {
+                count++;
+                action.accept(t);
+            });
+            finish();
+        }
+    }
+
+    static final class ISOfLong extends InstrumentedSpliterator<Long, Spliterator.OfLong, ISOfLong> implements
+            Spliterator.OfLong {
+        ISOfLong(Spliterator.OfLong source, StreamListener listener) {
+            super(source, listener);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            start();
+            if (source.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            start();
+            source.forEachRemaining((long t) -> {
+                count++;
+                action.accept(t);
+            });
+            finish();
+        }
+    }
+
+    static final class ISOfDouble extends InstrumentedSpliterator<Double, Spliterator.OfDouble, ISOfDouble> implements
+            Spliterator.OfDouble {
+        ISOfDouble(Spliterator.OfDouble source, StreamListener listener) {
+            super(source, listener);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            start();
+            if (source.tryAdvance(action)) {
+                count++;
+                return true;
+            }
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            start();
+            source.forEachRemaining((double t) -> {
+                count++;
+                action.accept(t);
+            });
+            finish();
+        }
+    }
+}
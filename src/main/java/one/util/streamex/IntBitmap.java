@@ -0,0 +1,744 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of {@code int} values. The values are grouped by their
+ * upper 16 bits, and the lower 16 bits of every group are stored in a
+ * container which representation depends on the group contents: a sorted
+ * array for sparse groups, a 8 KiB bitmap for dense groups or a list of
+ * consecutive runs for the groups consisting of few long ranges. Thus unlike
+ * the {@link java.util.BitSet} the memory footprint depends on the number and
+ * the distribution of values rather than on the largest value, and negative
+ * values are supported as well.
+ *
+ * <p>
+ * Use {@link IntStreamEx#toBitmap()} to create the bitmap from the stream and
+ * {@link IntStreamEx#of(IntBitmap)} to stream its values in ascending order.
+ * The stream splits at the container boundaries, so every part of the parallel
+ * stream traverses whole containers whenever possible.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Tagir Valeev
+ * @see IntStreamEx#toBitmap()
+ * @see IntCollector#toBitmap()
+ * @since 0.6.1
+ */
+public final class IntBitmap {
+    // maximal number of values in the array container
+    static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    // container keys: upper 16 bits of values with flipped sign bit,
+    // so the unsigned key order agrees with the signed value order
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+    // true if the containers may be referenced from somewhere else (stream
+    // snapshot or another bitmap), so they must be copied before modification
+    private boolean shared;
+
+    /**
+     * Creates an empty bitmap.
+     */
+    public IntBitmap() {
+    }
+
+    static char key(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    static int base(char key) {
+        return (key ^ 0x8000) << 16;
+    }
+
+    /**
+     * Adds the specified value to this bitmap.
+     *
+     * @param value the value to add
+     * @return true if this bitmap did not already contain the value
+     */
+    public boolean add(int value) {
+        char key = key(value);
+        int low = value & 0xFFFF;
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        if (i >= 0 && containers[i].contains(low))
+            return false;
+        if (shared)
+            unshare();
+        if (i >= 0) {
+            containers[i] = containers[i].add(low);
+            return true;
+        }
+        i = -i - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = new ArrayContainer(new char[] { (char) low }, 1);
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns true if this bitmap contains the specified value.
+     *
+     * @param value the value to look for
+     * @return true if this bitmap contains the specified value
+     */
+    public boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, 0, size, key(value));
+        return i >= 0 && containers[i].contains(value & 0xFFFF);
+    }
+
+    /**
+     * Returns the number of values in this bitmap.
+     *
+     * @return the number of values in this bitmap
+     */
+    public long cardinality() {
+        long result = 0;
+        for (int i = 0; i < size; i++) {
+            result += containers[i].cardinality();
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if this bitmap contains no values.
+     *
+     * @return true if this bitmap contains no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds all the values of the other bitmap to this bitmap. The groups
+     * present in both bitmaps are merged container by container: two bitmap
+     * containers are merged word by word, two sorted arrays are merged without
+     * intermediate bitmap if the result fits the array container. The
+     * containers present in one bitmap only are not copied.
+     *
+     * @param other the bitmap which values should be added
+     */
+    public void or(IntBitmap other) {
+        if (other == this || other.size == 0)
+            return;
+        char[] newKeys = new char[size + other.size];
+        Container[] newContainers = new Container[size + other.size];
+        int i = 0, j = 0, n = 0;
+        boolean aliased = false;
+        while (i < size || j < other.size) {
+            int cmp = i == size ? 1 : j == other.size ? -1 : Character.compare(keys[i], other.keys[j]);
+            if (cmp < 0) {
+                newKeys[n] = keys[i];
+                newContainers[n++] = containers[i++];
+            } else if (cmp > 0) {
+                newKeys[n] = other.keys[j];
+                newContainers[n++] = other.containers[j++];
+                aliased = true;
+            } else {
+                newKeys[n] = keys[i];
+                newContainers[n++] = union(containers[i++], other.containers[j++]);
+            }
+        }
+        keys = newKeys;
+        containers = newContainers;
+        size = n;
+        if (aliased)
+            shared = other.shared = true;
+    }
+
+    /**
+     * Converts every container of this bitmap to the representation which
+     * occupies the least memory. In particular, the groups consisting of few
+     * long ranges are converted to the lists of runs. The contents of the
+     * bitmap is not changed. {@link IntStreamEx#toBitmap()} performs this
+     * operation automatically.
+     */
+    public void optimize() {
+        if (shared) {
+            containers = containers.clone();
+        }
+        for (int i = 0; i < size; i++) {
+            containers[i] = optimize(containers[i]);
+        }
+    }
+
+    Container[] containers() {
+        return Arrays.copyOf(containers, size);
+    }
+
+    private void unshare() {
+        keys = keys.clone();
+        containers = containers.clone();
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].copy();
+        }
+        shared = false;
+    }
+
+    /**
+     * Creates a spliterator over the current contents of this bitmap. The
+     * bitmap is not copied: it copies its containers itself before the next
+     * modification.
+     */
+    IntBitmapSpliterator spliterator() {
+        shared = true;
+        long[] offsets = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = offsets[i] + containers[i].cardinality();
+        }
+        return new IntBitmapSpliterator(keys, containers, offsets);
+    }
+
+    /**
+     * Returns true if the other object is an {@code IntBitmap} which contains
+     * exactly the same values as this bitmap regardless of the containers
+     * representation.
+     *
+     * @param obj the object to compare with
+     * @return true if the objects are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof IntBitmap))
+            return false;
+        IntBitmap other = (IntBitmap) obj;
+        if (size != other.size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != other.keys[i])
+                return false;
+            Container c1 = containers[i], c2 = other.containers[i];
+            if (c1.cardinality() != c2.cardinality())
+                return false;
+            for (int v = c1.next(0); v >= 0; v = c1.next(v + 1)) {
+                if (!c2.contains(v))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = { 1 };
+        forEach(v -> hash[0] = hash[0] * 31 + v);
+        return hash[0];
+    }
+
+    /**
+     * Returns the string representation of this bitmap in the same format as
+     * {@link java.util.BitSet#toString()}: the values in ascending order
+     * separated by comma and enclosed into curly braces.
+     *
+     * @return the string representation of this bitmap
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach(v -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    private void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(base(keys[i]), 0, Long.MAX_VALUE, action);
+        }
+    }
+
+    static Container union(Container c1, Container c2) {
+        if (c1 instanceof ArrayContainer && c2 instanceof ArrayContainer
+            && c1.cardinality() + c2.cardinality() <= ARRAY_MAX)
+            return ((ArrayContainer) c1).merge((ArrayContainer) c2);
+        long[] words = new long[WORDS];
+        c1.orInto(words);
+        c2.orInto(words);
+        int cardinality = 0;
+        for (long w : words) {
+            cardinality += Long.bitCount(w);
+        }
+        Container result = new BitmapContainer(words, cardinality);
+        return cardinality <= ARRAY_MAX ? toArray(result) : result;
+    }
+
+    static Container optimize(Container c) {
+        int cardinality = c.cardinality();
+        int runs = c.runCount();
+        // memory in bytes: 2 per array value, 4 per run, fixed 8 KiB for bitmap
+        if (runs * 4 < Math.min(cardinality * 2, WORDS * 8))
+            return c instanceof RunContainer ? c : toRuns(c, runs);
+        if (cardinality <= ARRAY_MAX)
+            return c instanceof ArrayContainer ? c : toArray(c);
+        if (c instanceof BitmapContainer)
+            return c;
+        long[] words = new long[WORDS];
+        c.orInto(words);
+        return new BitmapContainer(words, cardinality);
+    }
+
+    static ArrayContainer toArray(Container c) {
+        char[] values = new char[c.cardinality()];
+        int n = 0;
+        for (int v = c.next(0); v >= 0; v = c.next(v + 1)) {
+            values[n++] = (char) v;
+        }
+        return new ArrayContainer(values, n);
+    }
+
+    static RunContainer toRuns(Container c, int runs) {
+        char[] starts = new char[runs], lengths = new char[runs];
+        int n = 0;
+        int v = c.next(0);
+        while (v >= 0) {
+            int end = v, next;
+            while ((next = c.next(end + 1)) == end + 1) {
+                end = next;
+            }
+            starts[n] = (char) v;
+            lengths[n++] = (char) (end - v);
+            v = next;
+        }
+        return new RunContainer(starts, lengths, n, c.cardinality());
+    }
+
+    /**
+     * Returns the index of the first of values[from, to) which is not less
+     * than the key (or to if there's no such element).
+     */
+    static int lowerBound(char[] values, int from, int to, int key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] < key)
+                from = mid + 1;
+            else
+                to = mid;
+        }
+        return from;
+    }
+
+    /**
+     * A set of the lower 16 bits of the values sharing the same upper bits.
+     * The methods accepting the low bound allow the bound 0x10000, which
+     * precedes no value.
+     */
+    static abstract class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(int low);
+
+        /**
+         * Adds the value which is not contained yet. Returns this container or
+         * the new container with different representation.
+         */
+        abstract Container add(int low);
+
+        /**
+         * Returns the smallest value which is not less than low or -1 if there's
+         * no such value.
+         */
+        abstract int next(int low);
+
+        /**
+         * Returns the number of values which are less than low.
+         */
+        abstract int rank(int low);
+
+        /**
+         * Returns the value having the given zero-based rank.
+         */
+        abstract int select(int rank);
+
+        /**
+         * Passes at most max smallest values which are not less than low
+         * combined with the base to the action. Returns the number of passed
+         * values.
+         */
+        abstract int forEach(int base, int low, long max, IntConsumer action);
+
+        abstract void orInto(long[] words);
+
+        abstract int runCount();
+
+        abstract Container copy();
+    }
+
+    static final class ArrayContainer extends Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int i = lowerBound(values, 0, size, low);
+            return i < size && values[i] == low;
+        }
+
+        @Override
+        Container add(int low) {
+            if (size == ARRAY_MAX) {
+                long[] words = new long[WORDS];
+                orInto(words);
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, size + 1);
+            }
+            int i = lowerBound(values, 0, size, low);
+            if (size == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = (char) low;
+            size++;
+            return this;
+        }
+
+        @Override
+        int next(int low) {
+            int i = lowerBound(values, 0, size, low);
+            return i < size ? values[i] : -1;
+        }
+
+        @Override
+        int rank(int low) {
+            return lowerBound(values, 0, size, low);
+        }
+
+        @Override
+        int select(int rank) {
+            return values[rank];
+        }
+
+        @Override
+        int forEach(int base, int low, long max, IntConsumer action) {
+            int from = lowerBound(values, 0, size, low);
+            int to = (int) Math.min(size, from + max);
+            for (int i = from; i < to; i++) {
+                action.accept(base | values[i]);
+            }
+            return to - from;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        int runCount() {
+            int runs = size == 0 ? 0 : 1;
+            for (int i = 1; i < size; i++) {
+                if (values[i] != values[i - 1] + 1)
+                    runs++;
+            }
+            return runs;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        ArrayContainer merge(ArrayContainer other) {
+            char[] result = new char[size + other.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                char a = values[i], b = other.values[j];
+                if (a <= b)
+                    i++;
+                if (b <= a)
+                    j++;
+                result[n++] = a < b ? a : b;
+            }
+            while (i < size)
+                result[n++] = values[i++];
+            while (j < other.size)
+                result[n++] = other.values[j++];
+            return new ArrayContainer(result, n);
+        }
+    }
+
+    static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(int low) {
+            words[low >>> 6] |= 1L << low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        int next(int low) {
+            int wi = low >>> 6;
+            if (wi == WORDS)
+                return -1;
+            long w = words[wi] & (-1L << low);
+            while (w == 0) {
+                if (++wi == WORDS)
+                    return -1;
+                w = words[wi];
+            }
+            return (wi << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        @Override
+        int rank(int low) {
+            int wi = low >>> 6;
+            int result = 0;
+            for (int i = 0; i < wi; i++) {
+                result += Long.bitCount(words[i]);
+            }
+            return wi == WORDS ? result : result + Long.bitCount(words[wi] & ((1L << low) - 1));
+        }
+
+        @Override
+        int select(int rank) {
+            int wi = 0;
+            long w = words[0];
+            int count;
+            while ((count = Long.bitCount(w)) <= rank) {
+                rank -= count;
+                w = words[++wi];
+            }
+            for (; rank > 0; rank--) {
+                w &= w - 1;
+            }
+            return (wi << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        @Override
+        int forEach(int base, int low, long max, IntConsumer action) {
+            int wi = low >>> 6;
+            if (wi == WORDS || max == 0)
+                return 0;
+            int n = 0;
+            long w = words[wi] & (-1L << low);
+            while (true) {
+                while (w != 0) {
+                    action.accept(base | ((wi << 6) + Long.numberOfTrailingZeros(w)));
+                    if (++n == max)
+                        return n;
+                    w &= w - 1;
+                }
+                if (++wi == WORDS)
+                    return n;
+                w = words[wi];
+            }
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int i = 0; i < WORDS; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            long carry = 0;
+            for (long w : words) {
+                // count the set bits which previous bit is clear
+                runs += Long.bitCount(w & ~((w << 1) | carry));
+                carry = w >>> 63;
+            }
+            return runs;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+    }
+
+    static final class RunContainer extends Container {
+        private char[] starts;
+        // run length minus one, so the full 65536-value run fits
+        private char[] lengths;
+        private int size;
+        private int cardinality;
+
+        RunContainer(char[] starts, char[] lengths, int size, int cardinality) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.size = size;
+            this.cardinality = cardinality;
+        }
+
+        // index of the last run which starts not after low or -1
+        private int find(int low) {
+            return lowerBound(starts, 0, size, low + 1) - 1;
+        }
+
+        private int end(int i) {
+            return starts[i] + lengths[i];
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int i = find(low);
+            return i >= 0 && low <= end(i);
+        }
+
+        @Override
+        Container add(int low) {
+            int i = find(low);
+            boolean joinPrev = i >= 0 && end(i) + 1 == low;
+            boolean joinNext = i + 1 < size && starts[i + 1] == low + 1;
+            if (joinPrev && joinNext) {
+                lengths[i] = (char) (lengths[i] + lengths[i + 1] + 2);
+                System.arraycopy(starts, i + 2, starts, i + 1, size - i - 2);
+                System.arraycopy(lengths, i + 2, lengths, i + 1, size - i - 2);
+                size--;
+            } else if (joinPrev) {
+                lengths[i]++;
+            } else if (joinNext) {
+                starts[i + 1]--;
+                lengths[i + 1]++;
+            } else {
+                if (size == starts.length) {
+                    starts = Arrays.copyOf(starts, size * 2 + 1);
+                    lengths = Arrays.copyOf(lengths, size * 2 + 1);
+                }
+                System.arraycopy(starts, i + 1, starts, i + 2, size - i - 1);
+                System.arraycopy(lengths, i + 1, lengths, i + 2, size - i - 1);
+                starts[i + 1] = (char) low;
+                lengths[i + 1] = 0;
+                size++;
+            }
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        int next(int low) {
+            int i = find(low);
+            if (i >= 0 && low <= end(i))
+                return low;
+            return ++i < size ? starts[i] : -1;
+        }
+
+        @Override
+        int rank(int low) {
+            int result = 0;
+            for (int i = 0; i < size && starts[i] < low; i++) {
+                result += Math.min(end(i), low - 1) - starts[i] + 1;
+            }
+            return result;
+        }
+
+        @Override
+        int select(int rank) {
+            int i = 0;
+            while (rank > lengths[i]) {
+                rank -= lengths[i++] + 1;
+            }
+            return starts[i] + rank;
+        }
+
+        @Override
+        int forEach(int base, int low, long max, IntConsumer action) {
+            int i = find(low);
+            if (i < 0 || low > end(i)) {
+                i++;
+                low = i < size ? starts[i] : 0;
+            }
+            int n = 0;
+            for (; i < size && n < max; i++) {
+                int v = Math.max(low, starts[i]), end = end(i);
+                for (; v <= end && n < max; v++, n++) {
+                    action.accept(base | v);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < size; i++) {
+                int from = starts[i], to = end(i) + 1;
+                int fw = from >>> 6, lw = (to - 1) >>> 6;
+                long first = -1L << from, last = -1L >>> -to;
+                if (fw == lw) {
+                    words[fw] |= first & last;
+                } else {
+                    words[fw] |= first;
+                    for (int w = fw + 1; w < lw; w++) {
+                        words[w] = -1L;
+                    }
+                    words[lw] |= last;
+                }
+            }
+        }
+
+        @Override
+        int runCount() {
+            return size;
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(starts, size), Arrays.copyOf(lengths, size), size, cardinality);
+        }
+    }
+}
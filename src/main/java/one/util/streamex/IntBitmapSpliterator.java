@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+import one.util.streamex.IntBitmap.Container;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * A spliterator over the values of the {@link IntBitmap}. It splits at the
+ * container boundary closest to the middle, so the parts traverse whole
+ * containers, unless such split would be too unbalanced (e.g. when the
+ * remaining values belong to one or two containers only). In this case it
+ * splits in the middle of the container. The exact number of values in every
+ * part is known from the container cardinalities, which also allows to skip
+ * whole containers at once.
+ *
+ * @author Tagir Valeev
+ */
+/* package */final class IntBitmapSpliterator implements Spliterator.OfInt, SliceableSpliterator {
+    private final char[] keys;
+    private final Container[] containers;
+    // offsets[i] is the total cardinality of the containers before i
+    private final long[] offsets;
+    // index of the current container
+    private int ci;
+    // the lowest value to traverse in the current container
+    private int low;
+    // exact number of the remaining values
+    private long size;
+
+    IntBitmapSpliterator(char[] keys, Container[] containers, long[] offsets) {
+        this(keys, containers, offsets, 0, 0, offsets[offsets.length - 1]);
+    }
+
+    private IntBitmapSpliterator(char[] keys, Container[] containers, long[] offsets, int ci, int low, long size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.offsets = offsets;
+        this.ci = ci;
+        this.low = low;
+        this.size = size;
+    }
+
+    // the rank of the next value in the whole bitmap
+    private long position() {
+        return size == 0 ? 0 : offsets[ci] + containers[ci].rank(low);
+    }
+
+    // moves to the value having the given rank in the whole bitmap
+    private void moveTo(long pos) {
+        int i = Arrays.binarySearch(offsets, pos);
+        // pos is less than the total cardinality and containers are not empty
+        ci = i >= 0 ? i : -i - 2;
+        low = containers[ci].select((int) (pos - offsets[ci]));
+    }
+
+    @Override
+    public void skip(long n) {
+        if (n >= size) {
+            size = 0;
+        } else if (n > 0) {
+            moveTo(position() + n);
+            size -= n;
+        }
+    }
+
+    @Override
+    public void limit(long n) {
+        if (n < size)
+            size = n;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (size == 0)
+            return false;
+        int v;
+        while ((v = containers[ci].next(low)) < 0) {
+            ci++;
+            low = 0;
+        }
+        low = v + 1;
+        size--;
+        action.accept(IntBitmap.base(keys[ci]) | v);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        long s = size;
+        if (s == 0)
+            return;
+        size = 0;
+        while (true) {
+            s -= containers[ci].forEach(IntBitmap.base(keys[ci]), low, s, action);
+            if (s == 0)
+                return;
+            ci++;
+            low = 0;
+        }
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        long s = size;
+        if (s < 2)
+            return null;
+        long pos = position();
+        long end = pos + s;
+        long mid = pos + (s >>> 1);
+        int i = Arrays.binarySearch(offsets, mid);
+        if (i < 0) {
+            // choose the closer one of the boundaries around mid
+            i = -i - 1;
+            if (i == offsets.length || mid - offsets[i - 1] < offsets[i] - mid)
+                i--;
+        }
+        long split = offsets[i];
+        // accept the container boundary if both parts get at least a quarter
+        long quarter = Math.max(1, s >>> 2);
+        if (split - pos < quarter || end - split < quarter) {
+            split = mid;
+        }
+        IntBitmapSpliterator prefix = new IntBitmapSpliterator(keys, containers, offsets, ci, low, split - pos);
+        moveTo(split);
+        size = end - split;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+        return null;
+    }
+}
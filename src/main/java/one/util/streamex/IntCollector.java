@@ -467,6 +467,64 @@ public interface IntCollector<A, R> extends MergingCollector<Integer, A, R> {
         return PartialCollector.grouping(mapFactory, downstream).asInt(accumulator);
     }
 
+    /**
+     * Returns an {@code IntCollector} implementing a "group by" operation on
+     * input numbers, grouping them according to an int-valued classification
+     * function, and returning the results in a {@code Map}. The values of the
+     * resulting map are arrays containing the input numbers which map to the
+     * associated key under the classification function.
+     *
+     * <p>
+     * Unlike {@link #groupingBy(IntFunction)} the keys are not boxed during
+     * the collection: the groups are stored in the open-addressing hash map
+     * with primitive keys, and the elements of each group are collected into
+     * the growing primitive array. The returned {@code Map} is a read-only
+     * view of that hash map. In parallel the partial maps are merged by
+     * iterating over the smaller one.
+     *
+     * @param classifier the classifier function mapping input elements to keys
+     * @return an {@code IntCollector} implementing the group-by operation
+     * @see #groupingBy(IntFunction)
+     * @since 0.6.1
+     */
+    static IntCollector<?, Map<Integer, int[]>> groupingByInt(IntUnaryOperator classifier) {
+        return groupingByInt(classifier, toArray());
+    }
+
+    /**
+     * Returns an {@code IntCollector} implementing a cascaded "group by"
+     * operation on input numbers, grouping them according to an int-valued
+     * classification function, and then performing a reduction operation on
+     * the values associated with a given key using the specified downstream
+     * {@code IntCollector}.
+     *
+     * <p>
+     * The keys are not boxed during the collection: the groups are stored in
+     * the open-addressing hash map with primitive keys. The returned
+     * {@code Map} is a read-only view of that hash map.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *        reduction
+     * @return an {@code IntCollector} implementing the cascaded group-by
+     *         operation
+     * @see #groupingBy(IntFunction, IntCollector)
+     * @since 0.6.1
+     */
+    static <D, A> IntCollector<?, Map<Integer, D>> groupingByInt(IntUnaryOperator classifier,
+            IntCollector<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.intAccumulator();
+        BiConsumer<A, A> downstreamMerger = downstream.merger();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        ObjIntConsumer<PrimitiveKeyMap<A>> accumulator = (m, t) -> downstreamAccumulator.accept(m.computeIfAbsent(
+            classifier.applyAsInt(t), downstreamSupplier), t);
+        return of(PrimitiveKeyMap<A>::new, accumulator, (m1, m2) -> m1.merge(m2, downstreamMerger), m -> m
+                .replaceValues(downstreamFinisher).asIntMap());
+    }
+
     /**
      * Returns an {@code IntCollector} that produces the {@link BitSet} of the
      * input elements.
@@ -478,6 +536,23 @@ public interface IntCollector<A, R> extends MergingCollector<Integer, A, R> {
         return of(BitSet::new, BitSet::set, BitSet::or);
     }
 
+    /**
+     * Returns an {@code IntCollector} that produces the {@link IntBitmap} of
+     * the input elements. The bitmaps accumulated in parallel are merged by
+     * {@link IntBitmap#or(IntBitmap)} and the containers of the resulting
+     * bitmap are {@link IntBitmap#optimize() optimized}.
+     *
+     * @return an {@code IntCollector} that produces the {@link IntBitmap} of
+     *         the input elements
+     * @since 0.6.1
+     */
+    static IntCollector<?, IntBitmap> toBitmap() {
+        return of(IntBitmap::new, IntBitmap::add, IntBitmap::or, bitmap -> {
+            bitmap.optimize();
+            return bitmap;
+        });
+    }
+
     /**
      * Returns an {@code IntCollector} that produces the array of the input
      * elements. If no elements are present, the result is an empty array.
@@ -15,6 +15,9 @@
  */
 package one.util.streamex;
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -65,7 +68,7 @@ import static one.util.streamex.StreamExInternals.*;
  * @author Tagir Valeev
  */
 public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.OfInt, IntStreamEx> implements IntStream {
-    private static final class TDOfInt extends AbstractIntSpliterator implements IntConsumer {
+    static final class TDOfInt extends AbstractIntSpliterator implements IntConsumer {
         private final IntPredicate predicate;
         private final boolean drop;
         private final boolean inclusive;
@@ -157,17 +160,6 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return new IntStreamEx(spliterator, context);
     }
 
-    final IntStreamEx callWhile(IntPredicate predicate, int methodId) {
-        try {
-            return new IntStreamEx((IntStream) JDK9_METHODS[IDX_INT_STREAM][methodId].invokeExact(stream(), predicate),
-                    context);
-        } catch (Error | RuntimeException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw new InternalError(e);
-        }
-    }
-
     final <A> A collectSized(Supplier<A> supplier, ObjIntConsumer<A> accumulator, BiConsumer<A, A> combiner,
             IntFunction<A> sizedSupplier, ObjIntConsumer<A> sizedAccumulator) {
         if (isParallel())
@@ -496,6 +488,33 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return new IntStreamEx(stream().map(inv).sorted().map(inv), context);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in reverse
+     * encounter order.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>. If this stream is created from an array or by
+     * {@link #ofReversed(int[])} and no operations except {@code skip} and
+     * {@code limit} were applied to it, the source array is traversed in the
+     * opposite direction without copying. Otherwise the whole content of this
+     * stream is buffered when the terminal operation starts.
+     *
+     * @return the new stream
+     * @since 0.6.1
+     */
+    public IntStreamEx reversed() {
+        if (spliterator instanceof RangeBasedSpliterator.ReverseInt)
+            return delegate(((RangeBasedSpliterator.ReverseInt) spliterator()).reverse());
+        if (spliterator instanceof RangeBasedSpliterator.ForwardInt)
+            return delegate(((RangeBasedSpliterator.ForwardInt) spliterator()).reverse());
+        Spliterator.OfInt source = spliterator();
+        boolean parallel = isParallel();
+        return new IntStreamEx(StreamSupport.intStream(() -> new RangeBasedSpliterator.ReverseInt(StreamSupport
+                .intStream(source, parallel).toArray()), Spliterator.ORDERED | Spliterator.SIZED
+            | Spliterator.SUBSIZED, parallel), context);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to the natural order of the keys extracted by provided
@@ -665,11 +684,15 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
 
     @Override
     public IntStreamEx limit(long maxSize) {
+        if (slice(maxSize, false))
+            return new IntStreamEx(spliterator(), context);
         return new IntStreamEx(stream().limit(maxSize), context);
     }
 
     @Override
     public IntStreamEx skip(long n) {
+        if (slice(n, true))
+            return new IntStreamEx(spliterator(), context);
         return new IntStreamEx(stream().skip(n), context);
     }
 
@@ -705,9 +728,15 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @since 0.3.2
      */
     public IntStreamEx skipOrdered(long n) {
-        Spliterator.OfInt spliterator = (isParallel() ? StreamSupport.intStream(spliterator(), false) : stream()).skip(
-            n).spliterator();
-        return delegate(spliterator);
+        if (slice(n, true))
+            return new IntStreamEx(spliterator(), context);
+        if (isParallel()) {
+            Spliterator.OfInt source = spliterator();
+            if (SkipSpliterator.applicable(source, n))
+                return delegate(new SkipSpliterator.OfInt(source, n));
+            return delegate(StreamSupport.intStream(source, false).skip(n).spliterator());
+        }
+        return delegate(stream().skip(n).spliterator());
     }
 
     @Override
@@ -808,6 +837,31 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return collect(BitSet::new, BitSet::set, BitSet::or);
     }
 
+    /**
+     * Returns an {@link IntBitmap} containing the elements of this stream.
+     * Unlike {@link #toBitSet()} it occupies memory proportional to the number
+     * of distinct elements rather than to the largest element and accepts
+     * negative elements as well.
+     *
+     * <p>
+     * This is a terminal operation.
+     * 
+     * <p>
+     * For parallel stream every part accumulates its own bitmap and the
+     * bitmaps are merged by {@link IntBitmap#or(IntBitmap)}, which merges only
+     * the containers present in both bitmaps and reuses the others. The
+     * containers of the resulting bitmap are {@link IntBitmap#optimize()
+     * optimized}.
+     *
+     * @return an {@code IntBitmap} containing the elements of this stream
+     * @see IntCollector#toBitmap()
+     * @see #of(IntBitmap)
+     * @since 0.6.1
+     */
+    public IntBitmap toBitmap() {
+        return collect(IntCollector.toBitmap());
+    }
+
     @Override
     public int reduce(int identity, IntBinaryOperator op) {
         if (context.fjp != null)
@@ -1527,6 +1581,36 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return new IntStreamEx(IntStream.concat(other, stream()), context.combine(other));
     }
 
+    /**
+     * Creates a new {@code IntStreamEx} which elements are the results of
+     * applying the mapper function to the corresponding pairs of elements of
+     * this stream and the supplied other stream. The elements are not boxed.
+     * The resulting stream is ordered if both of the input streams are
+     * ordered, and parallel if either of the input streams is parallel. When
+     * the resulting stream is closed, the close handlers for both input
+     * streams are invoked.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     * 
+     * <p>
+     * The resulting stream finishes when either of the input streams finish:
+     * the rest of the longer stream is discarded. It's unspecified whether the
+     * rest elements of the longer stream are actually consumed.
+     * 
+     * @param other the stream to zip this stream with
+     * @param mapper a non-interfering, stateless function to apply to the
+     *        corresponding pairs of this stream and other stream elements
+     * @return the new stream
+     * @see StreamEx#zipWith(Stream, java.util.function.BiFunction)
+     * @since 0.6.1
+     */
+    public IntStreamEx zipWith(IntStream other, IntBinaryOperator mapper) {
+        return new IntStreamEx(new PrimitiveZipSpliterator.OfInt(spliterator(), other.spliterator(), mapper),
+                context.combine(other));
+    }
+
     /**
      * Returns an object-valued {@link StreamEx} consisting of the elements of
      * given array corresponding to the indices which appear in this stream.
@@ -1724,10 +1808,7 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      */
     public IntStreamEx takeWhile(IntPredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_TAKE_WHILE);
-        }
-        return delegate(new IntStreamEx.TDOfInt(spliterator(), false, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, false);
     }
 
     /**
@@ -1777,10 +1858,7 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      */
     public IntStreamEx dropWhile(IntPredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_DROP_WHILE);
-        }
-        return delegate(new IntStreamEx.TDOfInt(spliterator(), true, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, true);
     }
 
     /**
@@ -1825,6 +1903,11 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return delegate(new PairSpliterator.PSOfInt((a, b) -> a, mapper, spliterator(), PairSpliterator.MODE_MAP_LAST));
     }
 
+    @Override
+    public IntStreamEx instrument(StreamListener listener) {
+        return delegate(new InstrumentedSpliterator.ISOfInt(spliterator(), Objects.requireNonNull(listener)));
+    }
+
     // Necessary to generate proper JavaDoc
     // does not add overhead as it appears in bytecode anyways as bridge method
     @Override
@@ -1859,7 +1942,22 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @return the new stream
      */
     public static IntStreamEx of(int... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.ForwardInt(0, elements.length, elements));
+    }
+
+    /**
+     * Returns a sequential ordered {@code IntStreamEx} whose elements are the
+     * elements of the supplied array in reverse order. No copy of the array is
+     * made.
+     *
+     * @param array the array to stream from the end, assumed to be unmodified
+     *        during use
+     * @return the new stream
+     * @see #reversed()
+     * @since 0.6.1
+     */
+    public static IntStreamEx ofReversed(int[] array) {
+        return of(new RangeBasedSpliterator.ReverseInt(array));
     }
 
     /**
@@ -1878,7 +1976,8 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @see Arrays#stream(int[], int, int)
      */
     public static IntStreamEx of(int[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.ForwardInt(startInclusive, endExclusive, array));
     }
 
     /**
@@ -2197,16 +2296,43 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * {@link BitSet#cardinality()} method.
      *
      * <p>
-     * The bit set must remain constant during the execution of the terminal
-     * stream operation. Otherwise, the result of the terminal stream operation
-     * is undefined.
+     * The bit set is copied when this method is called, so the stream reflects
+     * the state of the bit set at the moment of stream creation and the
+     * subsequent modifications of the bit set do not affect it. The copying
+     * takes time proportional to the number of words in the bit set, that is,
+     * to the index of its highest set bit, regardless of the cardinality.
      *
      * @param bitSet a {@link BitSet} to produce the stream from
      * @return a stream of integers representing set indices
      * @see BitSet#stream()
      */
     public static IntStreamEx of(BitSet bitSet) {
-        return seq(bitSet.stream());
+        return of(new BitSetSpliterator(bitSet));
+    }
+
+    /**
+     * Returns an {@code IntStreamEx} of the values contained in the specified
+     * {@link IntBitmap} in ascending order. The size of the stream is equal to
+     * the value returned by the {@link IntBitmap#cardinality()} method.
+     *
+     * <p>
+     * The stream reflects the state of the bitmap at the moment of stream
+     * creation. The bitmap is not copied: instead the bitmap copies its
+     * containers before it's modified for the first time after this call.
+     * 
+     * <p>
+     * The parallel stream is split at the bitmap container boundaries, so
+     * every part traverses whole containers, unless the values are distributed
+     * too unevenly between the containers. The stream supports fast
+     * {@code skip()} and {@code limit()} which skip whole containers at once.
+     *
+     * @param bitmap an {@link IntBitmap} to produce the stream from
+     * @return a stream of the bitmap values
+     * @see #toBitmap()
+     * @since 0.6.1
+     */
+    public static IntStreamEx of(IntBitmap bitmap) {
+        return of(bitmap.spliterator());
     }
 
     /**
@@ -2299,10 +2425,7 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
      * @see CharSequence#chars()
      */
     public static IntStreamEx ofChars(CharSequence seq) {
-        // In JDK 8 there's only default chars() method which uses
-        // IteratorSpliterator
-        // In JDK 9 chars() method for most of implementations is much better
-        return of(IS_JDK9 ? seq.chars() : java.nio.CharBuffer.wrap(seq).chars());
+        return of(VersionSpecific.ofChars(seq));
     }
 
     /**
@@ -2326,6 +2449,78 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return of(seq.codePoints());
     }
 
+    /**
+     * Returns an {@code IntStreamEx} of the token boundaries of the supplied
+     * {@link CharSequence} split around the given delimiter. The stream
+     * contains {@code -1}, then the indices of all the delimiter occurrences
+     * in ascending order, then {@code seq.length()}. Thus every pair of
+     * adjacent stream elements {@code (from, to)} describes a token which
+     * spans from {@code from + 1} inclusive to {@code to} exclusive. The
+     * tokens are the same as the elements of
+     * {@code StreamEx.split(seq, delimiter, false)}, including trailing empty
+     * ones.
+     *
+     * <p>
+     * No object is allocated per token, so this method is useful to process
+     * huge sequences in place. For example, the following code parses the
+     * comma-separated numbers without creating the intermediate strings:
+     * 
+     * <pre>{@code
+     * int[] numbers = IntStreamEx.splitOffsets(seq, ',')
+     *     .pairMap((from, to) -> parse(seq, from + 1, to)).toArray();
+     * }</pre>
+     *
+     * <p>
+     * If the sequence is mutated while the stream is being read, the result is
+     * undefined.
+     *
+     * @param seq sequence to split
+     * @param delimiter the delimiter character
+     * @return an IntStreamEx of token boundaries
+     * @see StreamEx#split(CharSequence, char, boolean)
+     * @see StreamEx#splitToViews(CharSequence, char)
+     * @since 0.6.1
+     */
+    public static IntStreamEx splitOffsets(CharSequence seq, char delimiter) {
+        int length = seq.length();
+        return range(-1, length + 1).filter(i -> i < 0 || i == length || seq.charAt(i) == delimiter);
+    }
+
+    /**
+     * Returns a sequential ordered {@code IntStreamEx} of the {@code int} values
+     * stored at the given offset of every fixed-width record of the file.
+     *
+     * <p>
+     * The file is memory-mapped and the values are read directly from the
+     * mapping using the specified byte order. If the file size is not a
+     * multiple of {@code recordLength}, the trailing incomplete record is
+     * ignored. The returned stream is {@code SIZED} and splits evenly for
+     * parallel processing.
+     *
+     * <p>
+     * The file is mapped during this method call, so no file handle remains
+     * open and the returned stream need not be closed. The file must not be
+     * modified while the stream is being processed, otherwise the result is
+     * undefined.
+     *
+     * @param path the path to the file
+     * @param recordLength the length of every record in bytes
+     * @param offset the offset of the value within the record
+     * @param order the byte order of the stored values
+     * @return an {@code IntStreamEx} of the values read from the file
+     * @throws IOException if an I/O error occurs opening or mapping the file
+     * @throws IllegalArgumentException if {@code recordLength} is not positive
+     *         or {@code offset} is negative or the value at the given
+     *         {@code offset} does not fit into the record
+     * @see StreamEx#ofFixedRecords(Path, int)
+     * @since 0.6.1
+     */
+    public static IntStreamEx ofFixedRecords(Path path, int recordLength, int offset, ByteOrder order)
+            throws IOException {
+        return of(new RecordSpliterator.OfInt(RecordSpliterator.mapFixed(path, recordLength,
+            RecordSpliterator.MAX_WINDOW), recordLength, offset, order));
+    }
+
     /**
      * Returns an infinite sequential ordered {@code IntStreamEx} produced by
      * iterative application of a function {@code f} to an initial element
@@ -2617,6 +2812,68 @@ public class IntStreamEx extends BaseStreamEx<Integer, IntStream, Spliterator.Of
         return of(new RangeBasedSpliterator.ZipInt(0, checkLength(first.length, second.length), mapper, first, second));
     }
 
+    /**
+     * Returns an ordered {@code IntStreamEx} which lazily merges the supplied
+     * streams, each sorted in natural order, into a single sorted stream. The
+     * resulting stream is parallel if any of the input streams is parallel,
+     * though the merging itself is not split.
+     * 
+     * <p>
+     * Only one element of every input stream is held at a time. If any of the
+     * input streams is not sorted, the order of the resulting stream is
+     * unspecified. The close handlers of the input streams are invoked when
+     * the resulting stream is closed.
+     * 
+     * @param streams the sorted streams to merge
+     * @return the new stream
+     * @see #sorted()
+     * @see StreamEx#mergeSorted(java.util.Comparator, java.util.stream.Stream...)
+     * @since 0.6.1
+     */
+    public static IntStreamEx mergeSorted(IntStream... streams) {
+        Spliterator.OfInt[] sources = new Spliterator.OfInt[streams.length];
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (int i = 0; i < streams.length; i++) {
+            sources[i] = streams[i].spliterator();
+            context = context.combine(streams[i]);
+        }
+        return new IntStreamEx(new MergeSortedSpliterator.OfInt(sources), context);
+    }
+
+    /**
+     * Returns a lazily concatenated {@code IntStreamEx} whose elements are
+     * all the elements of the supplied streams in the order of the collection
+     * iteration.
+     * 
+     * <p>
+     * The streams are combined pairwise into the balanced tree, so the
+     * resulting stream is split between the sources in halves and its depth
+     * grows logarithmically with the number of the sources. The resulting
+     * stream is parallel if any of the input streams is parallel. When the
+     * resulting stream is closed, the close handlers of all the input streams
+     * are invoked.
+     * 
+     * @param streams the streams to concatenate
+     * @return the new stream
+     * @see StreamEx#concat(Collection)
+     * @since 0.6.1
+     */
+    public static IntStreamEx concat(Collection<? extends IntStream> streams) {
+        IntStream[] array = streams.toArray(new IntStream[0]);
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (IntStream stream : array) {
+            context = context.combine(stream);
+        }
+        return new IntStreamEx(concat(array, 0, array.length), context);
+    }
+
+    private static IntStream concat(IntStream[] streams, int from, int to) {
+        if (to - from < 2)
+            return from == to ? IntStream.empty() : streams[from];
+        int mid = (from + to) >>> 1;
+        return IntStream.concat(concat(streams, from, mid), concat(streams, mid, to));
+    }
+
     /**
      * A helper interface to build a new stream by emitting elements and
      * creating new emitters in a chain.
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A spliterator which joins the entries of the source with the entries of
+ * another stream having the same key. The joined key and value are passed to
+ * the consumer separately, so the {@code Entry} objects are created only if
+ * the downstream operation needs them.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of the source values
+ * @param <V2> the type of the other stream values
+ * @param <R> the type of the resulting values
+ */
+/* package */abstract class JoinSpliterator<K, V, V2, R> extends BiSpliterator<K, R> implements BiConsumer<K, V> {
+    private static final List<?> NO_MATCH = Collections.singletonList(null);
+
+    final BiSpliterator<K, V> source;
+    final BiFunction<? super V, ? super V2, ? extends R> merger;
+    private K key;
+    private V value;
+    // the values of the other stream matching the current key, null if the
+    // next source entry should be requested
+    List<V2> matches;
+    private int idx;
+    // no more matches possible
+    boolean done;
+
+    JoinSpliterator(BiSpliterator<K, V> source, BiFunction<? super V, ? super V2, ? extends R> merger) {
+        this.source = source;
+        this.merger = merger;
+    }
+
+    /**
+     * Returns the values of the other stream having given key or null if
+     * there are no such values.
+     */
+    abstract List<V2> lookup(K k);
+
+    @Override
+    public void accept(K k, V v) {
+        key = k;
+        value = v;
+    }
+
+    @Override
+    boolean tryAdvanceKeyValue(BiConsumer<? super K, ? super R> action) {
+        while (true) {
+            List<V2> m = matches;
+            if (m != null) {
+                if (idx < m.size()) {
+                    action.accept(key, merger.apply(value, m.get(idx++)));
+                    return true;
+                }
+                matches = null;
+                key = null;
+                value = null;
+            }
+            if (done || !source.tryAdvanceKeyValue(this))
+                return false;
+            matches = lookup(key);
+            idx = 0;
+        }
+    }
+
+    @Override
+    void forKeyValueRemaining(BiConsumer<? super K, ? super R> action) {
+        List<V2> m = matches;
+        if (m != null) {
+            // emit the rest of the current key matches, then go in bulk
+            K k = key;
+            V v = value;
+            matches = null;
+            key = null;
+            value = null;
+            for (int i = idx; i < m.size(); i++) {
+                action.accept(k, merger.apply(v, m.get(i)));
+            }
+        }
+        if (done)
+            return;
+        source.forKeyValueRemaining((k, v) -> {
+            List<V2> list = lookup(k);
+            if (list != null) {
+                for (V2 v2 : list) {
+                    action.accept(k, merger.apply(v, v2));
+                }
+            }
+        });
+    }
+
+    @Override
+    public BiSpliterator<K, R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ORDERED;
+    }
+
+    /**
+     * Probes the hash table built from the other stream. The table is built
+     * when the spliterator is used for the first time, and shared between the
+     * split parts.
+     */
+    static final class Hash<K, V, V2, R> extends JoinSpliterator<K, V, V2, R> {
+        private EntryStream<K, V2> other;
+        private Map<K, List<V2>> table;
+        private final boolean left;
+
+        Hash(BiSpliterator<K, V> source, EntryStream<K, V2> other,
+                BiFunction<? super V, ? super V2, ? extends R> merger, boolean left) {
+            super(source, merger);
+            this.other = other;
+            this.left = left;
+        }
+
+        private Hash(BiSpliterator<K, V> source, Map<K, List<V2>> table,
+                BiFunction<? super V, ? super V2, ? extends R> merger, boolean left) {
+            super(source, merger);
+            this.table = table;
+            this.left = left;
+        }
+
+        private void build() {
+            if (table == null) {
+                table = other.collect(HashMap::new, (map, e) -> map.computeIfAbsent(e.getKey(),
+                    k -> new ArrayList<>()).add(e.getValue()), (m1, m2) -> m2.forEach((k, list) -> m1.merge(k,
+                    list, (l1, l2) -> {
+                        l1.addAll(l2);
+                        return l1;
+                    })));
+                other = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        List<V2> lookup(K k) {
+            List<V2> m = table.get(k);
+            return m == null && left ? (List<V2>) NO_MATCH : m;
+        }
+
+        @Override
+        boolean tryAdvanceKeyValue(BiConsumer<? super K, ? super R> action) {
+            build();
+            return super.tryAdvanceKeyValue(action);
+        }
+
+        @Override
+        void forKeyValueRemaining(BiConsumer<? super K, ? super R> action) {
+            build();
+            super.forKeyValueRemaining(action);
+        }
+
+        @Override
+        public BiSpliterator<K, R> trySplit() {
+            // the pending matches precede the rest of the source
+            if (matches != null)
+                return null;
+            BiSpliterator<K, V> prefix = source.trySplit();
+            if (prefix == null)
+                return null;
+            build();
+            return new Hash<>(prefix, table, merger, left);
+        }
+    }
+
+    /**
+     * Joins the source with the other spliterator, both sorted by key. Only the
+     * group of the other values having the current key is buffered.
+     */
+    static final class Merge<K, V, V2, R> extends JoinSpliterator<K, V, V2, R> {
+        private final BiSpliterator<K, V2> other;
+        private final Comparator<? super K> comparator;
+        private final List<V2> group = new ArrayList<>();
+        private K groupKey;
+        private boolean hasGroup;
+        // the first entry of the other spliterator after the group
+        private K otherKey;
+        private V2 otherValue;
+        private boolean hasOther;
+        private final BiConsumer<K, V2> otherConsumer = (k, v) -> {
+            otherKey = k;
+            otherValue = v;
+        };
+
+        Merge(BiSpliterator<K, V> source, BiSpliterator<K, V2> other, Comparator<? super K> comparator,
+                BiFunction<? super V, ? super V2, ? extends R> merger) {
+            super(source, merger);
+            this.other = other;
+            this.comparator = comparator;
+        }
+
+        @Override
+        List<V2> lookup(K k) {
+            if (hasGroup) {
+                int c = comparator.compare(groupKey, k);
+                if (c == 0)
+                    return group;
+                if (c > 0)
+                    return null;
+            }
+            while (true) {
+                if (!hasOther && !(hasOther = other.tryAdvanceKeyValue(otherConsumer))) {
+                    hasGroup = false;
+                    group.clear();
+                    done = true;
+                    return null;
+                }
+                int c = comparator.compare(otherKey, k);
+                if (c < 0) {
+                    hasOther = false;
+                    continue;
+                }
+                group.clear();
+                groupKey = otherKey;
+                hasGroup = true;
+                do {
+                    group.add(otherValue);
+                } while ((hasOther = other.tryAdvanceKeyValue(otherConsumer))
+                    && comparator.compare(otherKey, groupKey) == 0);
+                return c == 0 ? group : null;
+            }
+        }
+
+        @Override
+        void forKeyValueRemaining(BiConsumer<? super K, ? super R> action) {
+            // stop as soon as the other spliterator is exhausted
+            while (tryAdvanceKeyValue(action)) {
+                // empty
+            }
+        }
+    }
+}
@@ -15,10 +15,14 @@
  */
 package one.util.streamex;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -74,9 +78,55 @@ import static one.util.streamex.StreamExInternals.*;
  * @since 0.4.1
  */
 public class Joining extends CancellableCollector<CharSequence, Joining.Accumulator, String> {
-    static final class Accumulator {
+    /**
+     * The accumulated elements are stored in the chain of lists, so merging
+     * two accumulators is constant-time and does not copy the elements.
+     */
+    static final class Accumulator implements Iterable<CharSequence> {
         List<CharSequence> data = new ArrayList<>();
+        Accumulator next, last = this;
         int chars = 0, count = 0;
+
+        // Combiner never links an empty accumulator, so checking the head
+        // is enough
+        boolean isEmpty() {
+            return data.isEmpty();
+        }
+
+        void add(CharSequence str) {
+            last.data.add(str);
+        }
+
+        void append(Accumulator other) {
+            last.next = other;
+            last = other.last;
+        }
+
+        @Override
+        public Iterator<CharSequence> iterator() {
+            return new Iterator<CharSequence>() {
+                Accumulator cur = Accumulator.this;
+                Iterator<CharSequence> it = data.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!it.hasNext()) {
+                        if (cur.next == null)
+                            return false;
+                        cur = cur.next;
+                        it = cur.data.iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public CharSequence next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return it.next();
+                }
+            };
+        }
     }
 
     private static final int CUT_ANYWHERE = 0;
@@ -86,6 +136,8 @@ public class Joining extends CancellableCollector<CharSequence, Joining.Accumula
     private static final int CUT_BEFORE_DELIMITER = 4;
     private static final int CUT_AFTER_DELIMITER = 5;
 
+    private static final int BUFFER_SIZE = 8192;
+
     private static final int LENGTH_CHARS = 0;
     private static final int LENGTH_CODEPOINTS = 1;
     private static final int LENGTH_GRAPHEMES = 2;
@@ -199,20 +251,189 @@ public class Joining extends CancellableCollector<CharSequence, Joining.Accumula
         return pos + endPos;
     }
 
+    // Copies the elements (separated by delimiter) while they fit into rest
+    // cutting the last one according to the cut strategy
+    private int copyCutAll(char[] buf, int pos, Iterable<? extends CharSequence> data, boolean delimiterFirst,
+            int rest) {
+        boolean first = !delimiterFirst;
+        for (CharSequence cs : data) {
+            String s = cs.toString();
+            int count = length(s);
+            if (first) {
+                first = false;
+            } else {
+                if (cutStrategy == CUT_BEFORE_DELIMITER && delimCount + count > rest) {
+                    break;
+                }
+                if (delimCount > rest) {
+                    pos = copyCut(buf, pos, delimiter, rest, cutStrategy);
+                    break;
+                }
+                rest -= delimCount;
+                pos = copy(buf, pos, delimiter);
+            }
+            if (cutStrategy == CUT_AFTER_DELIMITER && delimCount + count > rest) {
+                break;
+            }
+            if (count > rest) {
+                pos = copyCut(buf, pos, s, rest, cutStrategy);
+                break;
+            }
+            pos = copy(buf, pos, s);
+            rest -= count;
+        }
+        return pos;
+    }
+
     private String finisherNoOverflow(Accumulator acc) {
         char[] buf = new char[acc.chars + prefix.length() + suffix.length()];
-        int size = acc.data.size();
         int pos = copy(buf, 0, prefix);
-        for (int i = 0; i < size; i++) {
-            if (i > 0) {
-                pos = copy(buf, pos, delimiter);
+        boolean first = true;
+        for (Accumulator a = acc; a != null; a = a.next) {
+            List<CharSequence> data = a.data;
+            int size = data.size();
+            for (int i = 0; i < size; i++) {
+                if (first) {
+                    first = false;
+                } else {
+                    pos = copy(buf, pos, delimiter);
+                }
+                pos = copy(buf, pos, data.get(i).toString());
             }
-            pos = copy(buf, pos, acc.data.get(i).toString());
         }
         copy(buf, pos, suffix);
         return new String(buf);
     }
 
+    /**
+     * Writes the joined elements to the {@link Appendable} as soon as
+     * possible. When the length is limited, only the elements which may
+     * require cutting or replacing with ellipsis are kept in memory.
+     */
+    final class Appender {
+        private final Appendable out;
+        private final StringBuilder buf = new StringBuilder();
+        private final List<String> pending = new ArrayList<>();
+        private int count, pendingCount, pendingChars, safeLimit;
+        private boolean empty = true, committed, done;
+
+        Appender(Appendable out) {
+            this.out = out;
+            if (maxLength == -1) {
+                write(prefix);
+                return;
+            }
+            init();
+            safeLimit = limit - length(ellipsis);
+            if (limit <= 0) {
+                char[] chars = new char[prefix.length() + suffix.length()];
+                int pos = copyCut(chars, 0, prefix, maxLength, cutStrategy);
+                pos = copyCut(chars, pos, suffix, maxLength - length(prefix), cutStrategy);
+                buf.append(chars, 0, pos);
+                done = true;
+            } else {
+                write(prefix);
+            }
+        }
+
+        private void write(String str) {
+            if (buf.length() + str.length() > BUFFER_SIZE)
+                flush();
+            if (str.length() > BUFFER_SIZE)
+                append(str);
+            else
+                buf.append(str);
+        }
+
+        private void append(CharSequence str) {
+            try {
+                out.append(str);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            if (buf.length() > 0) {
+                append(buf);
+                buf.setLength(0);
+            }
+        }
+
+        /**
+         * Appends the element.
+         * 
+         * @param cs element to append
+         * @return false if the length limit is reached, thus the subsequent
+         *         elements will be ignored
+         */
+        boolean accept(CharSequence cs) {
+            if (done)
+                return false;
+            String str = cs.toString();
+            if (maxLength == -1) {
+                if (!empty)
+                    write(delimiter);
+                empty = false;
+                write(str);
+                return true;
+            }
+            int n = length(str) + (empty ? 0 : delimCount);
+            // the element fits even if it will be followed by the delimiter
+            // and the ellipsis
+            if (pending.isEmpty() && count + n + delimCount <= safeLimit) {
+                if (!empty)
+                    write(delimiter);
+                write(str);
+                count += n;
+                empty = false;
+                committed = true;
+                return true;
+            }
+            empty = false;
+            pending.add(str);
+            pendingCount += n;
+            pendingChars += str.length() + delimiter.length();
+            if (count + pendingCount <= limit)
+                return true;
+            int rest = safeLimit - count;
+            if (rest < 0) {
+                char[] chars = new char[ellipsis.length()];
+                buf.append(chars, 0, copyCut(chars, 0, ellipsis, limit, CUT_ANYWHERE));
+            } else {
+                char[] chars = new char[pendingChars];
+                buf.append(chars, 0, copyCutAll(chars, 0, pending, committed, rest));
+                write(ellipsis);
+            }
+            write(suffix);
+            pending.clear();
+            done = true;
+            return false;
+        }
+
+        /**
+         * Writes the remaining buffered data and the suffix.
+         */
+        void finish() {
+            if (!done) {
+                for (String str : pending) {
+                    if (committed)
+                        write(delimiter);
+                    write(str);
+                    committed = true;
+                }
+                pending.clear();
+                write(suffix);
+                done = true;
+            }
+            flush();
+        }
+    }
+
+    Appender appender(Appendable out) {
+        return new Appender(out);
+    }
+
     private Joining withLimit(int lenStrategy, int maxLength) {
         if (maxLength < 0)
             throw new IllegalArgumentException(maxLength + ": must be positive");
@@ -488,21 +709,21 @@ public class Joining extends CancellableCollector<CharSequence, Joining.Accumula
     public BiConsumer<Accumulator, CharSequence> accumulator() {
         if (maxLength == -1)
             return (acc, str) -> {
-                if (!acc.data.isEmpty())
+                if (!acc.isEmpty())
                     acc.chars += delimiter.length();
                 acc.chars += str.length();
-                acc.data.add(str);
+                acc.add(str);
             };
         init();
         return (acc, str) -> {
             if (acc.count <= limit) {
-                if (!acc.data.isEmpty()) {
+                if (!acc.isEmpty()) {
                     acc.chars += delimiter.length();
                     acc.count += delimCount;
                 }
                 acc.chars += str.length();
                 acc.count += length(str);
-                acc.data.add(str);
+                acc.add(str);
             }
         };
     }
@@ -511,28 +732,28 @@ public class Joining extends CancellableCollector<CharSequence, Joining.Accumula
     public BinaryOperator<Accumulator> combiner() {
         if (maxLength == -1)
             return (acc1, acc2) -> {
-                if (acc1.data.isEmpty())
+                if (acc1.isEmpty())
                     return acc2;
-                if (acc2.data.isEmpty())
+                if (acc2.isEmpty())
                     return acc1;
                 acc1.chars += delimiter.length() + acc2.chars;
-                acc1.data.addAll(acc2.data);
+                acc1.append(acc2);
                 return acc1;
             };
         init();
         BiConsumer<Accumulator, CharSequence> accumulator = accumulator();
         return (acc1, acc2) -> {
-            if (acc1.data.isEmpty())
+            if (acc1.isEmpty())
                 return acc2;
-            if (acc2.data.isEmpty())
+            if (acc2.isEmpty())
                 return acc1;
             int len = acc1.count + acc2.count + delimCount;
             if (len <= limit) {
                 acc1.count = len;
                 acc1.chars += delimiter.length() + acc2.chars;
-                acc1.data.addAll(acc2.data);
+                acc1.append(acc2);
             } else {
-                for (CharSequence s : acc2.data) {
+                for (CharSequence s : acc2) {
                     if (acc1.count > limit)
                         break;
                     accumulator.accept(acc1, s);
@@ -559,37 +780,13 @@ public class Joining extends CancellableCollector<CharSequence, Joining.Accumula
             if (acc.count <= limit)
                 return finisherNoOverflow(acc);
             char[] buf = new char[acc.chars + prefix.length() + suffix.length()];
-            int size = acc.data.size();
             int pos = copy(buf, 0, prefix);
             int ellipsisCount = length(ellipsis);
             int rest = limit - ellipsisCount;
             if (rest < 0) {
                 pos = copyCut(buf, pos, ellipsis, limit, CUT_ANYWHERE);
             } else {
-                for (int i = 0; i < size; i++) {
-                    String s = acc.data.get(i).toString();
-                    int count = length(s);
-                    if (i > 0) {
-                        if (cutStrategy == CUT_BEFORE_DELIMITER && delimCount + count > rest) {
-                            break;
-                        }
-                        if (delimCount > rest) {
-                            pos = copyCut(buf, pos, delimiter, rest, cutStrategy);
-                            break;
-                        }
-                        rest -= delimCount;
-                        pos = copy(buf, pos, delimiter);
-                    }
-                    if (cutStrategy == CUT_AFTER_DELIMITER && delimCount + count > rest) {
-                        break;
-                    }
-                    if (count > rest) {
-                        pos = copyCut(buf, pos, s, rest, cutStrategy);
-                        break;
-                    }
-                    pos = copy(buf, pos, s);
-                    rest -= count;
-                }
+                pos = copyCutAll(buf, pos, acc, false, rest);
                 pos = copy(buf, pos, ellipsis);
             }
             pos = copy(buf, pos, suffix);
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the lines of the file which memory-maps the file upon the
+ * first split and splits the mapped region at the line boundaries, so every
+ * parallel worker decodes its own byte range. If no split occurs, the file is
+ * read sequentially via {@link BufferedReader} without mapping.
+ *
+ * <p>
+ * Works only for charsets where the line terminators {@code '\n'} and
+ * {@code '\r'} are single bytes which never appear inside the encoded
+ * characters (see {@link #isSupported(Charset)}).
+ *
+ * @author Tagir Valeev
+ */
+/* package */class LinesSpliterator implements Spliterator<String> {
+    static final int MIN_SPLIT_SIZE = 1 << 10;
+    static final long MAX_WINDOW = Integer.MAX_VALUE;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private final long window;
+    private long pos;
+    private final long fence;
+    private boolean root;
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private BufferedReader reader;
+    private CharsetDecoder decoder;
+    private CharBuffer chars;
+
+    LinesSpliterator(FileChannel fc, Charset cs, long fence) {
+        this(fc, cs, fence, MAX_WINDOW);
+    }
+
+    LinesSpliterator(FileChannel fc, Charset cs, long fence, long window) {
+        this.fc = fc;
+        this.cs = cs;
+        this.fence = fence;
+        this.window = window;
+        this.root = true;
+    }
+
+    private LinesSpliterator(LinesSpliterator suffix, long fence) {
+        this.fc = suffix.fc;
+        this.cs = suffix.cs;
+        this.window = suffix.window;
+        this.pos = suffix.pos;
+        this.fence = fence;
+        if (suffix.buffer != null && suffix.bufferStart <= pos) {
+            this.buffer = suffix.buffer;
+            this.bufferStart = suffix.bufferStart;
+        }
+        suffix.pos = fence;
+        suffix.root = false;
+    }
+
+    static boolean isSupported(Charset cs) {
+        return cs == StandardCharsets.UTF_8 || cs == StandardCharsets.ISO_8859_1 || cs == StandardCharsets.US_ASCII;
+    }
+
+    private ByteBuffer map(long start) {
+        try {
+            buffer = fc.map(MapMode.READ_ONLY, start, Math.min(fence - start, window));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bufferStart = start;
+        return buffer;
+    }
+
+    private BufferedReader reader() {
+        if (reader == null) {
+            reader = new BufferedReader(Channels.newReader(fc, cs.newDecoder(), -1));
+        }
+        return reader;
+    }
+
+    private String readLine() {
+        try {
+            return reader().readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String decode(ByteBuffer b, int from, int to) {
+        if (decoder == null)
+            decoder = cs.newDecoder();
+        int length = (int) ((to - from) * (double) decoder.maxCharsPerByte());
+        if (chars == null || chars.capacity() < length)
+            chars = CharBuffer.allocate(Math.max(length, 128));
+        ByteBuffer in = b.duplicate();
+        // cast to Buffer to link to the JDK 8 methods when compiled on JDK 9+
+        ((Buffer) in).limit(to);
+        ((Buffer) in).position(from);
+        CharBuffer out = chars;
+        ((Buffer) out).clear();
+        decoder.reset();
+        try {
+            CoderResult cr = decoder.decode(in, out, true);
+            if (!cr.isUnderflow())
+                cr.throwException();
+            cr = decoder.flush(out);
+            if (!cr.isUnderflow())
+                cr.throwException();
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.array(), 0, out.position());
+    }
+
+    private String nextLine() {
+        while (pos < fence) {
+            ByteBuffer b = buffer;
+            if (b == null || pos < bufferStart || pos >= bufferStart + b.limit())
+                b = map(pos);
+            int start = (int) (pos - bufferStart), limit = b.limit();
+            int i = start;
+            while (i < limit) {
+                byte c = b.get(i);
+                if (c == '\n' || c == '\r')
+                    break;
+                i++;
+            }
+            if (bufferStart + limit < fence && (i == limit || i == limit - 1 && b.get(i) == '\r')) {
+                // the line (or its "\r\n" terminator) continues after the
+                // mapped window
+                if (start == 0)
+                    throw new UncheckedIOException(new IOException("Line is too long at position " + pos));
+                map(pos);
+                continue;
+            }
+            String line = decode(b, start, i);
+            if (i < limit && b.get(i++) == '\r' && i < limit && b.get(i) == '\n')
+                i++;
+            pos = bufferStart + i;
+            return line;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = root ? readLine() : nextLine();
+        if (line == null)
+            return false;
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (root) {
+            for (String line = readLine(); line != null; line = readLine())
+                action.accept(line);
+        } else {
+            for (String line = nextLine(); line != null; line = nextLine())
+                action.accept(line);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (reader != null || fence - pos < MIN_SPLIT_SIZE)
+            return null;
+        long mid = (pos + fence) >>> 1;
+        ByteBuffer b = buffer;
+        if (b == null || mid < bufferStart || mid >= bufferStart + b.limit())
+            b = map(mid - pos < window ? pos : mid);
+        root = false;
+        int limit = b.limit();
+        for (int i = (int) (mid - bufferStart); i < limit; i++) {
+            byte c = b.get(i);
+            if (c == '\n' || c == '\r') {
+                if (++i < limit && c == '\r' && b.get(i) == '\n')
+                    i++;
+                long splitPos = bufferStart + i;
+                // if the window ends with '\r', the '\n' might follow it
+                if (splitPos >= fence || i == limit && c == '\r')
+                    return null;
+                return new LinesSpliterator(this, splitPos);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
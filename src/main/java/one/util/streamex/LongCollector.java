@@ -467,6 +467,64 @@ public interface LongCollector<A, R> extends MergingCollector<Long, A, R> {
         return PartialCollector.grouping(mapFactory, downstream).asLong(accumulator);
     }
 
+    /**
+     * Returns a {@code LongCollector} implementing a "group by" operation on
+     * input numbers, grouping them according to a long-valued classification
+     * function, and returning the results in a {@code Map}. The values of the
+     * resulting map are arrays containing the input numbers which map to the
+     * associated key under the classification function.
+     *
+     * <p>
+     * Unlike {@link #groupingBy(LongFunction)} the keys are not boxed during
+     * the collection: the groups are stored in the open-addressing hash map
+     * with primitive keys, and the elements of each group are collected into
+     * the growing primitive array. The returned {@code Map} is a read-only
+     * view of that hash map. In parallel the partial maps are merged by
+     * iterating over the smaller one.
+     *
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code LongCollector} implementing the group-by operation
+     * @see #groupingBy(LongFunction)
+     * @since 0.6.1
+     */
+    static LongCollector<?, Map<Long, long[]>> groupingByLong(LongUnaryOperator classifier) {
+        return groupingByLong(classifier, toArray());
+    }
+
+    /**
+     * Returns a {@code LongCollector} implementing a cascaded "group by"
+     * operation on input numbers, grouping them according to a long-valued
+     * classification function, and then performing a reduction operation on
+     * the values associated with a given key using the specified downstream
+     * {@code LongCollector}.
+     *
+     * <p>
+     * The keys are not boxed during the collection: the groups are stored in
+     * the open-addressing hash map with primitive keys. The returned
+     * {@code Map} is a read-only view of that hash map.
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code LongCollector} implementing the downstream
+     *        reduction
+     * @return a {@code LongCollector} implementing the cascaded group-by
+     *         operation
+     * @see #groupingBy(LongFunction, LongCollector)
+     * @since 0.6.1
+     */
+    static <D, A> LongCollector<?, Map<Long, D>> groupingByLong(LongUnaryOperator classifier,
+            LongCollector<A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjLongConsumer<A> downstreamAccumulator = downstream.longAccumulator();
+        BiConsumer<A, A> downstreamMerger = downstream.merger();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        ObjLongConsumer<PrimitiveKeyMap<A>> accumulator = (m, t) -> downstreamAccumulator.accept(m.computeIfAbsent(
+            classifier.applyAsLong(t), downstreamSupplier), t);
+        return of(PrimitiveKeyMap<A>::new, accumulator, (m1, m2) -> m1.merge(m2, downstreamMerger), m -> m
+                .replaceValues(downstreamFinisher).asLongMap());
+    }
+
     /**
      * Returns a {@code LongCollector} that produces the array of the input
      * elements. If no elements are present, the result is an empty array.
@@ -15,6 +15,9 @@
  */
 package one.util.streamex;
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
@@ -61,7 +64,7 @@ import static one.util.streamex.StreamExInternals.*;
  */
 public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfLong, LongStreamEx> implements
         LongStream {
-    private static final class TDOfLong extends AbstractLongSpliterator implements LongConsumer {
+    static final class TDOfLong extends AbstractLongSpliterator implements LongConsumer {
         private final LongPredicate predicate;
         private final boolean drop;
         private final boolean inclusive;
@@ -153,17 +156,6 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return new LongStreamEx(spliterator, context);
     }
 
-    final LongStreamEx callWhile(LongPredicate predicate, int methodId) {
-        try {
-            return new LongStreamEx((LongStream) JDK9_METHODS[IDX_LONG_STREAM][methodId].invokeExact(stream(),
-                predicate), context);
-        } catch (Error | RuntimeException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw new InternalError(e);
-        }
-    }
-
     @Override
     public LongStreamEx unordered() {
         return (LongStreamEx) super.unordered();
@@ -518,6 +510,33 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return new LongStreamEx(stream().map(inv).sorted().map(inv), context);
     }
 
+    /**
+     * Returns a stream consisting of the elements of this stream in reverse
+     * encounter order.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>. If this stream is created from an array or by
+     * {@link #ofReversed(long[])} and no operations except {@code skip} and
+     * {@code limit} were applied to it, the source array is traversed in the
+     * opposite direction without copying. Otherwise the whole content of this
+     * stream is buffered when the terminal operation starts.
+     *
+     * @return the new stream
+     * @since 0.6.1
+     */
+    public LongStreamEx reversed() {
+        if (spliterator instanceof RangeBasedSpliterator.ReverseLong)
+            return delegate(((RangeBasedSpliterator.ReverseLong) spliterator()).reverse());
+        if (spliterator instanceof RangeBasedSpliterator.ForwardLong)
+            return delegate(((RangeBasedSpliterator.ForwardLong) spliterator()).reverse());
+        Spliterator.OfLong source = spliterator();
+        boolean parallel = isParallel();
+        return new LongStreamEx(StreamSupport.longStream(() -> new RangeBasedSpliterator.ReverseLong(StreamSupport
+                .longStream(source, parallel).toArray()), Spliterator.ORDERED | Spliterator.SIZED
+            | Spliterator.SUBSIZED, parallel), context);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to the natural order of the keys extracted by provided
@@ -687,11 +706,15 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
     
     @Override
     public LongStreamEx limit(long maxSize) {
+        if (slice(maxSize, false))
+            return new LongStreamEx(spliterator(), context);
         return new LongStreamEx(stream().limit(maxSize), context);
     }
 
     @Override
     public LongStreamEx skip(long n) {
+        if (slice(n, true))
+            return new LongStreamEx(spliterator(), context);
         return new LongStreamEx(stream().skip(n), context);
     }
 
@@ -728,9 +751,15 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @since 0.3.2
      */
     public LongStreamEx skipOrdered(long n) {
-        Spliterator.OfLong spliterator = (isParallel() ? StreamSupport.longStream(spliterator(), false) : stream())
-                .skip(n).spliterator();
-        return delegate(spliterator);
+        if (slice(n, true))
+            return new LongStreamEx(spliterator(), context);
+        if (isParallel()) {
+            Spliterator.OfLong source = spliterator();
+            if (SkipSpliterator.applicable(source, n))
+                return delegate(new SkipSpliterator.OfLong(source, n));
+            return delegate(StreamSupport.longStream(source, false).skip(n).spliterator());
+        }
+        return delegate(stream().skip(n).spliterator());
     }
 
     @Override
@@ -1489,6 +1518,36 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return new LongStreamEx(LongStream.concat(other, stream()), context.combine(other));
     }
 
+    /**
+     * Creates a new {@code LongStreamEx} which elements are the results of
+     * applying the mapper function to the corresponding pairs of elements of
+     * this stream and the supplied other stream. The elements are not boxed.
+     * The resulting stream is ordered if both of the input streams are
+     * ordered, and parallel if either of the input streams is parallel. When
+     * the resulting stream is closed, the close handlers for both input
+     * streams are invoked.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate
+     * operation</a>.
+     * 
+     * <p>
+     * The resulting stream finishes when either of the input streams finish:
+     * the rest of the longer stream is discarded. It's unspecified whether the
+     * rest elements of the longer stream are actually consumed.
+     * 
+     * @param other the stream to zip this stream with
+     * @param mapper a non-interfering, stateless function to apply to the
+     *        corresponding pairs of this stream and other stream elements
+     * @return the new stream
+     * @see StreamEx#zipWith(Stream, java.util.function.BiFunction)
+     * @since 0.6.1
+     */
+    public LongStreamEx zipWith(LongStream other, LongBinaryOperator mapper) {
+        return new LongStreamEx(new PrimitiveZipSpliterator.OfLong(spliterator(), other.spliterator(), mapper),
+                context.combine(other));
+    }
+
     /**
      * Returns a stream consisting of the results of applying the given function
      * to the every adjacent pair of elements of this stream.
@@ -1573,10 +1632,7 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      */
     public LongStreamEx takeWhile(LongPredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_TAKE_WHILE);
-        }
-        return delegate(new LongStreamEx.TDOfLong(spliterator(), false, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, false);
     }
 
     /**
@@ -1626,10 +1682,12 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      */
     public LongStreamEx dropWhile(LongPredicate predicate) {
         Objects.requireNonNull(predicate);
-        if (JDK9_METHODS != null) {
-            return callWhile(predicate, IDX_DROP_WHILE);
-        }
-        return delegate(new LongStreamEx.TDOfLong(spliterator(), true, false, predicate));
+        return VersionSpecific.callWhile(this, predicate, true);
+    }
+
+    @Override
+    public LongStreamEx instrument(StreamListener listener) {
+        return delegate(new InstrumentedSpliterator.ISOfLong(spliterator(), Objects.requireNonNull(listener)));
     }
 
     // Necessary to generate proper JavaDoc
@@ -1666,7 +1724,22 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @return the new stream
      */
     public static LongStreamEx of(long... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(new RangeBasedSpliterator.ForwardLong(0, elements.length, elements));
+    }
+
+    /**
+     * Returns a sequential ordered {@code LongStreamEx} whose elements are the
+     * elements of the supplied array in reverse order. No copy of the array is
+     * made.
+     *
+     * @param array the array to stream from the end, assumed to be unmodified
+     *        during use
+     * @return the new stream
+     * @see #reversed()
+     * @since 0.6.1
+     */
+    public static LongStreamEx ofReversed(long[] array) {
+        return of(new RangeBasedSpliterator.ReverseLong(array));
     }
 
     /**
@@ -1685,7 +1758,8 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
      * @see Arrays#stream(long[], int, int)
      */
     public static LongStreamEx of(long[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.ForwardLong(startInclusive, endExclusive, array));
     }
 
     /**
@@ -1841,6 +1915,41 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return seq(random.longs(streamSize, randomNumberOrigin, randomNumberBound));
     }
 
+    /**
+     * Returns a sequential ordered {@code LongStreamEx} of the {@code long} values
+     * stored at the given offset of every fixed-width record of the file.
+     *
+     * <p>
+     * The file is memory-mapped and the values are read directly from the
+     * mapping using the specified byte order. If the file size is not a
+     * multiple of {@code recordLength}, the trailing incomplete record is
+     * ignored. The returned stream is {@code SIZED} and splits evenly for
+     * parallel processing.
+     *
+     * <p>
+     * The file is mapped during this method call, so no file handle remains
+     * open and the returned stream need not be closed. The file must not be
+     * modified while the stream is being processed, otherwise the result is
+     * undefined.
+     *
+     * @param path the path to the file
+     * @param recordLength the length of every record in bytes
+     * @param offset the offset of the value within the record
+     * @param order the byte order of the stored values
+     * @return an {@code LongStreamEx} of the values read from the file
+     * @throws IOException if an I/O error occurs opening or mapping the file
+     * @throws IllegalArgumentException if {@code recordLength} is not positive
+     *         or {@code offset} is negative or the value at the given
+     *         {@code offset} does not fit into the record
+     * @see StreamEx#ofFixedRecords(Path, int)
+     * @since 0.6.1
+     */
+    public static LongStreamEx ofFixedRecords(Path path, int recordLength, int offset, ByteOrder order)
+            throws IOException {
+        return of(new RecordSpliterator.OfLong(RecordSpliterator.mapFixed(path, recordLength,
+            RecordSpliterator.MAX_WINDOW), recordLength, offset, order));
+    }
+
     /**
      * Returns an infinite sequential ordered {@code LongStreamEx} produced by
      * iterative application of a function {@code f} to an initial element
@@ -2131,6 +2240,68 @@ public class LongStreamEx extends BaseStreamEx<Long, LongStream, Spliterator.OfL
         return of(new RangeBasedSpliterator.ZipLong(0, checkLength(first.length, second.length), mapper, first, second));
     }
 
+    /**
+     * Returns an ordered {@code LongStreamEx} which lazily merges the supplied
+     * streams, each sorted in natural order, into a single sorted stream. The
+     * resulting stream is parallel if any of the input streams is parallel,
+     * though the merging itself is not split.
+     * 
+     * <p>
+     * Only one element of every input stream is held at a time. If any of the
+     * input streams is not sorted, the order of the resulting stream is
+     * unspecified. The close handlers of the input streams are invoked when
+     * the resulting stream is closed.
+     * 
+     * @param streams the sorted streams to merge
+     * @return the new stream
+     * @see #sorted()
+     * @see StreamEx#mergeSorted(java.util.Comparator, java.util.stream.Stream...)
+     * @since 0.6.1
+     */
+    public static LongStreamEx mergeSorted(LongStream... streams) {
+        Spliterator.OfLong[] sources = new Spliterator.OfLong[streams.length];
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (int i = 0; i < streams.length; i++) {
+            sources[i] = streams[i].spliterator();
+            context = context.combine(streams[i]);
+        }
+        return new LongStreamEx(new MergeSortedSpliterator.OfLong(sources), context);
+    }
+
+    /**
+     * Returns a lazily concatenated {@code LongStreamEx} whose elements are
+     * all the elements of the supplied streams in the order of the collection
+     * iteration.
+     * 
+     * <p>
+     * The streams are combined pairwise into the balanced tree, so the
+     * resulting stream is split between the sources in halves and its depth
+     * grows logarithmically with the number of the sources. The resulting
+     * stream is parallel if any of the input streams is parallel. When the
+     * resulting stream is closed, the close handlers of all the input streams
+     * are invoked.
+     * 
+     * @param streams the streams to concatenate
+     * @return the new stream
+     * @see StreamEx#concat(Collection)
+     * @since 0.6.1
+     */
+    public static LongStreamEx concat(Collection<? extends LongStream> streams) {
+        LongStream[] array = streams.toArray(new LongStream[0]);
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (LongStream stream : array) {
+            context = context.combine(stream);
+        }
+        return new LongStreamEx(concat(array, 0, array.length), context);
+    }
+
+    private static LongStream concat(LongStream[] streams, int from, int to) {
+        if (to - from < 2)
+            return from == to ? LongStream.empty() : streams[from];
+        int mid = (from + to) >>> 1;
+        return LongStream.concat(concat(streams, from, mid), concat(streams, mid, to));
+    }
+
     /**
      * A helper interface to build a new stream by emitting elements and
      * creating new emitters in a chain.
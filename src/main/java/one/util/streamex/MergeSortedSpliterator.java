@@ -0,0 +1,357 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A spliterator which lazily merges several sorted spliterators into one
+ * sorted sequence. Only the current head element of every source is held: the
+ * sources are kept in the binary min-heap ordered by their head elements. The
+ * equal elements are emitted in the order of the sources, so the merge is
+ * stable.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <T> type of the elements
+ */
+/* package */abstract class MergeSortedSpliterator<T> implements Spliterator<T> {
+    private final Spliterator<?>[] sources;
+    // indices of non-exhausted sources, null until the first element is
+    // requested
+    private int[] heap;
+    private int size;
+    // the head element of the top source was delivered, but the source is
+    // not advanced yet
+    private boolean consumed;
+    // index of the source which is being advanced
+    int cur;
+
+    MergeSortedSpliterator(Spliterator<?>[] sources) {
+        this.sources = sources;
+    }
+
+    abstract boolean fetch(int source);
+
+    abstract int compare(int a, int b);
+
+    abstract void release(int source);
+
+    private boolean less(int a, int b) {
+        int c = compare(a, b);
+        return c < 0 || c == 0 && a < b;
+    }
+
+    private void siftDown(int pos) {
+        int[] h = heap;
+        int n = size;
+        int x = h[pos];
+        while (true) {
+            int child = pos * 2 + 1;
+            if (child >= n)
+                break;
+            if (child + 1 < n && less(h[child + 1], h[child]))
+                child++;
+            if (!less(h[child], x))
+                break;
+            h[pos] = h[child];
+            pos = child;
+        }
+        h[pos] = x;
+    }
+
+    /**
+     * Returns the index of the source holding the least head element, or -1
+     * if all the sources are exhausted.
+     */
+    int top() {
+        if (heap == null) {
+            heap = new int[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                if (fetch(i))
+                    heap[size++] = i;
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        } else if (consumed) {
+            consumed = false;
+            next();
+        }
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Replaces the head element of the top source with the next one. Must be
+     * called after the head element returned by {@link #top()} is consumed.
+     */
+    void next() {
+        int source = heap[0];
+        if (!fetch(source)) {
+            release(source);
+            heap[0] = heap[--size];
+        }
+        if (size > 0)
+            siftDown(0);
+    }
+
+    /**
+     * Marks the head element of the top source as consumed. Unlike
+     * {@link #next()} the source is advanced only when the next element is
+     * requested, so short-circuiting operations do not read ahead.
+     */
+    void consume() {
+        consumed = true;
+    }
+
+    /**
+     * Returns true if the top source is the only one left. Its head element
+     * and the rest of it can be passed to the consumer directly.
+     */
+    boolean single() {
+        return size == 1;
+    }
+
+    void finish() {
+        size = 0;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long est = heap == null ? 0 : consumed ? size - 1 : size;
+        for (Spliterator<?> source : sources) {
+            est += source.estimateSize();
+            if (est < 0)
+                return Long.MAX_VALUE;
+        }
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    static final class OfRef<T> extends MergeSortedSpliterator<T> implements Consumer<T> {
+        private final Spliterator<T>[] sources;
+        private final T[] heads;
+        private final Comparator<? super T> comparator;
+
+        @SuppressWarnings("unchecked")
+        OfRef(Spliterator<T>[] sources, Comparator<? super T> comparator) {
+            super(sources);
+            this.sources = sources;
+            this.heads = (T[]) new Object[sources.length];
+            this.comparator = comparator;
+        }
+
+        @Override
+        public void accept(T t) {
+            heads[cur] = t;
+        }
+
+        @Override
+        boolean fetch(int source) {
+            cur = source;
+            return sources[source].tryAdvance(this);
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return comparator.compare(heads[a], heads[b]);
+        }
+
+        @Override
+        void release(int source) {
+            heads[source] = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int source = top();
+            if (source < 0)
+                return false;
+            T t = heads[source];
+            consume();
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int source;
+            while ((source = top()) >= 0) {
+                T t = heads[source];
+                if (single()) {
+                    heads[source] = null;
+                    finish();
+                    action.accept(t);
+                    sources[source].forEachRemaining(action);
+                    return;
+                }
+                next();
+                action.accept(t);
+            }
+        }
+    }
+
+    static final class OfInt extends MergeSortedSpliterator<Integer> implements Spliterator.OfInt, IntConsumer {
+        private final Spliterator.OfInt[] sources;
+        private final int[] heads;
+
+        OfInt(Spliterator.OfInt[] sources) {
+            super(sources);
+            this.sources = sources;
+            this.heads = new int[sources.length];
+        }
+
+        @Override
+        public void accept(int t) {
+            heads[cur] = t;
+        }
+
+        @Override
+        boolean fetch(int source) {
+            cur = source;
+            return sources[source].tryAdvance((IntConsumer) this);
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return Integer.compare(heads[a], heads[b]);
+        }
+
+        @Override
+        void release(int source) {
+            // nothing to release
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int source = top();
+            if (source < 0)
+                return false;
+            int t = heads[source];
+            consume();
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int source;
+            while ((source = top()) >= 0) {
+                int t = heads[source];
+                if (single()) {
+                    finish();
+                    action.accept(t);
+                    sources[source].forEachRemaining(action);
+                    return;
+                }
+                next();
+                action.accept(t);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    static final class OfLong extends MergeSortedSpliterator<Long> implements Spliterator.OfLong, LongConsumer {
+        private final Spliterator.OfLong[] sources;
+        private final long[] heads;
+
+        OfLong(Spliterator.OfLong[] sources) {
+            super(sources);
+            this.sources = sources;
+            this.heads = new long[sources.length];
+        }
+
+        @Override
+        public void accept(long t) {
+            heads[cur] = t;
+        }
+
+        @Override
+        boolean fetch(int source) {
+            cur = source;
+            return sources[source].tryAdvance((LongConsumer) this);
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return Long.compare(heads[a], heads[b]);
+        }
+
+        @Override
+        void release(int source) {
+            // nothing to release
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            int source = top();
+            if (source < 0)
+                return false;
+            long t = heads[source];
+            consume();
+            action.accept(t);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int source;
+            while ((source = top()) >= 0) {
+                long t = heads[source];
+                if (single()) {
+                    finish();
+                    action.accept(t);
+                    sources[source].forEachRemaining(action);
+                    return;
+                }
+                next();
+                action.accept(t);
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return null;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
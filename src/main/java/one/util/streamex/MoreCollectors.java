@@ -40,8 +40,12 @@ import java.util.function.BiPredicate;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.function.ToIntFunction;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
@@ -1151,6 +1155,99 @@ public final class MoreCollectors {
         return Collectors.mapping(mapper, Collectors.toList());
     }
 
+    /**
+     * Adapts an {@link IntCollector} to a {@code Collector} accepting elements
+     * of type {@code T} by applying an int-valued function to each input
+     * element before accumulation.
+     * 
+     * <p>
+     * Unlike {@code Collectors.mapping(mapper, downstream)} the mapped values
+     * are passed to the downstream collector without boxing. This is useful
+     * for the per-key aggregation: for example,
+     * {@code groupingBy(keyFunction, mappingToInt(valueFunction, IntCollector.summing()))}
+     * does not box the values of individual elements.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> intermediate accumulation type of the downstream collector
+     * @param <R> result type of collector
+     * @param mapper a function to be applied to the input elements
+     * @param downstream a collector which will accept mapped values
+     * @return a collector which applies the mapping function to the input
+     *         elements and provides the mapped results to the downstream
+     *         collector
+     * @see #mapping(Function, Collector)
+     * @since 0.6.1
+     */
+    public static <T, A, R> Collector<T, ?, R> mappingToInt(ToIntFunction<? super T> mapper,
+            IntCollector<A, R> downstream) {
+        ObjIntConsumer<A> downstreamAccumulator = downstream.intAccumulator();
+        BiConsumer<A, T> accumulator = (acc, t) -> downstreamAccumulator.accept(acc, mapper.applyAsInt(t));
+        return Collector.of(downstream.supplier(), accumulator, downstream.combiner(), downstream.finisher(),
+            downstream.characteristics().toArray(new Characteristics[0]));
+    }
+
+    /**
+     * Adapts a {@link LongCollector} to a {@code Collector} accepting elements
+     * of type {@code T} by applying a long-valued function to each input
+     * element before accumulation.
+     * 
+     * <p>
+     * Unlike {@code Collectors.mapping(mapper, downstream)} the mapped values
+     * are passed to the downstream collector without boxing. This is useful
+     * for the per-key aggregation: for example,
+     * {@code groupingBy(keyFunction, mappingToLong(valueFunction, LongCollector.summing()))}
+     * does not box the values of individual elements.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> intermediate accumulation type of the downstream collector
+     * @param <R> result type of collector
+     * @param mapper a function to be applied to the input elements
+     * @param downstream a collector which will accept mapped values
+     * @return a collector which applies the mapping function to the input
+     *         elements and provides the mapped results to the downstream
+     *         collector
+     * @see #mapping(Function, Collector)
+     * @since 0.6.1
+     */
+    public static <T, A, R> Collector<T, ?, R> mappingToLong(ToLongFunction<? super T> mapper,
+            LongCollector<A, R> downstream) {
+        ObjLongConsumer<A> downstreamAccumulator = downstream.longAccumulator();
+        BiConsumer<A, T> accumulator = (acc, t) -> downstreamAccumulator.accept(acc, mapper.applyAsLong(t));
+        return Collector.of(downstream.supplier(), accumulator, downstream.combiner(), downstream.finisher(),
+            downstream.characteristics().toArray(new Characteristics[0]));
+    }
+
+    /**
+     * Adapts a {@link DoubleCollector} to a {@code Collector} accepting elements
+     * of type {@code T} by applying a double-valued function to each input
+     * element before accumulation.
+     * 
+     * <p>
+     * Unlike {@code Collectors.mapping(mapper, downstream)} the mapped values
+     * are passed to the downstream collector without boxing. This is useful
+     * for the per-key aggregation: for example,
+     * {@code groupingBy(keyFunction, mappingToDouble(valueFunction, DoubleCollector.summing()))}
+     * does not box the values of individual elements.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> intermediate accumulation type of the downstream collector
+     * @param <R> result type of collector
+     * @param mapper a function to be applied to the input elements
+     * @param downstream a collector which will accept mapped values
+     * @return a collector which applies the mapping function to the input
+     *         elements and provides the mapped results to the downstream
+     *         collector
+     * @see #mapping(Function, Collector)
+     * @since 0.6.1
+     */
+    public static <T, A, R> Collector<T, ?, R> mappingToDouble(ToDoubleFunction<? super T> mapper,
+            DoubleCollector<A, R> downstream) {
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.doubleAccumulator();
+        BiConsumer<A, T> accumulator = (acc, t) -> downstreamAccumulator.accept(acc, mapper.applyAsDouble(t));
+        return Collector.of(downstream.supplier(), accumulator, downstream.combiner(), downstream.finisher(),
+            downstream.characteristics().toArray(new Characteristics[0]));
+    }
+
     /**
      * Adapts a {@code Collector} accepting elements of type {@code U} to one
      * accepting elements of type {@code T} by applying a flat mapping function
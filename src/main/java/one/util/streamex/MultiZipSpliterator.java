@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import static one.util.streamex.StreamExInternals.*;
+import static one.util.streamex.UnknownSizeSpliterator.*;
+
+/**
+ * A spliterator which zips any number of sources into the lists of the
+ * corresponding elements. The sources are split together if they are SUBSIZED
+ * and produce prefixes of the same size, otherwise the aligned blocks of
+ * growing size are pulled from every source into arrays.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <T> the type of the source elements
+ */
+/* package */class MultiZipSpliterator<T> implements Spliterator<List<T>> {
+    final Spliterator<T>[] sources;
+    private final Box<T> box = new Box<>();
+    // false once the sources produced misaligned prefixes
+    private boolean trySplit = true;
+    private int batch = 0;
+
+    MultiZipSpliterator(Spliterator<T>[] sources) {
+        this.sources = sources;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        List<T> result = new ArrayList<>(sources.length);
+        for (Spliterator<T> source : sources) {
+            if (!source.tryAdvance(box))
+                return false;
+            result.add(box.a);
+        }
+        box.a = null;
+        action.accept(result);
+        return true;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (trySplit && hasCharacteristics(SIZED | SUBSIZED)) {
+            @SuppressWarnings("unchecked")
+            Spliterator<T>[] prefixes = new Spliterator[sources.length];
+            boolean aligned = true;
+            for (int i = 0; i < sources.length; i++) {
+                prefixes[i] = sources[i].trySplit();
+                if (prefixes[i] == null || prefixes[i].getExactSizeIfKnown() != prefixes[0].getExactSizeIfKnown()) {
+                    aligned = false;
+                    break;
+                }
+            }
+            if (aligned)
+                return new MultiZipSpliterator<>(prefixes);
+            // put the prefixes back only once, so the sources are not wrapped
+            // into more and more concatenations
+            trySplit = prefixes[0] == null;
+            for (int i = 0; i < sources.length && prefixes[i] != null; i++) {
+                sources[i] = new TailConcatSpliterator<>(prefixes[i], sources[i]);
+            }
+        }
+        return arraySplit();
+    }
+
+    private Spliterator<List<T>> arraySplit() {
+        long s = estimateSize();
+        if (s <= 1)
+            return null;
+        int n = batch + BATCH_UNIT;
+        if (n > s)
+            n = (int) s;
+        if (n > MAX_BATCH)
+            n = MAX_BATCH;
+        @SuppressWarnings("unchecked")
+        T[][] arrays = (T[][]) new Object[sources.length][];
+        for (int i = 0; i < sources.length; i++) {
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) new Object[n];
+            n = drainTo(array, sources[i]);
+            arrays[i] = array;
+        }
+        if ((batch = n) == 0)
+            return null;
+        int ordered = characteristics() & ORDERED;
+        @SuppressWarnings("unchecked")
+        Spliterator<T>[] prefixes = new Spliterator[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            prefixes[i] = Spliterators.spliterator(arrays[i], 0, n, ordered);
+        }
+        return new MultiZipSpliterator<>(prefixes);
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = Long.MAX_VALUE;
+        for (Spliterator<T> source : sources) {
+            size = Math.min(size, source.estimateSize());
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = SIZED | SUBSIZED | ORDERED | IMMUTABLE | CONCURRENT;
+        for (Spliterator<T> source : sources) {
+            characteristics &= source.characteristics();
+        }
+        return characteristics | NONNULL;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * A stream of pairs of an object key and a primitive {@code int} value. Unlike
+ * {@code EntryStream<K, Integer>} it keeps the values unboxed: they are filtered,
+ * sorted, summed and merged as {@code int} and boxed at most once per
+ * key when the pairs are collected into a {@link Map}.
+ * 
+ * <p>
+ * The stream is lazy like other streams: no operation is performed until the
+ * terminal operation is invoked and the stream may be traversed only once.
+ * Use {@link #boxed()} to get the {@link EntryStream} with all its
+ * operations.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <K> the type of the keys
+ * @see StreamEx#mapToIntValue(java.util.function.Function, java.util.function.ToIntFunction)
+ * @since 0.6.1
+ */
+public final class ObjIntStream<K> extends AbstractObjPrimitiveStream<K, ObjIntBox<K>, ObjIntStream<K>> {
+    ObjIntStream(StreamEx<ObjIntBox<K>> stream) {
+        super(stream);
+    }
+
+    @Override
+    ObjIntStream<K> supply(StreamEx<ObjIntBox<K>> stream) {
+        return new ObjIntStream<>(stream);
+    }
+
+    /**
+     * Returns a stream consisting of the pairs of this stream which values
+     * match the given predicate.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param valuePredicate a non-interfering, stateless predicate to apply to
+     *        the value of each pair to determine if it should be included
+     * @return the new stream
+     */
+    public ObjIntStream<K> filterValues(IntPredicate valuePredicate) {
+        return supply(stream.filter(box -> valuePredicate.test(box.b)));
+    }
+
+    /**
+     * Returns a stream consisting of the pairs of this stream sorted by the
+     * values in ascending order.
+     *
+     * <p>
+     * For ordered streams, the sort is stable.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate</a> operation.
+     *
+     * @return the new stream
+     */
+    public ObjIntStream<K> sortedByValue() {
+        return supply(stream.sorted(Comparator.comparingInt(box -> box.b)));
+    }
+
+    /**
+     * Returns a stream consisting of the pairs of this stream sorted by the
+     * values in descending order.
+     *
+     * <p>
+     * For ordered streams, the sort is stable.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate</a> operation.
+     *
+     * @return the new stream
+     */
+    public ObjIntStream<K> reverseSortedByValue() {
+        return supply(stream.sorted((box1, box2) -> Integer.compare(box2.b, box1.b)));
+    }
+
+    /**
+     * Returns a stream consisting of the values of this stream pairs.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @return the new stream
+     */
+    public IntStreamEx values() {
+        return stream.mapToInt(box -> box.b);
+    }
+
+    /**
+     * Returns an {@link EntryStream} of the pairs of this stream. The values
+     * are boxed.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @return the new stream
+     */
+    public EntryStream<K, Integer> boxed() {
+        return stream.mapToEntry(box -> box.a, box -> box.b);
+    }
+
+    /**
+     * Returns the sum of the values of this stream. Like
+     * {@link IntStream#sum()} it silently overflows: use
+     * {@code values().asLongStream().sum()} if the sum may exceed the
+     * {@code int} range.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">terminal</a>
+     * operation.
+     *
+     * @return the sum of the values of this stream
+     */
+    public int sum() {
+        return values().sum();
+    }
+
+    /**
+     * Returns a {@link Map} containing the pairs of this stream. There are no
+     * guarantees on the type or serializability of the {@code Map} returned.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">terminal</a>
+     * operation.
+     *
+     * <p>
+     * Returned {@code Map} is guaranteed to be modifiable.
+     *
+     * @return a {@code Map} containing the pairs of this stream
+     * @throws IllegalStateException if this stream contains duplicate keys
+     *         (according to {@link Object#equals(Object)})
+     */
+    public Map<K, Integer> toMap() {
+        return toMap(box -> box.b);
+    }
+
+    /**
+     * Returns a {@link Map} where the keys are the distinct keys of this stream
+     * and the values are the results of merging all the values of the same key
+     * using the supplied function. There are no guarantees on the type or
+     * serializability of the {@code Map} returned.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">terminal</a>
+     * operation.
+     *
+     * <p>
+     * The values are merged as {@code int}, so {@code toMap(Integer::sum)}
+     * computes the per-key sums boxing only one {@code Integer} per key.
+     *
+     * <p>
+     * Returned {@code Map} is guaranteed to be modifiable.
+     *
+     * @param mergeFunction a merge function, used to resolve collisions between
+     *        values associated with the same key
+     * @return a {@code Map} containing the keys of this stream and the merged
+     *         values
+     */
+    public Map<K, Integer> toMap(IntBinaryOperator mergeFunction) {
+        return toMap((box1, box2) -> box1.b = mergeFunction.applyAsInt(box1.b, box2.b), box -> box.b);
+    }
+}
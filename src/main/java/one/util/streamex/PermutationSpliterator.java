@@ -34,26 +34,43 @@ final class PermutationSpliterator implements Spliterator<int[]> {
     public boolean tryAdvance(Consumer<? super int[]> action) {
         if (remainingSize == 0)
             return false;
-        int[] value = this.value;
         action.accept(value.clone());
-        if (--remainingSize > 0) {
-            int r = value.length - 1, k = r - 1;
-            while (value[k] > value[k + 1])
-                k--;
-            int vk = value[k], l = r;
-            while (vk > value[l])
-                l--;
-            value[k] = value[l];
-            value[l] = vk;
-            for (k++; k < r; k++, r--) {
-                int tmp = value[k];
-                value[k] = value[r];
-                value[r] = tmp;
-            }
-        }
+        if (--remainingSize > 0)
+            step(value);
         return true;
     }
 
+    /**
+     * Passes the remaining permutations to the action reusing the single
+     * array. The action must not modify the array or keep the reference to it.
+     * 
+     * @param action action to perform
+     */
+    void forEachShared(Consumer<? super int[]> action) {
+        int[] value = this.value;
+        while (remainingSize > 0) {
+            action.accept(value);
+            if (--remainingSize > 0)
+                step(value);
+        }
+    }
+
+    private static void step(int[] value) {
+        int r = value.length - 1, k = r - 1;
+        while (value[k] > value[k + 1])
+            k--;
+        int vk = value[k], l = r;
+        while (vk > value[l])
+            l--;
+        value[k] = value[l];
+        value[l] = vk;
+        for (k++; k < r; k++, r--) {
+            int tmp = value[k];
+            value[k] = value[r];
+            value[r] = tmp;
+        }
+    }
+
     @Override
     public Spliterator<int[]> trySplit() {
         if (remainingSize <= 1)
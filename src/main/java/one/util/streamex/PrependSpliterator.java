@@ -36,6 +36,17 @@ import one.util.streamex.StreamExInternals.TailSpliterator;
         this.mode = source.estimateSize() < Long.MAX_VALUE-1 ? 1 : 2;
     }
 
+    /**
+     * Prepends the element to the source. If the source is already a
+     * concatenation, the element is added to it as a new part, so the
+     * repeated prepend does not build the deep chain of spliterators.
+     */
+    static <T> Spliterator<T> prepend(Spliterator<T> source, T element) {
+        if (source instanceof TailConcatSpliterator || source instanceof PrependSpliterator)
+            return new TailConcatSpliterator<>(new ConstSpliterator.OfRef<>(element, 1, true), source);
+        return new PrependSpliterator<>(source, element);
+    }
+
     @Override
     public boolean tryAdvance(Consumer<? super T> action) {
         if (mode == 0)
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Open-addressing hash map with primitive {@code int} or {@code long} keys
+ * (both are stored as {@code long}) and non-null values. Used as the
+ * accumulation container for the primitive-keyed grouping collectors.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <V> type of the values
+ */
+/* package */final class PrimitiveKeyMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // empty slot has null value
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int shift;
+
+    PrimitiveKeyMap() {
+        init(INITIAL_CAPACITY);
+    }
+
+    private void init(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int find(long key) {
+        long[] k = keys;
+        Object[] v = values;
+        int mask = k.length - 1;
+        int i = slot(key);
+        while (v[i] != null && k[i] != key)
+            i = (i + 1) & mask;
+        return i;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        return (V) values[find(key)];
+    }
+
+    private void insert(int i, long key, V value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length)
+            resize();
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(long key, Supplier<? extends V> supplier) {
+        int i = find(key);
+        V value = (V) values[i];
+        if (value == null) {
+            value = supplier.get();
+            insert(i, key, value);
+        }
+        return value;
+    }
+
+    void put(long key, V value) {
+        int i = find(key);
+        if (values[i] == null)
+            insert(i, key, value);
+        else
+            values[i] = value;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        init(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = find(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Merges other map into this one. The merger is called for the values
+     * present in both maps, with the value of this map as the first argument.
+     * The other map should not be used after this call.
+     * 
+     * @param other map to merge
+     * @param merger function which merges the second value into the first one
+     */
+    @SuppressWarnings("unchecked")
+    void merge(PrimitiveKeyMap<V> other, BiConsumer<V, V> merger) {
+        if (other.size > size) {
+            // iterate over the smaller map taking the storage of the bigger one
+            long[] k = keys;
+            keys = other.keys;
+            other.keys = k;
+            Object[] v = values;
+            values = other.values;
+            other.values = v;
+            int s = size;
+            size = other.size;
+            other.size = s;
+            s = shift;
+            shift = other.shift;
+            other.shift = s;
+            for (int i = 0; i < other.keys.length; i++) {
+                V left = (V) other.values[i];
+                if (left != null) {
+                    int j = find(other.keys[i]);
+                    V right = (V) values[j];
+                    if (right == null)
+                        insert(j, other.keys[i], left);
+                    else {
+                        merger.accept(left, right);
+                        values[j] = left;
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < other.keys.length; i++) {
+                V right = (V) other.values[i];
+                if (right != null) {
+                    int j = find(other.keys[i]);
+                    V left = (V) values[j];
+                    if (left == null)
+                        insert(j, other.keys[i], right);
+                    else
+                        merger.accept(left, right);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces every value with the result of the finisher function.
+     * 
+     * @param <R> type of the new values
+     * @param finisher function to apply to the values
+     * @return this map with replaced values
+     */
+    @SuppressWarnings("unchecked")
+    <R> PrimitiveKeyMap<R> replaceValues(Function<V, R> finisher) {
+        Object[] v = values;
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] != null)
+                v[i] = Objects.requireNonNull(finisher.apply((V) v[i]));
+        }
+        return (PrimitiveKeyMap<R>) this;
+    }
+
+    /**
+     * @return read-only view of this map with {@code Integer} keys
+     */
+    Map<Integer, V> asIntMap() {
+        return new View<Integer, V>(this) {
+            @Override
+            Integer box(long key) {
+                return (int) key;
+            }
+
+            @Override
+            public V get(Object key) {
+                return key instanceof Integer ? map.get((Integer) key) : null;
+            }
+        };
+    }
+
+    /**
+     * @return read-only view of this map with {@code Long} keys
+     */
+    Map<Long, V> asLongMap() {
+        return new View<Long, V>(this) {
+            @Override
+            Long box(long key) {
+                return key;
+            }
+
+            @Override
+            public V get(Object key) {
+                return key instanceof Long ? map.get((Long) key) : null;
+            }
+        };
+    }
+
+    private static abstract class View<K, V> extends AbstractMap<K, V> {
+        final PrimitiveKeyMap<V> map;
+
+        View(PrimitiveKeyMap<V> map) {
+            this.map = map;
+        }
+
+        abstract K box(long key);
+
+        @Override
+        public abstract V get(Object key);
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return map.size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new Iterator<Entry<K, V>>() {
+                        private final long[] keys = map.keys;
+                        private final Object[] values = map.values;
+                        private int pos = advance(0);
+
+                        private int advance(int i) {
+                            while (i < values.length && values[i] == null)
+                                i++;
+                            return i;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return pos < values.length;
+                        }
+
+                        @SuppressWarnings("unchecked")
+                        @Override
+                        public Entry<K, V> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            Entry<K, V> entry = new SimpleImmutableEntry<>(box(keys[pos]), (V) values[pos]);
+                            pos = advance(pos + 1);
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size;
+                }
+            };
+        }
+    }
+}
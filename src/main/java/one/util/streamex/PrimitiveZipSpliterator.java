@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static one.util.streamex.UnknownSizeSpliterator.*;
+
+/**
+ * A zip spliterator for the primitive sources which does not box the
+ * elements. Like {@link ZipSpliterator} it splits both sources in parallel if
+ * they are SUBSIZED and produce equal prefixes, otherwise it pulls the aligned
+ * blocks of growing size from both sources into arrays.
+ * 
+ * @author Tagir Valeev
+ *
+ * @param <T> the boxed type of the elements
+ * @param <C> the type of the primitive consumer
+ * @param <S> the type of the primitive spliterator
+ * @param <A> the type of the primitive array
+ */
+/* package */abstract class PrimitiveZipSpliterator<T, C, S extends Spliterator.OfPrimitive<T, C, S>, A> implements
+        Spliterator.OfPrimitive<T, C, S> {
+    S left, right;
+    // false once the sources produced misaligned prefixes
+    private boolean trySplit = true;
+    private int batch = 0;
+
+    PrimitiveZipSpliterator(S left, S right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    abstract S zip(S left, S right);
+
+    abstract S concat(S prefix, S rest);
+
+    abstract A newArray(int size);
+
+    // Returns the number of elements actually drained
+    abstract int drainTo(A array, int size, S source);
+
+    abstract S ofArray(A array, int size);
+
+    @Override
+    public S trySplit() {
+        if (trySplit && hasCharacteristics(SIZED | SUBSIZED)) {
+            S leftPrefix = left.trySplit();
+            if (leftPrefix == null)
+                return arraySplit();
+            S rightPrefix = right.trySplit();
+            if (rightPrefix == null) {
+                trySplit = false;
+                left = concat(leftPrefix, left);
+                return arraySplit();
+            }
+            long leftSize = leftPrefix.getExactSizeIfKnown();
+            if (leftSize >= 0 && leftSize == rightPrefix.getExactSizeIfKnown())
+                return zip(leftPrefix, rightPrefix);
+            // put the prefixes back only once, so the sources are not wrapped
+            // into more and more concatenations
+            trySplit = false;
+            left = concat(leftPrefix, left);
+            right = concat(rightPrefix, right);
+        }
+        return arraySplit();
+    }
+
+    private S arraySplit() {
+        long s = estimateSize();
+        if (s <= 1)
+            return null;
+        int n = batch + BATCH_UNIT;
+        if (n > s)
+            n = (int) s;
+        if (n > MAX_BATCH)
+            n = MAX_BATCH;
+        A leftArray = newArray(n);
+        int index = drainTo(leftArray, n, left);
+        A rightArray = newArray(index);
+        index = drainTo(rightArray, index, right);
+        if ((batch = index) == 0)
+            return null;
+        return zip(ofArray(leftArray, index), ofArray(rightArray, index));
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.min(left.estimateSize(), right.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        // Remove SORTED, NONNULL, DISTINCT
+        return left.characteristics() & right.characteristics() & (SIZED | SUBSIZED | ORDERED | IMMUTABLE | CONCURRENT);
+    }
+
+    static final class OfInt extends PrimitiveZipSpliterator<Integer, IntConsumer, Spliterator.OfInt, int[]>
+            implements Spliterator.OfInt, IntConsumer {
+        private final IntBinaryOperator mapper;
+        private int cur;
+
+        OfInt(Spliterator.OfInt left, Spliterator.OfInt right, IntBinaryOperator mapper) {
+            super(left, right);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void accept(int t) {
+            cur = t;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (left.tryAdvance(this)) {
+                int l = cur;
+                if (right.tryAdvance(this)) {
+                    action.accept(mapper.applyAsInt(l, cur));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfInt zip(Spliterator.OfInt left, Spliterator.OfInt right) {
+            return new PrimitiveZipSpliterator.OfInt(left, right, mapper);
+        }
+
+        @Override
+        Spliterator.OfInt concat(Spliterator.OfInt prefix, Spliterator.OfInt rest) {
+            return IntStream.concat(StreamSupport.intStream(prefix, false), StreamSupport.intStream(rest, false))
+                    .spliterator();
+        }
+
+        @Override
+        int[] newArray(int size) {
+            return new int[size];
+        }
+
+        @Override
+        int drainTo(int[] array, int size, Spliterator.OfInt source) {
+            int index = 0;
+            while (index < size && source.tryAdvance(this)) {
+                array[index++] = cur;
+            }
+            return index;
+        }
+
+        @Override
+        Spliterator.OfInt ofArray(int[] array, int size) {
+            return Spliterators.spliterator(array, 0, size, characteristics() & ORDERED);
+        }
+    }
+
+    static final class OfLong extends PrimitiveZipSpliterator<Long, LongConsumer, Spliterator.OfLong, long[]>
+            implements Spliterator.OfLong, LongConsumer {
+        private final LongBinaryOperator mapper;
+        private long cur;
+
+        OfLong(Spliterator.OfLong left, Spliterator.OfLong right, LongBinaryOperator mapper) {
+            super(left, right);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void accept(long t) {
+            cur = t;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (left.tryAdvance(this)) {
+                long l = cur;
+                if (right.tryAdvance(this)) {
+                    action.accept(mapper.applyAsLong(l, cur));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfLong zip(Spliterator.OfLong left, Spliterator.OfLong right) {
+            return new PrimitiveZipSpliterator.OfLong(left, right, mapper);
+        }
+
+        @Override
+        Spliterator.OfLong concat(Spliterator.OfLong prefix, Spliterator.OfLong rest) {
+            return LongStream.concat(StreamSupport.longStream(prefix, false), StreamSupport.longStream(rest, false))
+                    .spliterator();
+        }
+
+        @Override
+        long[] newArray(int size) {
+            return new long[size];
+        }
+
+        @Override
+        int drainTo(long[] array, int size, Spliterator.OfLong source) {
+            int index = 0;
+            while (index < size && source.tryAdvance(this)) {
+                array[index++] = cur;
+            }
+            return index;
+        }
+
+        @Override
+        Spliterator.OfLong ofArray(long[] array, int size) {
+            return Spliterators.spliterator(array, 0, size, characteristics() & ORDERED);
+        }
+    }
+
+    static final class OfDouble extends PrimitiveZipSpliterator<Double, DoubleConsumer, Spliterator.OfDouble, double[]>
+            implements Spliterator.OfDouble, DoubleConsumer {
+        private final DoubleBinaryOperator mapper;
+        private double cur;
+
+        OfDouble(Spliterator.OfDouble left, Spliterator.OfDouble right, DoubleBinaryOperator mapper) {
+            super(left, right);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void accept(double t) {
+            cur = t;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (left.tryAdvance(this)) {
+                double l = cur;
+                if (right.tryAdvance(this)) {
+                    action.accept(mapper.applyAsDouble(l, cur));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfDouble zip(Spliterator.OfDouble left, Spliterator.OfDouble right) {
+            return new PrimitiveZipSpliterator.OfDouble(left, right, mapper);
+        }
+
+        @Override
+        Spliterator.OfDouble concat(Spliterator.OfDouble prefix, Spliterator.OfDouble rest) {
+            return DoubleStream.concat(StreamSupport.doubleStream(prefix, false),
+                StreamSupport.doubleStream(rest, false)).spliterator();
+        }
+
+        @Override
+        double[] newArray(int size) {
+            return new double[size];
+        }
+
+        @Override
+        int drainTo(double[] array, int size, Spliterator.OfDouble source) {
+            int index = 0;
+            while (index < size && source.tryAdvance(this)) {
+                array[index++] = cur;
+            }
+            return index;
+        }
+
+        @Override
+        Spliterator.OfDouble ofArray(double[] array, int size) {
+            return Spliterators.spliterator(array, 0, size, characteristics() & ORDERED);
+        }
+    }
+}
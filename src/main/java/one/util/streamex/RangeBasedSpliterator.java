@@ -15,6 +15,8 @@
  */
 package one.util.streamex;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Spliterator;
@@ -32,7 +34,8 @@ import static one.util.streamex.StreamExInternals.*;
 /**
  * @author Tagir Valeev
  */
-/* package */abstract class RangeBasedSpliterator<T, S extends RangeBasedSpliterator<T, ?>> extends CloneableSpliterator<T, S> {
+/* package */abstract class RangeBasedSpliterator<T, S extends RangeBasedSpliterator<T, ?>> extends CloneableSpliterator<T, S>
+        implements SliceableSpliterator {
     int cur;
     int limit;
 
@@ -51,6 +54,17 @@ import static one.util.streamex.StreamExInternals.*;
         return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
     }
 
+    @Override
+    public void skip(long n) {
+        cur = n >= limit - cur ? limit : cur + (int) n;
+    }
+
+    @Override
+    public void limit(long n) {
+        if (n < limit - cur)
+            limit = cur + (int) n;
+    }
+
     @Override
     public S trySplit() {
         int size = limit - cur;
@@ -373,4 +387,395 @@ import static one.util.streamex.StreamExInternals.*;
             cur = limit;
         }
     }
+
+    // The array or list source which keeps the reference to the backing list,
+    // so reversed(), foldRight() and scanRight() can read it backwards. The
+    // traversal itself is delegated to the JDK spliterator of the array or
+    // list, which is created when the traversal or splitting starts, so the
+    // forward path keeps its speed and the fail-fast behavior of ArrayList.
+    // This class does not extend RangeBasedSpliterator as it does not
+    // traverse the range itself.
+    static final class ForwardRef<T> implements Spliterator<T>, SliceableSpliterator {
+        private final List<T> list;
+        // the source array if the list is its Arrays.asList view
+        private final T[] array;
+        // the range of the remaining elements; negative to means that the list
+        // size is not read yet
+        private int from, to;
+        private Spliterator<T> delegate;
+
+        public ForwardRef(List<T> list) {
+            this(list, null, 0, -1);
+        }
+
+        public ForwardRef(List<T> list, int fromInclusive, int toExclusive) {
+            this(list, null, fromInclusive, toExclusive);
+        }
+
+        public ForwardRef(T[] array, int fromInclusive, int toExclusive) {
+            this(Arrays.asList(array), array, fromInclusive, toExclusive);
+        }
+
+        private ForwardRef(List<T> list, T[] array, int fromInclusive, int toExclusive) {
+            this.list = list;
+            this.array = array;
+            this.from = fromInclusive;
+            this.to = toExclusive;
+        }
+
+        private int to() {
+            if (to < 0)
+                to = list.size();
+            return to;
+        }
+
+        private Spliterator<T> delegate() {
+            if (delegate == null) {
+                if (array != null)
+                    delegate = Arrays.spliterator(array, from, to);
+                else if (from == 0 && to < 0)
+                    delegate = list.spliterator();
+                else
+                    delegate = list.subList(from, to()).spliterator();
+            }
+            return delegate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return delegate().tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            delegate().forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return delegate().trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return delegate == null ? (to < 0 ? list.size() : to) - from : delegate.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            if (delegate != null)
+                return delegate.characteristics();
+            return array == null ? ORDERED | SIZED | SUBSIZED : ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+
+        // Called before the traversal starts
+        @Override
+        public void skip(long n) {
+            from = n >= to() - from ? to : from + (int) n;
+        }
+
+        // Called before the traversal starts
+        @Override
+        public void limit(long n) {
+            if (n < to() - from)
+                to = from + (int) n;
+        }
+
+        // The remaining elements backed by the source
+        List<T> asList() {
+            return list.subList(from, to());
+        }
+
+        ReverseRef<T> reverse() {
+            return new ReverseRef<>(list, from, to());
+        }
+    }
+
+    // Positions are counted from the end of the source: position p corresponds
+    // to the index last - p
+    static final class ReverseRef<T> extends RangeBasedSpliterator<T, ReverseRef<T>> {
+        private final List<T> list;
+        private final int last;
+
+        public ReverseRef(List<T> list) {
+            this(list, 0, list.size());
+        }
+
+        // Traverses the list elements from toExclusive-1 down to fromInclusive
+        public ReverseRef(List<T> list, int fromInclusive, int toExclusive) {
+            super(0, toExclusive - fromInclusive);
+            this.list = list;
+            this.last = toExclusive - 1;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (cur < limit) {
+                action.accept(list.get(last - cur));
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(list.get(last - c++));
+            }
+            cur = limit;
+        }
+
+        // The remaining elements in traversal order backed by the source
+        List<T> asList() {
+            int from = cur, size = limit - cur;
+            return new AbstractList<T>() {
+                @Override
+                public T get(int index) {
+                    if (index < 0 || index >= size)
+                        throw new IndexOutOfBoundsException(String.valueOf(index));
+                    return list.get(last - from - index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        ForwardRef<T> reverse() {
+            return new ForwardRef<>(list, last - limit + 1, last - cur + 1);
+        }
+    }
+
+    static final class ForwardInt extends RangeBasedSpliterator<Integer, ForwardInt> implements Spliterator.OfInt {
+        private final int[] array;
+
+        public ForwardInt(int fromInclusive, int toExclusive, int[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+        }
+
+        ReverseInt reverse() {
+            return new ReverseInt(array, cur, limit);
+        }
+    }
+
+    static final class ForwardLong extends RangeBasedSpliterator<Long, ForwardLong> implements Spliterator.OfLong {
+        private final long[] array;
+
+        public ForwardLong(int fromInclusive, int toExclusive, long[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+        }
+
+        ReverseLong reverse() {
+            return new ReverseLong(array, cur, limit);
+        }
+    }
+
+    static final class ForwardDouble extends RangeBasedSpliterator<Double, ForwardDouble> implements Spliterator.OfDouble {
+        private final double[] array;
+
+        public ForwardDouble(int fromInclusive, int toExclusive, double[] array) {
+            super(fromInclusive, toExclusive);
+            this.array = array;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (cur < limit) {
+                action.accept(array[cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[c++]);
+            }
+            cur = limit;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+        }
+
+        ReverseDouble reverse() {
+            return new ReverseDouble(array, cur, limit);
+        }
+    }
+
+    static final class ReverseInt extends RangeBasedSpliterator<Integer, ReverseInt> implements Spliterator.OfInt {
+        private final int[] array;
+        private final int last;
+
+        public ReverseInt(int[] array) {
+            this(array, 0, array.length);
+        }
+
+        // Traverses the array elements from toExclusive-1 down to fromInclusive
+        public ReverseInt(int[] array, int fromInclusive, int toExclusive) {
+            super(0, toExclusive - fromInclusive);
+            this.array = array;
+            this.last = toExclusive - 1;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (cur < limit) {
+                action.accept(array[last - cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[last - c++]);
+            }
+            cur = limit;
+        }
+
+        ForwardInt reverse() {
+            return new ForwardInt(last - limit + 1, last - cur + 1, array);
+        }
+    }
+
+    static final class ReverseLong extends RangeBasedSpliterator<Long, ReverseLong> implements Spliterator.OfLong {
+        private final long[] array;
+        private final int last;
+
+        public ReverseLong(long[] array) {
+            this(array, 0, array.length);
+        }
+
+        // Traverses the array elements from toExclusive-1 down to fromInclusive
+        public ReverseLong(long[] array, int fromInclusive, int toExclusive) {
+            super(0, toExclusive - fromInclusive);
+            this.array = array;
+            this.last = toExclusive - 1;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (cur < limit) {
+                action.accept(array[last - cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[last - c++]);
+            }
+            cur = limit;
+        }
+
+        ForwardLong reverse() {
+            return new ForwardLong(last - limit + 1, last - cur + 1, array);
+        }
+    }
+
+    static final class ReverseDouble extends RangeBasedSpliterator<Double, ReverseDouble> implements
+            Spliterator.OfDouble {
+        private final double[] array;
+        private final int last;
+
+        public ReverseDouble(double[] array) {
+            this(array, 0, array.length);
+        }
+
+        // Traverses the array elements from toExclusive-1 down to fromInclusive
+        public ReverseDouble(double[] array, int fromInclusive, int toExclusive) {
+            super(0, toExclusive - fromInclusive);
+            this.array = array;
+            this.last = toExclusive - 1;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (cur < limit) {
+                action.accept(array[last - cur]);
+                cur++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            int l = limit, c = cur;
+            while (c < l) {
+                action.accept(array[last - c++]);
+            }
+            cur = limit;
+        }
+
+        ForwardDouble reverse() {
+            return new ForwardDouble(last - limit + 1, last - cur + 1, array);
+        }
+    }
 }
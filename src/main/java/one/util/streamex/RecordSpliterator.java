@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * Spliterators over the records of memory-mapped file. The file is mapped as
+ * a sequence of read-only chunks (at most {@code Integer.MAX_VALUE} bytes
+ * each), every record lies entirely within one chunk, so records are emitted
+ * as {@link ByteBuffer} slices without copying.
+ *
+ * @author Tagir Valeev
+ */
+/* package */abstract class RecordSpliterator<T, S extends RecordSpliterator<T, ?>> extends CloneableSpliterator<T, S> {
+    static final long MAX_WINDOW = Integer.MAX_VALUE;
+
+    final ByteBuffer[] chunks;
+    final long[] starts;
+    long pos, fence;
+
+    RecordSpliterator(ByteBuffer[] chunks) {
+        this.chunks = chunks;
+        this.starts = new long[chunks.length + 1];
+        for (int i = 0; i < chunks.length; i++) {
+            starts[i + 1] = starts[i] + chunks[i].limit();
+        }
+        this.fence = starts[chunks.length];
+    }
+
+    int chunkOf(long offset) {
+        int idx = Arrays.binarySearch(starts, offset);
+        return idx >= 0 ? idx : -idx - 2;
+    }
+
+    S split(long splitPos) {
+        S prefix = doClone();
+        prefix.fence = pos = splitPos;
+        return prefix;
+    }
+
+    static ByteBuffer slice(ByteBuffer buf, int from, int to) {
+        ByteBuffer result = buf.duplicate();
+        // cast to Buffer to link to the JDK 8 methods when compiled on JDK 9+
+        ((Buffer) result).limit(to);
+        ((Buffer) result).position(from);
+        return result.slice();
+    }
+
+    static ByteBuffer[] mapDelimited(Path path, byte delimiter, long window) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fc.size();
+            long start = 0;
+            while (start < size) {
+                long length = Math.min(size - start, window);
+                ByteBuffer buf = fc.map(MapMode.READ_ONLY, start, length);
+                if (start + length < size) {
+                    int last = (int) length - 1;
+                    while (last >= 0 && buf.get(last) != delimiter)
+                        last--;
+                    if (last < 0)
+                        throw new IOException("Record is too long at position " + start);
+                    length = last + 1;
+                    ((Buffer) buf).limit(last + 1);
+                }
+                chunks.add(buf);
+                start += length;
+            }
+        }
+        return chunks.toArray(new ByteBuffer[0]);
+    }
+
+    static ByteBuffer[] mapFixed(Path path, int recordLength, long window) throws IOException {
+        if (recordLength <= 0)
+            throw new IllegalArgumentException("recordLength = " + recordLength);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = fc.size() / recordLength * recordLength;
+            long chunkSize = Math.max(1, window / recordLength) * recordLength;
+            for (long start = 0; start < size; start += chunkSize) {
+                chunks.add(fc.map(MapMode.READ_ONLY, start, Math.min(size - start, chunkSize)));
+            }
+        }
+        return chunks.toArray(new ByteBuffer[0]);
+    }
+
+    static final class OfDelimited extends RecordSpliterator<ByteBuffer, OfDelimited> {
+        private final byte delimiter;
+        private int chunk;
+
+        OfDelimited(ByteBuffer[] chunks, byte delimiter) {
+            super(chunks);
+            this.delimiter = delimiter;
+        }
+
+        private ByteBuffer next() {
+            int c = chunk;
+            while (pos >= starts[c + 1])
+                c++;
+            chunk = c;
+            long start = starts[c];
+            ByteBuffer buf = chunks[c];
+            int from = (int) (pos - start), to = (int) (Math.min(fence, starts[c + 1]) - start);
+            int i = from;
+            while (i < to && buf.get(i) != delimiter)
+                i++;
+            pos = start + (i < to ? i + 1 : i);
+            return slice(buf, from, i);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ByteBuffer> action) {
+            if (pos >= fence)
+                return false;
+            action.accept(next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super ByteBuffer> action) {
+            while (pos < fence)
+                action.accept(next());
+        }
+
+        @Override
+        public OfDelimited trySplit() {
+            if (fence - pos < 2)
+                return null;
+            long mid = (pos + fence) >>> 1;
+            int c = chunkOf(mid);
+            long start = starts[c];
+            ByteBuffer buf = chunks[c];
+            int i = (int) (mid - start), to = (int) (Math.min(fence, starts[c + 1]) - start);
+            while (i < to && buf.get(i) != delimiter)
+                i++;
+            // chunk end is always a record boundary
+            long splitPos = start + (i < to ? i + 1 : to);
+            if (splitPos >= fence)
+                return null;
+            OfDelimited prefix = split(splitPos);
+            chunk = c;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    static abstract class Fixed<T, S extends Fixed<T, ?>> extends RecordSpliterator<T, S> {
+        final int length;
+        final long chunkSize;
+
+        Fixed(ByteBuffer[] chunks, int length) {
+            super(chunks);
+            this.length = length;
+            this.chunkSize = chunks.length == 0 ? length : chunks[0].limit();
+        }
+
+        @Override
+        public S trySplit() {
+            long n = (fence - pos) / length;
+            if (n < 2)
+                return null;
+            return split(pos + n / 2 * length);
+        }
+
+        @Override
+        public long estimateSize() {
+            return (fence - pos) / length;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    static final class OfFixed extends Fixed<ByteBuffer, OfFixed> {
+        OfFixed(ByteBuffer[] chunks, int length) {
+            super(chunks, length);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ByteBuffer> action) {
+            if (pos >= fence)
+                return false;
+            int off = (int) (pos % chunkSize);
+            action.accept(slice(chunks[(int) (pos / chunkSize)], off, off + length));
+            pos += length;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super ByteBuffer> action) {
+            if (pos >= fence)
+                return;
+            int c = (int) (pos / chunkSize), off = (int) (pos % chunkSize);
+            ByteBuffer buf = chunks[c];
+            for (long p = pos; p < fence; p += length, off += length) {
+                if (off == buf.limit()) {
+                    buf = chunks[++c];
+                    off = 0;
+                }
+                action.accept(slice(buf, off, off + length));
+            }
+            pos = fence;
+        }
+    }
+
+    static final class OfInt extends Fixed<Integer, OfInt> implements Spliterator.OfInt {
+        private final int offset;
+
+        OfInt(ByteBuffer[] chunks, int length, int offset, ByteOrder order) {
+            super(chunks, length);
+            if (offset < 0 || offset > length - Integer.BYTES)
+                throw new IllegalArgumentException("offset = " + offset);
+            this.offset = offset;
+            for (ByteBuffer buf : chunks)
+                buf.order(order);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (pos >= fence)
+                return false;
+            action.accept(chunks[(int) (pos / chunkSize)].getInt((int) (pos % chunkSize) + offset));
+            pos += length;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            if (pos >= fence)
+                return;
+            int c = (int) (pos / chunkSize), off = (int) (pos % chunkSize) + offset;
+            ByteBuffer buf = chunks[c];
+            for (long p = pos; p < fence; p += length, off += length) {
+                if (off >= buf.limit()) {
+                    buf = chunks[++c];
+                    off = offset;
+                }
+                action.accept(buf.getInt(off));
+            }
+            pos = fence;
+        }
+    }
+
+    static final class OfLong extends Fixed<Long, OfLong> implements Spliterator.OfLong {
+        private final int offset;
+
+        OfLong(ByteBuffer[] chunks, int length, int offset, ByteOrder order) {
+            super(chunks, length);
+            if (offset < 0 || offset > length - Long.BYTES)
+                throw new IllegalArgumentException("offset = " + offset);
+            this.offset = offset;
+            for (ByteBuffer buf : chunks)
+                buf.order(order);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (pos >= fence)
+                return false;
+            action.accept(chunks[(int) (pos / chunkSize)].getLong((int) (pos % chunkSize) + offset));
+            pos += length;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (pos >= fence)
+                return;
+            int c = (int) (pos / chunkSize), off = (int) (pos % chunkSize) + offset;
+            ByteBuffer buf = chunks[c];
+            for (long p = pos; p < fence; p += length, off += length) {
+                if (off >= buf.limit()) {
+                    buf = chunks[++c];
+                    off = offset;
+                }
+                action.accept(buf.getLong(off));
+            }
+            pos = fence;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A spliterator which skips the given number of leading elements of the
+ * {@code SUBSIZED} source. Instead of traversing the skipped elements it
+ * splits the source and discards the prefixes which are skipped entirely, so
+ * only a small part of the skipped elements is actually traversed. The
+ * remaining parts are traversed in order and the largest of them is handed off
+ * on split, so the result is still {@code SIZED}, {@code SUBSIZED} and splits
+ * well.
+ *
+ * <p>
+ * The source is split lazily when the spliterator is traversed or split for
+ * the first time.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <T> type of the elements
+ * @param <S> type of the source spliterator
+ */
+/* package */abstract class SkipSpliterator<T, S extends Spliterator<T>> implements Spliterator<T> {
+    // the part which is traversed currently
+    S cur;
+    // the following parts, the first one is the next one
+    ArrayDeque<S> rest;
+    private long skip;
+
+    SkipSpliterator(S source, long skip) {
+        this.cur = source;
+        this.skip = skip;
+    }
+
+    SkipSpliterator(S cur, ArrayDeque<S> rest) {
+        this.cur = cur;
+        this.rest = rest;
+    }
+
+    abstract SkipSpliterator<T, S> create(S cur, ArrayDeque<S> rest);
+
+    abstract boolean advance(S s);
+
+    /**
+     * Returns true if the source can be skipped by this spliterator.
+     */
+    static boolean applicable(Spliterator<?> source, long n) {
+        return n >= 0 && source.hasCharacteristics(SUBSIZED);
+    }
+
+    @SuppressWarnings("unchecked")
+    final void init() {
+        if (rest != null)
+            return;
+        rest = new ArrayDeque<>();
+        long n = skip;
+        S s = cur;
+        while (n > 0) {
+            S prefix = (S) s.trySplit();
+            if (prefix == null) {
+                while (n-- > 0 && advance(s)) {
+                    // empty
+                }
+                break;
+            }
+            long size = prefix.estimateSize();
+            if (size <= n) {
+                n -= size;
+            } else {
+                rest.addFirst(s);
+                s = prefix;
+            }
+        }
+        cur = s;
+    }
+
+    /**
+     * Moves to the next part if the current one is exhausted.
+     */
+    final boolean next() {
+        S s = rest.pollFirst();
+        if (s == null)
+            return false;
+        cur = s;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public S trySplit() {
+        init();
+        if (rest.isEmpty())
+            return (S) cur.trySplit();
+        // hand off everything except the last part, which is usually the
+        // largest one
+        S prefix = cur;
+        S last = rest.pollLast();
+        cur = last;
+        if (rest.isEmpty())
+            return prefix;
+        ArrayDeque<S> prefixRest = rest;
+        rest = new ArrayDeque<>();
+        return (S) create(prefix, prefixRest);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (rest == null)
+            return Math.max(0, cur.estimateSize() - skip);
+        long size = cur.estimateSize();
+        for (S s : rest) {
+            size += s.estimateSize();
+            if (size < 0)
+                return Long.MAX_VALUE;
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = cur.characteristics();
+        if (rest != null) {
+            for (S s : rest) {
+                characteristics &= s.characteristics();
+            }
+        }
+        return characteristics;
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return cur.getComparator();
+    }
+
+    static final class OfRef<T> extends SkipSpliterator<T, Spliterator<T>> {
+        OfRef(Spliterator<T> source, long skip) {
+            super(source, skip);
+        }
+
+        private OfRef(Spliterator<T> cur, ArrayDeque<Spliterator<T>> rest) {
+            super(cur, rest);
+        }
+
+        @Override
+        SkipSpliterator<T, Spliterator<T>> create(Spliterator<T> cur, ArrayDeque<Spliterator<T>> rest) {
+            return new OfRef<>(cur, rest);
+        }
+
+        @Override
+        boolean advance(Spliterator<T> s) {
+            return s.tryAdvance(t -> {});
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            init();
+            do {
+                if (cur.tryAdvance(action))
+                    return true;
+            } while (next());
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            init();
+            do {
+                cur.forEachRemaining(action);
+            } while (next());
+        }
+    }
+
+    static final class OfInt extends SkipSpliterator<Integer, Spliterator.OfInt> implements Spliterator.OfInt {
+        OfInt(Spliterator.OfInt source, long skip) {
+            super(source, skip);
+        }
+
+        private OfInt(Spliterator.OfInt cur, ArrayDeque<Spliterator.OfInt> rest) {
+            super(cur, rest);
+        }
+
+        @Override
+        SkipSpliterator<Integer, Spliterator.OfInt> create(Spliterator.OfInt cur, ArrayDeque<Spliterator.OfInt> rest) {
+            return new SkipSpliterator.OfInt(cur, rest);
+        }
+
+        @Override
+        boolean advance(Spliterator.OfInt s) {
+            return s.tryAdvance((int t) -> {});
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            init();
+            do {
+                if (cur.tryAdvance(action))
+                    return true;
+            } while (next());
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            init();
+            do {
+                cur.forEachRemaining(action);
+            } while (next());
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return (Spliterator.OfInt) super.trySplit();
+        }
+    }
+
+    static final class OfLong extends SkipSpliterator<Long, Spliterator.OfLong> implements Spliterator.OfLong {
+        OfLong(Spliterator.OfLong source, long skip) {
+            super(source, skip);
+        }
+
+        private OfLong(Spliterator.OfLong cur, ArrayDeque<Spliterator.OfLong> rest) {
+            super(cur, rest);
+        }
+
+        @Override
+        SkipSpliterator<Long, Spliterator.OfLong> create(Spliterator.OfLong cur,
+                ArrayDeque<Spliterator.OfLong> rest) {
+            return new SkipSpliterator.OfLong(cur, rest);
+        }
+
+        @Override
+        boolean advance(Spliterator.OfLong s) {
+            return s.tryAdvance((long t) -> {});
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            init();
+            do {
+                if (cur.tryAdvance(action))
+                    return true;
+            } while (next());
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            init();
+            do {
+                cur.forEachRemaining(action);
+            } while (next());
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return (Spliterator.OfLong) super.trySplit();
+        }
+    }
+
+    static final class OfDouble extends SkipSpliterator<Double, Spliterator.OfDouble> implements
+            Spliterator.OfDouble {
+        OfDouble(Spliterator.OfDouble source, long skip) {
+            super(source, skip);
+        }
+
+        private OfDouble(Spliterator.OfDouble cur, ArrayDeque<Spliterator.OfDouble> rest) {
+            super(cur, rest);
+        }
+
+        @Override
+        SkipSpliterator<Double, Spliterator.OfDouble> create(Spliterator.OfDouble cur,
+                ArrayDeque<Spliterator.OfDouble> rest) {
+            return new SkipSpliterator.OfDouble(cur, rest);
+        }
+
+        @Override
+        boolean advance(Spliterator.OfDouble s) {
+            return s.tryAdvance((double t) -> {});
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            init();
+            do {
+                if (cur.tryAdvance(action))
+                    return true;
+            } while (next());
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            init();
+            do {
+                cur.forEachRemaining(action);
+            } while (next());
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            return (Spliterator.OfDouble) super.trySplit();
+        }
+    }
+}
@@ -19,10 +19,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,7 +46,6 @@ import java.util.SortedMap;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.BiConsumer;
@@ -53,6 +56,9 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
@@ -103,13 +109,6 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return new StreamEx<>(spliterator, context);
     }
 
-    private static <T> StreamEx<T> flatTraverse(Stream<T> src, Function<T, Stream<T>> streamProvider) {
-        return StreamEx.of(src).flatMap(t -> {
-            Stream<T> result = streamProvider.apply(t);
-            return result == null ? Stream.of(t) : flatTraverse(result, streamProvider).prepend(t);
-        });
-    }
-
     /**
      * Returns a stream consisting of the elements of this stream which are
      * instances of given class.
@@ -168,6 +167,132 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
                 .map(e -> new SimpleImmutableEntry<>(keyMapper.apply(e), valueMapper.apply(e))), context);
     }
 
+    /**
+     * Returns an {@link ObjIntStream} consisting of the pairs which keys are
+     * elements of this stream and {@code int} values are results of applying
+     * the given function to the elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function)
+     * @since 0.6.1
+     */
+    public ObjIntStream<T> mapToIntValue(ToIntFunction<? super T> valueMapper) {
+        return new ObjIntStream<>(map(e -> new ObjIntBox<>(e, valueMapper.applyAsInt(e))));
+    }
+
+    /**
+     * Returns an {@link ObjIntStream} consisting of the pairs which keys and
+     * {@code int} values are results of applying the given functions to the
+     * elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param <K> the type of the keys
+     * @param keyMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function, Function)
+     * @since 0.6.1
+     */
+    public <K> ObjIntStream<K> mapToIntValue(Function<? super T, ? extends K> keyMapper,
+            ToIntFunction<? super T> valueMapper) {
+        return new ObjIntStream<>(map(e -> new ObjIntBox<K>(keyMapper.apply(e), valueMapper.applyAsInt(e))));
+    }
+
+    /**
+     * Returns an {@link ObjLongStream} consisting of the pairs which keys are
+     * elements of this stream and {@code long} values are results of applying
+     * the given function to the elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function)
+     * @since 0.6.1
+     */
+    public ObjLongStream<T> mapToLongValue(ToLongFunction<? super T> valueMapper) {
+        return new ObjLongStream<>(map(e -> new ObjLongBox<>(e, valueMapper.applyAsLong(e))));
+    }
+
+    /**
+     * Returns an {@link ObjLongStream} consisting of the pairs which keys and
+     * {@code long} values are results of applying the given functions to the
+     * elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param <K> the type of the keys
+     * @param keyMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function, Function)
+     * @since 0.6.1
+     */
+    public <K> ObjLongStream<K> mapToLongValue(Function<? super T, ? extends K> keyMapper,
+            ToLongFunction<? super T> valueMapper) {
+        return new ObjLongStream<>(map(e -> new ObjLongBox<K>(keyMapper.apply(e), valueMapper.applyAsLong(e))));
+    }
+
+    /**
+     * Returns an {@link ObjDoubleStream} consisting of the pairs which keys are
+     * elements of this stream and {@code double} values are results of applying
+     * the given function to the elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function)
+     * @since 0.6.1
+     */
+    public ObjDoubleStream<T> mapToDoubleValue(ToDoubleFunction<? super T> valueMapper) {
+        return new ObjDoubleStream<>(map(e -> new ObjDoubleBox<>(e, valueMapper.applyAsDouble(e))));
+    }
+
+    /**
+     * Returns an {@link ObjDoubleStream} consisting of the pairs which keys and
+     * {@code double} values are results of applying the given functions to the
+     * elements of this stream.
+     *
+     * <p>
+     * This is an <a href="package-summary.html#StreamOps">intermediate</a>
+     * operation.
+     *
+     * @param <K> the type of the keys
+     * @param keyMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @param valueMapper a non-interfering, stateless function to apply to each
+     *        element
+     * @return the new stream
+     * @see #mapToEntry(Function, Function)
+     * @since 0.6.1
+     */
+    public <K> ObjDoubleStream<K> mapToDoubleValue(Function<? super T, ? extends K> keyMapper,
+            ToDoubleFunction<? super T> valueMapper) {
+        return new ObjDoubleStream<>(map(e -> new ObjDoubleBox<K>(keyMapper.apply(e), valueMapper.applyAsDouble(e))));
+    }
+
     /**
      * Returns a stream where the first element is the replaced with the result
      * of applying the given function while the other elements are left intact.
@@ -726,6 +851,85 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return map(String::valueOf).rawCollect(Collectors.joining(delimiter));
     }
 
+    /**
+     * Appends the results of calling {@link String#valueOf(Object)} on each
+     * element of this stream, separated by the specified delimiter, in
+     * encounter order to the supplied {@link Appendable}.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">terminal</a>
+     * operation.
+     * 
+     * <p>
+     * Unlike {@link #joining(CharSequence)} the elements are not accumulated in
+     * memory: for sequential stream they are written as soon as they are
+     * produced through the small reusable buffer, for parallel stream the
+     * parts of the stream are written in encounter order as soon as all the
+     * preceding parts are written. It's equivalent to
+     * {@code joinTo(out, Joining.with(delimiter))}.
+     * 
+     * @param <A> the type of the {@code Appendable}
+     * @param out the {@code Appendable} to write to
+     * @param delimiter the delimiter to be used between each element
+     * @return the supplied {@code Appendable}
+     * @throws UncheckedIOException if {@code Appendable} throws an
+     *         {@link IOException}
+     * @see #joinTo(Appendable, Joining)
+     * @since 0.6.1
+     */
+    public <A extends Appendable> A joinTo(A out, CharSequence delimiter) {
+        return joinTo(out, Joining.with(delimiter));
+    }
+
+    /**
+     * Appends the results of calling {@link String#valueOf(Object)} on each
+     * element of this stream to the supplied {@link Appendable} in encounter
+     * order the same way as the supplied {@link Joining} collector joins them
+     * to the {@code String}.
+     *
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">terminal</a>
+     * operation.
+     * 
+     * <p>
+     * Unlike {@code collect(joining)} the elements are not accumulated in
+     * memory: for sequential stream they are written as soon as they are
+     * produced through the small reusable buffer, for parallel stream the
+     * parts of the stream are written in encounter order as soon as all the
+     * preceding parts are written. If the {@code Joining} limits the length
+     * of the result, only the elements which may need to be cut or replaced
+     * with ellipsis are kept in memory and writing stops as soon as the limit
+     * is reached. For sequential stream this operation is
+     * <a href="package-summary.html#ShortCircuitReduction">short-circuiting
+     * </a> in this case.
+     * 
+     * @param <A> the type of the {@code Appendable}
+     * @param out the {@code Appendable} to write to
+     * @param joining the {@code Joining} collector which defines the delimiter,
+     *        prefix, suffix and length limit
+     * @return the supplied {@code Appendable}
+     * @throws UncheckedIOException if {@code Appendable} throws an
+     *         {@link IOException}
+     * @since 0.6.1
+     */
+    public <A extends Appendable> A joinTo(A out, Joining joining) {
+        Joining.Appender appender = joining.appender(Objects.requireNonNull(out));
+        if (isParallel()) {
+            forEachOrdered(t -> appender.accept(String.valueOf(t)));
+        } else {
+            try {
+                spliterator().forEachRemaining(t -> {
+                    if (!appender.accept(String.valueOf(t)))
+                        throw new CancelException();
+                });
+            } catch (CancelException ex) {
+                // ignore
+            }
+        }
+        appender.finish();
+        return out;
+    }
+
     /**
      * Returns a {@link String} which contains the results of calling
      * {@link String#valueOf(Object)} on each element of this stream, separated
@@ -864,7 +1068,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @see #toMap(Function)
      */
     public <K, V> Map<K, V> toMap(Function<? super T, ? extends K> keyMapper, Function<? super T, ? extends V> valMapper) {
-        Map<K, V> map = isParallel() ? new ConcurrentHashMap<>() : new HashMap<>();
+        Map<K, V> map = createMap();
         return toMapThrowing(keyMapper, valMapper, map);
     }
 
@@ -1107,7 +1311,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @since 0.5.4
      */
     public StreamEx<T> prepend(T value) {
-        return new StreamEx<>(new PrependSpliterator<>(spliterator(), value), context);
+        return new StreamEx<>(PrependSpliterator.prepend(spliterator(), value), context);
     }
 
     /**
@@ -1434,13 +1638,41 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @since 0.3.3
      */
     public EntryStream<T, Long> runLengths() {
-        return new EntryStream<>(collapseInternal(Objects::equals, t -> new ObjLongBox<>(t, 1L), (acc, t) -> {
+        return new EntryStream<>(runs().spliterator(), context);
+    }
+
+    /**
+     * Collapses adjacent equal elements and returns an {@link ObjLongStream}
+     * where keys are input elements and {@code long} values specify how many
+     * elements were collapsed.
+     * 
+     * <p>
+     * This is a <a href="package-summary.html#StreamOps">quasi-intermediate</a>
+     * partial reduction operation.
+     * 
+     * <p>
+     * Unlike {@link #runLengths()} the counts are not boxed. For sorted input
+     * {@code runLengthsToLong().toMap()} is the same as
+     * {@code groupingBy(Function.identity(), Collectors.counting())}, but may
+     * perform faster. For unsorted input the resulting stream may contain
+     * repeating keys, {@code runLengthsToLong().toMap(Long::sum)} merges them.
+     * 
+     * @return the new stream
+     * @see #runLengths()
+     * @since 0.6.1
+     */
+    public ObjLongStream<T> runLengthsToLong() {
+        return new ObjLongStream<>(runs());
+    }
+
+    private StreamEx<ObjLongBox<T>> runs() {
+        return collapseInternal(Objects::equals, t -> new ObjLongBox<>(t, 1L), (acc, t) -> {
             acc.b++;
             return acc;
         }, (e1, e2) -> {
             e1.b += e2.b;
             return e1;
-        }), context);
+        });
     }
 
     /**
@@ -1802,7 +2034,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      */
     @SafeVarargs
     public static <T> StreamEx<T> of(T... elements) {
-        return of(Arrays.spliterator(elements));
+        return of(elements, 0, elements.length);
     }
 
     /**
@@ -1822,7 +2054,45 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @see Arrays#stream(Object[], int, int)
      */
     public static <T> StreamEx<T> of(T[] array, int startInclusive, int endExclusive) {
-        return of(Arrays.spliterator(array, startInclusive, endExclusive));
+        rangeCheck(array.length, startInclusive, endExclusive);
+        return of(new RangeBasedSpliterator.ForwardRef<>(array, startInclusive, endExclusive));
+    }
+
+    /**
+     * Returns a sequential ordered {@code StreamEx} whose elements are the
+     * elements of the supplied list in reverse order.
+     * 
+     * <p>
+     * The list elements are accessed using {@link List#get(int)}, so the list
+     * should provide fast random access. No copy of the list is made and the
+     * resulting stream is sized and splits well in parallel. The list is
+     * assumed to be unmodified during the stream operations.
+     *
+     * @param <T> the type of stream elements
+     * @param list the list to stream from the end, assumed to be unmodified
+     *        during use
+     * @return the new stream
+     * @see #reversed()
+     * @since 0.6.1
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StreamEx<T> ofReversed(List<? extends T> list) {
+        return of(new RangeBasedSpliterator.ReverseRef<>((List<T>) list));
+    }
+
+    /**
+     * Returns a sequential ordered {@code StreamEx} whose elements are the
+     * elements of the supplied array in reverse order.
+     *
+     * @param <T> the type of stream elements
+     * @param array the array to stream from the end, assumed to be unmodified
+     *        during use
+     * @return the new stream
+     * @see #reversed()
+     * @since 0.6.1
+     */
+    public static <T> StreamEx<T> ofReversed(T[] array) {
+        return ofReversed(Arrays.asList(array));
     }
 
     /**
@@ -1835,7 +2105,12 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      *         collection
      * @see Collection#stream()
      */
+    @SuppressWarnings("unchecked")
     public static <T> StreamEx<T> of(Collection<? extends T> collection) {
+        // ArrayList and Arrays.asList are still traversed by their own
+        // spliterators, but the stream can read them backwards if necessary
+        if (collection.getClass() == ArrayList.class || collection.getClass() == ARRAYS_LIST_CLASS)
+            return of(new RangeBasedSpliterator.ForwardRef<>((List<T>) collection));
         return of(collection.spliterator());
     }
 
@@ -1982,7 +2257,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @see BufferedReader#lines()
      */
     public static StreamEx<String> ofLines(BufferedReader reader) {
-        return of(UnknownSizeSpliterator.optimize(reader.lines()));
+        return of(UnknownSizeSpliterator.lines(reader));
     }
 
     /**
@@ -2017,7 +2292,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
     public static StreamEx<String> ofLines(Reader reader) {
         if (reader instanceof BufferedReader)
             return ofLines((BufferedReader) reader);
-        return of(UnknownSizeSpliterator.optimize(new BufferedReader(reader).lines()));
+        return of(UnknownSizeSpliterator.lines(new BufferedReader(reader)));
     }
 
     /**
@@ -2035,19 +2310,25 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * is also wrapped as an {@code UncheckedIOException}.
      *
      * <p>
-     * The returned stream encapsulates a {@link Reader}. If timely disposal of
-     * file system resources is required, the try-with-resources construct
-     * should be used to ensure that the stream's {@link #close close} method is
-     * invoked after the stream operations are completed.
+     * The returned stream encapsulates a {@link FileChannel}. If timely
+     * disposal of file system resources is required, the try-with-resources
+     * construct should be used to ensure that the stream's {@link #close close}
+     * method is invoked after the stream operations are completed.
+     * 
+     * <p>
+     * When the stream is processed in parallel, the file is memory-mapped and
+     * split at the line boundaries, so every thread decodes its own part of
+     * the file.
      *
      * @param path the path to the file
      * @return the lines from the file as a {@code StreamEx}
      * @throws IOException if an I/O error occurs opening the file
      * @since 0.5.0
      * @see Files#lines(Path)
+     * @see #ofLines(Path, Charset)
      */
     public static StreamEx<String> ofLines(Path path) throws IOException {
-        return of(UnknownSizeSpliterator.optimize(Files.lines(path)));
+        return ofLines(path, StandardCharsets.UTF_8);
     }
 
     /**
@@ -2067,10 +2348,19 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * is also wrapped as an {@code UncheckedIOException}.
      *
      * <p>
-     * The returned stream encapsulates a {@link Reader}. If timely disposal of
-     * file system resources is required, the try-with-resources construct
-     * should be used to ensure that the stream's {@link #close close} method is
-     * invoked after the stream operations are completed.
+     * The returned stream encapsulates a {@link Reader} or a
+     * {@link FileChannel}. If timely disposal of file system resources is
+     * required, the try-with-resources construct should be used to ensure that
+     * the stream's {@link #close close} method is invoked after the stream
+     * operations are completed.
+     * 
+     * <p>
+     * If the charset is {@link StandardCharsets#UTF_8 UTF-8},
+     * {@link StandardCharsets#ISO_8859_1 ISO-8859-1} or
+     * {@link StandardCharsets#US_ASCII US-ASCII} and the stream is processed
+     * in parallel, the file is memory-mapped and split at the line boundaries,
+     * so every thread decodes its own part of the file. Sequential processing
+     * reads the file without mapping.
      *
      * @param path the path to the file
      * @param charset the charset to use for decoding
@@ -2080,7 +2370,97 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @since 0.5.0
      */
     public static StreamEx<String> ofLines(Path path, Charset charset) throws IOException {
-        return of(UnknownSizeSpliterator.optimize(Files.lines(path, charset)));
+        if (!LinesSpliterator.isSupported(charset)) {
+            BufferedReader reader = Files.newBufferedReader(path, charset);
+            return of(UnknownSizeSpliterator.lines(reader)).onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return of(new LinesSpliterator(fc, charset, fc.size())).onClose(() -> {
+                try {
+                    fc.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException | Error e) {
+            try {
+                fc.close();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a sequential ordered {@code StreamEx} of the records of the file
+     * separated by the given delimiter byte.
+     *
+     * <p>
+     * The file is memory-mapped and every record is represented as a read-only
+     * {@link ByteBuffer} slice of the mapping which does not include the
+     * delimiter, so no bytes are copied or decoded. A trailing delimiter does
+     * not produce an empty last record. The stream splits well for parallel
+     * processing: the split points are chosen by byte offset and adjusted to
+     * the nearest record boundary.
+     *
+     * <p>
+     * The file is mapped during this method call, so no file handle remains
+     * open and the returned stream need not be closed. The file must not be
+     * modified while the stream is being processed, otherwise the result is
+     * undefined.
+     *
+     * @param path the path to the file
+     * @param delimiter the byte which separates the records
+     * @return the records of the file as a {@code StreamEx} of
+     *         {@code ByteBuffer} objects
+     * @throws IOException if an I/O error occurs opening or mapping the file
+     *         or if a single record is longer than {@code Integer.MAX_VALUE}
+     *         bytes
+     * @since 0.6.1
+     */
+    public static StreamEx<ByteBuffer> ofRecords(Path path, byte delimiter) throws IOException {
+        return of(new RecordSpliterator.OfDelimited(RecordSpliterator.mapDelimited(path, delimiter,
+            RecordSpliterator.MAX_WINDOW), delimiter));
+    }
+
+    /**
+     * Returns a sequential ordered {@code StreamEx} of the fixed-width records
+     * of the file.
+     *
+     * <p>
+     * The file is memory-mapped and every record is represented as a read-only
+     * {@link ByteBuffer} slice of the mapping, so no bytes are copied. If the
+     * file size is not a multiple of {@code recordLength}, the trailing
+     * incomplete record is ignored. The returned stream is {@code SIZED} and
+     * splits evenly for parallel processing.
+     *
+     * <p>
+     * The file is mapped during this method call, so no file handle remains
+     * open and the returned stream need not be closed. The file must not be
+     * modified while the stream is being processed, otherwise the result is
+     * undefined.
+     *
+     * @param path the path to the file
+     * @param recordLength the length of every record in bytes
+     * @return the records of the file as a {@code StreamEx} of
+     *         {@code ByteBuffer} objects
+     * @throws IOException if an I/O error occurs opening or mapping the file
+     * @throws IllegalArgumentException if {@code recordLength} is not positive
+     * @see IntStreamEx#ofFixedRecords(Path, int, int, ByteOrder)
+     * @see LongStreamEx#ofFixedRecords(Path, int, int, ByteOrder)
+     * @since 0.6.1
+     */
+    public static StreamEx<ByteBuffer> ofFixedRecords(Path path, int recordLength) throws IOException {
+        return of(new RecordSpliterator.OfFixed(RecordSpliterator.mapFixed(path, recordLength,
+            RecordSpliterator.MAX_WINDOW), recordLength));
     }
 
     /**
@@ -2160,6 +2540,77 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return of(new PermutationSpliterator(length));
     }
 
+    /**
+     * Performs an action for all the possible permutations of numbers from 0
+     * to length-1 in lexicographic order.
+     * 
+     * <p>
+     * Unlike {@link #ofPermutations(int)} this method does not allocate an
+     * array per permutation: the same array instance is updated in-place and
+     * passed to the action every time. The action must not modify the array
+     * and must copy it if it needs the permutation after it returns.
+     * 
+     * @param length length of permutations array. Lengths bigger than 20 are
+     *        not supported currently.
+     * @param action a non-interfering action to perform on each permutation
+     * @see #ofPermutations(int)
+     * @since 0.6.1
+     */
+    public static void forEachPermutation(int length, Consumer<? super int[]> action) {
+        new PermutationSpliterator(length).forEachShared(action);
+    }
+
+    /**
+     * Returns a new {@code StreamEx} of {@code int[]} arrays containing all
+     * the possible combinations of length {@code k} consisting of numbers from
+     * 0 to {@code n-1} in lexicographic order. Every array is sorted in
+     * increasing order.
+     * 
+     * <p>
+     * Example: {@code StreamEx.ofCombinations(3, 2)} returns the stream of
+     * three elements: {@code [0, 1]}, {@code [0, 2]} and {@code [1, 2]} in
+     * this order.
+     * 
+     * <p>
+     * The resulting stream is sized and can be split evenly for parallel
+     * processing.
+     * 
+     * @param n number of possible distinct elements
+     * @param k number of elements in each combination
+     * @return new sequential stream of possible combinations. Returns an empty
+     *         stream if {@code k} is bigger than {@code n}.
+     * @throws IllegalArgumentException if n or k is negative or the number of
+     *         combinations does not fit into {@code long}.
+     * @see #forEachCombination(int, int, Consumer)
+     * @since 0.6.1
+     */
+    public static StreamEx<int[]> ofCombinations(int n, int k) {
+        return of(new CombinationSpliterator(n, k));
+    }
+
+    /**
+     * Performs an action for all the possible combinations of length
+     * {@code k} consisting of numbers from 0 to {@code n-1} in lexicographic
+     * order.
+     * 
+     * <p>
+     * Unlike {@link #ofCombinations(int, int)} this method does not allocate
+     * an array per combination: the same array instance is updated in-place
+     * and passed to the action every time. The action must not modify the
+     * array and must copy it if it needs the combination after it returns.
+     * 
+     * @param n number of possible distinct elements
+     * @param k number of elements in each combination
+     * @param action a non-interfering action to perform on each combination
+     * @throws IllegalArgumentException if n or k is negative or the number of
+     *         combinations does not fit into {@code long}.
+     * @see #ofCombinations(int, int)
+     * @since 0.6.1
+     */
+    public static void forEachCombination(int n, int k, Consumer<? super int[]> action) {
+        new CombinationSpliterator(n, k).forEachShared(action);
+    }
+
     /**
      * Creates a stream from the given input sequence around matches of the
      * given pattern.
@@ -2187,6 +2638,11 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * creation until the execution of the terminal stream operation. Otherwise,
      * the result of the terminal stream operation is undefined.
      *
+     * <p>
+     * If the pattern matches only a fixed string (like the patterns created
+     * by {@link Pattern#quote(String)}), the resulting stream is efficiently
+     * splittable for parallel processing.
+     *
      * @param str The character sequence to be split
      * @param pattern The pattern to use for splitting
      *
@@ -2197,7 +2653,10 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
     public static StreamEx<String> split(CharSequence str, Pattern pattern) {
         if (str.length() == 0)
             return of("");
-        return of(UnknownSizeSpliterator.optimize(pattern.splitAsStream(str)));
+        String delimiter = CharSpliterator.literal(pattern);
+        if (delimiter != null)
+            return of(CharSpliterator.of(str, delimiter, true));
+        return of(UnknownSizeSpliterator.split(str, pattern));
     }
 
     /**
@@ -2232,7 +2691,10 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
                 return split(str, ch);
             }
         }
-        return of(UnknownSizeSpliterator.optimize(Pattern.compile(regex).splitAsStream(str)));
+        String delimiter = CharSpliterator.literal(regex);
+        if (delimiter != null)
+            return of(CharSpliterator.of(str, delimiter, true));
+        return of(UnknownSizeSpliterator.split(str, Pattern.compile(regex)));
     }
 
     /**
@@ -2288,7 +2750,45 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
     public static StreamEx<String> split(CharSequence str, char delimiter, boolean trimEmpty) {
         if (str.length() == 0)
             return of("");
-        return of(new CharSpliterator(str, delimiter, trimEmpty));
+        return of(CharSpliterator.of(str, delimiter, trimEmpty));
+    }
+
+    /**
+     * Creates a stream of lightweight views of the given input sequence parts
+     * around matches of the given character.
+     *
+     * <p>
+     * The stream elements correspond to the elements produced by
+     * {@link #split(CharSequence, char)}, but no characters are copied: every
+     * element is a read-only {@link CharSequence} which refers to the original
+     * input. This reduces the memory footprint when only a small part of the
+     * tokens need to be stored as strings. Call {@code toString()} on the
+     * element to get the corresponding {@code String}.
+     *
+     * <p>
+     * The {@code hashCode()} of the element is the same as the
+     * {@code hashCode()} of the corresponding {@code String} and the elements
+     * are equal if their contents are equal. However the elements are never
+     * equal to the objects of other {@code CharSequence} implementations like
+     * {@code String}.
+     *
+     * <p>
+     * The input sequence must remain constant while the stream elements are in
+     * use. Otherwise, the result is undefined.
+     *
+     * @param str The character sequence to be split
+     * @param delimiter The delimiter character to use for splitting
+     *
+     * @return The stream of sequence views computed by splitting the input
+     *         around the delimiters
+     * @see #split(CharSequence, char)
+     * @see IntStreamEx#splitOffsets(CharSequence, char)
+     * @since 0.6.1
+     */
+    public static StreamEx<CharSequence> splitToViews(CharSequence str, char delimiter) {
+        if (str.length() == 0)
+            return of(CharSpliterator.View.EMPTY);
+        return of(CharSpliterator.views(str, delimiter, true));
     }
 
     /**
@@ -2572,10 +3072,130 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
         return zip(Arrays.asList(first), Arrays.asList(second), mapper);
     }
 
+    /**
+     * Returns a new {@code StreamEx} which elements are the lists of the
+     * corresponding elements of the supplied streams: the first list contains
+     * the first elements of every stream, the second list contains the second
+     * elements and so on. The resulting stream is ordered if all the input
+     * streams are ordered, and parallel if any of the input streams is
+     * parallel. When the resulting stream is closed, the close handlers for
+     * all the input streams are invoked.
+     * 
+     * <p>
+     * The resulting stream finishes when any of the input streams finish: the
+     * rest of the longer streams is discarded. It's unspecified whether the
+     * rest elements of the longer streams are actually consumed. If the list
+     * of streams is empty, the resulting stream is empty as well.
+     * 
+     * <p>
+     * The input streams are split together if all of them have exactly known
+     * sizes of the parts, otherwise the parallel stream pulls the blocks of
+     * the corresponding elements from every input stream.
+     * 
+     * @param <T> the type of the input streams elements
+     * @param streams the streams to zip
+     * @return the new stream
+     * @see #zipWith(Stream, BiFunction)
+     * @since 0.6.1
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StreamEx<List<T>> zip(List<? extends Stream<? extends T>> streams) {
+        if (streams.isEmpty())
+            return empty();
+        Spliterator<T>[] sources = new Spliterator[streams.size()];
+        StreamContext context = StreamContext.SEQUENTIAL;
+        int i = 0;
+        for (Stream<? extends T> stream : streams) {
+            sources[i++] = (Spliterator<T>) stream.spliterator();
+            context = context.combine(stream);
+        }
+        return new StreamEx<>(new MultiZipSpliterator<>(sources), context);
+    }
+
+    /**
+     * Returns an ordered {@code StreamEx} which lazily merges the supplied
+     * streams, each sorted according to the supplied comparator, into a single
+     * sorted stream. The resulting stream is parallel if any of the input
+     * streams is parallel, though the merging itself is not split.
+     * 
+     * <p>
+     * Only one element of every input stream is held at a time, so the merged
+     * stream can be used to merge large inputs like the lines of sorted files.
+     * The equal elements are emitted in the order of the input streams. If any
+     * of the input streams is not sorted, the order of the resulting stream is
+     * unspecified.
+     * 
+     * <p>
+     * The close handlers of the input streams are invoked when the resulting
+     * stream is closed.
+     * 
+     * @param <T> the type of the stream elements
+     * @param comparator a non-interfering, stateless comparator the input
+     *        streams are sorted with
+     * @param streams the sorted streams to merge
+     * @return the new stream
+     * @see #sorted(Comparator)
+     * @since 0.6.1
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <T> StreamEx<T> mergeSorted(Comparator<? super T> comparator, Stream<? extends T>... streams) {
+        Objects.requireNonNull(comparator);
+        Spliterator<T>[] sources = new Spliterator[streams.length];
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (int i = 0; i < streams.length; i++) {
+            sources[i] = (Spliterator<T>) streams[i].spliterator();
+            context = context.combine(streams[i]);
+        }
+        return new StreamEx<>(new MergeSortedSpliterator.OfRef<>(sources, comparator), context);
+    }
+
+    /**
+     * Returns a lazily concatenated {@code StreamEx} whose elements are all the
+     * elements of the supplied streams in the order of the collection
+     * iteration.
+     * 
+     * <p>
+     * Unlike the chain of {@link Stream#concat(Stream, Stream)} calls, the
+     * resulting stream is backed by the single flat sequence of the sources, so
+     * concatenating many streams does not make the traversal deeper. The
+     * parallel stream is split between the sources in halves. The resulting
+     * stream is parallel if any of the input streams is parallel. When the
+     * resulting stream is closed, the close handlers of all the input streams
+     * are invoked.
+     * 
+     * @param <T> the type of the stream elements
+     * @param streams the streams to concatenate
+     * @return the new stream
+     * @see #append(Stream)
+     * @since 0.6.1
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StreamEx<T> concat(Collection<? extends Stream<? extends T>> streams) {
+        Spliterator<T> result = null;
+        StreamContext context = StreamContext.SEQUENTIAL;
+        for (Stream<? extends T> stream : streams) {
+            Spliterator<T> spliterator = (Spliterator<T>) stream.spliterator();
+            context = context.combine(stream);
+            if (result == null || result.getExactSizeIfKnown() == 0)
+                result = spliterator;
+            else if (spliterator.getExactSizeIfKnown() != 0)
+                result = new TailConcatSpliterator<>(result, spliterator);
+        }
+        return new StreamEx<>(result == null ? Spliterators.emptySpliterator() : result, context);
+    }
+
     /**
      * Return a new {@link StreamEx} containing all the nodes of tree-like data
      * structure in depth-first order.
      * 
+     * <p>
+     * The tree is traversed lazily without recursion, so deep trees are
+     * supported. The mapper is called for the node when the traversal
+     * descends into its children. The parallel stream distributes the
+     * subtrees between the worker threads. The child streams are closed after
+     * they are traversed.
+     * 
      * @param <T> the type of tree nodes
      * @param root root node of the tree
      * @param mapper a non-interfering, stateless function to apply to each tree
@@ -2585,10 +3205,67 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * @since 0.2.2
      * @see EntryStream#ofTree(Object, BiFunction)
      * @see #ofTree(Object, Class, Function)
+     * @see #ofTree(Object, int, Function)
+     * @see #ofTreeBreadthFirst(Object, Function)
      */
     public static <T> StreamEx<T> ofTree(T root, Function<T, Stream<T>> mapper) {
-        Stream<T> rootStream = mapper.apply(root);
-        return rootStream == null ? of(root) : flatTraverse(rootStream, mapper).prepend(root);
+        return ofTree(root, Integer.MAX_VALUE, mapper);
+    }
+
+    /**
+     * Return a new {@link StreamEx} containing the nodes of tree-like data
+     * structure in depth-first order, which are not deeper than the given
+     * depth.
+     * 
+     * <p>
+     * The root node has depth 0, its immediate children have depth 1 and so
+     * on. The mapper is not called for the nodes at {@code maxDepth}. Other
+     * than that, this method works like {@link #ofTree(Object, Function)}.
+     * 
+     * @param <T> the type of tree nodes
+     * @param root root node of the tree
+     * @param maxDepth the maximal depth of the nodes to include
+     * @param mapper a non-interfering, stateless function to apply to each tree
+     *        node which returns null for leaf nodes or stream of direct
+     *        children for non-leaf nodes.
+     * @return the new sequential ordered stream
+     * @throws IllegalArgumentException if maxDepth is negative
+     * @since 0.6.1
+     * @see #ofTree(Object, Function)
+     */
+    public static <T> StreamEx<T> ofTree(T root, int maxDepth, Function<T, Stream<T>> mapper) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("maxDepth = " + maxDepth);
+        TreeSpliterator<T, T> spliterator = new TreeSpliterator.Plain<>(root, (depth, t) -> mapper.apply(t),
+                maxDepth, false);
+        return of(spliterator).onClose(spliterator::close);
+    }
+
+    /**
+     * Return a new {@link StreamEx} containing all the nodes of tree-like data
+     * structure in breadth-first order: the root node, then its immediate
+     * children, then their children and so on.
+     * 
+     * <p>
+     * The tree is traversed lazily without recursion. The mapper is called
+     * for the node when the traversal reaches its children. Unlike the
+     * depth-first traversal, this stream is not split for parallel
+     * processing.
+     * 
+     * @param <T> the type of tree nodes
+     * @param root root node of the tree
+     * @param mapper a non-interfering, stateless function to apply to each tree
+     *        node which returns null for leaf nodes or stream of direct
+     *        children for non-leaf nodes.
+     * @return the new sequential ordered stream
+     * @since 0.6.1
+     * @see EntryStream#ofTreeBreadthFirst(Object, BiFunction)
+     * @see #ofTree(Object, Function)
+     */
+    public static <T> StreamEx<T> ofTreeBreadthFirst(T root, Function<T, Stream<T>> mapper) {
+        TreeSpliterator<T, T> spliterator = new TreeSpliterator.Plain<>(root, (depth, t) -> mapper.apply(t),
+                Integer.MAX_VALUE, true);
+        return of(spliterator).onClose(spliterator::close);
     }
 
     /**
@@ -2697,6 +3374,13 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
      * 
      * <p>
      * The supplied collection is assumed to be unchanged during the operation.
+     * 
+     * <p>
+     * If all the input collections are {@link java.util.RandomAccess} lists
+     * and the number of tuples fits into {@code long}, the tuples are
+     * addressed by index: the resulting stream is {@code SIZED}, it's split in
+     * equal halves for parallel processing, and {@code skip()} and
+     * {@code limit()} take constant time.
      *
      * @param <T> the type of the elements
      * @param source the input collection of collections which is used to
@@ -2708,6 +3392,9 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
     public static <T> StreamEx<List<T>> cartesianProduct(Collection<? extends Collection<T>> source) {
         if (source.isEmpty())
             return StreamEx.of(new ConstSpliterator.OfRef<>(Collections.emptyList(), 1, true));
+        long size = IndexedCrossSpliterator.indexedSize(source);
+        if (size >= 0)
+            return of(new IndexedCrossSpliterator.ToList<>(source, size));
         return of(new CrossSpliterator.ToList<>(source));
     }
 
@@ -2757,6 +3444,9 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
             BiFunction<U, ? super T, U> accumulator) {
         if (source.isEmpty())
             return of(identity);
+        long size = IndexedCrossSpliterator.indexedSize(source);
+        if (size >= 0)
+            return of(new IndexedCrossSpliterator.Reducing<>(source, size, identity, accumulator));
         return of(new CrossSpliterator.Reducing<>(source, identity, accumulator));
     }
 
@@ -2790,7 +3480,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
     public static <T> StreamEx<List<T>> cartesianPower(int n, Collection<T> source) {
         if (n == 0)
             return StreamEx.of(new ConstSpliterator.OfRef<>(Collections.emptyList(), 1, true));
-        return of(new CrossSpliterator.ToList<>(Collections.nCopies(n, source)));
+        return cartesianProduct(Collections.nCopies(n, source));
     }
 
     /**
@@ -2841,7 +3531,7 @@ public class StreamEx<T> extends AbstractStreamEx<T, StreamEx<T>> {
             BiFunction<U, ? super T, U> accumulator) {
         if (n == 0)
             return of(identity);
-        return of(new CrossSpliterator.Reducing<>(Collections.nCopies(n, source), identity, accumulator));
+        return cartesianProduct(Collections.nCopies(n, source), identity, accumulator);
     }
 
     /**
@@ -15,10 +15,6 @@
  */
 package one.util.streamex;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodHandles.Lookup;
-import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -66,29 +62,20 @@ import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /* package */final class StreamExInternals {
-    static final boolean IS_JDK9 = System.getProperty("java.version", "").compareTo("1.9") >= 0;
-    static final MethodHandle[][] JDK9_METHODS = IS_JDK9 ? initJdk9Methods() : null;
     static final int INITIAL_SIZE = 128;
     static final Function<int[], Integer> UNBOX_INT = box -> box[0];
     static final Function<long[], Long> UNBOX_LONG = box -> box[0];
     static final Function<double[], Double> UNBOX_DOUBLE = box -> box[0];
     static final Object NONE = new Object();
+    static final Class<?> ARRAYS_LIST_CLASS = Arrays.asList().getClass();
     static final Set<Characteristics> NO_CHARACTERISTICS = EnumSet.noneOf(Characteristics.class);
     static final Set<Characteristics> UNORDERED_CHARACTERISTICS = EnumSet.of(Characteristics.UNORDERED);
     static final Set<Characteristics> UNORDERED_ID_CHARACTERISTICS = EnumSet.of(Characteristics.UNORDERED,
         Characteristics.IDENTITY_FINISH);
     static final Set<Characteristics> ID_CHARACTERISTICS = EnumSet.of(Characteristics.IDENTITY_FINISH);
-    static final int IDX_STREAM = 0;
-    static final int IDX_INT_STREAM = 1;
-    static final int IDX_LONG_STREAM = 2;
-    static final int IDX_DOUBLE_STREAM = 3;
-    static final int IDX_TAKE_WHILE = 0;
-    static final int IDX_DROP_WHILE = 1;
-
-    static final Field SOURCE_SPLITERATOR;
+
     static final Field SOURCE_STAGE;
     static final Field SOURCE_CLOSE_ACTION;
-    static final Field SPLITERATOR_ITERATOR;
 
     static {
         Deque<Field> fields = new ArrayDeque<>();
@@ -100,40 +87,19 @@ import java.util.stream.Stream;
         try {
             AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
                 Class<?> abstractPipelineClass = Class.forName("java.util.stream.AbstractPipeline");
-                fields.add(abstractPipelineClass.getDeclaredField("sourceSpliterator"));
                 fields.add(abstractPipelineClass.getDeclaredField("sourceStage"));
                 fields.add(abstractPipelineClass.getDeclaredField("sourceCloseAction"));
-                fields.add(Class.forName("java.util.Spliterators$IteratorSpliterator").getDeclaredField("it"));
                 for (Field f : fields)
                     f.setAccessible(true);
                 return null;
             });
-        } catch (PrivilegedActionException e) {
+        } catch (PrivilegedActionException | RuntimeException e) {
+            // InaccessibleObjectException is thrown on JDK 16+ unless
+            // java.util.stream package is explicitly opened
             fields.clear();
         }
-        SOURCE_SPLITERATOR = fields.poll();
         SOURCE_STAGE = fields.poll();
         SOURCE_CLOSE_ACTION = fields.poll();
-        SPLITERATOR_ITERATOR = fields.poll();
-    }
-
-    static MethodHandle[][] initJdk9Methods() {
-        Lookup lookup = MethodHandles.publicLookup();
-        MethodType[] types = { MethodType.methodType(Stream.class, Predicate.class),
-                MethodType.methodType(IntStream.class, IntPredicate.class),
-                MethodType.methodType(LongStream.class, LongPredicate.class),
-                MethodType.methodType(DoubleStream.class, DoublePredicate.class) };
-        MethodHandle[][] methods = new MethodHandle[types.length][];
-        try {
-            int i = 0;
-            for (MethodType type : types) {
-                methods[i++] = new MethodHandle[] { lookup.findVirtual(type.returnType(), "takeWhile", type),
-                        lookup.findVirtual(type.returnType(), "dropWhile", type) };
-            }
-        } catch (NoSuchMethodException | IllegalAccessException e) {
-            return null;
-        }
-        return methods;
     }
 
     static final class ByteBuffer {
@@ -945,6 +911,28 @@ import java.util.stream.Stream;
         }
     }
 
+    /**
+     * A spliterator over the indexed source which can skip or limit its
+     * remaining elements in place without traversing them. Must be used only
+     * before the traversal or splitting is started.
+     */
+    static interface SliceableSpliterator {
+        /**
+         * Skips the first n remaining elements (or all of them if there are
+         * fewer).
+         * 
+         * @param n non-negative number of elements to skip
+         */
+        void skip(long n);
+
+        /**
+         * Drops all the remaining elements except the first n.
+         * 
+         * @param n non-negative number of elements to keep
+         */
+        void limit(long n);
+    }
+
     /**
      * A spliterator which may perform tail-stream optimization
      *
@@ -1072,6 +1060,17 @@ import java.util.stream.Stream;
         return true;
     }
 
+    /**
+     * Returns the initial capacity for {@code HashMap} or {@code HashSet}
+     * which is enough to hold the given number of elements without rehashing.
+     * 
+     * @param size expected number of elements
+     * @return initial capacity
+     */
+    static int hashCapacity(long size) {
+        return (int) Math.min(size + size / 3 + 1, 1 << 30);
+    }
+
     static <T> int drainTo(T[] array, Spliterator<T> spliterator) {
         Box<T> box = new Box<>();
         int index = 0;
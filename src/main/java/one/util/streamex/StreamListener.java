@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+/**
+ * A listener which receives the execution statistics of the stream source
+ * instrumented via {@code instrument()} method (see
+ * {@link StreamEx#instrument(StreamListener)}).
+ * 
+ * <p>
+ * The instrumented point observes the split tree of the stream: every
+ * successful split is reported via {@link #onSplit(int, long, long)}, the
+ * traversal of every leaf of the tree is reported via
+ * {@link #onTraversal(int, long, long, long)} and the end of the whole
+ * traversal is reported via {@link #onComplete(long, long)}.
+ * 
+ * <p>
+ * For parallel streams the methods are called concurrently from the worker
+ * threads, so the implementation must be thread-safe. The
+ * {@code onTraversal} method is called in the thread which performed the
+ * traversal, so {@link Thread#currentThread()} can be used to gather per-worker
+ * statistics. The listener methods should be fast as they are executed inside
+ * the stream pipeline.
+ * 
+ * <p>
+ * All the methods have empty default implementations, so it's possible to
+ * override only the required ones.
+ * 
+ * @author Tagir Valeev
+ * @since 0.6.1
+ */
+public interface StreamListener {
+    /**
+     * Called when the part of the source is split into two parts.
+     * 
+     * @param depth the depth of the split node in the split tree (0 for the
+     *        root)
+     * @param prefixSize the estimated number of elements in the prefix part
+     * @param suffixSize the estimated number of elements in the remaining
+     *        suffix part
+     */
+    default void onSplit(int depth, long prefixSize, long suffixSize) {
+        // nothing by default
+    }
+
+    /**
+     * Called when the traversal of the leaf of the split tree is finished,
+     * i.e. all its elements passed through the instrumented point. Not called
+     * if the traversal was not finished (for example, due to the
+     * short-circuiting terminal operation or exception).
+     * 
+     * @param depth the depth of the leaf in the split tree (0 if the source
+     *        was not split)
+     * @param elements the number of elements passed through the instrumented
+     *        point
+     * @param nanos the wall-clock time in nanoseconds elapsed from the
+     *        traversal start till its end
+     * @param cpuNanos the CPU time in nanoseconds consumed by the current
+     *        thread during the traversal or -1 if CPU time measurement is not
+     *        supported by JVM
+     */
+    default void onTraversal(int depth, long elements, long nanos, long cpuNanos) {
+        // nothing by default
+    }
+
+    /**
+     * Called once when the traversal of all the leaves of the split tree is
+     * finished. Not called if the traversal of any leaf was not finished.
+     * 
+     * @param elements the total number of elements passed through the
+     *        instrumented point
+     * @param nanos the wall-clock time in nanoseconds elapsed from the first
+     *        split or traversal start till the end of the last traversal
+     */
+    default void onComplete(long elements, long nanos) {
+        // nothing by default
+    }
+}
@@ -21,84 +21,183 @@ import java.util.function.Consumer;
 import one.util.streamex.StreamExInternals.TailSpliterator;
 
 /**
+ * Concatenation of any number of spliterators. Nested concatenations are
+ * flattened into the single array of parts, so the result of repeated append or
+ * prepend is traversed without deep delegation chains and is split at the part
+ * boundaries in halves. The last part is the tail, thus tail-call optimization
+ * for {@code headTail} works as before.
+ * 
  * @author Tagir Valeev
  *
  * @param <T> type of the elements
  */
 /* package */class TailConcatSpliterator<T> implements TailSpliterator<T> {
-    private Spliterator<T> left, right;
+    // parts[from..to) are the remaining parts. The array may have free slots
+    // on both sides which are reused by the subsequent append or prepend.
+    private Spliterator<T>[] parts;
+    private int from, to;
+    // whether the free slots of parts array can be used by this spliterator
+    private boolean owner = true;
     private int characteristics;
     private long size;
 
     @SuppressWarnings("unchecked")
     public TailConcatSpliterator(Spliterator<? extends T> left, Spliterator<? extends T> right) {
-        this.left = (Spliterator<T>) left;
-        this.right = (Spliterator<T>) right;
+        TailConcatSpliterator<T> l = left instanceof TailConcatSpliterator ? (TailConcatSpliterator<T>) left : null;
+        TailConcatSpliterator<T> r = right instanceof TailConcatSpliterator ? (TailConcatSpliterator<T>) right : null;
+        // both sides keep their size and characteristics cached, so looped
+        // append or prepend does not revisit the previously added parts
         this.characteristics = left.characteristics() & right.characteristics() & (ORDERED | SIZED | SUBSIZED);
         this.size = left.estimateSize() + right.estimateSize();
-        if (this.size < 0) {
-            this.size = Long.MAX_VALUE;
-            this.characteristics &= (~SIZED) & (~SUBSIZED);
+        if (size < 0)
+            sizeOverflow();
+        if (l != null && r == null && l.owner && l.to < l.parts.length) {
+            l.owner = false;
+            parts = l.parts;
+            from = l.from;
+            to = l.to + 1;
+            parts[l.to] = (Spliterator<T>) right;
+        } else if (r != null && l == null && r.owner && r.from > 0) {
+            r.owner = false;
+            parts = r.parts;
+            from = r.from - 1;
+            to = r.to;
+            parts[from] = (Spliterator<T>) left;
+        } else {
+            int leftCount = l == null ? 1 : l.to - l.from;
+            int rightCount = r == null ? 1 : r.to - r.from;
+            int count = leftCount + rightCount;
+            // reserve the space at the side where the parts are likely to be
+            // added next time
+            parts = new Spliterator[count * 2];
+            from = l == null && r != null ? parts.length - count : 0;
+            to = from + count;
+            if (l == null)
+                parts[from] = (Spliterator<T>) left;
+            else {
+                l.owner = false;
+                System.arraycopy(l.parts, l.from, parts, from, leftCount);
+            }
+            if (r == null)
+                parts[to - 1] = (Spliterator<T>) right;
+            else {
+                r.owner = false;
+                System.arraycopy(r.parts, r.from, parts, from + leftCount, rightCount);
+            }
         }
     }
 
+    private TailConcatSpliterator(TailConcatSpliterator<T> source, int from, int to) {
+        this.parts = source.parts;
+        this.from = from;
+        this.to = to;
+        this.owner = false;
+        this.characteristics = source.characteristics;
+        updateSize();
+    }
+
+    private void updateSize() {
+        long s = 0;
+        for (int i = from; i < to; i++) {
+            s += parts[i].estimateSize();
+            if (s < 0) {
+                sizeOverflow();
+                return;
+            }
+        }
+        size = s;
+    }
+
+    private void sizeOverflow() {
+        size = Long.MAX_VALUE;
+        characteristics &= (~SIZED) & (~SUBSIZED);
+    }
+
+    private void advanced() {
+        if (size > 0 && size != Long.MAX_VALUE)
+            size--;
+    }
+
     @Override
     public boolean tryAdvance(Consumer<? super T> action) {
-        if (left != null) {
-            if (left.tryAdvance(action)) {
-                if (size > 0 && size != Long.MAX_VALUE)
-                    size--;
+        while (from < to) {
+            Spliterator<T> s = TailSpliterator.tryAdvanceWithTail(parts[from], action);
+            if (s != null) {
+                parts[from] = s;
+                advanced();
                 return true;
             }
-            left = null;
+            parts[from++] = null;
         }
-        if(right != null)
-            right = TailSpliterator.tryAdvanceWithTail(right, action);
-        return right != null;
+        return false;
     }
 
     @Override
     public Spliterator<T> tryAdvanceOrTail(Consumer<? super T> action) {
-        if (left == null || !left.tryAdvance(action)) {
-            Spliterator<T> s = right;
-            right = null;
-            return s;
+        while (from < to - 1) {
+            Spliterator<T> s = TailSpliterator.tryAdvanceWithTail(parts[from], action);
+            if (s != null) {
+                parts[from] = s;
+                advanced();
+                return this;
+            }
+            parts[from++] = null;
         }
-        if (size > 0 && size != Long.MAX_VALUE)
-            size--;
-        return this;
+        return tail();
+    }
+
+    private Spliterator<T> tail() {
+        if (from == to)
+            return null;
+        Spliterator<T> s = parts[from];
+        parts[from++] = null;
+        return s;
     }
 
     @Override
     public void forEachRemaining(Consumer<? super T> action) {
-        if (left != null)
-            left.forEachRemaining(action);
-        if(right != null)
-            TailSpliterator.forEachWithTail(right, action);
+        Spliterator<T> s = forEachOrTail(action);
+        if (s != null)
+            TailSpliterator.forEachWithTail(s, action);
     }
 
     @Override
     public Spliterator<T> forEachOrTail(Consumer<? super T> action) {
-        if (left != null)
-            left.forEachRemaining(action);
-        Spliterator<T> s = right;
-        right = null;
-        return s;
+        while (from < to - 1) {
+            Spliterator<T> s = parts[from];
+            parts[from++] = null;
+            TailSpliterator.forEachWithTail(s, action);
+        }
+        return tail();
     }
 
     @Override
     public Spliterator<T> trySplit() {
-        if (left == null)
-            return right.trySplit();
-        Spliterator<T> s = left;
-        left = null;
-        return s;
+        int count = to - from;
+        if (count == 0)
+            return null;
+        if (count == 1)
+            return parts[from].trySplit();
+        owner = false;
+        int mid = from + count / 2;
+        Spliterator<T> prefix;
+        if (mid - from == 1) {
+            prefix = parts[from];
+            parts[from] = null;
+        } else {
+            // the prefix shares the array, but uses only its own range
+            prefix = new TailConcatSpliterator<>(this, from, mid);
+        }
+        from = mid;
+        updateSize();
+        return prefix;
     }
 
     @Override
     public long estimateSize() {
-        if (left == null)
-            return right == null ? 0 : right.estimateSize();
+        int count = to - from;
+        if (count <= 1)
+            return count == 0 ? 0 : parts[from].estimateSize();
         return size;
     }
 
@@ -106,4 +205,4 @@ import one.util.streamex.StreamExInternals.TailSpliterator;
     public int characteristics() {
         return characteristics;
     }
-}
\ No newline at end of file
+}
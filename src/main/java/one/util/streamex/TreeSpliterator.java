@@ -0,0 +1,256 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static one.util.streamex.StreamExInternals.*;
+
+/**
+ * A spliterator over the nodes of tree-like structure which keeps an explicit
+ * stack (or queue for breadth-first order) of the child spliterators instead
+ * of nesting the streams, so deep trees do not consume the call stack.
+ *
+ * <p>
+ * In depth-first mode the spliterator splits the remaining siblings of the
+ * topmost unfinished node, or hands off the whole current subtree, so parallel
+ * workers get whole subtrees. Breadth-first traversal is not split.
+ *
+ * <p>
+ * The child stream is closed as soon as its children are traversed. The
+ * streams which remain open when the traversal is cancelled (by short-circuiting
+ * operation or exception) are closed by {@link #close()}, which should be
+ * registered as the close handler of the resulting stream.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <T> type of tree nodes
+ * @param <R> type of stream elements
+ */
+/* package */abstract class TreeSpliterator<T, R> extends CloneableSpliterator<R, TreeSpliterator<T, R>> implements
+        Consumer<T> {
+    // The rest of some node children
+    static final class Frame<T> {
+        final Spliterator<T> spliterator;
+        // depth of the children
+        final int depth;
+        // the stream to close after traversal, null if this frame is split
+        // from another one
+        final Stream<T> stream;
+        // the children were already expanded
+        final boolean leaf;
+
+        Frame(Spliterator<T> spliterator, int depth, Stream<T> stream, boolean leaf) {
+            this.spliterator = spliterator;
+            this.depth = depth;
+            this.stream = stream;
+            this.leaf = leaf;
+        }
+
+    }
+
+    private final BiFunction<Integer, T, Stream<T>> mapper;
+    private final int maxDepth;
+    private final boolean breadthFirst;
+    // the child streams which are not closed yet, shared with the split parts
+    private final Set<Stream<T>> open = ConcurrentHashMap.newKeySet();
+    // head is the current frame
+    private ArrayDeque<Frame<T>> frames = new ArrayDeque<>();
+    private long est = Long.MAX_VALUE;
+    private T cur;
+    // node which was emitted, but its children were not requested yet
+    private T pending;
+    private int pendingDepth = -1;
+
+    TreeSpliterator(T root, BiFunction<Integer, T, Stream<T>> mapper, int maxDepth, boolean breadthFirst) {
+        this.mapper = mapper;
+        this.maxDepth = maxDepth;
+        this.breadthFirst = breadthFirst;
+        frames.add(new Frame<>(Collections.singletonList(root).spliterator(), 0, null, false));
+    }
+
+    abstract R element(T node, int depth);
+
+    @Override
+    public void accept(T t) {
+        cur = t;
+    }
+
+    private Frame<T> children(T node, int depth) {
+        if (depth >= maxDepth)
+            return null;
+        Stream<T> stream = mapper.apply(depth, node);
+        if (stream == null)
+            return null;
+        open.add(stream);
+        return new Frame<>(stream.spliterator(), depth + 1, stream, false);
+    }
+
+    private void close(Frame<T> frame) {
+        if (frame.stream != null && open.remove(frame.stream))
+            frame.stream.close();
+    }
+
+    /**
+     * Closes all the child streams which were opened by this spliterator or
+     * its split parts, but not closed yet.
+     */
+    void close() {
+        RuntimeException error = null;
+        for (Stream<T> stream : open) {
+            if (open.remove(stream)) {
+                try {
+                    stream.close();
+                } catch (RuntimeException e) {
+                    if (error == null)
+                        error = e;
+                    else
+                        error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null)
+            throw error;
+    }
+
+    private void expand() {
+        int depth = pendingDepth;
+        if (depth >= 0) {
+            T node = pending;
+            pending = null;
+            pendingDepth = -1;
+            Frame<T> frame = children(node, depth);
+            if (frame != null) {
+                if (breadthFirst)
+                    frames.addLast(frame);
+                else
+                    frames.addFirst(frame);
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        expand();
+        Frame<T> frame;
+        while ((frame = frames.peekFirst()) != null) {
+            if (frame.spliterator.tryAdvance(this)) {
+                T node = cur;
+                cur = null;
+                if (!frame.leaf) {
+                    pending = node;
+                    pendingDepth = frame.depth;
+                }
+                action.accept(element(node, frame.depth));
+                return true;
+            }
+            frames.pollFirst();
+            close(frame);
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        while (tryAdvance(action)) {
+            // empty
+        }
+    }
+
+    private TreeSpliterator<T, R> prefix(ArrayDeque<Frame<T>> prefixFrames) {
+        TreeSpliterator<T, R> prefix = doClone();
+        prefix.frames = prefixFrames;
+        prefix.est = est >>>= 1;
+        return prefix;
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (breadthFirst)
+            return null;
+        expand();
+        Frame<T> bottom = frames.peekLast();
+        if (bottom == null)
+            return null;
+        ArrayDeque<Frame<T>> prefixFrames = frames;
+        frames = new ArrayDeque<>();
+        Spliterator<T> siblings = bottom.spliterator.trySplit();
+        if (siblings != null) {
+            // the prefix gets the current subtree and the preceding siblings
+            prefixFrames.pollLast();
+            prefixFrames.addLast(new Frame<>(siblings, bottom.depth, null, bottom.leaf));
+            frames.add(bottom);
+            return prefix(prefixFrames);
+        }
+        if (prefixFrames.size() > 1) {
+            // the prefix gets the current subtree
+            frames.add(prefixFrames.pollLast());
+            return prefix(prefixFrames);
+        }
+        frames = prefixFrames;
+        if (bottom.leaf || !bottom.spliterator.tryAdvance(this))
+            return null;
+        // Split the single node from its children
+        T node = cur;
+        cur = null;
+        Frame<T> children = children(node, bottom.depth);
+        if (children != null)
+            frames.addFirst(children);
+        prefixFrames = new ArrayDeque<>();
+        prefixFrames.add(new Frame<>(Collections.singletonList(node).spliterator(), bottom.depth, null, true));
+        return prefix(prefixFrames);
+    }
+
+    @Override
+    public long estimateSize() {
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    static final class Plain<T> extends TreeSpliterator<T, T> {
+        Plain(T root, BiFunction<Integer, T, Stream<T>> mapper, int maxDepth, boolean breadthFirst) {
+            super(root, mapper, maxDepth, breadthFirst);
+        }
+
+        @Override
+        T element(T node, int depth) {
+            return node;
+        }
+    }
+
+    static final class Depth<T> extends TreeSpliterator<T, Entry<Integer, T>> {
+        Depth(T root, BiFunction<Integer, T, Stream<T>> mapper, int maxDepth, boolean breadthFirst) {
+            super(root, mapper, maxDepth, breadthFirst);
+        }
+
+        @Override
+        Entry<Integer, T> element(T node, int depth) {
+            return new ObjIntBox<>(node, depth);
+        }
+    }
+}
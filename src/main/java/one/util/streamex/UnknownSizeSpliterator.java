@@ -1,14 +1,18 @@
 package one.util.streamex;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.IntConsumer;
 import java.util.function.LongConsumer;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static one.util.streamex.StreamExInternals.*;
 
@@ -18,30 +22,28 @@ import static one.util.streamex.StreamExInternals.*;
     static final int MAX_BATCH = 1 << 25; // max batch array size;
 
     /**
-     * Optimize the stream created on IteratorSpliterator replacing it with
-     * UnknownSizeSpliterator.
+     * Creates a spliterator over the lines of given reader. Unlike
+     * {@link BufferedReader#lines()} the lines are split into growing batches
+     * for parallel processing.
      * 
-     * @param stream original stream
-     * @return either original or optimized stream
+     * @param reader reader to read the lines from
+     * @return the new spliterator
      */
-    @SuppressWarnings("unchecked")
-    static <T> Stream<T> optimize(Stream<T> stream) {
-        if (SOURCE_SPLITERATOR == null || SPLITERATOR_ITERATOR == null)
-            return stream;
-        Iterator<T> it = null;
-        try {
-            Spliterator<T> spliterator = (Spliterator<T>) SOURCE_SPLITERATOR.get(stream);
-            if (spliterator != null && !spliterator.hasCharacteristics(SIZED)
-                && spliterator.getClass().getName().equals("java.util.Spliterators$IteratorSpliterator")) {
-                it = (Iterator<T>) SPLITERATOR_ITERATOR.get(spliterator);
-            }
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            // ignore
-        }
-        if (it == null)
-            return stream;
-        stream.spliterator(); // consume stream
-        return StreamSupport.stream(new USOfRef<>(it), stream.isParallel()).onClose(stream::close);
+    static USOfRef<String> lines(BufferedReader reader) {
+        return new USOfRef<>(new LinesIterator(reader));
+    }
+
+    /**
+     * Creates a spliterator over the input sequence split around the matches
+     * of given pattern. The elements are the same as produced by
+     * {@link Pattern#splitAsStream(CharSequence)} in JDK 9.
+     * 
+     * @param str non-empty input sequence
+     * @param pattern pattern to split around
+     * @return the new spliterator
+     */
+    static USOfRef<String> split(CharSequence str, Pattern pattern) {
+        return new USOfRef<>(new SplitIterator(str, pattern));
     }
 
     I it;
@@ -352,4 +354,86 @@ import static one.util.streamex.StreamExInternals.*;
             return false;
         }
     }
+
+    static final class LinesIterator implements Iterator<String> {
+        private final BufferedReader reader;
+        private String nextLine;
+
+        LinesIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextLine != null)
+                return true;
+            try {
+                nextLine = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return nextLine != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            String line = nextLine;
+            nextLine = null;
+            return line;
+        }
+    }
+
+    static final class SplitIterator implements Iterator<String> {
+        private final CharSequence input;
+        private final Matcher matcher;
+        private int current;
+        private String nextElement;
+        private int emptyElementCount;
+
+        SplitIterator(CharSequence input, Pattern pattern) {
+            this.input = input;
+            this.matcher = pattern.matcher(input);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextElement != null || emptyElementCount > 0)
+                return true;
+            if (current == input.length())
+                return false;
+            while (matcher.find()) {
+                nextElement = input.subSequence(current, matcher.start()).toString();
+                current = matcher.end();
+                if (!nextElement.isEmpty())
+                    return true;
+                // no empty leading substring for zero-width match at the
+                // beginning
+                if (current > 0)
+                    emptyElementCount++;
+            }
+            nextElement = input.subSequence(current, input.length()).toString();
+            current = input.length();
+            if (!nextElement.isEmpty())
+                return true;
+            // trailing empty substrings are dropped
+            emptyElementCount = 0;
+            nextElement = null;
+            return false;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            if (emptyElementCount == 0) {
+                String n = nextElement;
+                nextElement = null;
+                return n;
+            }
+            emptyElementCount--;
+            return "";
+        }
+    }
 }
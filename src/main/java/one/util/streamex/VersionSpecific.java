@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Internal operations which have better implementation in the newer JDK
+ * versions. This is the JDK 8 version; the JDK 9 version which calls the
+ * native JDK methods directly is located in {@code src/main/java9} and packed
+ * into {@code META-INF/versions/9} of the multi-release jar. Both versions
+ * must have the same set of methods.
+ * 
+ * @author Tagir Valeev
+ */
+/* package */final class VersionSpecific {
+    private VersionSpecific() {
+        throw new UnsupportedOperationException();
+    }
+
+    static <T, S extends AbstractStreamEx<T, S>> S callWhile(AbstractStreamEx<T, S> stream,
+            Predicate<? super T> predicate, boolean drop) {
+        return stream.supply(new AbstractStreamEx.TDOfRef<>(stream.spliterator(), drop, false, predicate));
+    }
+
+    static IntStreamEx callWhile(IntStreamEx stream, IntPredicate predicate, boolean drop) {
+        return stream.delegate(new IntStreamEx.TDOfInt(stream.spliterator(), drop, false, predicate));
+    }
+
+    static LongStreamEx callWhile(LongStreamEx stream, LongPredicate predicate, boolean drop) {
+        return stream.delegate(new LongStreamEx.TDOfLong(stream.spliterator(), drop, false, predicate));
+    }
+
+    static DoubleStreamEx callWhile(DoubleStreamEx stream, DoublePredicate predicate, boolean drop) {
+        return stream.delegate(new DoubleStreamEx.TDOfDouble(stream.spliterator(), drop, false, predicate));
+    }
+
+    static IntStream ofChars(CharSequence seq) {
+        // In JDK 8 there's only default chars() method which uses
+        // IteratorSpliterator
+        return java.nio.CharBuffer.wrap(seq).chars();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.StreamSupport;
+
+/**
+ * A spliterator which performs takeWhile, takeWhileInclusive or dropWhile
+ * operation on the parallel ordered {@code SUBSIZED} source. When it is used
+ * for the first time, the chunks of the source are processed concurrently by
+ * {@link OrderedCancellableSpliterator}: every chunk buffers its elements and
+ * once the predicate fails in some chunk, all the subsequent chunks are
+ * cancelled for the take operations. Then the buffered result is traversed.
+ *
+ * @author Tagir Valeev
+ *
+ * @param <T> type of the elements
+ */
+/* package */final class WhileSpliterator<T> implements Spliterator<T> {
+    // buffered elements of the chunk and the position of the first element
+    // which does not match the predicate or -1 if all the elements match
+    static final class Chunk<T> {
+        final List<T> list = new ArrayList<>();
+        int fail = -1;
+    }
+
+    private Spliterator<T> source;
+    private final Predicate<? super T> predicate;
+    private final boolean drop;
+    private final boolean inclusive;
+    private final int characteristics;
+    private final Comparator<? super T> comparator;
+    private Spliterator<T> result;
+
+    WhileSpliterator(Spliterator<T> source, boolean drop, boolean inclusive, Predicate<? super T> predicate) {
+        this.source = source;
+        this.drop = drop;
+        this.inclusive = inclusive;
+        this.predicate = predicate;
+        this.characteristics = source.characteristics() & (ORDERED | SORTED | IMMUTABLE | NONNULL | DISTINCT);
+        this.comparator = hasCharacteristics(SORTED) ? source.getComparator() : null;
+    }
+
+    static boolean applicable(Spliterator<?> source) {
+        return source.hasCharacteristics(ORDERED | SUBSIZED);
+    }
+
+    private Spliterator<T> result() {
+        if (result == null) {
+            Spliterator<Chunk<T>> chunks = new OrderedCancellableSpliterator<>(source, Chunk::new, accumulator(),
+                    combiner(), drop ? c -> false : c -> c.fail >= 0);
+            source = null;
+            Chunk<T> chunk = StreamSupport.stream(chunks, true).findFirst().get();
+            List<T> list = chunk.list;
+            if (drop)
+                list = chunk.fail < 0 ? Collections.emptyList() : list.subList(chunk.fail, list.size());
+            result = list.spliterator();
+        }
+        return result;
+    }
+
+    private BiConsumer<Chunk<T>, T> accumulator() {
+        if (drop) {
+            return (c, t) -> {
+                if (c.fail < 0 && !predicate.test(t))
+                    c.fail = c.list.size();
+                c.list.add(t);
+            };
+        }
+        return (c, t) -> {
+            if (c.fail < 0) {
+                if (predicate.test(t)) {
+                    c.list.add(t);
+                } else {
+                    c.fail = c.list.size();
+                    if (inclusive)
+                        c.list.add(t);
+                }
+            }
+        };
+    }
+
+    private BinaryOperator<Chunk<T>> combiner() {
+        if (drop) {
+            // the left chunk cannot be dropped here as some chunk combined
+            // later from the left may have the mismatch
+            return (c1, c2) -> {
+                if (c1.fail < 0 && c2.fail >= 0)
+                    c1.fail = c1.list.size() + c2.fail;
+                c1.list.addAll(c2.list);
+                return c1;
+            };
+        }
+        return (c1, c2) -> {
+            if (c1.fail >= 0)
+                return c1;
+            if (c2.fail >= 0)
+                c1.fail = c1.list.size() + c2.fail;
+            c1.list.addAll(c2.list);
+            return c1;
+        };
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        return result().tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        result().forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return result().trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        return result == null ? source.estimateSize() : result.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        if (!hasCharacteristics(SORTED))
+            throw new IllegalStateException();
+        return comparator;
+    }
+}
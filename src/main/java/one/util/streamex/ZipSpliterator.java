@@ -120,6 +120,8 @@ import static one.util.streamex.StreamExInternals.*;
         return arraySplit();
     }
     
+    // Pulls the aligned blocks from both sources, so the prefix is sized and
+    // the mapper is applied by the thread which processes it
     private Spliterator<R> arraySplit() {
         long s = estimateSize();
         if (s <= 1) return null;
@@ -129,19 +131,16 @@ import static one.util.streamex.StreamExInternals.*;
         if (n > MAX_BATCH)
             n = MAX_BATCH;
         @SuppressWarnings("unchecked")
-        R[] array = (R[]) new Object[n];
-        int index = drainTo(array, this);
+        U[] leftArray = (U[]) new Object[n];
+        int index = drainTo(leftArray, left);
+        @SuppressWarnings("unchecked")
+        V[] rightArray = (V[]) new Object[index];
+        index = drainTo(rightArray, right);
         if((batch = index) == 0)
             return null;
-        long s2 = estimateSize();
-        USOfRef<R> prefix = new UnknownSizeSpliterator.USOfRef<>(array, 0, index);
-        if(hasCharacteristics(SUBSIZED))
-            prefix.est = index;
-        else if(s == s2)
-            prefix.est = Math.max(index, s/2);
-        else
-            prefix.est = Math.max(index, s2 - s);
-        return prefix;
+        int ordered = characteristics() & ORDERED;
+        return new ZipSpliterator<>(Spliterators.spliterator(leftArray, 0, index, ordered), Spliterators.spliterator(
+            rightArray, 0, index, ordered), mapper, true);
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class BiSpliteratorTest {
+    private static List<Entry<Integer, String>> input() {
+        return IntStreamEx.range(100).<Entry<Integer, String>> mapToObj(i -> new SimpleEntry<>(i, String.valueOf(i)))
+                .toList();
+    }
+
+    @Test
+    public void testFilter() {
+        List<Entry<Integer, String>> input = input();
+        List<Entry<Integer, String>> expected = StreamEx.of(input).filter(e -> e.getKey() % 3 == 0).toList();
+        checkSpliterator("filter", expected, () -> new BiSpliterator.Filter<>(BiSpliterator.of(input.spliterator()),
+                (k, v) -> k % 3 == 0));
+        // entries are passed through
+        Spliterator<Entry<Integer, String>> spliterator = new BiSpliterator.Filter<>(BiSpliterator.of(input
+                .spliterator()), (k, v) -> v.endsWith("7"));
+        assertTrue(spliterator.tryAdvance(e -> assertSame(input.get(7), e)));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    }
+
+    @Test
+    public void testMapping() {
+        List<Entry<Integer, String>> input = input();
+        List<Entry<String, Integer>> expected = StreamEx.of(input).<Entry<String, Integer>> map(
+            e -> new SimpleEntry<>(e.getValue() + "!", e.getKey() * 2)).toList();
+        checkSpliterator("mapping", expected, () -> new BiSpliterator.Mapping<>(BiSpliterator.of(input
+                .spliterator()), (k, v) -> v + "!", (k, v) -> k * 2));
+        checkSpliterator("mapping-filter", StreamEx.of(expected).filter(e -> e.getValue() % 4 == 0).toList(),
+            () -> new BiSpliterator.Filter<>(new BiSpliterator.Mapping<>(BiSpliterator.of(input.spliterator()), (k,
+                    v) -> v + "!", (k, v) -> k * 2), (k, v) -> v % 4 == 0));
+    }
+
+    @Test
+    public void testToObj() {
+        List<Entry<Integer, String>> input = input();
+        List<String> expected = StreamEx.of(input).map(e -> e.getValue() + e.getKey()).toList();
+        checkSpliterator("toObj", expected, () -> new BiSpliterator.ToObj<>(BiSpliterator.of(input.spliterator()), (
+                k, v) -> v + k));
+    }
+
+    @Test
+    public void testKeyValue() {
+        BiSpliterator<Integer, String> spliterator = new BiSpliterator.Filter<>(new BiSpliterator.Mapping<>(
+                BiSpliterator.of(input().spliterator()), (k, v) -> k + 1, (k, v) -> v), (k, v) -> k % 10 == 0);
+        List<String> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvanceKeyValue((k, v) -> result.add(k + "=" + v)));
+        spliterator.forKeyValueRemaining((k, v) -> result.add(k + "=" + v));
+        assertFalse(spliterator.tryAdvanceKeyValue((k, v) -> fail()));
+        assertEquals(Arrays.asList("10=9", "20=19", "30=29", "40=39", "50=49", "60=59", "70=69", "80=79", "90=89",
+            "100=99"), result);
+    }
+
+    @Test
+    public void testSorted() {
+        TreeMap<Integer, String> map = new TreeMap<>();
+        input().forEach(e -> map.put(e.getKey(), e.getValue()));
+        Spliterator<Entry<Integer, String>> spliterator = new BiSpliterator.Filter<>(BiSpliterator.of(map.entrySet()
+                .spliterator()), (k, v) -> k % 2 == 0);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+        assertEquals(map.entrySet().spliterator().getComparator(), spliterator.getComparator());
+        assertFalse(new BiSpliterator.Mapping<>(BiSpliterator.of(map.entrySet().spliterator()), (k, v) -> v,
+            (k, v) -> k).hasCharacteristics(Spliterator.SORTED));
+        assertTrue(EntryStream.of(map).filterKeys(k -> k > 10).spliterator().hasCharacteristics(Spliterator.SORTED));
+    }
+}
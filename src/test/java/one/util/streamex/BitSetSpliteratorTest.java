@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class BitSetSpliteratorTest {
+    private static void check(String msg, BitSet bitSet) {
+        checkSpliterator(msg, IntStreamEx.of(bitSet.stream()).boxed().toList(), () -> new BitSetSpliterator(bitSet));
+    }
+
+    @Test
+    public void testSpliterator() {
+        check("empty", new BitSet());
+        BitSet bs = new BitSet();
+        bs.set(0);
+        check("single", bs);
+        bs.set(100, 300);
+        check("range", bs);
+        Random r = new Random(1);
+        BitSet sparse = new BitSet();
+        for (int i = 0; i < 200; i++) {
+            sparse.set(r.nextInt(1 << 20));
+        }
+        check("sparse", sparse);
+        BitSet clustered = new BitSet();
+        clustered.set(10, 70);
+        clustered.set(1 << 20, (1 << 20) + 100);
+        clustered.set(1 << 22);
+        check("clustered", clustered);
+    }
+
+    @Test
+    public void testBasics() {
+        BitSet bs = new BitSet();
+        bs.set(1, 1000);
+        bs.set(Integer.MAX_VALUE);
+        BitSetSpliterator spliterator = new BitSetSpliterator(bs);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED
+            | Spliterator.DISTINCT));
+        assertNull(spliterator.getComparator());
+        assertEquals(1000, spliterator.estimateSize());
+        Spliterator.OfInt prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance((int x) -> assertEquals(501, x)));
+        assertEquals(499, spliterator.estimateSize());
+        assertEquals(500, IntStreamEx.of(prefix).count());
+        assertEquals(Integer.MAX_VALUE, IntStreamEx.of(spliterator).max().getAsInt());
+
+        assertEquals(1000, IntStreamEx.of(bs).count());
+        assertEquals(Integer.MAX_VALUE, IntStreamEx.of(bs).parallel().max().getAsInt());
+        bs.clear(Integer.MAX_VALUE);
+        bs.set(1 << 20);
+        assertEquals(bs, IntStreamEx.of(bs).parallel().toBitSet());
+    }
+
+    @Test
+    public void testSkipLimit() {
+        Random r = new Random(1);
+        BitSet bs = new BitSet();
+        for (int i = 0; i < 1000; i++) {
+            bs.set(r.nextInt(100000));
+        }
+        int[] expected = bs.stream().toArray();
+        for (int n : new int[] { 0, 1, 63, 64, 65, 500, expected.length - 1, expected.length, expected.length + 1 }) {
+            int from = Math.min(n, expected.length);
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, expected.length), IntStreamEx
+                    .of(bs).skip(n).toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, expected.length), IntStreamEx
+                    .of(bs).parallel().skipOrdered(n).toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOf(expected, from), IntStreamEx.of(bs).limit(n)
+                    .toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, Math.min(from + 10,
+                expected.length)), IntStreamEx.of(bs).skip(n).limit(10).parallel().toArray());
+        }
+    }
+}
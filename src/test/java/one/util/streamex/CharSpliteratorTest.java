@@ -19,8 +19,10 @@ import static one.util.streamex.TestHelpers.*;
 import static org.junit.Assert.*;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 import java.util.Spliterator;
+import java.util.regex.Pattern;
 
 import org.junit.Test;
 
@@ -30,7 +32,7 @@ import org.junit.Test;
 public class CharSpliteratorTest {
     @Test
     public void testBasics() {
-        CharSpliterator spliterator = new CharSpliterator("abcd,efgh", ',', false);
+        CharSpliterator<String> spliterator = CharSpliterator.of("abcd,efgh", ',', false);
         assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
         assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
         assertFalse(spliterator.hasCharacteristics(Spliterator.SORTED));
@@ -48,16 +50,102 @@ public class CharSpliteratorTest {
     public void testSpliterator() {
         // Empty string is processed differently by CharSpliterator, but this is
         // fixed in StreamEx.split
-        checkSpliterator("split", Arrays.asList(), () -> new CharSpliterator("", ',', true));
-        checkSpliterator("split", Arrays.asList(""), () -> new CharSpliterator("", ',', false));
+        checkSpliterator("split", Arrays.asList(), () -> CharSpliterator.of("", ',', true));
+        checkSpliterator("split", Arrays.asList(""), () -> CharSpliterator.of("", ',', false));
         Random r = new Random(1);
         String[] inputs = { ",", "abcd,e,f,gh,,,i,j,kl,,,,,,", ",", "abcdasdfgsdfgsdfgsdfgsdfgsdgdfsgs",
                 "abcdasdfgsdfgsdfgsdfgsdfgsdgdfsgs,", "abcdasdfgs,dfgsdfgsdfgsdfgsdgdfsgs",
                 "abcd,e,f,gh,,,i,j,kl,,,,,,x", "abcd,e,f,gh,,,i,j,kl,,,,,,x,",
                 IntStreamEx.of(r, 0, 3).limit(r.nextInt(1000)).elements(new int[] { ',', 'a', 'b' }).charsToString() };
         for (String input : inputs) {
-            checkSpliterator(input, Arrays.asList(input.split(",")), () -> new CharSpliterator(input, ',', true));
-            checkSpliterator(input, Arrays.asList(input.split(",", -1)), () -> new CharSpliterator(input, ',', false));
+            checkSpliterator(input, Arrays.asList(input.split(",")), () -> CharSpliterator.of(input, ',', true));
+            checkSpliterator(input, Arrays.asList(input.split(",", -1)), () -> CharSpliterator.of(input, ',', false));
         }
     }
+
+    @Test
+    public void testViews() {
+        Random r = new Random(1);
+        String[] inputs = { ",", "abcd,e,f,gh,,,i,j,kl,,,,,,", "abcd,e,f,gh,,,i,j,kl,,,,,,x", "abcdefgh",
+                IntStreamEx.of(r, 0, 3).limit(r.nextInt(1000)).elements(new int[] { ',', 'a', 'b' }).charsToString() };
+        for (String input : inputs) {
+            List<CharSequence> expected = StreamEx.of(input.split(",")).<CharSequence> map(
+                str -> new CharSpliterator.View(str, 0, str.length())).toList();
+            List<CharSequence> expectedFull = StreamEx.of(input.split(",", -1)).<CharSequence> map(
+                str -> new CharSpliterator.View(str, 0, str.length())).toList();
+            checkSpliterator(input, expected, () -> CharSpliterator.views(input, ',', true));
+            checkSpliterator(input, expectedFull, () -> CharSpliterator.views(input, ',', false));
+        }
+        CharSequence view = new CharSpliterator.View("xabcdx", 1, 5);
+        assertEquals(4, view.length());
+        assertEquals('a', view.charAt(0));
+        assertEquals('d', view.charAt(3));
+        assertEquals("abcd", view.toString());
+        assertEquals("abcd".hashCode(), view.hashCode());
+        assertEquals("", CharSpliterator.View.EMPTY.toString());
+        assertEquals("".hashCode(), CharSpliterator.View.EMPTY.hashCode());
+        assertEquals("bc", view.subSequence(1, 3).toString());
+        assertEquals(view.subSequence(1, 3), new CharSpliterator.View("bc", 0, 2));
+        assertNotEquals(view, "abcd");
+        assertNotEquals(view, new CharSpliterator.View("abce", 0, 4));
+        assertNotEquals(view, new CharSpliterator.View("abc", 0, 3));
+        try {
+            view.charAt(4);
+            fail("No exception");
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+        try {
+            view.subSequence(2, 5);
+            fail("No exception");
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStringDelimiter() {
+        Random r = new Random(1);
+        for (String delimiter : new String[] { ",", ", ", "ab", "abc", "aa", "aba", "abab", "baa" }) {
+            String[] inputs = { "", delimiter, delimiter + delimiter, "x" + delimiter, delimiter + "x",
+                    "abcd, e, f,gh, , ,i,j,kl, , , , ,", "aaaaaaaaaaaa", "abababababababab",
+                    IntStreamEx.of(r, 0, 4).limit(r.nextInt(1000)).elements(new int[] { ',', ' ', 'a', 'b' })
+                            .charsToString() };
+            for (String input : inputs) {
+                String msg = input + "/" + delimiter;
+                String regex = Pattern.quote(delimiter);
+                if (!input.isEmpty())
+                    checkSpliterator(msg, Arrays.asList(input.split(regex)), () -> CharSpliterator.of(input,
+                            delimiter, true));
+                checkSpliterator(msg, Arrays.asList(input.split(regex, -1)), () -> CharSpliterator.of(input,
+                        delimiter, false));
+                checkSpliterator(msg, Arrays.asList(input.split(regex, -1)), () -> CharSpliterator.of(
+                        new StringBuilder(input), delimiter, false));
+            }
+        }
+    }
+
+    @Test
+    public void testLiteral() {
+        assertEquals("abc", CharSpliterator.literal("abc"));
+        assertEquals(", ", CharSpliterator.literal(", "));
+        assertEquals("a.b|c", CharSpliterator.literal("a\\.b\\|c"));
+        assertEquals("a.*b", CharSpliterator.literal(Pattern.quote("a.*b")));
+        assertEquals("x\\Ey", CharSpliterator.literal(Pattern.quote("x\\Ey")));
+        assertEquals("a.*b", CharSpliterator.literal(Pattern.compile("a.*b", Pattern.LITERAL)));
+        assertEquals("ab", CharSpliterator.literal(Pattern.compile("ab")));
+        assertNull(CharSpliterator.literal(Pattern.compile("ab", Pattern.CASE_INSENSITIVE)));
+        assertNull(CharSpliterator.literal(""));
+        assertNull(CharSpliterator.literal("a.b"));
+        assertNull(CharSpliterator.literal("a\\sb"));
+        assertNull(CharSpliterator.literal("ab+"));
+        assertNull(CharSpliterator.literal("(ab)"));
+        assertNull(CharSpliterator.literal("ab\\"));
+        assertNull(CharSpliterator.literal("\\Q\\E"));
+        assertNull(CharSpliterator.literal("a\ud801\udc14"));
+        assertTrue(CharSpliterator.isBorderFree("abc"));
+        assertTrue(CharSpliterator.isBorderFree("aab"));
+        assertFalse(CharSpliterator.isBorderFree("aa"));
+        assertFalse(CharSpliterator.isBorderFree("abca"));
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class CombinationSpliteratorTest {
+    private static List<String> combinations(int n, int k) {
+        List<String> result = new ArrayList<>();
+        for (int mask = 0; mask < 1 << n; mask++) {
+            int m = mask;
+            if (Integer.bitCount(m) == k)
+                result.add(IntStreamEx.range(n).filter(bit -> (m & 1 << bit) != 0).boxed().toList().toString());
+        }
+        result.sort(null);
+        return result;
+    }
+
+    @Test
+    public void testBinomial() {
+        for (int n = 0; n < 70; n++) {
+            for (int k = 0; k <= n + 1; k++) {
+                BigInteger expected = k > n ? BigInteger.ZERO : IntStreamEx.rangeClosed(n - k + 1, n).mapToObj(
+                    BigInteger::valueOf).foldLeft(BigInteger.ONE, BigInteger::multiply).divide(
+                    IntStreamEx.rangeClosed(1, k).mapToObj(BigInteger::valueOf).foldLeft(BigInteger.ONE,
+                        BigInteger::multiply));
+                String msg = n + "/" + k;
+                if (expected.bitLength() < 64) {
+                    assertEquals(msg, expected.longValue(), CombinationSpliterator.binomial(n, k));
+                } else {
+                    try {
+                        CombinationSpliterator.binomial(n, k);
+                        fail(msg);
+                    } catch (ArithmeticException e) {
+                        // expected
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCombinations() {
+        // single digit numbers only, so lexicographic order of strings matches
+        for (int n = 0; n < 10; n++) {
+            for (int k = 0; k <= n + 1; k++) {
+                int nn = n, kk = k;
+                List<String> expected = combinations(n, k);
+                checkSpliterator(n + "/" + k, expected, () -> StreamEx.of(new CombinationSpliterator(nn, kk)).map(
+                    Arrays::toString).spliterator());
+            }
+        }
+    }
+
+    @Test
+    public void testUnrank() {
+        List<String> expected = combinations(8, 3);
+        for (int rank = 0; rank < expected.size(); rank++) {
+            assertEquals(expected.get(rank), Arrays.toString(CombinationSpliterator.unrank(8, 3, rank)));
+        }
+    }
+
+    @Test
+    public void testSplitBig() {
+        Spliterator<int[]> spliterator = new CombinationSpliterator(60, 30);
+        assertEquals(CombinationSpliterator.binomial(60, 30), spliterator.estimateSize());
+        Spliterator<int[]> prefix = spliterator.trySplit();
+        assertEquals(CombinationSpliterator.binomial(60, 30) / 2, prefix.estimateSize());
+        assertTrue(prefix.tryAdvance(arr -> assertArrayEquals(IntStreamEx.range(30).toArray(), arr)));
+        // the middle combination: half of combinations starts with 0
+        assertTrue(spliterator.tryAdvance(arr -> assertEquals(1, arr[0])));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverflow() {
+        new CombinationSpliterator(100, 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        new CombinationSpliterator(5, -1);
+    }
+}
@@ -481,4 +481,25 @@ public class DoubleStreamExTest {
         assertArrayEquals(new double[] {1, 2.5, 3, -4.6}, scannerDoubles(sc).stream().toArray(), 0.0);
         assertEquals("test", sc.next());
     }
+
+    @Test
+    public void testReversed() {
+        double[] input = { 1, 2, 3, 5, 8 };
+        assertArrayEquals(new double[] { 8, 5, 3, 2, 1 }, DoubleStreamEx.ofReversed(input).toArray(), 0.0);
+        assertArrayEquals(new double[] { 8, 5, 3, 2, 1 }, DoubleStreamEx.ofReversed(input).parallel().toArray(), 0.0);
+        assertArrayEquals(input, DoubleStreamEx.ofReversed(input).reversed().toArray(), 0.0);
+        assertArrayEquals(new double[] { 8, 5, 3, 2, 1 }, DoubleStreamEx.of(input).reversed().toArray(), 0.0);
+        assertArrayEquals(new double[] { 16, 10, 6, 4, 2 }, DoubleStreamEx.of(input).parallel().map(x -> x * 2).reversed()
+                .toArray(), 0.0);
+        assertArrayEquals(new double[] {}, DoubleStreamEx.ofReversed(new double[0]).reversed().toArray(), 0.0);
+    }
+
+    @Test
+    public void testZipWith() {
+        assertArrayEquals(new double[] { 1.5, 3.0, 4.5 }, DoubleStreamEx.of(1, 2, 3).zipWith(DoubleStream.generate(
+            () -> 1.5), (a, b) -> a * b).toArray(), 0.0);
+        assertArrayEquals(DoubleStreamEx.constant(2.5, 5000).toArray(), DoubleStreamEx.constant(1.0, 5000)
+                .parallel().zipWith(DoubleStreamEx.constant(1.5, 6000), Double::sum).toArray(), 0.0);
+    }
 }
+
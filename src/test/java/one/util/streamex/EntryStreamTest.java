@@ -24,6 +24,7 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -38,6 +39,7 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -193,6 +195,29 @@ public class EntryStreamTest {
             (str, num) -> !str.equals("a") && num != 22).toMap());
     }
 
+    @Test
+    public void testFusedOperations() {
+        Map<String, Integer> data = createMap();
+        EntryStream.of(data).filterKeys(k -> k.length() > 1).filterValues(v -> v > 30).forEach(e -> e.setValue(e
+                .getValue() + 1));
+        assertEquals(Integer.valueOf(34), data.get("ccc"));
+        assertEquals(Integer.valueOf(22), data.get("bb"));
+
+        Map<Integer, Integer> expected = IntStreamEx.range(1000).filter(i -> i % 3 == 0).boxed().toMap(i -> i * 2,
+            i -> i);
+        Map<Integer, Integer> input = IntStreamEx.range(1000).boxed().toMap(Function.identity(), Function.identity());
+        assertEquals(expected, EntryStream.of(input).mapKeys(k -> k * 2).filterValues(v -> v % 3 == 0).toMap());
+        assertEquals(expected, EntryStream.of(input).parallel().mapKeys(k -> k * 2).filterValues(v -> v % 3 == 0)
+                .toMap());
+        assertEquals(expected, EntryStream.of(input).invert().mapToValue((k, v) -> v * 2).invert().filterKeyValue(
+            (k, v) -> v % 3 == 0).sorted(Entry.comparingByValue()).toCustomMap(LinkedHashMap::new));
+        assertEquals(StreamEx.of(expected.keySet()).sorted().toList(), EntryStream.of(input).mapKeys(k -> k * 2)
+                .filterValues(v -> v % 3 == 0).keys().sorted().toList());
+        List<Integer> keys = new ArrayList<>();
+        EntryStream.of(input).mapValues(v -> v * 2).filterValues(v -> v < 10).forKeyValue((k, v) -> keys.add(k));
+        assertEquals(asList(0, 1, 2, 3, 4), keys);
+    }
+
     @Test
     public void testPeek() {
         List<String> keys = new ArrayList<>();
@@ -582,6 +607,10 @@ public class EntryStreamTest {
             assertEquals(asList("a", "b", "aa", "ab", "ba", "bb", "aaa", "aab", "aba", "abb", "baa", "bab", "bba",
                 "bbb"), supplier.get().sorted(Entry.comparingByKey()).values().without("").toList());
         });
+
+        entryStream(() -> EntryStream.ofTreeBreadthFirst("", (Integer depth, String str) -> depth >= 2 ? null
+                : Stream.of("a", "b").map(str::concat)), supplier -> checkAsString(
+            "0->;1->a;1->b;2->aa;2->ab;2->ba;2->bb", supplier.get()));
     }
 
     @Test
@@ -604,4 +633,49 @@ public class EntryStreamTest {
         assertEquals(EntryStream.of(1, "a", 2, "b", 3, "c").toList(), EntryStream.of(1, "a", 2, "b", 2, "b", 3, "c")
                 .chain(StreamEx::of).collapse(Objects::equals).toList());
     }
+
+    @Test
+    public void testInnerLeftJoin() {
+        EntryStream<Integer, String> right = EntryStream.of(1, "x", 2, "y", 2, "z", 4, "w");
+        entryStream(() -> EntryStream.of(1, "a", 2, "b", 3, "c", 2, "d", 1, "e"), s -> {
+            assertEquals(asList("1=ax", "2=by", "2=bz", "2=dy", "2=dz", "1=ex"), s.get().innerJoin(EntryStream.of(1,
+                "x", 2, "y", 2, "z", 4, "w"), String::concat).map(String::valueOf).toList());
+            assertEquals(asList("1=ax", "2=by", "2=bz", "3=cnull", "2=dy", "2=dz", "1=ex"), s.get().leftJoin(
+                EntryStream.of(1, "x", 2, "y", 2, "z", 4, "w"), (a, b) -> a + b).map(String::valueOf).toList());
+            assertEquals(asList("a=x", "b=y", "b=z", "d=y", "d=z", "e=x"), s.get().innerJoin(EntryStream.of(1, "x",
+                2, "y", 2, "z", 4, "w").parallel(), (v1, v2) -> v1 + "=" + v2).values().toList());
+        });
+        assertEquals(asList(), EntryStream.of(3, "c").innerJoin(right, String::concat).toList());
+        assertEquals(asList(), EntryStream.<Integer, String> empty().leftJoin(EntryStream.of(1, "x"), String::concat)
+                .toList());
+
+        List<Integer> big = IntStreamEx.range(10000).boxed().toList();
+        assertEquals(5000, StreamEx.of(big).parallel().mapToEntry(x -> x % 100, x -> x).innerJoin(
+            EntryStream.of(IntStreamEx.range(0, 100, 2).boxed().toMap(x -> x, x -> x)), Integer::sum).count());
+
+        AtomicInteger closed = new AtomicInteger();
+        EntryStream<Integer, String> joined = EntryStream.of(1, "a").innerJoin(EntryStream.of(1, "b").onClose(
+            closed::incrementAndGet), String::concat);
+        assertEquals(Collections.singletonMap(1, "ab"), joined.toMap());
+        joined.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testMergeJoin() {
+        entryStream(() -> EntryStream.of(1, "a", 2, "b", 2, "c", 3, "d", 5, "e", 7, "f"), s -> {
+            assertEquals(asList("2=bx", "2=by", "2=cx", "2=cy", "5=ez"), s.get().mergeJoin(EntryStream.of(0, "w", 2,
+                "x", 2, "y", 4, "q", 5, "z", 6, "r"), Comparator.naturalOrder(), String::concat).map(String::valueOf)
+                    .toList());
+            assertEquals(asList(), s.get().mergeJoin(EntryStream.empty(), Comparator.naturalOrder(),
+                String::concat).toList());
+        });
+        assertEquals(asList("3=cz", "1=ax"), EntryStream.of(3, "c", 1, "a").mergeJoin(EntryStream.of(4, "w", 3, "z",
+            1, "x"), Comparator.reverseOrder(), String::concat).map(String::valueOf).toList());
+        // stops consuming this stream when the other one is exhausted
+        AtomicInteger consumed = new AtomicInteger();
+        assertEquals(1, IntStreamEx.range(1000).boxed().peek(x -> consumed.incrementAndGet()).mapToEntry(x -> x,
+            x -> x).mergeJoin(EntryStream.of(1, 1), Comparator.naturalOrder(), Integer::sum).count());
+        assertEquals(3, consumed.get());
+    }
 }
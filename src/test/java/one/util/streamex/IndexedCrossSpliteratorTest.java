@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class IndexedCrossSpliteratorTest {
+    @Test
+    public void testIndexedSize() {
+        List<Integer> list = Arrays.asList(1, 2, 3);
+        assertEquals(1, IndexedCrossSpliterator.indexedSize(Collections.emptyList()));
+        assertEquals(27, IndexedCrossSpliterator.indexedSize(Collections.nCopies(3, list)));
+        assertEquals(0, IndexedCrossSpliterator.indexedSize(Arrays.asList(list, Collections.emptyList())));
+        assertEquals(-1, IndexedCrossSpliterator.indexedSize(Arrays.asList(list, new LinkedList<>(list))));
+        assertEquals(-1, IndexedCrossSpliterator.indexedSize(Arrays.asList(list, Collections.singleton(1))));
+        assertEquals(-1, IndexedCrossSpliterator.indexedSize(Collections.nCopies(40, list)));
+    }
+
+    @Test
+    public void testCrossToList() {
+        for (int limit : new int[] { 1, 2, 4, 9 }) {
+            List<List<Integer>> input = Collections.nCopies(3, IntStreamEx.range(limit).boxed().toList());
+            List<List<Integer>> expected = IntStreamEx.range(limit * limit * limit).mapToObj(
+                i -> Arrays.asList(i / limit / limit, i / limit % limit, i % limit)).toList();
+            checkSpliterator("cross", expected, () -> new IndexedCrossSpliterator.ToList<>(input, expected.size()));
+        }
+    }
+
+    @Test
+    public void testCrossReduce() {
+        for (int limit : new int[] { 1, 2, 4, 9 }) {
+            List<List<Integer>> input = Collections.nCopies(3, IntStreamEx.range(limit).boxed().toList());
+            List<String> expected = IntStreamEx.range(limit * limit * limit).mapToObj(
+                i -> "" + (i / limit / limit) + (i / limit % limit) + (i % limit)).toList();
+            checkSpliterator("cross", expected, () -> new IndexedCrossSpliterator.Reducing<>(input, expected.size(),
+                    "", (s, b) -> s + b));
+        }
+    }
+
+    @Test
+    public void testMixedRadix() {
+        List<List<Integer>> input = Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3), Arrays.asList(4, 5, 6));
+        List<String> expected = Arrays.asList("134", "135", "136", "234", "235", "236");
+        checkSpliterator("cross", expected, () -> new IndexedCrossSpliterator.Reducing<>(input, 6, "", (s, b) -> s
+            + b));
+        checkSpliterator("cross", StreamEx.of(expected).map(s -> IntStreamEx.ofChars(s).map(ch -> ch - '0').boxed()
+                .toList()).toList(), () -> new IndexedCrossSpliterator.ToList<>(input, 6));
+    }
+
+    @Test
+    public void testSkipLimit() {
+        List<List<Integer>> input = Collections.nCopies(4, IntStreamEx.range(5).boxed().toList());
+        List<String> expected = IntStreamEx.range(625).mapToObj(i -> String.format("%04d", Integer.parseInt(Integer
+                .toString(i, 5)))).toList();
+        for (int skip : new int[] { 0, 1, 4, 5, 24, 25, 300, 624, 625, 1000 }) {
+            for (int limit : new int[] { 0, 1, 7, 100, 1000 }) {
+                List<String> exp = expected.subList(Math.min(625, skip), Math.min(625, skip + limit));
+                checkSpliterator(skip + "/" + limit, exp, () -> {
+                    IndexedCrossSpliterator<Integer, String> spltr = new IndexedCrossSpliterator.Reducing<>(input,
+                            625, "", (s, b) -> s + b);
+                    spltr.skip(skip);
+                    spltr.limit(limit);
+                    return spltr;
+                });
+            }
+        }
+        // skip after partial traversal
+        IndexedCrossSpliterator<Integer, String> spltr = new IndexedCrossSpliterator.Reducing<>(input, 625, "", (s,
+                b) -> s + b);
+        List<String> result = new ArrayList<>();
+        assertTrue(spltr.tryAdvance(result::add));
+        spltr.skip(123);
+        assertTrue(spltr.tryAdvance(result::add));
+        assertEquals(Arrays.asList("0000", "0444"), result);
+    }
+
+    @Test
+    public void testSplit() {
+        List<List<Integer>> input = Collections.nCopies(3, IntStreamEx.range(10).boxed().toList());
+        Spliterator<List<Integer>> spltr = new IndexedCrossSpliterator.ToList<>(input, 1000);
+        assertTrue(spltr.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spltr.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(1000, spltr.estimateSize());
+        Spliterator<List<Integer>> prefix = spltr.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, spltr.estimateSize());
+        assertTrue(spltr.tryAdvance(list -> assertEquals(Arrays.asList(5, 0, 0), list)));
+        assertTrue(prefix.tryAdvance(list -> assertEquals(Arrays.asList(0, 0, 0), list)));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class InstrumentedSpliteratorTest {
+    static class RecordingListener implements StreamListener {
+        final AtomicInteger splits = new AtomicInteger();
+        final AtomicInteger maxDepth = new AtomicInteger();
+        final AtomicLong leafElements = new AtomicLong();
+        final AtomicInteger completed = new AtomicInteger();
+        final Map<Thread, Long> perWorker = new ConcurrentHashMap<>();
+        volatile long total = -1;
+
+        @Override
+        public void onSplit(int depth, long prefixSize, long suffixSize) {
+            splits.incrementAndGet();
+            maxDepth.accumulateAndGet(depth + 1, Math::max);
+        }
+
+        @Override
+        public void onTraversal(int depth, long elements, long nanos, long cpuNanos) {
+            assertTrue(nanos >= 0);
+            assertTrue(cpuNanos >= -1);
+            assertTrue(depth <= maxDepth.get());
+            leafElements.addAndGet(elements);
+            perWorker.merge(Thread.currentThread(), elements, Long::sum);
+        }
+
+        @Override
+        public void onComplete(long elements, long nanos) {
+            assertTrue(nanos >= 0);
+            completed.incrementAndGet();
+            total = elements;
+        }
+    }
+
+    @Test
+    public void testSpliterator() {
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        checkSpliterator("ref", input, () -> new InstrumentedSpliterator.ISOfRef<>(input.spliterator(),
+                new StreamListener() {}));
+        checkSpliterator("int", input, () -> new InstrumentedSpliterator.ISOfInt(IntStreamEx.range(1000)
+                .spliterator(), new StreamListener() {}));
+        checkSpliterator("long", LongStreamEx.range(1000).boxed().toList(), () -> new InstrumentedSpliterator.ISOfLong(
+                LongStreamEx.range(1000).spliterator(), new StreamListener() {}));
+        checkSpliterator("double", DoubleStreamEx.of(1, 2, 3).boxed().toList(),
+            () -> new InstrumentedSpliterator.ISOfDouble(DoubleStreamEx.of(1, 2, 3).spliterator(),
+                    new StreamListener() {}));
+    }
+
+    @Test
+    public void testSequential() {
+        RecordingListener listener = new RecordingListener();
+        assertEquals(4950, IntStreamEx.range(100).instrument(listener).sum());
+        assertEquals(0, listener.splits.get());
+        assertEquals(1, listener.completed.get());
+        assertEquals(100, listener.total);
+        assertEquals(Collections.singleton(Thread.currentThread()), listener.perWorker.keySet());
+    }
+
+    @Test
+    public void testStages() {
+        RecordingListener source = new RecordingListener();
+        RecordingListener filtered = new RecordingListener();
+        List<Integer> result = StreamEx.of(IntStreamEx.range(10000).boxed().toList()).parallel().instrument(source)
+                .filter(x -> x % 3 == 0).instrument(filtered).toList();
+        assertEquals(IntStreamEx.range(0, 10000, 3).boxed().toList(), result);
+        assertEquals(10000, source.total);
+        assertEquals(10000, source.leafElements.get());
+        assertEquals(3334, filtered.total);
+        assertEquals(1, source.completed.get());
+        assertEquals(1, filtered.completed.get());
+        assertTrue(source.splits.get() > 0);
+        assertEquals(10000L, source.perWorker.values().stream().mapToLong(Long::longValue).sum());
+
+        RecordingListener longs = new RecordingListener();
+        assertEquals(499500, LongStreamEx.range(1000).parallel().instrument(longs).sum());
+        assertEquals(1000, longs.total);
+        RecordingListener doubles = new RecordingListener();
+        assertEquals(6.0, DoubleStreamEx.of(1, 2, 3).instrument(doubles).sum(), 0.0);
+        assertEquals(3, doubles.total);
+    }
+
+    @Test
+    public void testShortCircuit() {
+        RecordingListener listener = new RecordingListener();
+        assertEquals(5, (int) StreamEx.iterate(0, x -> x + 1).instrument(listener).findFirst(x -> x == 5).get());
+        assertEquals(0, listener.completed.get());
+        Set<Thread> workers = listener.perWorker.keySet();
+        assertTrue(workers.isEmpty());
+    }
+}
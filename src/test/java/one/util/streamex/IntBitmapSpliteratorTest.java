@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class IntBitmapSpliteratorTest {
+    private static void check(String msg, IntBitmap bitmap) {
+        checkSpliterator(msg, StreamEx.of(bitmap.toString().replaceAll("[{} ]", "").split(",")).remove(
+            String::isEmpty).map(Integer::valueOf).toList(), bitmap::spliterator);
+    }
+
+    @Test
+    public void testSpliterator() {
+        check("empty", new IntBitmap());
+        check("single", IntStreamEx.of(-5).toBitmap());
+        check("range", IntStreamEx.range(100, 300).toBitmap());
+        Random r = new Random(1);
+        check("sparse", IntStreamEx.of(r, 200).toBitmap());
+        check("dense", IntStreamEx.of(r, 10000, 0, 1 << 16).toBitmap());
+        IntBitmap mixed = new IntBitmap();
+        IntStreamEx.range(10, 70).forEach(mixed::add);
+        IntStreamEx.range(1 << 20, (1 << 20) + 5000).forEach(mixed::add);
+        mixed.add(1 << 22);
+        IntStreamEx.of(r, 300, -(1 << 18), 0).forEach(mixed::add);
+        check("mixed", mixed);
+        mixed.optimize();
+        check("mixed optimized", mixed);
+    }
+
+    @Test
+    public void testSplitByContainer() {
+        // 8 containers of 1000 values each
+        IntBitmap bitmap = IntStreamEx.range(8).flatMap(i -> IntStreamEx.range(i << 16, (i << 16) + 1000))
+                .toBitmap();
+        Spliterator.OfInt spliterator = bitmap.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED
+            | Spliterator.DISTINCT));
+        assertNull(spliterator.getComparator());
+        assertEquals(8000, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance((int x) -> assertEquals(0, x)));
+        Spliterator.OfInt prefix = spliterator.trySplit();
+        assertEquals(3999, prefix.estimateSize());
+        assertEquals(4000, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance((int x) -> assertEquals(4 << 16, x)));
+        Spliterator.OfInt prefix2 = prefix.trySplit();
+        assertEquals(1999, prefix2.estimateSize());
+        assertEquals(2000, prefix.estimateSize());
+        assertTrue(prefix.tryAdvance((int x) -> assertEquals(2 << 16, x)));
+        assertEquals(1, IntStreamEx.of(prefix2).min().getAsInt());
+
+        // one container: split in the middle
+        spliterator = IntStreamEx.range(1000).toBitmap().spliterator();
+        prefix = spliterator.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertTrue(spliterator.tryAdvance((int x) -> assertEquals(500, x)));
+
+        // too unbalanced containers: split in the middle
+        spliterator = IntStreamEx.of(1).append(IntStreamEx.range(1 << 16, (1 << 16) + 1000)).toBitmap()
+                .spliterator();
+        prefix = spliterator.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertTrue(spliterator.tryAdvance((int x) -> assertEquals((1 << 16) + 499, x)));
+    }
+
+    @Test
+    public void testSkipLimit() {
+        Random r = new Random(1);
+        IntBitmap bitmap = IntStreamEx.of(r, 3000, -200000, 200000).append(IntStreamEx.range(1000, 70000))
+                .toBitmap();
+        int[] expected = StreamEx.of(bitmap.toString().replaceAll("[{} ]", "").split(",")).mapToInt(
+            Integer::parseInt).toArray();
+        assertEquals(expected.length, IntStreamEx.of(bitmap).count());
+        for (int n : new int[] { 0, 1, 63, 64, 65, 500, 2000, 50000, expected.length - 1, expected.length,
+                expected.length + 1 }) {
+            int from = Math.min(n, expected.length);
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, expected.length), IntStreamEx
+                    .of(bitmap).skip(n).toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, expected.length), IntStreamEx
+                    .of(bitmap).parallel().skipOrdered(n).toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOf(expected, from), IntStreamEx.of(bitmap).limit(n)
+                    .toArray());
+            assertArrayEquals(String.valueOf(n), Arrays.copyOfRange(expected, from, Math.min(from + 10,
+                expected.length)), IntStreamEx.of(bitmap).skip(n).limit(10).parallel().toArray());
+        }
+    }
+}
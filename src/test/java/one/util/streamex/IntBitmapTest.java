@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import one.util.streamex.IntBitmap.ArrayContainer;
+import one.util.streamex.IntBitmap.BitmapContainer;
+import one.util.streamex.IntBitmap.Container;
+import one.util.streamex.IntBitmap.RunContainer;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class IntBitmapTest {
+    private static Class<?>[] types(IntBitmap bitmap) {
+        return StreamEx.of(bitmap.containers()).map(Object::getClass).toArray(Class[]::new);
+    }
+
+    @Test
+    public void testAddContains() {
+        IntBitmap bitmap = new IntBitmap();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+        assertEquals("{}", bitmap.toString());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random r = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            int v = i % 3 == 0 ? r.nextInt() : i % 3 == 1 ? r.nextInt(10000) - 5000 : 1 << 20 | r.nextInt(1 << 16);
+            assertEquals(expected.add(v), bitmap.add(v));
+        }
+        assertFalse(bitmap.isEmpty());
+        assertEquals(expected.size(), bitmap.cardinality());
+        for (int i = 0; i < 1000; i++) {
+            int v = r.nextInt(20000) - 10000;
+            assertEquals(expected.contains(v), bitmap.contains(v));
+        }
+        assertEquals(StreamEx.of(expected).joining(", ", "{", "}"), bitmap.toString());
+        assertEquals(StreamEx.of(expected).toList(), IntStreamEx.of(bitmap).boxed().toList());
+        IntBitmap extremes = new IntBitmap();
+        extremes.add(Integer.MAX_VALUE);
+        extremes.add(0);
+        extremes.add(-1);
+        extremes.add(Integer.MIN_VALUE);
+        assertEquals("{-2147483648, -1, 0, 2147483647}", extremes.toString());
+    }
+
+    @Test
+    public void testContainers() {
+        IntBitmap bitmap = IntStreamEx.range(0, IntBitmap.ARRAY_MAX * 2, 2).append(IntStreamEx.range(1 << 16,
+            1 << 17, 3)).toBitmap();
+        assertArrayEquals(new Class<?>[] { ArrayContainer.class, BitmapContainer.class }, types(bitmap));
+
+        bitmap = new IntBitmap();
+        for (int i = 0; i <= IntBitmap.ARRAY_MAX; i++) {
+            bitmap.add(i * 3);
+        }
+        assertArrayEquals(new Class<?>[] { BitmapContainer.class }, types(bitmap));
+        bitmap.optimize();
+        assertArrayEquals(new Class<?>[] { BitmapContainer.class }, types(bitmap));
+
+        // few long ranges are stored as runs
+        bitmap = IntStreamEx.range(1000, 60000).append(IntStreamEx.range(70000, 200000)).parallel().toBitmap();
+        assertArrayEquals(new Class<?>[] { RunContainer.class, RunContainer.class, RunContainer.class,
+                RunContainer.class }, types(bitmap));
+        assertEquals(59000 + 130000, bitmap.cardinality());
+        assertTrue(bitmap.contains(1000));
+        assertTrue(bitmap.contains(59999));
+        assertFalse(bitmap.contains(60000));
+        assertFalse(bitmap.contains(999));
+        assertFalse(bitmap.contains(65536));
+        assertFalse(bitmap.contains(69999));
+        assertTrue(bitmap.contains(70000));
+        assertTrue(bitmap.contains(1 << 17));
+
+        // adding to the runs joins adjacent runs
+        assertFalse(bitmap.add(59999));
+        assertTrue(bitmap.add(999));
+        assertTrue(bitmap.add(60000));
+        assertTrue(bitmap.add(60002));
+        assertTrue(bitmap.add(60001));
+        assertTrue(bitmap.add(5));
+        assertTrue(bitmap.add(65535));
+        assertEquals(59000 + 130000 + 6, bitmap.cardinality());
+        Container first = bitmap.containers()[0];
+        assertEquals(RunContainer.class, first.getClass());
+        assertEquals(3, first.runCount());
+        assertEquals(IntStreamEx.of(5).append(IntStreamEx.range(999, 60003)).append(65535).boxed().toList(), IntStreamEx
+                .of(bitmap).limit(59006).boxed().toList());
+
+        IntBitmap full = IntStreamEx.range(1 << 16).toBitmap();
+        assertEquals(1, full.containers()[0].runCount());
+        assertEquals(1 << 16, full.cardinality());
+        assertEquals(65535, IntStreamEx.of(full).max().getAsInt());
+    }
+
+    @Test
+    public void testOr() {
+        Random r = new Random(1);
+        for (int iter = 0; iter < 50; iter++) {
+            int bound = 1 << r.nextInt(20);
+            int[] a = IntStreamEx.of(r, r.nextInt(10000), -bound, bound).toArray();
+            int[] b = IntStreamEx.of(r, r.nextInt(10000), -bound, bound).toArray();
+            IntBitmap expected = IntStreamEx.of(a).append(b).toBitmap();
+            IntBitmap bitmapA = IntStreamEx.of(a).toBitmap();
+            IntBitmap bitmapB = IntStreamEx.of(b).toBitmap();
+            bitmapA.or(bitmapB);
+            assertEquals(expected, bitmapA);
+            assertEquals(expected.hashCode(), bitmapA.hashCode());
+            assertEquals(IntStreamEx.of(b).toBitmap(), bitmapB);
+            // containers taken from b must not be affected by the subsequent
+            // modifications of either bitmap
+            for (int i = 0; i < 100; i++) {
+                bitmapB.add(r.nextInt());
+                bitmapA.add(r.nextInt());
+            }
+            expected = IntStreamEx.of(a).append(b).toBitmap();
+            assertTrue(IntStreamEx.of(expected).allMatch(bitmapA::contains));
+            assertTrue(IntStreamEx.of(b).allMatch(bitmapB::contains));
+        }
+        IntBitmap bitmap = IntStreamEx.range(10).toBitmap();
+        bitmap.or(bitmap);
+        bitmap.or(new IntBitmap());
+        assertEquals(IntStreamEx.range(10).toBitmap(), bitmap);
+    }
+
+    @Test
+    public void testEquals() {
+        IntBitmap runs = IntStreamEx.range(100000).toBitmap();
+        IntBitmap plain = new IntBitmap();
+        IntStreamEx.range(100000).forEach(plain::add);
+        assertNotEquals(Arrays.asList(types(runs)), Arrays.asList(types(plain)));
+        assertEquals(runs, plain);
+        assertEquals(runs.hashCode(), plain.hashCode());
+        plain.add(-1);
+        assertNotEquals(runs, plain);
+        runs.add(100000);
+        assertEquals(IntStreamEx.range(100001).toBitmap(), runs);
+        assertNotEquals(runs, runs.toString());
+        assertNotEquals(IntStreamEx.range(100).toBitmap(), IntStreamEx.range(1, 101).toBitmap());
+        BitSet bs = new BitSet();
+        bs.set(100, 1000);
+        assertEquals(bs.toString(), IntStreamEx.of(bs).toBitmap().toString());
+    }
+
+    @Test
+    public void testSnapshot() {
+        IntBitmap bitmap = IntStreamEx.of(1, 2, 3, 1 << 20).toBitmap();
+        IntStreamEx stream = IntStreamEx.of(bitmap);
+        bitmap.add(4);
+        bitmap.add(1 << 30);
+        bitmap.optimize();
+        IntBitmap other = IntStreamEx.of(5).toBitmap();
+        bitmap.or(other);
+        assertArrayEquals(new int[] { 1, 2, 3, 1 << 20 }, stream.toArray());
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 1 << 20, 1 << 30 }, IntStreamEx.of(bitmap).toArray());
+        other.add(6);
+        assertFalse(bitmap.contains(6));
+    }
+}
@@ -185,6 +185,29 @@ public class IntCollectorTest {
         assertEquals("{2, 5, 8}", mapBitSet.get(2).toString());
     }
 
+    @Test
+    public void testGroupingByInt() {
+        for (boolean parallel : new boolean[] { false, true }) {
+            IntStreamEx input = IntStreamEx.range(-2000, 2000);
+            Map<Integer, int[]> collected = (parallel ? input.parallel() : input).collect(IntCollector
+                    .groupingByInt(i -> i % 100));
+            assertEquals(199, collected.size());
+            for (int i = -99; i < 100; i++) {
+                int rem = i;
+                assertArrayEquals(IntStream.range(-2000, 2000).filter(a -> a % 100 == rem).toArray(), collected.get(
+                    i));
+            }
+            assertNull(collected.get(100));
+            assertNull(collected.get(1L));
+            assertEquals(IntStreamEx.range(-99, 100).boxed().toSet(), collected.keySet());
+        }
+        Map<Integer, Long> counts = IntStreamEx.of(new Random(1), 10000, 0, 1000).parallel().collect(IntCollector
+                .groupingByInt(i -> i / 10, IntCollector.counting()));
+        assertEquals(IntStreamEx.of(new Random(1), 10000, 0, 1000).boxed().groupingBy(i -> i / 10, Collectors
+                .counting()), counts);
+        assertTrue(IntStreamEx.empty().collect(IntCollector.groupingByInt(i -> i)).isEmpty());
+    }
+
     @Test
     public void testByDigit() {
         int[] input = new Random(1).ints(2000, -1000, 1000).toArray();
@@ -106,6 +106,10 @@ public class IntStreamExTest {
         bs.set(3);
         bs.set(5);
         assertArrayEquals(new int[] { 1, 3, 5 }, IntStreamEx.of(bs).toArray());
+        // the bit set is copied at stream creation
+        IntStreamEx snapshot = IntStreamEx.of(bs);
+        bs.set(7);
+        assertArrayEquals(new int[] { 1, 3, 5 }, snapshot.toArray());
 
         assertArrayEquals(new int[] { 2, 4, 6 }, IntStreamEx.of(new Integer[] { 2, 4, 6 }).toArray());
     }
@@ -246,6 +250,24 @@ public class IntStreamExTest {
         assertEquals(10, IntStreamEx.of(EVEN_BYTES, 3, 5).skip(1).findFirst().getAsInt());
     }
 
+    @Test
+    public void testSplitOffsets() {
+        assertArrayEquals(new int[] { -1, 0 }, IntStreamEx.splitOffsets("", ',').toArray());
+        assertArrayEquals(new int[] { -1, 3, 4, 8, 9 }, IntStreamEx.splitOffsets("abc,,def,", ',').toArray());
+        Random r = new Random(1);
+        for (int i = 0; i < 10; i++) {
+            String input = IntStreamEx.of(r, 0, 3).limit(r.nextInt(10000)).elements(new int[] { ',', 'a', 'b' })
+                    .charsToString();
+            List<String> expected = Arrays.asList(input.split(",", -1));
+            assertEquals(expected, IntStreamEx.splitOffsets(input, ',').boxed().pairMap(
+                (from, to) -> input.substring(from + 1, to)).toList());
+            assertEquals(expected, IntStreamEx.splitOffsets(new StringBuilder(input), ',').parallel().boxed()
+                    .pairMap((from, to) -> input.substring(from + 1, to)).toList());
+            assertEquals(expected.size(), IntStreamEx.splitOffsets(input, ',').parallel().pairMap((from, to) -> to
+                - from).count());
+        }
+    }
+
     @Test
     public void testOfIndices() {
         assertArrayEquals(new int[] {}, IntStreamEx.ofIndices(new int[0]).toArray());
@@ -389,6 +411,19 @@ public class IntStreamExTest {
         assertEquals("{0, 2, 3, 4, 10}", IntStreamEx.of(0, 2, 0, 3, 0, 4, 0, 10).parallel().toBitSet().toString());
     }
 
+    @Test
+    public void testToBitmap() {
+        assertEquals("{0, 1, 2, 3, 4}", IntStreamEx.range(5).toBitmap().toString());
+        assertEquals("{-10, 0, 2, 3, 4, 10}", IntStreamEx.of(0, 2, 0, 3, 0, 4, 0, 10, -10).parallel().toBitmap()
+                .toString());
+        IntBitmap bitmap = IntStreamEx.range(-1000000, 1000000, 7).parallel().toBitmap();
+        assertEquals(IntStreamEx.range(-1000000, 1000000, 7).count(), bitmap.cardinality());
+        assertArrayEquals(IntStreamEx.range(-1000000, 1000000, 7).toArray(), IntStreamEx.of(bitmap).parallel()
+                .toArray());
+        assertEquals(bitmap, IntStreamEx.of(bitmap).parallel().toBitmap());
+        assertEquals(bitmap, IntStreamEx.range(-1000000, 1000000, 7).collect(IntCollector.toBitmap()));
+    }
+
     @Test
     public void testAs() {
         assertEquals(4, IntStreamEx.range(0, 5).asLongStream().findAny(x -> x > 3).getAsLong());
@@ -739,4 +774,67 @@ public class IntStreamExTest {
         assertArrayEquals(new int[] {1, 2, 3, 4}, scannerInts(sc).stream().toArray());
         assertEquals("20000000000", sc.next());
     }
+
+    @Test
+    public void testMergeSorted() {
+        assertArrayEquals(new int[] {}, IntStreamEx.mergeSorted().toArray());
+        assertArrayEquals(new int[] { 1, 1, 2, 3, 5, 8, 13 }, IntStreamEx.mergeSorted(IntStreamEx.of(1, 3, 13),
+            IntStream.of(1, 2, 5, 8)).toArray());
+        AtomicInteger closed = new AtomicInteger();
+        IntStreamEx merged = IntStreamEx.mergeSorted(IntStream.of(2).onClose(closed::incrementAndGet), IntStreamEx.of(1));
+        assertEquals(1, merged.findFirst().getAsInt());
+        merged.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testConcat() {
+        assertArrayEquals(new int[] {}, IntStreamEx.concat(Collections.emptyList()).toArray());
+        List<IntStream> streams = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            streams.add(IntStreamEx.range(i * 10, i * 10 + 10));
+        }
+        assertArrayEquals(IntStreamEx.range(1000).toArray(), IntStreamEx.concat(streams).toArray());
+        AtomicInteger closed = new AtomicInteger();
+        IntStreamEx concat = IntStreamEx.concat(Arrays.asList(IntStream.of(1).onClose(closed::incrementAndGet),
+            IntStream.of(2).onClose(closed::incrementAndGet), IntStream.of(3).parallel()));
+        assertTrue(concat.isParallel());
+        assertEquals(3, concat.spliterator().getExactSizeIfKnown());
+        concat.close();
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void testZipWith() {
+        assertArrayEquals(new int[] { 11, 22, 33 }, IntStreamEx.of(1, 2, 3).zipWith(IntStream.iterate(10, x -> x + 10),
+            Integer::sum).toArray());
+        int[] expected = IntStreamEx.range(5000).map(x -> x * 3).toArray();
+        assertArrayEquals(expected, IntStreamEx.range(5000).parallel().zipWith(IntStreamEx.range(0, 20000, 2),
+            Integer::sum).toArray());
+        assertArrayEquals(expected, IntStreamEx.of(IntStreamEx.range(5000).iterator()).parallel().zipWith(IntStreamEx
+                .range(0, 10000, 2), Integer::sum).toArray());
+        assertEquals(5000, IntStreamEx.range(5000).zipWith(IntStreamEx.range(6000), Integer::sum).spliterator()
+                .getExactSizeIfKnown());
+        AtomicInteger closed = new AtomicInteger();
+        IntStreamEx zip = IntStreamEx.of(1).zipWith(IntStream.of(2).onClose(closed::incrementAndGet), Integer::sum);
+        zip.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testReversed() {
+        int[] input = { 1, 2, 3, 5, 8 };
+        assertArrayEquals(new int[] { 8, 5, 3, 2, 1 }, IntStreamEx.ofReversed(input).toArray());
+        assertArrayEquals(new int[] { 8, 5, 3, 2, 1 }, IntStreamEx.ofReversed(input).parallel().toArray());
+        assertArrayEquals(input, IntStreamEx.ofReversed(input).reversed().toArray());
+        assertArrayEquals(new int[] { 8, 5, 3, 2, 1 }, IntStreamEx.of(input).reversed().toArray());
+        assertArrayEquals(new int[] { 16, 10, 6, 4, 2 }, IntStreamEx.of(input).parallel().map(x -> x * 2).reversed()
+                .toArray());
+        assertArrayEquals(new int[] {}, IntStreamEx.ofReversed(new int[0]).reversed().toArray());
+        assertTrue(IntStreamEx.of(input).reversed().spliterator() instanceof RangeBasedSpliterator.ReverseInt);
+        assertArrayEquals(new int[] { 5, 3, 2 }, IntStreamEx.of(input, 1, 4).reversed().toArray());
+        assertArrayEquals(new int[] { 3, 2 }, IntStreamEx.of(input).skip(1).limit(2).reversed().toArray());
+        assertArrayEquals(new int[] { 2, 3 }, IntStreamEx.of(input, 1, 4).reversed().skip(1).reversed().toArray());
+    }
 }
+
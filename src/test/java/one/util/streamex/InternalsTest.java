@@ -15,14 +15,13 @@
  */
 package one.util.streamex;
 
-import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -57,11 +56,16 @@ public class InternalsTest {
     }
 
     @Test
-    public void testJdk9Basics() {
-        MethodHandle[][] jdk9Methods = initJdk9Methods();
-        if (Stream.of(Stream.class.getMethods()).anyMatch(m -> m.getName().equals("takeWhile")))
-            assertNotNull(jdk9Methods);
-        else
-            assertNull(jdk9Methods);
+    public void testVersionSpecific() {
+        assertEquals(Arrays.asList(1, 2), VersionSpecific.callWhile(StreamEx.of(1, 2, 3, 1), x -> x < 3, false).toList());
+        assertEquals(Arrays.asList(3, 1), VersionSpecific.callWhile(StreamEx.of(1, 2, 3, 1), x -> x < 3, true).toList());
+        assertArrayEquals(new int[] { 1, 2 }, VersionSpecific.callWhile(IntStreamEx.of(1, 2, 3, 1), x -> x < 3,
+            false).toArray());
+        assertArrayEquals(new long[] { 3, 1 }, VersionSpecific.callWhile(LongStreamEx.of(1, 2, 3, 1), x -> x < 3,
+            true).toArray());
+        assertArrayEquals(new double[] { 1, 2 }, VersionSpecific.callWhile(DoubleStreamEx.of(1, 2, 3, 1),
+            x -> x < 3, false).toArray(), 0.0);
+        assertEquals("abc", VersionSpecific.ofChars(new StringBuilder("abc")).collect(StringBuilder::new,
+            StringBuilder::appendCodePoint, StringBuilder::append).toString());
     }
 }
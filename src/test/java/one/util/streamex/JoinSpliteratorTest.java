@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class JoinSpliteratorTest {
+    @Test
+    public void testSpliterator() {
+        List<Entry<Integer, Integer>> left = IntStreamEx.range(200).boxed().mapToEntry(x -> x / 3, x -> x).toList();
+        List<Entry<Integer, Integer>> right = IntStreamEx.range(100).boxed().mapToEntry(x -> x / 2 * 3, x -> x)
+                .toList();
+        List<Entry<Integer, String>> inner = new ArrayList<>();
+        List<Entry<Integer, String>> outer = new ArrayList<>();
+        for (Entry<Integer, Integer> l : left) {
+            boolean found = false;
+            for (Entry<Integer, Integer> r : right) {
+                if (l.getKey().equals(r.getKey())) {
+                    Entry<Integer, String> e = new SimpleImmutableEntry<>(l.getKey(), l.getValue() + ":" + r.getValue());
+                    inner.add(e);
+                    outer.add(e);
+                    found = true;
+                }
+            }
+            if (!found)
+                outer.add(new SimpleImmutableEntry<>(l.getKey(), l.getValue() + ":null"));
+        }
+        checkSpliterator("inner", inner, () -> new JoinSpliterator.Hash<>(BiSpliterator.of(left.spliterator()),
+                EntryStream.of(right.stream()), (a, b) -> a + ":" + b, false));
+        checkSpliterator("left", outer, () -> new JoinSpliterator.Hash<>(BiSpliterator.of(left.spliterator()),
+                EntryStream.of(right.stream()), (a, b) -> a + ":" + b, true));
+        checkSpliterator("merge", inner, () -> new JoinSpliterator.Merge<>(BiSpliterator.of(left.spliterator()),
+                BiSpliterator.of(right.spliterator()), Comparator.<Integer> naturalOrder(), (a, b) -> a + ":" + b));
+    }
+
+    @Test
+    public void testForEachAfterTryAdvance() {
+        List<Entry<Integer, Integer>> left = IntStreamEx.range(100).boxed().mapToEntry(x -> x % 10, x -> x).toList();
+        List<Entry<Integer, String>> right = StreamEx.of("a", "b").cross(IntStreamEx.range(10).boxed().toList())
+                .invert().toList();
+        AtomicInteger advances = new AtomicInteger();
+        Spliterator<Entry<Integer, Integer>> source = new Spliterators.AbstractSpliterator<Entry<Integer, Integer>>(
+                100, Spliterator.ORDERED) {
+            Spliterator<Entry<Integer, Integer>> s = left.spliterator();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Entry<Integer, Integer>> action) {
+                advances.incrementAndGet();
+                return s.tryAdvance(action);
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super Entry<Integer, Integer>> action) {
+                s.forEachRemaining(action);
+            }
+        };
+        JoinSpliterator<Integer, Integer, String, String> spliterator = new JoinSpliterator.Hash<>(BiSpliterator
+                .of(source), EntryStream.of(right.stream()), (a, b) -> a + b, false);
+        List<String> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(e -> result.add(e.getValue())));
+        spliterator.forEachRemaining(e -> result.add(e.getValue()));
+        assertEquals(1, advances.get());
+        assertEquals(200, result.size());
+        assertEquals(Arrays.asList("0a", "0b", "1a", "1b"), result.subList(0, 4));
+    }
+}
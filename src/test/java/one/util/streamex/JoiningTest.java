@@ -18,10 +18,17 @@ package one.util.streamex;
 import static one.util.streamex.TestHelpers.*;
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -100,6 +107,83 @@ public class JoiningTest {
             Joining.with(" ").maxChars(15).cutAfterDelimiter()));
     }
 
+    @Test
+    public void testJoinTo() {
+        List<String> input = Arrays.asList("one two", "three four", "", "five", "six seven", "\ud801\udc14\u0301x",
+            "y");
+        List<Joining> joinings = Arrays.asList(Joining.with(", "), Joining.with("").wrap("[", "]"), Joining.with(
+            ", ").ellipsis(""), Joining.with(", ").wrap("<<<", ">>>").ellipsis("~~~~~"));
+        for (Joining base : joinings) {
+            for (int i = 0; i < 60; i++) {
+                for (Joining joining : Arrays.asList(base.maxChars(i), base.maxCodePoints(i).cutAnywhere(), base
+                        .maxGraphemes(i).cutAtWord(), base.maxChars(i).cutAtCodePoint(), base.maxChars(i)
+                        .cutBeforeDelimiter(), base.maxCodePoints(i).cutAfterDelimiter())) {
+                    for (StreamExSupplier<String> supplier : streamEx(input::stream)) {
+                        String expected = supplier.get().collect(joining);
+                        assertEquals(supplier + "/#" + i, expected, supplier.get().joinTo(new StringBuilder(),
+                            joining).toString());
+                    }
+                }
+            }
+        }
+        List<Integer> numbers = IntStreamEx.range(10000).boxed().toList();
+        for (StreamExSupplier<Integer> supplier : streamEx(numbers::stream)) {
+            assertEquals(supplier.toString(), StreamEx.of(numbers).joining(","), supplier.get().joinTo(
+                new StringWriter(), ",").toString());
+        }
+        // short-circuit
+        assertEquals("0,1,2,...", StreamEx.iterate(0, x -> x + 1).joinTo(new StringBuilder(), Joining.with(",")
+                .maxChars(9)).toString());
+        AtomicInteger counter = new AtomicInteger();
+        assertEquals("", StreamEx.of(input).peek(x -> counter.incrementAndGet()).joinTo(new StringBuilder(),
+            Joining.with(",").maxChars(0)).toString());
+        assertEquals(1, counter.get());
+        try {
+            StreamEx.of(input).joinTo(new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) throws IOException {
+                    throw new IOException("test");
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            }, ",");
+            Assert.fail("No exception");
+        } catch (UncheckedIOException ex) {
+            assertEquals("test", ex.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testCombine() {
+        List<String> input = IntStreamEx.range(10000).mapToObj(String::valueOf).toList();
+        String expected = String.join(",", input);
+        for (Joining joining : Arrays.asList(Joining.with(","), Joining.with(",").maxChars(expected.length()),
+            Joining.with(",").maxChars(20000).cutAtWord())) {
+            // combine many accumulators in random tree order
+            Random r = new Random(1);
+            List<Joining.Accumulator> accs = StreamEx.ofSubLists(input, 7).map(list -> {
+                Joining.Accumulator acc = joining.supplier().get();
+                list.forEach(str -> joining.accumulator().accept(acc, str));
+                return acc;
+            }).toCollection(ArrayList::new);
+            accs.add(r.nextInt(accs.size()), joining.supplier().get());
+            while (accs.size() > 1) {
+                int i = r.nextInt(accs.size() - 1);
+                accs.set(i, joining.combiner().apply(accs.get(i), accs.remove(i + 1)));
+            }
+            assertEquals(StreamEx.of(input).collect(joining), joining.finisher().apply(accs.get(0)));
+        }
+        assertEquals(expected, StreamEx.of(input).parallel().collect(Joining.with(",")));
+        assertEquals(expected.substring(0, 997) + "...", StreamEx.of(input).parallel().collect(
+            Joining.with(",").maxChars(1000).cutAnywhere()));
+    }
+
     @Test
     public void testCuts() {
         List<String> input = Arrays.asList("one two", "three four", "five", "six seven");
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Tagir Valeev
+ */
+public class LinesSpliteratorTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private void checkFile(String content, Charset charset, long window) throws IOException {
+        File f = tmp.newFile();
+        Files.write(f.toPath(), content.getBytes(charset));
+        List<String> expected = StreamEx.of(new BufferedReader(new StringReader(content)).lines()).toList();
+        try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long size = fc.size();
+            checkSpliterator(content.length() + "/" + window, expected, () -> {
+                try {
+                    fc.position(0);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new LinesSpliterator(fc, charset, size, window);
+            });
+        }
+    }
+
+    @Test
+    public void testBasics() throws IOException {
+        File f = tmp.newFile();
+        Files.write(f.toPath(), IntStreamEx.range(1000).joining("\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            LinesSpliterator spliterator = new LinesSpliterator(fc, StandardCharsets.UTF_8, fc.size());
+            assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+            assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+            assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+            assertEquals(fc.size(), spliterator.estimateSize());
+            Spliterator<String> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertEquals(fc.size(), prefix.estimateSize() + spliterator.estimateSize());
+            assertTrue(prefix.tryAdvance(s -> assertEquals("0", s)));
+        }
+        assertTrue(LinesSpliterator.isSupported(StandardCharsets.US_ASCII));
+        assertFalse(LinesSpliterator.isSupported(StandardCharsets.UTF_16));
+    }
+
+    @Test
+    public void testSpliterator() throws IOException {
+        checkFile("", StandardCharsets.UTF_8, LinesSpliterator.MAX_WINDOW);
+        checkFile("\n", StandardCharsets.UTF_8, LinesSpliterator.MAX_WINDOW);
+        checkFile("a\r\nb\rc\n\n\r\rd", StandardCharsets.UTF_8, LinesSpliterator.MAX_WINDOW);
+        Random r = new Random(1);
+        String[] separators = { "\n", "\r", "\r\n", "\n\n", "\r\n\r\n" };
+        String input = IntStreamEx.range(500).mapToObj(i -> "Строка " + i + separators[r.nextInt(separators.length)])
+                .joining();
+        checkFile(input, StandardCharsets.UTF_8, LinesSpliterator.MAX_WINDOW);
+        checkFile(input, StandardCharsets.UTF_8, 100);
+        checkFile(input.replace("Строка", "line"), StandardCharsets.US_ASCII, 50);
+        checkFile(input.replace("Строка", "line") + "last", StandardCharsets.ISO_8859_1, 51);
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        File f = tmp.newFile();
+        byte[] data = IntStreamEx.range(2000).joining("\n").getBytes(StandardCharsets.UTF_8);
+        data[data.length - 2] = (byte) 0xFF;
+        Files.write(f.toPath(), data);
+        try (StreamEx<String> lines = StreamEx.ofLines(f.toPath())) {
+            lines.parallel().count();
+            fail("No exception");
+        } catch (UncheckedIOException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void testTooLongLine() throws IOException {
+        File f = tmp.newFile();
+        Files.write(f.toPath(), StreamEx.constant("a", 2000).joining().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            LinesSpliterator spliterator = new LinesSpliterator(fc, StandardCharsets.UTF_8, fc.size(), 100);
+            // force mapped traversal
+            spliterator.trySplit();
+            spliterator.forEachRemaining(s -> {});
+        }
+    }
+}
@@ -150,6 +150,23 @@ public class LongCollectorTest {
         }
     }
 
+    @Test
+    public void testGroupingByLong() {
+        long base = 1L << 40;
+        Map<Long, long[]> collected = LongStreamEx.range(2000).parallel().collect(LongCollector.groupingByLong(
+            i -> i % 3 * base));
+        assertEquals(3, collected.size());
+        for (long i = 0; i < 3; i++) {
+            long rem = i;
+            assertArrayEquals(LongStream.range(0, 2000).filter(a -> a % 3 == rem).toArray(), collected.get(i * base));
+        }
+        assertNull(collected.get(1L));
+        assertNull(collected.get(0));
+        Map<Long, Long> sums = LongStreamEx.range(2000).collect(LongCollector.groupingByLong(i -> i % 3,
+            LongCollector.summing()));
+        assertEquals(LongStreamEx.range(2000).boxed().groupingBy(i -> i % 3, Collectors.summingLong(i -> i)), sums);
+    }
+
     @Test
     public void testAsCollector() {
         assertEquals(10000499500l, (long) LongStream.range(10000000, 10001000).boxed().collect(LongCollector.summing()));
@@ -578,4 +578,37 @@ public class LongStreamExTest {
         assertArrayEquals(new long[] {1, 2, 3, 4, 20000000000L}, scannerLongs(sc).stream().toArray());
         assertEquals("test", sc.next());
     }
+
+    @Test
+    public void testMergeSorted() {
+        assertArrayEquals(new long[] {}, LongStreamEx.mergeSorted().toArray());
+        assertArrayEquals(new long[] { 1, 1, 2, 3, 5, 8, 13 }, LongStreamEx.mergeSorted(LongStreamEx.of(1, 3, 13),
+            LongStream.of(1, 2, 5, 8)).toArray());
+        AtomicInteger closed = new AtomicInteger();
+        LongStreamEx merged = LongStreamEx.mergeSorted(LongStream.of(2).onClose(closed::incrementAndGet), LongStreamEx.of(1));
+        assertEquals(1, merged.findFirst().getAsLong());
+        merged.close();
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    public void testReversed() {
+        long[] input = { 1, 2, 3, 5, 8 };
+        assertArrayEquals(new long[] { 8, 5, 3, 2, 1 }, LongStreamEx.ofReversed(input).toArray());
+        assertArrayEquals(new long[] { 8, 5, 3, 2, 1 }, LongStreamEx.ofReversed(input).parallel().toArray());
+        assertArrayEquals(input, LongStreamEx.ofReversed(input).reversed().toArray());
+        assertArrayEquals(new long[] { 8, 5, 3, 2, 1 }, LongStreamEx.of(input).reversed().toArray());
+        assertArrayEquals(new long[] { 16, 10, 6, 4, 2 }, LongStreamEx.of(input).parallel().map(x -> x * 2).reversed()
+                .toArray());
+        assertArrayEquals(new long[] {}, LongStreamEx.ofReversed(new long[0]).reversed().toArray());
+    }
+
+    @Test
+    public void testZipWith() {
+        assertArrayEquals(new long[] { 10, 40, 90 }, LongStreamEx.of(1, 2, 3).zipWith(LongStream.iterate(10, x -> x
+            + 10), (a, b) -> a * b).toArray());
+        assertArrayEquals(LongStreamEx.range(5000).map(x -> x * 3).toArray(), LongStreamEx.of(LongStreamEx.range(5000)
+                .iterator()).parallel().zipWith(LongStreamEx.range(0, 10000, 2), Long::sum).toArray());
+    }
 }
+
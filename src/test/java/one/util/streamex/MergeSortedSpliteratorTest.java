@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class MergeSortedSpliteratorTest {
+    @SuppressWarnings("unchecked")
+    private static <T> Spliterator<T>[] sources(List<List<T>> lists) {
+        return StreamEx.of(lists).map(List::spliterator).toArray(Spliterator[]::new);
+    }
+
+    @Test
+    public void testSpliterator() {
+        Random r = new Random(1);
+        for (int n : new int[] { 0, 1, 2, 3, 10 }) {
+            List<List<Integer>> lists = new ArrayList<>();
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                List<Integer> list = IntStreamEx.of(r, r.nextInt(20), 0, 50).sorted().boxed().toList();
+                lists.add(list);
+                expected.addAll(list);
+            }
+            expected.sort(null);
+            checkSpliterator(String.valueOf(n), expected, () -> new MergeSortedSpliterator.OfRef<>(sources(lists),
+                    Comparator.naturalOrder()));
+            checkSpliterator(String.valueOf(n), expected, () -> new MergeSortedSpliterator.OfInt(StreamEx.of(lists)
+                    .map(list -> IntStreamEx.of(list).spliterator()).toArray(Spliterator.OfInt[]::new)));
+            checkSpliterator(String.valueOf(n), StreamEx.of(expected).map(Long::valueOf).toList(),
+                () -> new MergeSortedSpliterator.OfLong(StreamEx.of(lists).map(
+                    list -> LongStreamEx.of(list.stream().mapToLong(x -> x)).spliterator()).toArray(
+                    Spliterator.OfLong[]::new)));
+        }
+    }
+
+    @Test
+    public void testStable() {
+        List<List<String>> lists = Arrays.asList(Arrays.asList("a1", "b1", "c1"), Arrays.asList("a2", "c2"), Arrays
+                .asList("b3", "c3"));
+        checkSpliterator("stable", Arrays.asList("a1", "a2", "b1", "b3", "c1", "c2", "c3"),
+            () -> new MergeSortedSpliterator.OfRef<>(sources(lists), Comparator.comparing(s -> s.charAt(0))));
+    }
+}
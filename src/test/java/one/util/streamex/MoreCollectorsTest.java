@@ -33,6 +33,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Map.Entry;
@@ -375,6 +376,26 @@ public class MoreCollectorsTest {
         checkShortCircuitCollector("by200", new BooleanMap<>(Optional.empty(), Optional.of(1)), 99, supplier, by200);
     }
 
+    @Test
+    public void testMappingToPrimitive() {
+        List<String> input = asList("a", "bb", "ccc", "dd", "e", "fff", "gg");
+        Map<Integer, Integer> expectedInt = new HashMap<>();
+        expectedInt.put(1, 2);
+        expectedInt.put(2, 6);
+        expectedInt.put(3, 6);
+        checkCollector("int", expectedInt, input::stream, Collectors.groupingBy(String::length, MoreCollectors
+                .mappingToInt(String::length, IntCollector.summing())));
+        checkCollector("long", 14_000_000_000L, input::stream, MoreCollectors.mappingToLong(
+            s -> s.length() * 1_000_000_000L, LongCollector.summing()));
+        Map<Boolean, OptionalDouble> expectedDouble = new HashMap<>();
+        expectedDouble.put(false, OptionalDouble.of(2.0));
+        expectedDouble.put(true, OptionalDouble.of(2.0));
+        checkCollector("double", expectedDouble, input::stream, Collectors.partitioningBy(s -> s.charAt(0) < 'd',
+            MoreCollectors.mappingToDouble(String::length, DoubleCollector.averaging())));
+        checkCollector("counting", EntryStream.of(1, 2L, 2, 3L, 3, 2L).toMap(), input::stream, Collectors.groupingBy(
+            String::length, MoreCollectors.mappingToInt(String::length, IntCollector.counting())));
+    }
+
     @Test
     public void testMapping() {
         List<String> input = asList("Capital", "lower", "Foo", "bar");
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class MultiZipSpliteratorTest {
+    @SuppressWarnings("unchecked")
+    private static Spliterator<Integer>[] sources(Spliterator<?>... spliterators) {
+        return (Spliterator<Integer>[]) spliterators;
+    }
+
+    @Test
+    public void testSpliterator() {
+        List<List<Integer>> expected = IntStreamEx.range(1500).mapToObj(i -> Arrays.asList(i, i * 2, -i)).toList();
+        checkSpliterator("sized", expected, () -> new MultiZipSpliterator<>(sources(IntStreamEx.range(1500)
+                .spliterator(), IntStreamEx.range(0, 3000, 2).spliterator(), IntStreamEx.range(0, -2000, -1)
+                .spliterator())));
+        checkSpliterator("uneven", expected, () -> new MultiZipSpliterator<>(sources(IntStreamEx.range(1500)
+                .spliterator(), IntStreamEx.range(0, 100, 2).append(IntStreamEx.range(100, 3000, 2)).spliterator(),
+            IntStreamEx.range(0, -1500, -1).spliterator())));
+        checkSpliterator("unknown", expected, () -> new MultiZipSpliterator<>(sources(IntStreamEx.range(1500)
+                .spliterator(), Spliterators.spliteratorUnknownSize(IntStreamEx.range(0, 3000, 2).iterator(),
+            Spliterator.ORDERED), IntStreamEx.range(0, -2000, -1).spliterator())));
+        checkSpliterator("single", IntStreamEx.range(100).mapToObj(Arrays::asList).toList(),
+            () -> new MultiZipSpliterator<>(sources(IntStreamEx.range(100).spliterator())));
+    }
+
+    @Test
+    public void testCharacteristics() {
+        Spliterator<List<Integer>> spltr = new MultiZipSpliterator<>(sources(IntStreamEx.range(100).spliterator(),
+            IntStreamEx.range(30).spliterator()));
+        assertTrue(spltr.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED
+            | Spliterator.NONNULL));
+        assertEquals(30, spltr.getExactSizeIfKnown());
+        spltr = new MultiZipSpliterator<>(sources(IntStreamEx.range(100).spliterator(), Spliterators
+                .spliteratorUnknownSize(IntStreamEx.range(3000).iterator(), Spliterator.ORDERED)));
+        assertFalse(spltr.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(100, spltr.estimateSize());
+        Spliterator<List<Integer>> prefix = spltr.trySplit();
+        assertEquals(100, prefix.getExactSizeIfKnown());
+        assertNull(spltr.trySplit());
+        assertFalse(spltr.tryAdvance(x -> fail(x.toString())));
+    }
+
+    @Test
+    public void testMisaligned() {
+        MultiZipSpliterator<Integer> spltr = new MultiZipSpliterator<>(sources(IntStreamEx.range(10000)
+                .spliterator(), IntStreamEx.range(10).append(IntStreamEx.range(10, 10000)).spliterator()));
+        assertNotNull(spltr.trySplit());
+        Spliterator<Integer>[] sources = spltr.sources.clone();
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(spltr.trySplit());
+            // the sources are not wrapped again
+            assertArrayEquals(sources, spltr.sources);
+        }
+        spltr.forEachRemaining(list -> assertEquals(list.get(0), list.get(1)));
+    }
+}
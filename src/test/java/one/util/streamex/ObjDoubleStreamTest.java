@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class ObjDoubleStreamTest {
+    private static final double EPS = 1e-9;
+
+    private static final List<String> items = Arrays.asList("tea:2.5", "cake:4.25", "tea:3.0", "milk:1.2",
+        "cake:3.75", "water:0.0", "soda:-0.0", "gift:NaN");
+
+    private static String name(String item) {
+        return item.substring(0, item.indexOf(':'));
+    }
+
+    private static double price(String item) {
+        return Double.parseDouble(item.substring(item.indexOf(':') + 1));
+    }
+
+    @Test
+    public void testSorted() {
+        streamEx(items::stream, s -> {
+            // Double.compare order: -0.0 before 0.0 and NaN after everything
+            assertEquals(Arrays.asList("soda", "water", "milk", "tea", "tea", "cake", "cake", "gift"), s.get()
+                    .mapToDoubleValue(ObjDoubleStreamTest::name, ObjDoubleStreamTest::price).sortedByValue().keys()
+                    .toList());
+            assertEquals(Arrays.asList("gift", "cake", "cake", "tea", "tea", "milk", "water", "soda"), s.get()
+                    .mapToDoubleValue(ObjDoubleStreamTest::name, ObjDoubleStreamTest::price).reverseSortedByValue()
+                    .keys().toList());
+        });
+    }
+
+    @Test
+    public void testSum() {
+        streamEx(items::stream, s -> {
+            assertTrue(Double.isNaN(s.get().mapToDoubleValue(ObjDoubleStreamTest::price).sum()));
+            assertEquals(14.7, s.get().mapToDoubleValue(ObjDoubleStreamTest::price).filterValues(p -> !Double.isNaN(
+                p)).sum(), EPS);
+            assertEquals(8.0, s.get().mapToDoubleValue(ObjDoubleStreamTest::name, ObjDoubleStreamTest::price)
+                    .filterKeys("cake"::equals).sum(), EPS);
+        });
+    }
+
+    @Test
+    public void testToMap() {
+        streamEx(items::stream, s -> {
+            Map<String, Double> max = s.get().mapToDoubleValue(ObjDoubleStreamTest::name, ObjDoubleStreamTest::price)
+                    .filterValues(p -> p > 0).toMap(Math::max);
+            assertEquals(EntryStream.of("tea", 3.0, "cake", 4.25, "milk", 1.2).toMap(), max);
+            // the summed prices are exact binary fractions, so the sums are exact
+            Map<String, Double> total = s.get().mapToDoubleValue(ObjDoubleStreamTest::name,
+                ObjDoubleStreamTest::price).filterValues(p -> !Double.isNaN(p)).toMap(Double::sum);
+            assertEquals(EntryStream.of("tea", 5.5, "cake", 8.0, "milk", 1.2, "water", 0.0, "soda", -0.0).toMap(),
+                total);
+            checkIllegalStateException(() -> s.get().mapToDoubleValue(ObjDoubleStreamTest::name,
+                ObjDoubleStreamTest::price).filterKeys("tea"::equals).toMap(), "tea", "2.5", "3.0");
+        });
+        assertEquals(EntryStream.of("tea", 2.5, "cake", 4.25).toList(), StreamEx.of(items).mapToDoubleValue(
+            ObjDoubleStreamTest::name, ObjDoubleStreamTest::price).boxed().limit(2).toList());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class ObjIntStreamTest {
+    private static final List<String> words = Arrays.asList("apple", "fig", "avocado", "kiwi", "banana", "cherry",
+        "date", "blueberry");
+
+    @Test
+    public void testFilterAndSort() {
+        streamEx(words::stream, s -> {
+            assertEquals(Arrays.asList("fig", "kiwi", "date"), s.get().mapToIntValue(String::length).filterValues(
+                len -> len < 5).keys().toList());
+            assertArrayEquals(new int[] { 5, 7, 6, 9 }, s.get().mapToIntValue(String::length).filterKeys(
+                w -> w.charAt(0) < 'c').values().toArray());
+            // stable: the words of equal length keep the source order
+            assertEquals(Arrays.asList("fig", "kiwi", "date", "apple", "banana", "cherry", "avocado", "blueberry"), s
+                    .get().mapToIntValue(String::length).sortedByValue().keys().toList());
+            assertEquals(Arrays.asList("blueberry", "avocado", "banana", "cherry", "apple", "kiwi", "date", "fig"), s
+                    .get().mapToIntValue(String::length).reverseSortedByValue().keys().toList());
+            assertEquals(44, s.get().mapToIntValue(String::length).sum());
+        });
+        assertEquals(Integer.MIN_VALUE, StreamEx.of(Integer.MAX_VALUE, 1).mapToIntValue(x -> x).sum());
+    }
+
+    @Test
+    public void testGroupingByFirstLetter() {
+        Map<Character, Integer> expected = new HashMap<>();
+        expected.put('a', 12);
+        expected.put('b', 15);
+        expected.put('c', 6);
+        expected.put('d', 4);
+        expected.put('f', 3);
+        expected.put('k', 4);
+        streamEx(words::stream, s -> {
+            assertEquals(expected, s.get().mapToIntValue(w -> w.charAt(0), String::length).toMap(Integer::sum));
+            assertEquals(9, s.get().mapToIntValue(w -> w.charAt(0), String::length).toMap(Math::max).get('b')
+                    .intValue());
+            checkIllegalStateException(() -> s.get().mapToIntValue(w -> w.charAt(0), String::length).filterKeys(
+                c -> c == 'a').toMap(), "a", "5", "7");
+        });
+        Map<Integer, Integer> counts = IntStreamEx.range(10000).boxed().parallel().mapToIntValue(x -> x % 3, x -> 1)
+                .toMap(Integer::sum);
+        assertEquals(Arrays.asList(3334, 3333, 3333), StreamEx.of(0, 1, 2).map(counts::get).toList());
+    }
+
+    @Test
+    public void testToMap() {
+        streamEx(words::stream, s -> {
+            Map<String, Integer> lengths = s.get().mapToIntValue(String::length).toMap();
+            assertEquals(words.size(), lengths.size());
+            assertEquals(9, lengths.get("blueberry").intValue());
+            lengths.put("grape", 5);
+            assertEquals(EntryStream.of("apple", 5, "fig", 3).toList(), s.get().mapToIntValue(String::length).boxed()
+                    .limit(2).toList());
+        });
+    }
+
+    @Test
+    public void testParallelAndClose() {
+        assertTrue(StreamEx.of(words).mapToIntValue(String::length).parallel().isParallel());
+        assertFalse(StreamEx.of(words).parallel().mapToIntValue(String::length).sequential().isParallel());
+        AtomicBoolean closed = new AtomicBoolean();
+        try (ObjIntStream<String> s = StreamEx.of(words).onClose(() -> closed.set(true)).mapToIntValue(
+            String::length)) {
+            assertEquals(44, s.sum());
+        }
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class ObjLongStreamTest {
+    private static final List<String> runs = Arrays.asList("a", "a", "b", "a", "a", "a", "c", "c");
+
+    @Test
+    public void testRunLengths() {
+        streamEx(runs::stream, s -> {
+            assertEquals(Arrays.asList("a", "b", "a", "c"), s.get().runLengthsToLong().keys().toList());
+            assertArrayEquals(new long[] { 2, 1, 3, 2 }, s.get().runLengthsToLong().values().toArray());
+            assertEquals(EntryStream.of("a", 5L, "b", 1L, "c", 2L).toMap(), s.get().runLengthsToLong().toMap(
+                Long::sum));
+            assertEquals(Arrays.asList("a", "a", "c"), s.get().runLengthsToLong().filterValues(n -> n > 1)
+                    .reverseSortedByValue().keys().toList());
+            checkIllegalStateException(() -> s.get().runLengthsToLong().toMap(), "a", "2", "3");
+        });
+        streamEx(() -> StreamEx.of(runs).sorted(), s -> assertEquals(s.get().groupingBy(Function.identity(),
+            Collectors.counting()), s.get().runLengthsToLong().toMap()));
+    }
+
+    @Test
+    public void testBeyondIntRange() {
+        List<Integer> ids = Arrays.asList(3, 1, 2, 1);
+        long giga = 1_000_000_000L;
+        streamEx(ids::stream, s -> {
+            assertEquals(7 * giga, s.get().mapToLongValue(id -> id * giga).sum());
+            // 2^32 would become 0 and sort last if the values were truncated to int
+            assertEquals(Arrays.asList(2, 3, 1, 1), s.get().mapToLongValue(id -> id == 2 ? 1L << 32 : id)
+                    .reverseSortedByValue().keys().toList());
+            Map<Integer, Long> max = s.get().mapToLongValue(id -> id * giga).filterKeys(id -> id < 3).toMap(
+                Long::max);
+            assertEquals(EntryStream.of(1, giga, 2, 2 * giga).toMap(), max);
+        });
+    }
+
+    @Test
+    public void testRunLengthsOfLongRuns() {
+        Map<Boolean, Long> counts = IntStreamEx.range(1_000_000).boxed().parallel().map(x -> x < 300_000)
+                .runLengthsToLong().toMap(Long::sum);
+        assertEquals(EntryStream.of(true, 300_000L, false, 700_000L).toMap(), counts);
+    }
+}
@@ -16,6 +16,7 @@
 package one.util.streamex;
 
 import java.util.Spliterator;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
@@ -51,4 +52,21 @@ public class PrependSpliteratorTest {
         spltr.tryAdvance(x -> assertEquals(0, (int)x));
         assertTrue(spltr.hasCharacteristics(Spliterator.SORTED));
     }
+
+    @Test
+    public void testFlatten() {
+        Spliterator<Integer> spltr = PrependSpliterator.prepend(IntStream.range(2, 100).boxed().spliterator(), 1);
+        assertTrue(spltr instanceof PrependSpliterator);
+        spltr = PrependSpliterator.prepend(spltr, 0);
+        assertTrue(spltr instanceof TailConcatSpliterator);
+        assertEquals(100, spltr.getExactSizeIfKnown());
+        Supplier<Spliterator<Integer>> supplier = () -> {
+            Spliterator<Integer> s = IntStream.range(50, 100).boxed().spliterator();
+            for (int i = 49; i >= 0; i--) {
+                s = PrependSpliterator.prepend(s, i);
+            }
+            return s;
+        };
+        checkSpliterator("flatten", IntStreamEx.range(100).boxed().toList(), supplier);
+    }
 }
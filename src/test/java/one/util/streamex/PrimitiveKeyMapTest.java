@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class PrimitiveKeyMapTest {
+    @Test
+    public void testBasics() {
+        PrimitiveKeyMap<String> map = new PrimitiveKeyMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            long key = r.nextInt(3000) * (1L << 33);
+            String value = String.valueOf(i);
+            assertEquals(expected.computeIfAbsent(key, k -> value), map.computeIfAbsent(key, () -> value));
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map.asLongMap());
+        assertEquals(expected.get(0L), map.get(0));
+        assertNull(map.get(1));
+        map.put(1, "one");
+        assertEquals("one", map.get(1));
+        map.put(1, "uno");
+        assertEquals("uno", map.get(1));
+    }
+
+    @Test
+    public void testMerge() {
+        for (int[] sizes : new int[][] { { 10, 1000 }, { 1000, 10 }, { 0, 5 }, { 5, 0 } }) {
+            PrimitiveKeyMap<List<Integer>> left = new PrimitiveKeyMap<>();
+            PrimitiveKeyMap<List<Integer>> right = new PrimitiveKeyMap<>();
+            Map<Integer, List<Integer>> expected = new HashMap<>();
+            for (int i = 0; i < sizes[0]; i++) {
+                left.computeIfAbsent(i % 50, ArrayList::new).add(i);
+                expected.computeIfAbsent(i % 50, k -> new ArrayList<>()).add(i);
+            }
+            for (int i = 0; i < sizes[1]; i++) {
+                right.computeIfAbsent(i % 70, ArrayList::new).add(-i);
+                expected.computeIfAbsent(i % 70, k -> new ArrayList<>()).add(-i);
+            }
+            left.merge(right, List::addAll);
+            assertEquals(expected, left.asIntMap());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        PrimitiveKeyMap<String> map = new PrimitiveKeyMap<>();
+        map.put(1, "a");
+        map.asIntMap().remove(1);
+    }
+}
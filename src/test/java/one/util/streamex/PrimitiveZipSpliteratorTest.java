@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class PrimitiveZipSpliteratorTest {
+    @Test
+    public void testSpliterator() {
+        List<Integer> expected = IntStreamEx.range(2000).map(x -> x * 3 + 1).boxed().toList();
+        checkSpliterator("even", expected, () -> new PrimitiveZipSpliterator.OfInt(IntStreamEx.range(2000)
+                .spliterator(), IntStreamEx.range(1, 4001, 2).spliterator(), (a, b) -> a + b));
+        checkSpliterator("uneven", expected, () -> new PrimitiveZipSpliterator.OfInt(IntStreamEx.range(2000)
+                .spliterator(), IntStreamEx.range(1, 700, 2).append(IntStreamEx.range(701, 5001, 2)).spliterator(),
+                (a, b) -> a + b));
+        checkSpliterator("unknown", expected, () -> new PrimitiveZipSpliterator.OfInt(Spliterators
+                .spliteratorUnknownSize(IntStreamEx.range(2000).iterator(), Spliterator.ORDERED), IntStreamEx.range(1,
+            4001, 2).spliterator(), (a, b) -> a + b));
+        checkSpliterator("long", LongStreamEx.range(1000).boxed().toList(), () -> new PrimitiveZipSpliterator.OfLong(
+                LongStreamEx.range(1000).spliterator(), Spliterators.spliteratorUnknownSize(LongStreamEx.range(2000)
+                        .iterator(), Spliterator.ORDERED), Math::min));
+        checkSpliterator("double", DoubleStreamEx.constant(1.5, 1500).boxed().toList(),
+            () -> new PrimitiveZipSpliterator.OfDouble(DoubleStreamEx.constant(0.5, 1500).spliterator(), DoubleStreamEx
+                    .constant(1.0, 1600).spliterator(), Double::sum));
+    }
+
+    @Test
+    public void testCharacteristics() {
+        Spliterator.OfInt spltr = new PrimitiveZipSpliterator.OfInt(IntStreamEx.range(100).spliterator(), IntStreamEx
+                .of(new int[50]).spliterator(), (a, b) -> a);
+        assertTrue(spltr.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertFalse(spltr.hasCharacteristics(Spliterator.SORTED));
+        assertEquals(50, spltr.getExactSizeIfKnown());
+        spltr = new PrimitiveZipSpliterator.OfInt(Spliterators.spliteratorUnknownSize(IntStreamEx.range(3000)
+                .iterator(), Spliterator.ORDERED), IntStreamEx.range(3000).spliterator(), (a, b) -> a);
+        assertFalse(spltr.hasCharacteristics(Spliterator.SIZED));
+        Spliterator.OfInt prefix = spltr.trySplit();
+        assertEquals(1024, prefix.getExactSizeIfKnown());
+        assertTrue(prefix.hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED));
+    }
+
+    @Test
+    public void testMisaligned() {
+        PrimitiveZipSpliterator.OfInt spltr = new PrimitiveZipSpliterator.OfInt(IntStreamEx.range(10000)
+                .spliterator(), IntStreamEx.range(10).append(IntStreamEx.range(10, 10000)).spliterator(), (a, b) -> a
+            - b);
+        assertNotNull(spltr.trySplit());
+        Spliterator.OfInt left = spltr.left, right = spltr.right;
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(spltr.trySplit());
+            // the sources are not wrapped again
+            assertSame(left, spltr.left);
+            assertSame(right, spltr.right);
+        }
+        spltr.forEachRemaining((int x) -> assertEquals(0, x));
+    }
+}
@@ -16,9 +16,11 @@
 package one.util.streamex;
 
 import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
 
 import one.util.streamex.IntStreamEx;
 import one.util.streamex.LongStreamEx;
@@ -100,4 +102,68 @@ public class RangeBasedSpliteratorTest {
         double[] b = LongStreamEx.range(10, 20).asDoubleStream().toArray();
         checkSpliterator("zipDouble", () -> new RangeBasedSpliterator.ZipDouble(0, 10, (x, y) -> x * y, a, b));
     }
+
+    @Test
+    public void testReverse() {
+        List<Integer> reversed = IntStreamEx.range(10).map(x -> 9 - x).boxed().toList();
+        checkSpliterator("reverseRef", reversed, () -> new RangeBasedSpliterator.ReverseRef<>(list10));
+        checkSpliterator("reverseInt", reversed, () -> new RangeBasedSpliterator.ReverseInt(IntStreamEx.range(10)
+                .toArray()));
+        checkSpliterator("reverseLong", StreamEx.of(reversed).map(Long::valueOf).toList(),
+            () -> new RangeBasedSpliterator.ReverseLong(LongStreamEx.range(10).toArray()));
+        checkSpliterator("reverseDouble", StreamEx.of(reversed).map(Double::valueOf).toList(),
+            () -> new RangeBasedSpliterator.ReverseDouble(IntStreamEx.range(10).asDoubleStream().toArray()));
+        checkSpliterator("reverseRef.reverse", list10, () -> new RangeBasedSpliterator.ReverseRef<>(list10)
+                .reverse());
+        checkSpliterator("reverseRef.asList", reversed, () -> new RangeBasedSpliterator.ReverseRef<>(list10)
+                .asList().spliterator());
+    }
+
+    @Test
+    public void testForward() {
+        checkSpliterator("forwardRef", list10, () -> new RangeBasedSpliterator.ForwardRef<>(list10));
+        checkSpliterator("forwardRef", list10.subList(2, 7), () -> new RangeBasedSpliterator.ForwardRef<>(list10, 2,
+                7));
+        checkSpliterator("forwardRef", list10.subList(2, 7), () -> new RangeBasedSpliterator.ForwardRef<>(list10
+                .toArray(new Integer[0]), 2, 7));
+        checkSpliterator("forwardInt", list10, () -> new RangeBasedSpliterator.ForwardInt(0, 10, IntStreamEx.range(10)
+                .toArray()));
+        checkSpliterator("forwardLong", LongStreamEx.range(10).boxed().toList(),
+            () -> new RangeBasedSpliterator.ForwardLong(0, 10, LongStreamEx.range(10).toArray()));
+        checkSpliterator("forwardDouble", () -> new RangeBasedSpliterator.ForwardDouble(3, 8, IntStreamEx.range(10)
+                .asDoubleStream().toArray()));
+        checkSpliterator("forwardRef.reverse", list10.subList(3, 5), () -> new RangeBasedSpliterator.ReverseRef<>(
+                list10, 3, 5).reverse());
+        checkSpliterator("forwardInt.reverse", Arrays.asList(6, 5, 4, 3), () -> new RangeBasedSpliterator.ForwardInt(3,
+                7, IntStreamEx.range(10).toArray()).reverse());
+    }
+
+    @Test
+    public void testSlice() {
+        List<Integer> reversed = IntStreamEx.range(10).map(x -> 9 - x).boxed().toList();
+        checkSpliterator("slice", reversed.subList(2, 7), () -> {
+            RangeBasedSpliterator.ReverseRef<Integer> spltr = new RangeBasedSpliterator.ReverseRef<>(list10);
+            spltr.skip(2);
+            spltr.limit(5);
+            return spltr;
+        });
+        checkSpliterator("slice", () -> {
+            RangeBasedSpliterator.ZipInt spltr = new RangeBasedSpliterator.ZipInt(0, 10, Integer::sum, new int[10],
+                    new int[10]);
+            spltr.limit(100);
+            spltr.skip(100);
+            return spltr;
+        });
+
+        // skip and limit are applied to the source in place
+        assertTrue(StreamEx.ofSubLists(list10, 2).skip(1).limit(2).spliterator() instanceof RangeBasedSpliterator);
+        assertEquals(Arrays.asList(Arrays.asList(2, 3), Arrays.asList(4, 5)), StreamEx.ofSubLists(list10, 2).skip(1)
+                .limit(2).toList());
+        assertEquals(Arrays.asList(7, 6, 5), StreamEx.ofReversed(list10).skipOrdered(2).limit(3).parallel().toList());
+        assertEquals("765", StreamEx.ofReversed(list10).skip(2).limit(3).foldRight("", (x, acc) -> x + acc));
+        assertArrayEquals(new long[] { 7, 6 }, LongStreamEx.ofReversed(LongStreamEx.range(10).toArray()).skip(2)
+                .limit(2).toArray());
+        assertArrayEquals(new double[] { 2, 3 }, DoubleStreamEx.ofReversed(new double[] { 3, 2, 1, 0 }).skip(2)
+                .toArray(), 0.0);
+    }
 }
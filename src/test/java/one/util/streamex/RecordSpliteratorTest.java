@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Tagir Valeev
+ */
+public class RecordSpliteratorTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static String str(ByteBuffer buf) {
+        return StandardCharsets.US_ASCII.decode(buf).toString();
+    }
+
+    private Path write(byte[] data) throws IOException {
+        Path path = tmp.newFile().toPath();
+        Files.write(path, data);
+        return path;
+    }
+
+    private void checkDelimited(String content, long window) throws IOException {
+        Path path = write(content.getBytes(StandardCharsets.US_ASCII));
+        List<String> expected = content.isEmpty() ? Collections.emptyList() : Arrays.asList(content.split(",", -1));
+        if (content.endsWith(","))
+            expected = expected.subList(0, expected.size() - 1);
+        ByteBuffer[] chunks = RecordSpliterator.mapDelimited(path, (byte) ',', window);
+        checkSpliterator(content.length() + "/" + window, expected, () -> new MappingSpliterator(
+                new RecordSpliterator.OfDelimited(chunks, (byte) ',')));
+    }
+
+    @Test
+    public void testDelimited() throws IOException {
+        checkDelimited("", RecordSpliterator.MAX_WINDOW);
+        checkDelimited(",", RecordSpliterator.MAX_WINDOW);
+        checkDelimited("a,,b,", RecordSpliterator.MAX_WINDOW);
+        String input = IntStreamEx.range(1000).mapToObj(i -> i % 7 == 0 ? "" : "rec" + i).joining(",");
+        checkDelimited(input, RecordSpliterator.MAX_WINDOW);
+        checkDelimited(input, 20);
+        checkDelimited(input + ",", 21);
+        checkDelimited(",," + input, 10);
+    }
+
+    @Test
+    public void testDelimitedTooLong() throws IOException {
+        Path path = write(StreamEx.constant("a", 100).joining().getBytes(StandardCharsets.US_ASCII));
+        assertEquals(1, RecordSpliterator.mapDelimited(path, (byte) ',', 100).length);
+        try {
+            RecordSpliterator.mapDelimited(path, (byte) ',', 50);
+            fail("No exception");
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFixed() throws IOException {
+        String input = IntStreamEx.range(1000).mapToObj(i -> String.format("%05d", i)).joining() + "123";
+        Path path = write(input.getBytes(StandardCharsets.US_ASCII));
+        List<String> expected = IntStreamEx.range(1000).mapToObj(i -> String.format("%05d", i)).toList();
+        for (long window : new long[] { RecordSpliterator.MAX_WINDOW, 5, 12, 100 }) {
+            ByteBuffer[] chunks = RecordSpliterator.mapFixed(path, 5, window);
+            checkSpliterator(String.valueOf(window), expected, () -> new MappingSpliterator(
+                    new RecordSpliterator.OfFixed(chunks, 5)));
+        }
+        RecordSpliterator.OfFixed spliterator = new RecordSpliterator.OfFixed(RecordSpliterator.mapFixed(path, 5,
+            RecordSpliterator.MAX_WINDOW), 5);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(1000, spliterator.getExactSizeIfKnown());
+        assertEquals(0, RecordSpliterator.mapFixed(write(new byte[3]), 5, RecordSpliterator.MAX_WINDOW).length);
+        try {
+            RecordSpliterator.mapFixed(path, 0, RecordSpliterator.MAX_WINDOW);
+            fail("No exception");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("recordLength = 0", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testPrimitive() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1000 * 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 1000; i++) {
+            buf.putInt(i).putLong(i * 1_000_000_000L).putInt(-i);
+        }
+        Path path = write(buf.array());
+        List<Integer> ints = IntStreamEx.range(1000).boxed().toList();
+        List<Integer> negInts = IntStreamEx.range(1000).map(i -> -i).boxed().toList();
+        List<Long> longs = LongStreamEx.range(1000).map(i -> i * 1_000_000_000L).boxed().toList();
+        for (long window : new long[] { RecordSpliterator.MAX_WINDOW, 16, 100 }) {
+            ByteBuffer[] chunks = RecordSpliterator.mapFixed(path, 16, window);
+            checkSpliterator(String.valueOf(window), ints, () -> new RecordSpliterator.OfInt(chunks, 16, 0,
+                    ByteOrder.LITTLE_ENDIAN));
+            checkSpliterator(String.valueOf(window), negInts, () -> new RecordSpliterator.OfInt(chunks, 16, 12,
+                    ByteOrder.LITTLE_ENDIAN));
+            checkSpliterator(String.valueOf(window), longs, () -> new RecordSpliterator.OfLong(chunks, 16, 4,
+                    ByteOrder.LITTLE_ENDIAN));
+        }
+        ByteBuffer[] chunks = RecordSpliterator.mapFixed(path, 16, RecordSpliterator.MAX_WINDOW);
+        try {
+            new RecordSpliterator.OfInt(chunks, 16, 13, ByteOrder.BIG_ENDIAN);
+            fail("No exception");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("offset = 13", ex.getMessage());
+        }
+        try {
+            new RecordSpliterator.OfLong(chunks, 16, -1, ByteOrder.BIG_ENDIAN);
+            fail("No exception");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("offset = -1", ex.getMessage());
+        }
+        assertEquals(Arrays.asList(0, 1 << 24), IntStreamEx.of(new RecordSpliterator.OfInt(chunks, 16, 0,
+            ByteOrder.BIG_ENDIAN)).limit(2).boxed().toList());
+    }
+
+    private static class MappingSpliterator implements Spliterator<String> {
+        private final Spliterator<ByteBuffer> source;
+
+        MappingSpliterator(Spliterator<ByteBuffer> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            return source.tryAdvance(buf -> action.accept(str(buf)));
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            Spliterator<ByteBuffer> prefix = source.trySplit();
+            return prefix == null ? null : new MappingSpliterator(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+    }
+}
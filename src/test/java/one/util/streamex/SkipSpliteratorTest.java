@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class SkipSpliteratorTest {
+    @Test
+    public void testSpliterator() {
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        double[] doubles = DoubleStream.iterate(0, x -> x + 1).limit(1000).toArray();
+        for (int n : new int[] { 0, 1, 2, 100, 511, 512, 513, 999, 1000, 1001, Integer.MAX_VALUE }) {
+            List<Integer> expected = input.subList(Math.min(n, input.size()), input.size());
+            checkSpliterator(String.valueOf(n), expected, () -> new SkipSpliterator.OfRef<>(input.spliterator(), n));
+            checkSpliterator(String.valueOf(n), expected, () -> new SkipSpliterator.OfInt(IntStream.range(0, 1000)
+                    .spliterator(), n));
+            checkSpliterator(String.valueOf(n), StreamEx.of(expected).map(Long::valueOf).toList(),
+                () -> new SkipSpliterator.OfLong(LongStream.range(0, 1000).spliterator(), n));
+            checkSpliterator(String.valueOf(n), StreamEx.of(expected).map(Double::valueOf).toList(),
+                () -> new SkipSpliterator.OfDouble(Arrays.spliterator(doubles), n));
+        }
+    }
+
+    @Test
+    public void testCharacteristics() {
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        SkipSpliterator<Integer, Spliterator<Integer>> spliterator = new SkipSpliterator.OfRef<>(input.spliterator(),
+                300);
+        assertEquals(700, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(700, prefix.estimateSize() + spliterator.estimateSize());
+        assertEquals(500, spliterator.estimateSize());
+        assertTrue(prefix.tryAdvance(x -> assertEquals(300, x.intValue())));
+    }
+
+    @Test
+    public void testSkipOrdered() {
+        AtomicInteger visited = new AtomicInteger();
+        assertEquals(IntStreamEx.range(999_990, 1_000_000).boxed().toList(), IntStreamEx.range(1_000_000).boxed()
+                .parallel().peek(x -> visited.incrementAndGet()).skipOrdered(999_990).toList());
+        assertTrue(visited.get() < 1000);
+        assertTrue(StreamEx.of(input()).parallel().skipOrdered(10).spliterator().hasCharacteristics(
+            Spliterator.SUBSIZED));
+        assertEquals(90, StreamEx.of(input()).parallel().skipOrdered(10).count());
+        assertArrayEquals(IntStreamEx.range(10, 100).toArray(), IntStreamEx.range(100).parallel().skipOrdered(10)
+                .toArray());
+        assertArrayEquals(LongStreamEx.range(10, 100).toArray(), LongStreamEx.range(100).parallel().skipOrdered(10)
+                .toArray());
+        assertArrayEquals(IntStreamEx.range(10, 100).asDoubleStream().toArray(), IntStreamEx.range(100)
+                .asDoubleStream().parallel().skipOrdered(10).toArray(), 0.0);
+        assertEquals(0, IntStreamEx.range(100).parallel().skipOrdered(1000).count());
+    }
+
+    private static List<Integer> input() {
+        return IntStreamEx.range(100).boxed().toList();
+    }
+}
@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.AbstractList;
@@ -31,6 +33,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -145,6 +148,35 @@ public class StreamExTest {
         assertEquals(input, StreamEx.ofLines(f.toPath()).toList());
         Files.write(f.toPath(), input, StandardCharsets.UTF_16);
         assertEquals(input, StreamEx.ofLines(f.toPath(), StandardCharsets.UTF_16).toList());
+        List<String> longInput = IntStreamEx.range(10000).mapToObj(String::valueOf).toList();
+        Files.write(f.toPath(), longInput);
+        try (StreamEx<String> lines = StreamEx.ofLines(f.toPath())) {
+            assertEquals(longInput, lines.parallel().toList());
+        }
+        try (StreamEx<String> lines = StreamEx.ofLines(f.toPath(), StandardCharsets.ISO_8859_1)) {
+            assertEquals(longInput, lines.toList());
+        }
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        File f = tmp.newFile();
+        Files.write(f.toPath(), "a;bb;;ccc;".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(asList("a", "bb", "", "ccc"), StreamEx.ofRecords(f.toPath(), (byte) ';').map(
+            StandardCharsets.US_ASCII::decode).map(CharSequence::toString).toList());
+        List<String> input = IntStreamEx.range(10000).mapToObj(i -> String.format("%06d", i)).toList();
+        Files.write(f.toPath(), String.join("", input).getBytes(StandardCharsets.US_ASCII));
+        assertEquals(input, StreamEx.ofFixedRecords(f.toPath(), 6).parallel().map(StandardCharsets.US_ASCII::decode)
+                .map(CharSequence::toString).toList());
+        assertEquals(input.size(), StreamEx.ofFixedRecords(f.toPath(), 4).parallel().count() * 4 / 6);
+
+        ByteBuffer buf = ByteBuffer.allocate(12 * 1000);
+        for (int i = 0; i < 1000; i++) {
+            buf.putInt(i).putLong(-i);
+        }
+        Files.write(f.toPath(), buf.array());
+        assertEquals(499500, IntStreamEx.ofFixedRecords(f.toPath(), 12, 0, ByteOrder.BIG_ENDIAN).parallel().sum());
+        assertEquals(-499500, LongStreamEx.ofFixedRecords(f.toPath(), 12, 4, ByteOrder.BIG_ENDIAN).parallel().sum());
     }
 
     private Reader getReader() {
@@ -246,6 +278,20 @@ public class StreamExTest {
         list2.add(7);
         list.addAll(list2);
         assertEquals(asList(1, 2, 3, 4, 5, 6, 7), list);
+
+        // sized and distinct sources take the presizing path
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        List<Integer> copy = StreamEx.of(input).toList();
+        copy.add(1000);
+        assertEquals(IntStreamEx.rangeClosed(0, 1000).boxed().toList(), copy);
+        Set<Integer> set = StreamEx.of(new HashSet<>(input)).toSet();
+        set.add(-1);
+        assertEquals(1001, set.size());
+        assertEquals(new HashSet<>(input), StreamEx.of(input).append(input).toSet());
+        Map<Integer, Integer> map = StreamEx.of(input).toMap(x -> x * 2);
+        assertEquals(1000, map.size());
+        assertEquals(Integer.valueOf(1998), map.get(999));
+        assertEquals(map, EntryStream.of(input).invert().mapValues(x -> x * 2).toMap());
     }
 
     @Test
@@ -502,6 +548,61 @@ public class StreamExTest {
                 .get().toList());
     }
 
+    @Test
+    public void testPrependValueTSO() {
+        List<Integer> expected = IntStreamEx.rangeClosed(19999, 0, -1).boxed().toList();
+        StreamEx<Integer> s = StreamEx.empty();
+        for (int i = 0; i < 20000; i++) {
+            s = s.prepend(i);
+        }
+        assertEquals(expected, s.toList());
+        s = StreamEx.empty();
+        for (int i = 0; i < 20000; i++) {
+            s = s.prepend(i);
+        }
+        assertEquals(expected, s.parallel().toList());
+        EntryStream<Integer, Integer> es = EntryStream.empty();
+        for (int i = 0; i < 20000; i++) {
+            es = es.prepend(i, i);
+        }
+        assertEquals(expected, es.keys().toList());
+    }
+
+    @Test
+    public void testAppendTSO() {
+        List<Integer> expected = IntStreamEx.range(20000).boxed().toList();
+        StreamEx<Integer> s = StreamEx.empty();
+        for (int i = 0; i < 20000; i++) {
+            s = s.append(StreamEx.of(i));
+        }
+        assertEquals(expected, s.toList());
+        s = StreamEx.empty();
+        for (int i = 0; i < 20000; i++) {
+            s = s.append(StreamEx.of(i));
+        }
+        assertEquals(expected, s.parallel().toList());
+    }
+
+    @Test
+    public void testConcat() {
+        assertEquals(Collections.emptyList(), StreamEx.concat(Collections.<Stream<String>> emptyList()).toList());
+        List<Integer> expected = IntStreamEx.range(1000).boxed().toList();
+        streamEx(() -> StreamEx.concat(IntStreamEx.range(100).mapToObj(i -> IntStreamEx.range(i * 10, i * 10 + 10)
+                .boxed()).toList()), s -> assertEquals(expected, s.get().toList()));
+        streamEx(() -> StreamEx.concat(asList(Stream.of(1, 2), Stream.empty(), StreamEx.of(3).append(4), Stream.of(
+            5))), s -> assertEquals(asList(1, 2, 3, 4, 5), s.get().toList()));
+        assertEquals(1000, StreamEx.concat(IntStreamEx.range(100).mapToObj(i -> IntStreamEx.range(10).boxed())
+                .toList()).spliterator().getExactSizeIfKnown());
+
+        AtomicInteger closed = new AtomicInteger();
+        StreamEx<Integer> concat = StreamEx.concat(asList(Stream.of(1).onClose(closed::incrementAndGet), Stream.of(2)
+                .onClose(closed::incrementAndGet)));
+        assertEquals(1, concat.findFirst().get().intValue());
+        concat.close();
+        assertEquals(2, closed.get());
+        assertTrue(StreamEx.concat(asList(Stream.of(1), Stream.of(2).parallel())).isParallel());
+    }
+
     @Test
     public void testNonNull() {
         List<String> data = asList("a", null, "b");
@@ -910,6 +1011,28 @@ public class StreamExTest {
         assertEquals("[0, 1, 2];[0, 2, 1];[1, 0, 2];[1, 2, 0];[2, 0, 1];[2, 1, 0]", StreamEx.ofPermutations(3).map(
             Arrays::toString).joining(";"));
         assertEquals(720, StreamEx.ofPermutations(7).parallel().filter(i -> i[3] == 5).count());
+
+        List<String> permutations = new ArrayList<>();
+        StreamEx.forEachPermutation(3, p -> permutations.add(Arrays.toString(p)));
+        assertEquals(StreamEx.ofPermutations(3).map(Arrays::toString).toList(), permutations);
+        AtomicInteger count = new AtomicInteger();
+        StreamEx.forEachPermutation(0, p -> assertEquals(0, count.incrementAndGet() + p.length - 1));
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testCombinations() {
+        assertEquals("[]", StreamEx.ofCombinations(5, 0).map(Arrays::toString).joining(";"));
+        assertEquals("", StreamEx.ofCombinations(2, 3).map(Arrays::toString).joining(";"));
+        assertEquals("[0, 1];[0, 2];[0, 3];[1, 2];[1, 3];[2, 3]", StreamEx.ofCombinations(4, 2).map(Arrays::toString)
+                .joining(";"));
+        assertEquals(CombinationSpliterator.binomial(20, 7), StreamEx.ofCombinations(20, 7).parallel().count());
+        assertEquals(StreamEx.ofCombinations(20, 7).map(Arrays::toString).toList(), StreamEx.ofCombinations(20, 7)
+                .parallel().map(Arrays::toString).toList());
+
+        List<String> combinations = new ArrayList<>();
+        StreamEx.forEachCombination(6, 3, c -> combinations.add(Arrays.toString(c)));
+        assertEquals(StreamEx.ofCombinations(6, 3).map(Arrays::toString).toList(), combinations);
     }
 
     static class TreeNode {
@@ -970,6 +1093,23 @@ public class StreamExTest {
             assertEquals(Arrays.asList("a", "b", "aa", "ab", "ba", "bb", "aaa", "aab", "aba", "abb", "baa", "bab",
                 "bba", "bbb"), supplier.get().sortedByInt(String::length).without("").toList());
         });
+
+        Function<String, Stream<String>> mapper = str -> str.length() >= 3 ? null : Stream.of("a", "b").map(
+            str::concat);
+        streamEx(() -> StreamEx.ofTree("", 2, mapper), supplier -> assertEquals(asList("", "a", "aa", "ab", "b", "ba",
+            "bb"), supplier.get().toList()));
+        streamEx(() -> StreamEx.ofTree("", 0, mapper), supplier -> assertEquals(asList(""), supplier.get().toList()));
+        streamEx(() -> StreamEx.ofTreeBreadthFirst("", mapper), supplier -> assertEquals(asList("", "a", "b", "aa",
+            "ab", "ba", "bb", "aaa", "aab", "aba", "abb", "baa", "bab", "bba", "bbb"), supplier.get().toList()));
+        assertEquals("root,childA,childB,childC,grandA1,grandA2,grandB1", StreamEx.ofTreeBreadthFirst((TreeNode) r,
+            node -> node instanceof CompositeNode ? ((CompositeNode) node).elements() : null).joining(","));
+        // deep tree
+        assertEquals(100001, StreamEx.ofTree(0, x -> x < 100000 ? Stream.of(x + 1) : null).parallel().count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfTreeNegativeDepth() {
+        StreamEx.ofTree("", -1, str -> null);
     }
 
     @Test
@@ -1491,6 +1631,17 @@ public class StreamExTest {
 
         assertEquals(asList(Collections.emptyList()), StreamEx.cartesianProduct(Collections.emptyList()).toList());
         assertEquals(asList(Collections.emptyList()), StreamEx.cartesianPower(0, asList(1, 2, 3)).toList());
+
+        List<Integer> digits = IntStreamEx.range(10).boxed().toList();
+        streamEx(() -> StreamEx.cartesianPower(18, digits).skip(123_456_789_012_345_678L).limit(3), supplier -> {
+            assertEquals(3, supplier.get().count());
+            assertEquals("123456789012345678,123456789012345679,123456789012345680", supplier.get().map(
+                list -> StreamEx.of(list).joining()).joining(","));
+        });
+        assertEquals(5, StreamEx.cartesianPower(3, digits).skip(995).count());
+        assertEquals(asList(asList(9, 9, 9)), StreamEx.cartesianPower(3, digits).skip(999).limit(5).toList());
+        assertEquals(Collections.emptyList(), StreamEx.cartesianPower(3, digits).skip(1000).toList());
+        assertEquals(10, StreamEx.cartesianPower(3, digits).parallel().limit(10).skip(0).toList().size());
     }
 
     @Test
@@ -1511,6 +1662,10 @@ public class StreamExTest {
         assertEquals(asList(""), StreamEx.cartesianProduct(Collections.<List<String>> emptyList(), "", String::concat)
                 .toList());
         assertEquals(asList(""), StreamEx.cartesianPower(0, asList(1, 2, 3), "", (a, b) -> a + b).toList());
+
+        List<Integer> digits = IntStreamEx.range(10).boxed().toList();
+        streamEx(() -> StreamEx.cartesianPower(18, digits, "", (a, b) -> a + b).skip(999_999_999_999_999_998L),
+            supplier -> assertEquals("999999999999999998,999999999999999999", supplier.get().joining(",")));
     }
 
     @Test
@@ -1637,6 +1792,24 @@ public class StreamExTest {
         streamEx(() -> StreamEx.split("ab.cd...", "\\w"), s -> assertEquals("||.||...", s.get().joining("|")));
         streamEx(() -> StreamEx.split("ab.cd...", "\\W"), s -> assertEquals("ab|cd", s.get().joining("|")));
         streamEx(() -> StreamEx.split("ab|cd|e", "\\|"), s -> assertEquals("ab,cd,e", s.get().joining(",")));
+        streamEx(() -> StreamEx.split("ab, cd, , e, , ", ", "), s -> assertEquals("ab|cd||e", s.get().joining("|")));
+        streamEx(() -> StreamEx.split("ab.cd...", Pattern.compile(".", Pattern.LITERAL)), s -> assertEquals("ab|cd", s
+                .get().joining("|")));
+        assertTrue(StreamEx.split("ab||cd", "\\|\\|").spliterator() instanceof CharSpliterator);
+        assertTrue(StreamEx.split("ab||cd", Pattern.compile(Pattern.quote("||"))).spliterator()
+                instanceof CharSpliterator);
+
+        Random r = new Random(1);
+        repeat(10, iter -> {
+            String source = IntStreamEx.of(r, 0, 4).limit(r.nextInt(10000)).elements(new int[] { ',', ' ', 'a', 'b' })
+                    .charsToString();
+            for (String regex : asList(", ", "ab", "a\\,", "\\Qa \\E", "aa")) {
+                List<String> expected = asList(source.split(regex));
+                streamEx(() -> StreamEx.split(source, regex), s -> assertEquals(expected, s.get().toList()));
+                streamEx(() -> StreamEx.split(source, Pattern.compile(regex)), s -> assertEquals(expected, s.get()
+                        .toList()));
+            }
+        });
     }
 
     @Test
@@ -1662,6 +1835,19 @@ public class StreamExTest {
         });
     }
 
+    @Test
+    public void testSplitToViews() {
+        streamEx(() -> StreamEx.splitToViews("abcd,e,f,gh,,,i,j,kl,,,,,,", ','), s -> assertEquals(
+            "abcd|e|f|gh|||i|j|kl", s.get().joining("|")));
+        streamEx(() -> StreamEx.splitToViews("", ','), s -> assertEquals(asList(""), s.get().map(
+            CharSequence::toString).toList()));
+        streamEx(() -> StreamEx.splitToViews(",,,,,,,,,", ','), s -> assertEquals(0, s.get().count()));
+        StringBuilder source = new StringBuilder("a,bb,a,ccc,bb,a");
+        streamEx(() -> StreamEx.splitToViews(source, ','), s -> assertEquals(3, s.get().distinct().count()));
+        streamEx(() -> StreamEx.splitToViews(source, ','), s -> assertEquals(asList(1, 2, 1, 3, 2, 1), s.get().map(
+            CharSequence::length).toList()));
+    }
+
     @Test
     public void testWithFirst() {
         repeat(10, i -> {
@@ -1716,6 +1902,25 @@ public class StreamExTest {
         streamEx(() -> IntStream.range(1, Integer.MAX_VALUE).boxed(), s -> assertEquals(expected, s.get().zipWith(
             input.stream(), (idx, name) -> idx + ". " + name).toList()));
     }
+
+    @Test
+    public void testZipN() {
+        assertEquals(Collections.emptyList(), StreamEx.zip(Collections.<Stream<String>> emptyList()).toList());
+        List<List<Object>> expected = asList(asList(1, "a", 1.0), asList(2, "b", 2.0));
+        streamEx(() -> Stream.of("a", "b", "c"), s -> assertEquals(expected, StreamEx.zip(asList(Stream.of(1, 2), s
+                .get(), Stream.of(1.0, 2.0, 3.0, 4.0))).toList()));
+        List<List<Integer>> expectedRange = IntStreamEx.range(3000).mapToObj(i -> asList(i, i + 1, i + 2)).toList();
+        streamEx(() -> IntStreamEx.range(2, 5000).boxed(), s -> assertEquals(expectedRange, StreamEx.zip(asList(
+            IntStreamEx.range(3000).boxed(), StreamEx.of(IntStreamEx.range(1, 4000).boxed().iterator()), s.get()))
+                .toList()));
+
+        AtomicInteger closed = new AtomicInteger();
+        StreamEx<List<Integer>> zip = StreamEx.zip(asList(Stream.of(1).onClose(closed::incrementAndGet), Stream.of(2)
+                .parallel().onClose(closed::incrementAndGet)));
+        assertTrue(zip.isParallel());
+        zip.close();
+        assertEquals(2, closed.get());
+    }
     
     // Like Stream.generate(supplier)
     public static <T> StreamEx<T> generate(Supplier<T> supplier) {
@@ -1775,4 +1980,103 @@ public class StreamExTest {
         assertEquals(asList("six"), fromQueue(queue, "STOP").toList());
         assertEquals(asList(), fromQueue(queue, "STOP").toList());
     }
+
+    @Test
+    public void testMergeSorted() {
+        assertEquals(Arrays.asList(), StreamEx.mergeSorted(Comparator.<String> naturalOrder()).toList());
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"), StreamEx.mergeSorted(Comparator.naturalOrder(),
+            Stream.of("b", "e"), StreamEx.of("a", "c", "f"), Stream.empty(), Stream.of("d")).toList());
+        assertEquals(Arrays.asList("ccc", "bb", "dd", "a"), StreamEx.mergeSorted(Comparator.comparingInt(
+            String::length).reversed(), Stream.of("bb", "a"), Stream.of("ccc", "dd")).toList());
+        // lazy: only the heads are requested, the top source is not advanced
+        // before its element is delivered
+        AtomicInteger pulled = new AtomicInteger();
+        assertEquals("a", StreamEx.mergeSorted(Comparator.naturalOrder(), StreamEx.of("a", "c").peek(
+            x -> pulled.incrementAndGet()), StreamEx.of("b", "d").peek(x -> pulled.incrementAndGet())).findFirst()
+                .get());
+        assertEquals(2, pulled.get());
+
+        AtomicInteger closed = new AtomicInteger();
+        StreamEx<String> merged = StreamEx.mergeSorted(Comparator.naturalOrder(), Stream.of("a").onClose(
+            closed::incrementAndGet), StreamEx.of("b").onClose(closed::incrementAndGet));
+        assertEquals(Arrays.asList("a", "b"), merged.toList());
+        assertEquals(0, closed.get());
+        merged.close();
+        assertEquals(2, closed.get());
+        assertTrue(StreamEx.mergeSorted(Comparator.naturalOrder(), Stream.of("a"), Stream.of("b").parallel())
+                .isParallel());
+    }
+
+    @Test
+    public void testReversed() {
+        List<Integer> input = IntStreamEx.range(100).boxed().toList();
+        List<Integer> expected = IntStreamEx.range(100).map(x -> 99 - x).boxed().toList();
+        streamEx(() -> StreamEx.ofReversed(input), s -> {
+            assertEquals(expected, s.get().toList());
+            assertEquals(input, s.get().reversed().toList());
+            assertEquals(expected, s.get().map(x -> x).reversed().reversed().toList());
+            assertEquals(input, s.get().filter(x -> true).reversed().toList());
+            assertEquals(99 * 100 / 2, s.get().reversed().mapToInt(x -> x).sum());
+        });
+        streamEx(input::stream, s -> assertEquals(expected, s.get().reversed().toList()));
+        assertEquals(Arrays.asList("c", "b", "a"), StreamEx.ofReversed(new String[] { "a", "b", "c" }).toList());
+        assertEquals(Arrays.asList(), StreamEx.ofReversed(Collections.emptyList()).reversed().toList());
+
+        assertEquals("0123", StreamEx.ofReversed(Arrays.asList("0", "1", "2", "3")).foldRight("", (x, acc) -> acc + x));
+        assertEquals("3210", StreamEx.ofReversed(Arrays.asList("0", "1", "2", "3")).foldRight(String::concat).get());
+        assertEquals(Arrays.asList("0123", "123", "23", "3", ""), StreamEx.ofReversed(Arrays.asList("3", "2", "1",
+            "0")).scanRight("", String::concat));
+        assertEquals(Arrays.asList("0123", "123", "23", "3"), StreamEx.ofReversed(Arrays.asList("3", "2", "1", "0"))
+                .scanRight(String::concat));
+        assertFalse(StreamEx.ofReversed(Collections.<String> emptyList()).foldRight(String::concat).isPresent());
+    }
+
+    @Test
+    public void testIndexedSource() {
+        List<String> input = new ArrayList<>(Arrays.asList("0", "1", "2", "3", "4"));
+        String[] array = input.toArray(new String[0]);
+        assertTrue(StreamEx.of(input).spliterator() instanceof RangeBasedSpliterator.ForwardRef);
+        assertTrue(StreamEx.of(array).spliterator() instanceof RangeBasedSpliterator.ForwardRef);
+        assertTrue(StreamEx.of(Arrays.asList(array)).spliterator() instanceof RangeBasedSpliterator.ForwardRef);
+        assertFalse(StreamEx.of(new LinkedList<>(input)).spliterator() instanceof RangeBasedSpliterator.ForwardRef);
+        assertTrue(StreamEx.of(array).spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+        assertFalse(StreamEx.of(input).spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+
+        assertEquals("43210", StreamEx.of(input).foldRight("", (x, acc) -> acc + x));
+        assertEquals("321", StreamEx.of(array, 1, 4).foldRight("", (x, acc) -> acc + x));
+        assertEquals("123", StreamEx.of(input).skip(1).limit(3).foldRight(String::concat).get());
+        assertEquals(Arrays.asList("01234", "1234", "234", "34", "4", ""), StreamEx.of(input).scanRight("",
+            String::concat));
+        assertEquals(Arrays.asList("234", "34", "4"), StreamEx.of(array).skip(2).scanRight(String::concat));
+        assertEquals(Arrays.asList("4", "3", "2", "1", "0"), StreamEx.of(input).reversed().toList());
+        assertEquals(Arrays.asList("3", "2", "1"), StreamEx.of(array, 1, 4).parallel().reversed().toList());
+        assertEquals(input, StreamEx.of(input).reversed().reversed().toList());
+        assertEquals(input, StreamEx.of(input).reversed().toListAndThen(l -> StreamEx.ofReversed(l).toList()));
+
+        // the list size is read when the terminal operation starts
+        List<String> list = new ArrayList<>(input);
+        StreamEx<String> stream = StreamEx.of(list);
+        list.add("5");
+        assertEquals("543210", stream.foldRight("", (x, acc) -> acc + x));
+        try {
+            StreamEx.of(list).forEach(x -> {
+                if ("0".equals(x))
+                    list.remove(5);
+            });
+            fail("no exception");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        // modifications which keep the size are detected as well
+        try {
+            StreamEx.of(list).forEach(x -> {
+                if ("0".equals(x))
+                    list.sort(null);
+            });
+            fail("no exception");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        assertEquals("4321", StreamEx.of(list).skip(1).foldRight("", (x, acc) -> acc + x));
+    }
 }
@@ -15,10 +15,14 @@
  */
 package one.util.streamex;
 
+import static one.util.streamex.TestHelpers.*;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Spliterator;
 import java.util.Spliterators;
@@ -68,4 +72,68 @@ public class TailConcatSpliteratorTest {
         assertTrue(spltr.tryAdvance(x -> assertEquals(1, (int)x)));
         assertFalse(spltr.tryAdvance(x -> fail("Should not happen")));
     }
+
+    @Test
+    public void testFlatten() {
+        List<Integer> expected = IntStreamEx.range(100).boxed().toList();
+        for (int parts : new int[] { 2, 3, 7, 10, 25 }) {
+            checkSpliterator("append/" + parts, expected, () -> {
+                Spliterator<Integer> spltr = IntStreamEx.range(0, 100 / parts).boxed().spliterator();
+                for (int i = 1; i < parts; i++) {
+                    spltr = new TailConcatSpliterator<>(spltr, IntStreamEx.range(i * 100 / parts, (i + 1) * 100
+                        / parts).boxed().spliterator());
+                }
+                return spltr;
+            });
+            checkSpliterator("prepend/" + parts, expected, () -> {
+                Spliterator<Integer> spltr = IntStreamEx.range((parts - 1) * 100 / parts, 100).boxed().spliterator();
+                for (int i = parts - 2; i >= 0; i--) {
+                    spltr = new TailConcatSpliterator<>(IntStreamEx.range(i * 100 / parts, (i + 1) * 100 / parts)
+                        .boxed().spliterator(), spltr);
+                }
+                return spltr;
+            });
+        }
+        List<Spliterator<Integer>> sources = new ArrayList<>();
+        TailConcatSpliterator<Integer> spltr = new TailConcatSpliterator<>(IntStreamEx.range(10).boxed()
+            .spliterator(), IntStreamEx.range(10, 20).boxed().spliterator());
+        for (int i = 2; i < 8; i++) {
+            Spliterator<Integer> part = IntStreamEx.range(i * 10, i * 10 + 10).boxed().spliterator();
+            sources.add(part);
+            spltr = new TailConcatSpliterator<>(spltr, part);
+        }
+        assertEquals(80, spltr.getExactSizeIfKnown());
+        // split at the part boundary in halves
+        Spliterator<Integer> prefix = spltr.trySplit();
+        assertEquals(40, prefix.getExactSizeIfKnown());
+        assertEquals(40, spltr.getExactSizeIfKnown());
+        assertTrue(spltr.tryAdvance(x -> assertEquals(40, (int) x)));
+        assertTrue(prefix.tryAdvance(x -> assertEquals(0, (int) x)));
+        // the last part is the tail
+        Spliterator<Integer> tail = spltr;
+        while (tail instanceof TailConcatSpliterator) {
+            tail = ((TailConcatSpliterator<Integer>) tail).tryAdvanceOrTail(x -> {});
+        }
+        assertSame(sources.get(sources.size() - 1), tail);
+    }
+
+    @Test
+    public void testManyParts() {
+        // would take minutes if every append revisited all the previous parts
+        int n = 200000;
+        Spliterator<Integer> spltr = Collections.singletonList(0).spliterator();
+        for (int i = 1; i < n; i++) {
+            spltr = new TailConcatSpliterator<>(spltr, Collections.singletonList(i).spliterator());
+        }
+        assertTrue(spltr.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(n, spltr.getExactSizeIfKnown());
+        assertEquals((long) n * (n - 1) / 2, StreamEx.of(spltr).parallel().mapToLong(x -> x).sum());
+
+        StreamEx<Integer> stream = StreamEx.empty();
+        for (int i = 0; i < n; i++) {
+            stream = stream.append(i);
+        }
+        assertEquals((long) n * (n - 1) / 2, stream.mapToLong(x -> x).sum());
+        assertEquals(n, StreamEx.concat(IntStreamEx.range(n).mapToObj(StreamEx::of).toList()).count());
+    }
 }
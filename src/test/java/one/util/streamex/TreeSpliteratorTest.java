@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class TreeSpliteratorTest {
+    // Binary strings up to given length: "" -> "0", "1" -> "00", "01", ...
+    private static BiFunction<Integer, String, Stream<String>> binary(int length) {
+        return (depth, str) -> {
+            assertEquals(str.length(), depth.intValue());
+            return str.length() >= length ? null : Stream.of("0", "1").map(str::concat);
+        };
+    }
+
+    private static void depthFirst(String node, int length, List<String> result) {
+        result.add(node);
+        if (node.length() < length) {
+            depthFirst(node + "0", length, result);
+            depthFirst(node + "1", length, result);
+        }
+    }
+
+    @Test
+    public void testBasics() {
+        TreeSpliterator<String, String> spliterator = new TreeSpliterator.Plain<>("", binary(3), Integer.MAX_VALUE,
+                false);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        Spliterator<String> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.tryAdvance(x -> assertEquals("", x)));
+        assertFalse(prefix.tryAdvance(x -> fail(x)));
+        assertTrue(spliterator.tryAdvance(x -> assertEquals("0", x)));
+        assertNull(new TreeSpliterator.Plain<>("", binary(3), Integer.MAX_VALUE, true).trySplit());
+    }
+
+    @Test
+    public void testDepthFirst() {
+        for (int length : new int[] { 0, 1, 2, 4, 6 }) {
+            List<String> expected = new ArrayList<>();
+            depthFirst("", length, expected);
+            checkSpliterator(String.valueOf(length), expected, () -> new TreeSpliterator.Plain<>("", binary(length),
+                    Integer.MAX_VALUE, false));
+            List<Entry<Integer, String>> expectedEntries = StreamEx.of(expected).mapToEntry(String::length,
+                str -> str).toList();
+            checkSpliterator(String.valueOf(length), expectedEntries, () -> new TreeSpliterator.Depth<>("", binary(
+                length), Integer.MAX_VALUE, false));
+            for (int maxDepth = 0; maxDepth <= length; maxDepth++) {
+                int depth = maxDepth;
+                checkSpliterator(length + "/" + maxDepth, StreamEx.of(expected).filter(str -> str.length() <= depth)
+                        .toList(), () -> new TreeSpliterator.Plain<>("", binary(length), depth, false));
+            }
+        }
+    }
+
+    @Test
+    public void testBreadthFirst() {
+        for (int length : new int[] { 0, 1, 2, 5, 8 }) {
+            List<String> expected = new ArrayList<>();
+            depthFirst("", length, expected);
+            expected = StreamEx.of(expected).sorted().sortedByInt(String::length).toList();
+            checkSpliterator(String.valueOf(length), expected, () -> new TreeSpliterator.Plain<>("", binary(length),
+                    Integer.MAX_VALUE, true));
+        }
+    }
+
+    @Test
+    public void testDeepTree() {
+        int depth = 100000;
+        BiFunction<Integer, Integer, Stream<Integer>> mapper = (d, x) -> x < depth ? Stream.of(x + 1) : null;
+        assertEquals(depth + 1, StreamEx.of(new TreeSpliterator.Plain<>(0, mapper, Integer.MAX_VALUE, false))
+                .count());
+        assertEquals(depth + 1, StreamEx.of(new TreeSpliterator.Plain<>(0, mapper, Integer.MAX_VALUE, false))
+                .parallel().count());
+        assertEquals(depth, StreamEx.of(new TreeSpliterator.Plain<>(0, mapper, Integer.MAX_VALUE, false))
+                .reduce(Integer::max).get().intValue());
+    }
+
+    @Test
+    public void testLazyAndClose() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        BiFunction<Integer, String, Stream<String>> mapper = (depth, str) -> {
+            calls.incrementAndGet();
+            Stream<String> children = binary(4).apply(depth, str);
+            return children == null ? null : children.onClose(closed::incrementAndGet);
+        };
+        assertEquals("", StreamEx.of(new TreeSpliterator.Plain<>("", mapper, Integer.MAX_VALUE, false)).findFirst()
+                .get());
+        assertEquals(0, calls.get());
+        assertEquals(Arrays.asList("", "0", "00"), StreamEx.of(new TreeSpliterator.Plain<>("", mapper,
+                Integer.MAX_VALUE, false)).limit(3).toList());
+        assertEquals(2, calls.get());
+        assertEquals(0, closed.get());
+        calls.set(0);
+        assertEquals(31, StreamEx.of(new TreeSpliterator.Plain<>("", mapper, Integer.MAX_VALUE, false)).count());
+        assertEquals(31, calls.get());
+        assertEquals(15, closed.get());
+    }
+
+    @Test
+    public void testCloseOnShortCircuit() {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        Function<String, Stream<String>> mapper = str -> {
+            if (str.length() >= 6)
+                return null;
+            opened.incrementAndGet();
+            return Stream.of("0", "1").map(str::concat).onClose(closed::incrementAndGet);
+        };
+        try (StreamEx<String> stream = StreamEx.ofTree("", mapper)) {
+            assertEquals("000001", stream.filter(str -> str.endsWith("01")).findFirst().get());
+        }
+        assertEquals(6, opened.get());
+        assertEquals(6, closed.get());
+
+        opened.set(0);
+        closed.set(0);
+        try (StreamEx<String> stream = StreamEx.ofTreeBreadthFirst("", mapper)) {
+            assertEquals(Arrays.asList("", "0", "1", "00"), stream.limit(4).toList());
+        }
+        assertEquals(opened.get(), closed.get());
+
+        opened.set(0);
+        closed.set(0);
+        try (EntryStream<Integer, String> stream = EntryStream.ofTree("", (depth, str) -> mapper.apply(str))) {
+            assertTrue(stream.parallel().anyMatch(e -> e.getKey() == 4));
+        }
+        assertTrue(opened.get() > 0);
+        assertEquals(opened.get(), closed.get());
+
+        opened.set(0);
+        closed.set(0);
+        StreamEx<String> stream = StreamEx.ofTree("", mapper);
+        Iterator<String> it = stream.iterator();
+        for (int i = 0; i < 3; i++)
+            it.next();
+        stream.close();
+        assertEquals(2, opened.get());
+        assertEquals(2, closed.get());
+    }
+}
@@ -3,14 +3,15 @@ package one.util.streamex;
 import static org.junit.Assert.*;
 import static one.util.streamex.TestHelpers.*;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
 
 import org.junit.Test;
@@ -83,35 +84,24 @@ public class UnknownSizeSpliteratorTest {
     }
 
     @Test
-    public void testOptimize() {
-        Stream<String> stream = Stream.of("a", "b");
-        assertSame(stream, UnknownSizeSpliterator.optimize(stream));
-        stream = StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(Arrays.asList("a", "b").iterator(), Spliterator.ORDERED), false)
-                .distinct(); // not Head
-        assertSame(stream, UnknownSizeSpliterator.optimize(stream));
-        stream = StreamSupport.stream(Spliterators.spliterator(Arrays.asList("a", "b").iterator(), 2,
-            Spliterator.ORDERED), false); // SIZED
-        assertSame(stream, UnknownSizeSpliterator.optimize(stream));
-        stream = new ConcurrentLinkedDeque<String>().stream(); // not SIZED
-        assertSame(stream, UnknownSizeSpliterator.optimize(stream));
-
-        AtomicBoolean flag = new AtomicBoolean();
-        stream = StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(Arrays.asList("a", "b").iterator(), Spliterator.ORDERED), false)
-                .onClose(() -> flag.set(true));
-        Stream<String> optimized = UnknownSizeSpliterator.optimize(stream);
-        assertNotSame(stream, optimized);
-        assertTrue(optimized.spliterator() instanceof UnknownSizeSpliterator);
-        assertFalse(optimized.isParallel());
-        optimized.close();
-        assertTrue(flag.get());
+    public void testLines() {
+        String input = IntStreamEx.range(5000).joining("\n");
+        List<String> expected = IntStreamEx.range(5000).mapToObj(String::valueOf).toList();
+        checkSpliterator("lines", expected, () -> UnknownSizeSpliterator.lines(new BufferedReader(new StringReader(
+                input))));
+        checkSpliterator("empty", Collections.emptyList(), () -> UnknownSizeSpliterator.lines(new BufferedReader(
+                new StringReader(""))));
+    }
 
-        stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(Arrays.asList("a", "b").iterator(),
-            Spliterator.ORDERED), true);
-        optimized = UnknownSizeSpliterator.optimize(stream);
-        assertNotSame(stream, optimized);
-        assertTrue(optimized.spliterator() instanceof UnknownSizeSpliterator);
-        assertTrue(optimized.isParallel());
+    @Test
+    public void testPatternSplit() {
+        for (String input : new String[] { "a,b,,c", ",a,,b,,,", ",,,", "abc", "b,b",
+                IntStreamEx.range(3000).joining(",") }) {
+            for (String regex : new String[] { ",", ",+", "", "(?=b)", "\\d" }) {
+                Pattern pattern = Pattern.compile(regex);
+                List<String> expected = Arrays.asList(pattern.split(input));
+                checkSpliterator(input + "/" + regex, expected, () -> UnknownSizeSpliterator.split(input, pattern));
+            }
+        }
     }
 }
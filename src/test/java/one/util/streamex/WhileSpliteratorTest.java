@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, 2016 Tagir Valeev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package one.util.streamex;
+
+import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+/**
+ * @author Tagir Valeev
+ */
+public class WhileSpliteratorTest {
+    @Test
+    public void testSpliterator() {
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        for (int limit : new int[] { 0, 1, 10, 500, 999, 1000 }) {
+            Predicate<Integer> p = x -> x < limit;
+            String msg = String.valueOf(limit);
+            checkSpliterator(msg, StreamEx.of(input).takeWhile(p).toList(), () -> new WhileSpliterator<>(input
+                    .spliterator(), false, false, p));
+            checkSpliterator(msg, StreamEx.of(input).takeWhileInclusive(p).toList(), () -> new WhileSpliterator<>(
+                    input.spliterator(), false, true, p));
+            checkSpliterator(msg, StreamEx.of(input).dropWhile(p).toList(), () -> new WhileSpliterator<>(input
+                    .spliterator(), true, false, p));
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        List<Integer> input = IntStreamEx.of(new Random(1), 10000, 0, 100).boxed().toList();
+        Predicate<Integer> p = x -> x < 99;
+        assertEquals(StreamEx.of(input).takeWhile(p).toList(), StreamEx.of(input).parallel().takeWhile(p).toList());
+        assertEquals(StreamEx.of(input).takeWhileInclusive(p).toList(), StreamEx.of(input).parallel()
+                .takeWhileInclusive(p).toList());
+        assertEquals(StreamEx.of(input).dropWhile(p).toList(), StreamEx.of(input).parallel().dropWhile(p).toList());
+        assertTrue(StreamEx.of(input).parallel().dropWhile(p).spliterator() instanceof WhileSpliterator);
+        assertTrue(StreamEx.of(input).parallel().takeWhile(p).spliterator().hasCharacteristics(Spliterator.ORDERED));
+
+        // the chunks after the first mismatch are cancelled
+        AtomicInteger tested = new AtomicInteger();
+        assertEquals(10, IntStreamEx.range(1_000_000).boxed().parallel().takeWhile(x -> {
+            tested.incrementAndGet();
+            return x < 10;
+        }).count());
+        assertTrue(tested.get() < 1_000_000);
+    }
+
+    @Test
+    public void testDropMatchingTail() {
+        // the elements after the mismatch match the predicate again, so the
+        // chunks must be combined in order regardless of the split tree
+        List<Integer> input = IntStreamEx.range(1000).boxed().toList();
+        Predicate<Integer> p = x -> x != 300;
+        List<Integer> expected = IntStreamEx.range(300, 1000).boxed().toList();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected, StreamEx.of(input).parallel().dropWhile(p).toList());
+        }
+        checkSpliterator("drop", expected, () -> new WhileSpliterator<>(input.spliterator(), true, false, p));
+    }
+}
@@ -16,6 +16,7 @@
 package one.util.streamex;
 
 import static one.util.streamex.TestHelpers.*;
+import static org.junit.Assert.*;
 
 import java.util.List;
 import java.util.Spliterator;
@@ -63,4 +64,19 @@ public class ZipSpliteratorTest {
             201).iterator(), Spliterator.ORDERED), (x, y) -> x + ":" + y, true);
         checkSpliterator("unknownSize", expected, s);
     }
+
+    @Test
+    public void testBatch() {
+        Spliterator<String> spltr = new ZipSpliterator<>(Spliterators.spliteratorUnknownSize(IntStreamEx.range(2000)
+                .iterator(), Spliterator.ORDERED), IntStreamEx.range(1500).spliterator(), (x, y) -> x + ":" + y, true);
+        Spliterator<String> prefix = spltr.trySplit();
+        assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(1024, prefix.getExactSizeIfKnown());
+        assertNotNull(prefix.trySplit());
+        assertTrue(spltr.tryAdvance(x -> assertEquals("1024:1024", x)));
+        prefix = spltr.trySplit();
+        assertEquals(475, prefix.getExactSizeIfKnown());
+        assertNull(spltr.trySplit());
+        assertFalse(spltr.tryAdvance(x -> fail(x)));
+    }
 }